@@ -0,0 +1,409 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.vision;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.opencv.core.Mat;
+
+import edu.wpi.cscore.CvSink;
+import edu.wpi.cscore.VideoSource;
+import edu.wpi.first.cameraserver.CameraServerSharedStore;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTablesJNI;
+
+/**
+ * Runs vision pipelines on several threads at once, so that grabbing the next frame does not wait
+ * for the previous one to be processed.
+ *
+ * <p>A capture thread grabs frames into a small pool of reusable images and hands them to worker
+ * threads, each of which runs its own instance of the pipeline. The {@link DropPolicy} decides
+ * what happens when frames arrive faster than the workers can process them. The listener is
+ * called with each pipeline once it has run, one pipeline at a time.
+ *
+ * <p>Once per second the runner publishes to NetworkTables, under /VisionRunner/<i>name</i>, the
+ * average time spent waiting for frames, the average time the pipeline took, the average age of
+ * frames when the listener was called, the number of frames processed per second and the total
+ * number of frames dropped.
+ *
+ * <p>The runner owns a {@link CvSink} and a pool of images, which {@link #close()} releases.
+ *
+ * @see VisionRunner
+ */
+public class PipelinedVisionRunner<P extends VisionPipeline> implements AutoCloseable {
+  /**
+   * What to do with frames which arrive while every worker is busy.
+   */
+  public enum DropPolicy {
+    /**
+     * Keep only the newest waiting frame, dropping older ones, and skip any result which finishes
+     * after the result of a newer frame. This minimizes latency.
+     */
+    kLatestFrame,
+
+    /**
+     * Stop capturing until a worker is free, so that every frame grabbed is processed.
+     */
+    kEveryFrame
+  }
+
+  /**
+   * Supplies the frames processed by a {@link PipelinedVisionRunner}. Only the capture thread
+   * grabs frames.
+   */
+  interface FrameSource extends AutoCloseable {
+    /**
+     * Waits for the next frame and copies it into an image.
+     *
+     * @param image the image to copy the frame into
+     * @return the frame time in microseconds, on the same clock as {@link NetworkTablesJNI#now()},
+     *         or 0 on error
+     */
+    long grabFrame(Mat image);
+
+    /**
+     * Returns the error which caused the last grab to fail.
+     *
+     * @return the error message
+     */
+    String getError();
+
+    @Override
+    void close();
+  }
+
+  /**
+   * Grabs frames from a video source through a {@link CvSink}.
+   */
+  private static final class SinkFrameSource implements FrameSource {
+    private final CvSink m_cvSink;
+
+    SinkFrameSource(String name, VideoSource videoSource) {
+      m_cvSink = new CvSink(name + " CvSink");
+      m_cvSink.setSource(videoSource);
+    }
+
+    @Override
+    public long grabFrame(Mat image) {
+      return m_cvSink.grabFrame(image);
+    }
+
+    @Override
+    public String getError() {
+      return m_cvSink.getError();
+    }
+
+    @Override
+    public void close() {
+      m_cvSink.close();
+    }
+  }
+
+  private static final class Frame {
+    final Mat m_image = new Mat();
+    long m_frameTime;
+    long m_sequence;
+  }
+
+  private final FrameSource m_source;
+  private final List<P> m_pipelines = new ArrayList<>();
+  private final VisionRunner.Listener<? super P> m_listener;
+  private final DropPolicy m_dropPolicy;
+  private final List<Thread> m_threads = new ArrayList<>();
+  private volatile boolean m_enabled;
+  private boolean m_closed;
+
+  // Images not in use, and frames waiting for a worker
+  private final BlockingQueue<Frame> m_free;
+  private final ArrayDeque<Frame> m_ready = new ArrayDeque<>();
+  private final ReentrantLock m_readyLock = new ReentrantLock();
+  private final Condition m_readyCond = m_readyLock.newCondition();
+
+  // Sequence number of the next frame, used only by the capture thread
+  private long m_nextSequence;
+
+  // Guards calls to the listener and the metrics
+  private final Object m_listenerLock = new Object();
+  private long m_lastDelivered = -1;
+
+  private final NetworkTableEntry m_grabWaitEntry;
+  private final NetworkTableEntry m_processEntry;
+  private final NetworkTableEntry m_frameAgeEntry;
+  private final NetworkTableEntry m_fpsEntry;
+  private final NetworkTableEntry m_droppedEntry;
+  private long m_windowStart;
+  private long m_windowFrames;
+  private long m_windowGrabWait;
+  private long m_windowGrabs;
+  private long m_windowProcess;
+  private long m_windowDelivered;
+  private long m_windowFrameAge;
+  private long m_droppedFrames;
+
+  /**
+   * Creates a new pipelined vision runner. It will take images from the {@code videoSource}, send
+   * them to pipelines created by {@code pipelineFactory}, and call the {@code listener} when each
+   * pipeline has finished.
+   *
+   * @param name            the name to publish metrics under
+   * @param videoSource     the video source to use to supply images for the pipelines
+   * @param pipelineFactory creates one pipeline for each worker
+   * @param workers         the number of worker threads
+   * @param dropPolicy      what to do with frames which arrive while every worker is busy
+   * @param listener        a function to call after a pipeline has finished running
+   */
+  public PipelinedVisionRunner(String name, VideoSource videoSource,
+                               Supplier<? extends P> pipelineFactory, int workers,
+                               DropPolicy dropPolicy, VisionRunner.Listener<? super P> listener) {
+    this(name, new SinkFrameSource(name, videoSource), pipelineFactory, workers, dropPolicy,
+        listener);
+  }
+
+  /**
+   * Creates a new pipelined vision runner which takes images from a frame source. The runner
+   * closes the source when it is closed.
+   *
+   * @param name            the name to publish metrics under
+   * @param source          the source of the images for the pipelines
+   * @param pipelineFactory creates one pipeline for each worker
+   * @param workers         the number of worker threads
+   * @param dropPolicy      what to do with frames which arrive while every worker is busy
+   * @param listener        a function to call after a pipeline has finished running
+   */
+  PipelinedVisionRunner(String name, FrameSource source, Supplier<? extends P> pipelineFactory,
+                        int workers, DropPolicy dropPolicy,
+                        VisionRunner.Listener<? super P> listener) {
+    if (workers <= 0) {
+      source.close();
+      throw new IllegalArgumentException("Workers was not at least 1");
+    }
+    for (int i = 0; i < workers; i++) {
+      m_pipelines.add(pipelineFactory.get());
+    }
+    m_listener = listener;
+    m_dropPolicy = dropPolicy;
+
+    // One image per worker, one being captured and one waiting
+    m_free = new ArrayBlockingQueue<>(workers + 2);
+    for (int i = 0; i < workers + 2; i++) {
+      m_free.add(new Frame());
+    }
+
+    m_source = source;
+
+    NetworkTable table = NetworkTableInstance.getDefault().getTable("VisionRunner")
+        .getSubTable(name);
+    m_grabWaitEntry = table.getEntry("Grab Wait ms");
+    m_processEntry = table.getEntry("Process ms");
+    m_frameAgeEntry = table.getEntry("Frame Age ms");
+    m_fpsEntry = table.getEntry("FPS");
+    m_droppedEntry = table.getEntry("Dropped Frames");
+  }
+
+  /**
+   * Starts the capture and worker threads.
+   *
+   * @throws IllegalStateException if the runner has been closed
+   */
+  public synchronized void start() {
+    if (m_closed) {
+      throw new IllegalStateException("Runner has been closed");
+    }
+    if (m_enabled) {
+      return;
+    }
+    m_enabled = true;
+    m_windowStart = System.nanoTime();
+
+    m_threads.add(startThread(this::captureLoop, "WPILib Vision Capture"));
+    for (int i = 0; i < m_pipelines.size(); i++) {
+      P pipeline = m_pipelines.get(i);
+      m_threads.add(startThread(() -> workerLoop(pipeline), "WPILib Vision Worker " + i));
+    }
+  }
+
+  /**
+   * Stops the capture and worker threads, waiting for any pipeline that is running to finish.
+   */
+  public synchronized void stop() {
+    m_enabled = false;
+    for (Thread thread : m_threads) {
+      thread.interrupt();
+    }
+    for (Thread thread : m_threads) {
+      try {
+        thread.join();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    m_threads.clear();
+
+    // Return frames which were never processed
+    m_readyLock.lock();
+    try {
+      m_free.addAll(m_ready);
+      m_ready.clear();
+    } finally {
+      m_readyLock.unlock();
+    }
+  }
+
+  /**
+   * Stops the capture and worker threads, then releases the sink and the pooled images.
+   */
+  @Override
+  public synchronized void close() {
+    if (m_closed) {
+      return;
+    }
+    stop();
+    m_closed = true;
+    m_source.close();
+    for (Frame frame : m_free) {
+      frame.m_image.release();
+    }
+  }
+
+  private static Thread startThread(Runnable target, String name) {
+    Thread thread = new Thread(target, name);
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  private void captureLoop() {
+    while (m_enabled && !Thread.currentThread().isInterrupted()) {
+      Frame frame;
+      try {
+        frame = m_free.take();
+      } catch (InterruptedException ex) {
+        break;
+      }
+
+      long start = System.nanoTime();
+      long frameTime = m_source.grabFrame(frame.m_image);
+      long grabWait = System.nanoTime() - start;
+      if (frameTime == 0) {
+        // There was an error, report it
+        m_free.add(frame);
+        if (m_enabled) {
+          String error = m_source.getError();
+          CameraServerSharedStore.getCameraServerShared().reportDriverStationError(error);
+        }
+        continue;
+      }
+      frame.m_frameTime = frameTime;
+      frame.m_sequence = m_nextSequence++;
+
+      int dropped = 0;
+      m_readyLock.lock();
+      try {
+        if (m_dropPolicy == DropPolicy.kLatestFrame) {
+          // The new frame supersedes any that no worker has started on
+          while (!m_ready.isEmpty()) {
+            m_free.add(m_ready.poll());
+            dropped++;
+          }
+        }
+        m_ready.add(frame);
+        m_readyCond.signal();
+      } finally {
+        m_readyLock.unlock();
+      }
+
+      synchronized (m_listenerLock) {
+        m_windowGrabWait += grabWait;
+        m_windowGrabs++;
+        m_droppedFrames += dropped;
+      }
+    }
+  }
+
+  private void workerLoop(P pipeline) {
+    while (m_enabled) {
+      Frame frame;
+      m_readyLock.lock();
+      try {
+        while (m_ready.isEmpty()) {
+          m_readyCond.await();
+        }
+        frame = m_ready.poll();
+      } catch (InterruptedException ex) {
+        break;
+      } finally {
+        m_readyLock.unlock();
+      }
+
+      try {
+        long start = System.nanoTime();
+        pipeline.process(frame.m_image);
+        long processTime = System.nanoTime() - start;
+
+        synchronized (m_listenerLock) {
+          if (m_dropPolicy == DropPolicy.kLatestFrame && frame.m_sequence < m_lastDelivered) {
+            // A newer frame has already been delivered
+            m_droppedFrames++;
+          } else {
+            m_listener.copyPipelineOutputs(pipeline);
+            m_lastDelivered = frame.m_sequence;
+            m_windowFrameAge += NetworkTablesJNI.now() - frame.m_frameTime;
+            m_windowDelivered++;
+          }
+          m_windowProcess += processTime;
+          m_windowFrames++;
+          updateMetrics();
+        }
+      } finally {
+        m_free.add(frame);
+      }
+    }
+  }
+
+  /**
+   * Publishes the metrics once the current window is a second long. Called with m_listenerLock
+   * held.
+   */
+  private void updateMetrics() {
+    long now = System.nanoTime();
+    long elapsed = now - m_windowStart;
+    if (elapsed < 1_000_000_000L) {
+      return;
+    }
+
+    if (m_windowGrabs > 0) {
+      m_grabWaitEntry.setDouble(m_windowGrabWait / (m_windowGrabs * 1.0e6));
+    }
+    if (m_windowFrames > 0) {
+      m_processEntry.setDouble(m_windowProcess / (m_windowFrames * 1.0e6));
+    }
+    if (m_windowDelivered > 0) {
+      // Frame times are in microseconds
+      m_frameAgeEntry.setDouble(m_windowFrameAge / (m_windowDelivered * 1.0e3));
+    }
+    m_fpsEntry.setDouble(m_windowFrames * 1.0e9 / elapsed);
+    m_droppedEntry.setDouble(m_droppedFrames);
+
+    m_windowStart = now;
+    m_windowFrames = 0;
+    m_windowGrabWait = 0;
+    m_windowGrabs = 0;
+    m_windowProcess = 0;
+    m_windowDelivered = 0;
+    m_windowFrameAge = 0;
+  }
+}
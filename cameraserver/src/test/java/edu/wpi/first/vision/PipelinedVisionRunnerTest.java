@@ -0,0 +1,240 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.vision;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import edu.wpi.cscore.CameraServerJNI;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTablesJNI;
+import edu.wpi.first.vision.PipelinedVisionRunner.DropPolicy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelinedVisionRunnerTest {
+  @BeforeAll
+  static void loadOpenCv() {
+    // Loads the OpenCV native library used by Mat
+    CameraServerJNI.forceLoad();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Produces a frame every millisecond, storing its index in a 1x1 image.
+   */
+  private static final class FakeSource implements PipelinedVisionRunner.FrameSource {
+    final AtomicInteger m_grabs = new AtomicInteger();
+    final List<Mat> m_images = new ArrayList<>();
+    volatile boolean m_closed;
+
+    @Override
+    public long grabFrame(Mat image) {
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return 0;
+      }
+      image.create(1, 1, CvType.CV_32SC1);
+      image.put(0, 0, m_grabs.getAndIncrement());
+      synchronized (m_images) {
+        if (!m_images.contains(image)) {
+          m_images.add(image);
+        }
+      }
+      return NetworkTablesJNI.now();
+    }
+
+    @Override
+    public String getError() {
+      return "interrupted";
+    }
+
+    @Override
+    public void close() {
+      m_closed = true;
+    }
+  }
+
+  /**
+   * Records the index of the frame it processed, taking between minMillis and maxMillis.
+   */
+  private static final class IndexPipeline implements VisionPipeline {
+    private final Random m_random = new Random();
+    private final int m_minMillis;
+    private final int m_maxMillis;
+    private final CountDownLatch m_blocker;
+    int m_index;
+
+    IndexPipeline(int minMillis, int maxMillis, CountDownLatch blocker) {
+      m_minMillis = minMillis;
+      m_maxMillis = maxMillis;
+      m_blocker = blocker;
+    }
+
+    @Override
+    public void process(Mat image) {
+      m_index = (int) image.get(0, 0)[0];
+      if (m_blocker != null) {
+        try {
+          m_blocker.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      sleep(m_minMillis + m_random.nextInt(m_maxMillis - m_minMillis + 1));
+    }
+  }
+
+  private final List<Integer> m_delivered = new ArrayList<>();
+
+  private PipelinedVisionRunner<IndexPipeline> createRunner(String name, FakeSource source,
+                                                            int workers, DropPolicy dropPolicy,
+                                                            int minMillis, int maxMillis,
+                                                            CountDownLatch blocker) {
+    return new PipelinedVisionRunner<>(name, source,
+        () -> new IndexPipeline(minMillis, maxMillis, blocker), workers, dropPolicy, pipeline -> {
+          synchronized (m_delivered) {
+            m_delivered.add(pipeline.m_index);
+          }
+        });
+  }
+
+  private List<Integer> getDelivered() {
+    synchronized (m_delivered) {
+      return new ArrayList<>(m_delivered);
+    }
+  }
+
+  @Test
+  void everyFrameTest() {
+    final int workers = 2;
+    FakeSource source = new FakeSource();
+    try (PipelinedVisionRunner<IndexPipeline> runner =
+             createRunner("everyFrameTest", source, workers, DropPolicy.kEveryFrame, 2, 5, null)) {
+      runner.start();
+      sleep(300);
+      runner.stop();
+    }
+
+    // Workers take frames oldest first and none are skipped, so the delivered frames are exactly
+    // the oldest ones. Only frames still waiting or being grabbed when stopped are left out.
+    List<Integer> delivered = getDelivered();
+    delivered.sort(null);
+    for (int i = 0; i < delivered.size(); i++) {
+      assertEquals(i, (int) delivered.get(i));
+    }
+    assertTrue(delivered.size() > 10);
+    assertTrue(source.m_grabs.get() - delivered.size() <= workers + 2);
+  }
+
+  @Test
+  void everyFrameBackpressureTest() {
+    final int workers = 1;
+    FakeSource source = new FakeSource();
+    CountDownLatch blocker = new CountDownLatch(1);
+    try (PipelinedVisionRunner<IndexPipeline> runner = createRunner("everyFrameBackpressureTest",
+        source, workers, DropPolicy.kEveryFrame, 0, 0, blocker)) {
+      runner.start();
+      sleep(200);
+
+      // The worker holds one frame and the other pooled frames wait for it, so capture stops
+      assertEquals(workers + 2, source.m_grabs.get());
+      assertTrue(getDelivered().isEmpty());
+
+      blocker.countDown();
+      sleep(200);
+      runner.stop();
+    }
+
+    List<Integer> delivered = getDelivered();
+    assertTrue(delivered.size() >= workers + 2);
+    for (int i = 0; i < delivered.size(); i++) {
+      assertEquals(i, (int) delivered.get(i));
+    }
+  }
+
+  @Test
+  void latestFrameTest() {
+    FakeSource source = new FakeSource();
+    try (PipelinedVisionRunner<IndexPipeline> runner =
+             createRunner("latestFrameTest", source, 3, DropPolicy.kLatestFrame, 1, 20, null)) {
+      runner.start();
+      sleep(500);
+      runner.stop();
+    }
+
+    // Waiting frames are replaced by newer ones, and results which finish after the result of a
+    // newer frame are skipped, so the listener only ever sees newer frames
+    List<Integer> delivered = getDelivered();
+    assertTrue(delivered.size() > 5);
+    for (int i = 1; i < delivered.size(); i++) {
+      assertTrue(delivered.get(i) > delivered.get(i - 1),
+          "frame " + delivered.get(i) + " delivered after " + delivered.get(i - 1));
+    }
+    assertTrue(delivered.size() < source.m_grabs.get() / 2);
+  }
+
+  @Test
+  void metricsTest() {
+    FakeSource source = new FakeSource();
+    try (PipelinedVisionRunner<IndexPipeline> runner =
+             createRunner("metricsTest", source, 1, DropPolicy.kLatestFrame, 10, 10, null)) {
+      runner.start();
+      sleep(1300);
+      runner.stop();
+    }
+
+    NetworkTable table = NetworkTableInstance.getDefault().getTable("VisionRunner")
+        .getSubTable("metricsTest");
+    double fps = table.getEntry("FPS").getDouble(0.0);
+    assertTrue(fps > 10 && fps < 110, "FPS was " + fps);
+    assertTrue(table.getEntry("Dropped Frames").getDouble(0.0) > 0);
+    assertTrue(table.getEntry("Process ms").getDouble(0.0) >= 10.0);
+    assertTrue(table.getEntry("Grab Wait ms").getDouble(0.0) >= 1.0);
+    assertTrue(table.getEntry("Frame Age ms").getDouble(0.0) >= 10.0);
+  }
+
+  @Test
+  void closeTest() {
+    FakeSource source = new FakeSource();
+    PipelinedVisionRunner<IndexPipeline> runner =
+        createRunner("closeTest", source, 2, DropPolicy.kLatestFrame, 1, 5, null);
+    runner.start();
+    sleep(100);
+    runner.close();
+
+    assertTrue(source.m_closed);
+    synchronized (source.m_images) {
+      assertTrue(source.m_images.size() > 0);
+      for (Mat image : source.m_images) {
+        assertTrue(image.empty());
+      }
+    }
+    assertThrows(IllegalStateException.class, runner::start);
+  }
+}
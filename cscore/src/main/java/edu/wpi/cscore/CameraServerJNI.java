@@ -125,6 +125,9 @@ public class CameraServerJNI {
   // OpenCV Source Functions
   //
   public static native void putSourceFrame(int source, long imageNativeObj);
+  public static native long allocSourceFrame(int source, int width, int height, long imageNativeObj);
+  public static native void putSourceSharedFrame(int source, long sharedFrame);
+  public static native void releaseSharedFrame(long sharedFrame);
   public static native void notifySourceError(int source, String msg);
   public static native void setSourceConnected(int source, boolean connected);
   public static native void setSourceDescription(int source, String description);
@@ -167,6 +170,7 @@ public class CameraServerJNI {
   public static native void setSinkDescription(int sink, String description);
   public static native long grabSinkFrame(int sink, long imageNativeObj);
   public static native long grabSinkFrameTimeout(int sink, long imageNativeObj, double timeout);
+  public static native long grabSinkFrameShared(int sink, long imageNativeObj, double timeout, long[] sharedFrame);
   public static native String getSinkError(int sink);
   public static native void setSinkEnabled(int sink, boolean enabled);
 
@@ -0,0 +1,107 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.cscore;
+
+import org.opencv.core.Mat;
+
+/**
+ * An OpenCV image which shares its data with cscore instead of copying it.
+ *
+ * <p>{@link CvSink#grabFrameShared(CvFrame)} points the image at the frame received by the sink.
+ * The image is shared with every other sink of the same source, so it must not be modified.
+ * {@link CvSource#allocFrame(CvFrame, int, int)} points the image at a buffer from the source's
+ * pool, which may be drawn into and then handed to the source with {@link
+ * CvSource#putFrame(CvFrame)}.
+ *
+ * <p>Either way the buffer is held until the frame is released, closed, put, or reused by
+ * another grab or allocation, after which the image is empty. A single frame object can be reused
+ * for every image, so no memory is allocated per frame.
+ */
+public class CvFrame implements AutoCloseable {
+  private final Mat m_image = new Mat();
+  private final long[] m_handleBuffer = new long[1];
+  private long m_handle;
+  private long m_time;
+
+  /**
+   * Get the image. It is empty unless the frame holds a buffer.
+   *
+   * @return OpenCV image with three 8-bit channels stored in BGR order
+   */
+  public Mat getImage() {
+    return m_image;
+  }
+
+  /**
+   * Get the time of a frame grabbed from a sink.
+   *
+   * @return Frame time in 1 us increments, or 0 if the frame does not hold a grabbed image
+   */
+  public long getTime() {
+    return m_time;
+  }
+
+  /**
+   * Get whether the frame holds a buffer.
+   *
+   * @return True if the image may be used
+   */
+  public boolean isValid() {
+    return m_handle != 0;
+  }
+
+  /**
+   * Return the buffer to cscore, leaving the image empty.
+   */
+  public void release() {
+    if (m_handle != 0) {
+      CameraServerJNI.releaseSharedFrame(m_handle);
+    }
+    clear();
+  }
+
+  @Override
+  public void close() {
+    release();
+  }
+
+  long grab(int sink, double timeout) {
+    release();
+    m_time = CameraServerJNI.grabSinkFrameShared(sink, m_image.nativeObj, timeout,
+        m_handleBuffer);
+    m_handle = m_handleBuffer[0];
+    if (m_handle == 0) {
+      clear();
+    }
+    return m_time;
+  }
+
+  void alloc(int source, int width, int height) {
+    release();
+    m_handle = CameraServerJNI.allocSourceFrame(source, width, height, m_image.nativeObj);
+  }
+
+  void put(int source) {
+    if (m_handle == 0) {
+      throw new IllegalStateException("The frame does not hold an image");
+    }
+    long handle = m_handle;
+    // The source takes the buffer even if putting it fails
+    clear();
+    CameraServerJNI.putSourceSharedFrame(source, handle);
+  }
+
+  /**
+   * Forgets the buffer. The image only points at it, so releasing the image does not free it.
+   */
+  private void clear() {
+    m_handle = 0;
+    m_time = 0;
+    m_image.release();
+  }
+}
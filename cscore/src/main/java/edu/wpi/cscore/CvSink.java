@@ -70,6 +70,32 @@ public class CvSink extends VideoSink {
     return CameraServerJNI.grabSinkFrameTimeout(m_handle, image.nativeObj, timeout);
   }
 
+  /**
+   * Wait for the next frame and point the frame's image at it without copying.
+   * Times out (returning 0) after 0.225 seconds.
+   * Any image the frame already held is released first.
+   *
+   * @param frame Frame to hold the image; see {@link CvFrame} for its lifetime
+   * @return Frame time, or 0 on error (call GetError() to obtain the error
+   *         message); the frame time is in 1 us increments.
+   */
+  public long grabFrameShared(CvFrame frame) {
+    return grabFrameShared(frame, 0.225);
+  }
+
+  /**
+   * Wait for the next frame and point the frame's image at it without copying.
+   * Times out (returning 0) after timeout seconds.
+   * Any image the frame already held is released first.
+   *
+   * @param frame Frame to hold the image; see {@link CvFrame} for its lifetime
+   * @return Frame time, or 0 on error (call GetError() to obtain the error
+   *         message); the frame time is in 1 us increments.
+   */
+  public long grabFrameShared(CvFrame frame, double timeout) {
+    return frame.grab(m_handle, timeout);
+  }
+
   /**
    * Wait for the next frame and get the image.  May block forever.
    * The provided image will have three 3-bit channels stored in BGR order.
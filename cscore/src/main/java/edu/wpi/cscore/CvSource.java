@@ -53,6 +53,31 @@ public class CvSource extends VideoSource {
     CameraServerJNI.putSourceFrame(m_handle, image.nativeObj);
   }
 
+  /**
+   * Point the frame's image at a buffer from this source's pool, so it can
+   * be drawn into and put without copying. The image has three 8-bit
+   * channels stored in BGR order. Any image the frame already held is
+   * released first.
+   *
+   * @param frame  Frame to hold the image
+   * @param width  Image width
+   * @param height Image height
+   */
+  public void allocFrame(CvFrame frame, int width, int height) {
+    frame.alloc(m_handle, width, height);
+  }
+
+  /**
+   * Hand a frame's image from {@link #allocFrame(CvFrame, int, int)} to this
+   * source and notify sinks. The source takes ownership of the buffer, so the
+   * frame's image is left empty.
+   *
+   * @param frame Frame holding an image allocated from this source
+   */
+  public void putFrame(CvFrame frame) {
+    frame.put(m_handle);
+  }
+
   /**
    * Signal sinks that an error has occurred.  This should be called instead
    * of NotifyFrame when an error occurs.
@@ -97,6 +97,39 @@ uint64_t CvSinkImpl::GrabFrame(cv::Mat& image, double timeout) {
   return frame.GetTime();
 }
 
+uint64_t CvSinkImpl::GrabFrameShared(cv::Mat& image, double timeout,
+                                     SharedFrame& shared) {
+  SetEnabled(true);
+
+  auto source = GetSource();
+  if (!source) {
+    // Source disconnected; sleep for one second
+    std::this_thread::sleep_for(std::chrono::seconds(1));
+    return 0;
+  }
+
+  auto frame = source->GetNextFrame(timeout);  // blocks
+  if (!frame) {
+    // Bad frame; sleep for 20 ms so we don't consume all processor time.
+    std::this_thread::sleep_for(std::chrono::milliseconds(20));
+    return 0;  // signal error
+  }
+
+  // Point the Mat at the frame's BGR image rather than copying it; the frame
+  // may still need to convert to BGR, but that image is cached in the frame
+  Image* rawImage = frame.GetImage(frame.GetOriginalWidth(),
+                                   frame.GetOriginalHeight(), VideoMode::kBGR);
+  if (!rawImage) {
+    // Shouldn't happen, but just in case...
+    std::this_thread::sleep_for(std::chrono::milliseconds(20));
+    return 0;
+  }
+  image = rawImage->AsMat();
+  shared.frame = frame;
+
+  return frame.GetTime();
+}
+
 // Send HTTP response and a stream of JPG-frames
 void CvSinkImpl::ThreadMain() {
   Enable();
@@ -167,6 +200,20 @@ uint64_t GrabSinkFrameTimeout(CS_Sink sink, cv::Mat& image, double timeout,
   return static_cast<CvSinkImpl&>(*data->sink).GrabFrame(image, timeout);
 }
 
+SharedFrame* GrabSinkFrameShared(CS_Sink sink, cv::Mat& image, double timeout,
+                                 uint64_t* time, CS_Status* status) {
+  auto data = Instance::GetInstance().GetSink(sink);
+  if (!data || data->kind != CS_SINK_CV) {
+    *status = CS_INVALID_HANDLE;
+    return nullptr;
+  }
+  auto shared = std::make_unique<SharedFrame>();
+  *time = static_cast<CvSinkImpl&>(*data->sink)
+              .GrabFrameShared(image, timeout, *shared);
+  if (*time == 0) return nullptr;
+  return shared.release();
+}
+
 std::string GetSinkError(CS_Sink sink, CS_Status* status) {
   auto data = Instance::GetInstance().GetSink(sink);
   if (!data || data->kind != CS_SINK_CV) {
@@ -19,6 +19,7 @@
 #include <wpi/condition_variable.h>
 
 #include "Frame.h"
+#include "SharedFrame.h"
 #include "SinkImpl.h"
 
 namespace cs {
@@ -38,6 +39,8 @@ class CvSinkImpl : public SinkImpl {
 
   uint64_t GrabFrame(cv::Mat& image);
   uint64_t GrabFrame(cv::Mat& image, double timeout);
+  uint64_t GrabFrameShared(cv::Mat& image, double timeout,
+                           SharedFrame& shared);
 
  private:
   void ThreadMain();
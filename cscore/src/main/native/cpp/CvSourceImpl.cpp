@@ -89,6 +89,17 @@ void CvSourceImpl::PutFrame(cv::Mat& image) {
   SourceImpl::PutFrame(std::move(dest), wpi::Now());
 }
 
+void CvSourceImpl::AllocFrame(int width, int height, cv::Mat& image,
+                              SharedFrame& shared) {
+  shared.image = AllocImage(VideoMode::kBGR, width, height, width * height * 3);
+  image = shared.image->AsMat();
+}
+
+void CvSourceImpl::PutFrame(SharedFrame& shared) {
+  // The image was drawn into directly, so it is handed over without a copy
+  if (shared.image) SourceImpl::PutFrame(std::move(shared.image), wpi::Now());
+}
+
 void CvSourceImpl::NotifyError(const wpi::Twine& msg) {
   PutError(msg, wpi::Now());
 }
@@ -163,6 +174,33 @@ void PutSourceFrame(CS_Source source, cv::Mat& image, CS_Status* status) {
   static_cast<CvSourceImpl&>(*data->source).PutFrame(image);
 }
 
+SharedFrame* AllocSourceFrame(CS_Source source, int width, int height,
+                              cv::Mat& image, CS_Status* status) {
+  auto data = Instance::GetInstance().GetSource(source);
+  if (!data || data->kind != CS_SOURCE_CV) {
+    *status = CS_INVALID_HANDLE;
+    return nullptr;
+  }
+  auto shared = std::make_unique<SharedFrame>();
+  static_cast<CvSourceImpl&>(*data->source)
+      .AllocFrame(width, height, image, *shared);
+  shared->source = data->source;
+  return shared.release();
+}
+
+void PutSourceSharedFrame(CS_Source source, SharedFrame* frame,
+                          CS_Status* status) {
+  std::unique_ptr<SharedFrame> shared{frame};
+  auto data = Instance::GetInstance().GetSource(source);
+  if (!data || data->kind != CS_SOURCE_CV) {
+    *status = CS_INVALID_HANDLE;
+    return;
+  }
+  static_cast<CvSourceImpl&>(*data->source).PutFrame(*shared);
+}
+
+void ReleaseSharedFrame(SharedFrame* frame) { delete frame; }
+
 void NotifySourceError(CS_Source source, const wpi::Twine& msg,
                        CS_Status* status) {
   auto data = Instance::GetInstance().GetSource(source);
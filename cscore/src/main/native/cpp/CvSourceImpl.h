@@ -18,6 +18,7 @@
 #include <wpi/ArrayRef.h>
 #include <wpi/Twine.h>
 
+#include "SharedFrame.h"
 #include "SourceImpl.h"
 
 namespace cs {
@@ -37,6 +38,8 @@ class CvSourceImpl : public SourceImpl {
 
   // OpenCV-specific functions
   void PutFrame(cv::Mat& image);
+  void AllocFrame(int width, int height, cv::Mat& image, SharedFrame& shared);
+  void PutFrame(SharedFrame& shared);
   void NotifyError(const wpi::Twine& msg);
   int CreateProperty(const wpi::Twine& name, CS_PropertyKind kind, int minimum,
                      int maximum, int step, int defaultValue, int value);
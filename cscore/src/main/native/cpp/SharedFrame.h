@@ -0,0 +1,44 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+#ifndef CSCORE_SHAREDFRAME_H_
+#define CSCORE_SHAREDFRAME_H_
+
+#include <memory>
+#include <utility>
+
+#include "Frame.h"
+#include "Image.h"
+#include "SourceImpl.h"
+
+namespace cs {
+
+// An image shared with an OpenCV Mat instead of being copied.  The Mat points
+// directly at the image data, which stays valid until the shared frame is
+// released or put.
+class SharedFrame {
+ public:
+  SharedFrame() = default;
+  SharedFrame(const SharedFrame&) = delete;
+  SharedFrame& operator=(const SharedFrame&) = delete;
+
+  // An image which was allocated but never put goes back to its source's pool
+  ~SharedFrame() {
+    if (image && source) source->ReleaseImage(std::move(image));
+  }
+
+  // Frame grabbed by a CvSink; holding it keeps the image out of the pool
+  Frame frame;
+
+  // Image allocated from a CvSource's pool and not yet put, and that source
+  std::unique_ptr<Image> image;
+  std::shared_ptr<SourceImpl> source;
+};
+
+}  // namespace cs
+
+#endif  // CSCORE_SHAREDFRAME_H_
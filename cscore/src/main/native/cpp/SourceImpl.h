@@ -38,6 +38,7 @@ class Telemetry;
 
 class SourceImpl : public PropertyContainer {
   friend class Frame;
+  friend class SharedFrame;
 
  public:
   SourceImpl(const wpi::Twine& name, wpi::Logger& logger, Notifier& notifier,
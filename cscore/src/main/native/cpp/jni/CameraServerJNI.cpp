@@ -1068,6 +1068,50 @@ Java_edu_wpi_cscore_CameraServerJNI_putSourceFrame
   CheckStatus(env, status);
 }
 
+/*
+ * Class:     edu_wpi_cscore_CameraServerJNI
+ * Method:    allocSourceFrame
+ * Signature: (IIIJ)J
+ */
+JNIEXPORT jlong JNICALL
+Java_edu_wpi_cscore_CameraServerJNI_allocSourceFrame
+  (JNIEnv* env, jclass, jint source, jint width, jint height,
+   jlong imageNativeObj)
+{
+  cv::Mat& image = *((cv::Mat*)imageNativeObj);
+  CS_Status status = 0;
+  auto shared = cs::AllocSourceFrame(source, width, height, image, &status);
+  CheckStatus(env, status);
+  return reinterpret_cast<jlong>(shared);
+}
+
+/*
+ * Class:     edu_wpi_cscore_CameraServerJNI
+ * Method:    putSourceSharedFrame
+ * Signature: (IJ)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_cscore_CameraServerJNI_putSourceSharedFrame
+  (JNIEnv* env, jclass, jint source, jlong sharedFrame)
+{
+  CS_Status status = 0;
+  cs::PutSourceSharedFrame(
+      source, reinterpret_cast<cs::SharedFrame*>(sharedFrame), &status);
+  CheckStatus(env, status);
+}
+
+/*
+ * Class:     edu_wpi_cscore_CameraServerJNI
+ * Method:    releaseSharedFrame
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_cscore_CameraServerJNI_releaseSharedFrame
+  (JNIEnv* env, jclass, jlong sharedFrame)
+{
+  cs::ReleaseSharedFrame(reinterpret_cast<cs::SharedFrame*>(sharedFrame));
+}
+
 /*
  * Class:     edu_wpi_cscore_CameraServerJNI
  * Method:    notifySourceError
@@ -1480,6 +1524,27 @@ Java_edu_wpi_cscore_CameraServerJNI_grabSinkFrameTimeout
   return rv;
 }
 
+/*
+ * Class:     edu_wpi_cscore_CameraServerJNI
+ * Method:    grabSinkFrameShared
+ * Signature: (IJD[J)J
+ */
+JNIEXPORT jlong JNICALL
+Java_edu_wpi_cscore_CameraServerJNI_grabSinkFrameShared
+  (JNIEnv* env, jclass, jint sink, jlong imageNativeObj, jdouble timeout,
+   jlongArray sharedFrame)
+{
+  cv::Mat& image = *((cv::Mat*)imageNativeObj);
+  CS_Status status = 0;
+  uint64_t time = 0;
+  auto shared =
+      cs::GrabSinkFrameShared(sink, image, timeout, &time, &status);
+  jlong handle = reinterpret_cast<jlong>(shared);
+  env->SetLongArrayRegion(sharedFrame, 0, 1, &handle);
+  CheckStatus(env, status);
+  return time;
+}
+
 /*
  * Class:     edu_wpi_cscore_CameraServerJNI
  * Method:    getSinkError
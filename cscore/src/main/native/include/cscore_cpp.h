@@ -32,6 +32,8 @@ class json;
 /** CameraServer (cscore) namespace */
 namespace cs {
 
+class SharedFrame;
+
 /**
  * @defgroup cscore_cpp_api cscore C++ function API
  *
@@ -287,6 +289,11 @@ std::vector<std::string> GetHttpCameraUrls(CS_Source source, CS_Status* status);
  * @{
  */
 void PutSourceFrame(CS_Source source, cv::Mat& image, CS_Status* status);
+SharedFrame* AllocSourceFrame(CS_Source source, int width, int height,
+                              cv::Mat& image, CS_Status* status);
+void PutSourceSharedFrame(CS_Source source, SharedFrame* frame,
+                          CS_Status* status);
+void ReleaseSharedFrame(SharedFrame* frame);
 void NotifySourceError(CS_Source source, const wpi::Twine& msg,
                        CS_Status* status);
 void SetSourceConnected(CS_Source source, bool connected, CS_Status* status);
@@ -359,6 +366,8 @@ void SetSinkDescription(CS_Sink sink, const wpi::Twine& description,
 uint64_t GrabSinkFrame(CS_Sink sink, cv::Mat& image, CS_Status* status);
 uint64_t GrabSinkFrameTimeout(CS_Sink sink, cv::Mat& image, double timeout,
                               CS_Status* status);
+SharedFrame* GrabSinkFrameShared(CS_Sink sink, cv::Mat& image, double timeout,
+                                 uint64_t* time, CS_Status* status);
 std::string GetSinkError(CS_Sink sink, CS_Status* status);
 wpi::StringRef GetSinkError(CS_Sink sink, wpi::SmallVectorImpl<char>& buf,
                             CS_Status* status);
@@ -0,0 +1,113 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+#include <opencv2/core/core.hpp>
+
+#include "SharedFrame.h"
+#include "cscore.h"
+#include "gtest/gtest.h"
+
+namespace cs {
+
+class SharedFrameTest : public ::testing::Test {
+ protected:
+  SharedFrameTest() {
+    CS_Status status = 0;
+    m_source = CreateCvSource("shared", VideoMode{VideoMode::kBGR, 64, 48, 30},
+                              &status);
+  }
+
+  ~SharedFrameTest() {
+    CS_Status status = 0;
+    ReleaseSource(m_source, &status);
+  }
+
+  CS_Source m_source;
+};
+
+TEST_F(SharedFrameTest, ReleaseReturnsImageToPool) {
+  CS_Status status = 0;
+  cv::Mat image;
+  SharedFrame* frame = AllocSourceFrame(m_source, 64, 48, image, &status);
+  ASSERT_NE(nullptr, frame);
+  EXPECT_EQ(0, status);
+  EXPECT_EQ(48, image.rows);
+  EXPECT_EQ(64, image.cols);
+  uchar* data = image.data;
+  ReleaseSharedFrame(frame);
+
+  // A smaller frame is served from the pooled image; a freshly allocated one
+  // would only have the capacity it asked for
+  frame = AllocSourceFrame(m_source, 32, 24, image, &status);
+  ASSERT_NE(nullptr, frame);
+  EXPECT_EQ(data, image.data);
+  EXPECT_EQ(64u * 48 * 3, frame->image->capacity());
+  EXPECT_EQ(32u * 24 * 3, frame->image->size());
+  ReleaseSharedFrame(frame);
+}
+
+TEST_F(SharedFrameTest, ReleaseNull) { ReleaseSharedFrame(nullptr); }
+
+TEST_F(SharedFrameTest, AllocInvalidHandle) {
+  CS_Status status = 0;
+  cv::Mat image;
+  EXPECT_EQ(nullptr, AllocSourceFrame(0, 64, 48, image, &status));
+  EXPECT_EQ(CS_INVALID_HANDLE, status);
+  EXPECT_EQ(nullptr, image.data);
+}
+
+TEST_F(SharedFrameTest, PutInvalidHandle) {
+  CS_Status status = 0;
+  cv::Mat image;
+  SharedFrame* frame = AllocSourceFrame(m_source, 64, 48, image, &status);
+  ASSERT_NE(nullptr, frame);
+  uchar* data = image.data;
+
+  // The put fails but still takes the frame, returning its image to the pool
+  PutSourceSharedFrame(0, frame, &status);
+  EXPECT_EQ(CS_INVALID_HANDLE, status);
+
+  status = 0;
+  frame = AllocSourceFrame(m_source, 32, 24, image, &status);
+  ASSERT_NE(nullptr, frame);
+  EXPECT_EQ(data, image.data);
+  EXPECT_EQ(64u * 48 * 3, frame->image->capacity());
+  ReleaseSharedFrame(frame);
+}
+
+TEST_F(SharedFrameTest, PutReleasedHandle) {
+  CS_Status status = 0;
+  CS_Source other = CreateCvSource(
+      "released", VideoMode{VideoMode::kBGR, 64, 48, 30}, &status);
+  ReleaseSource(other, &status);
+  ASSERT_EQ(0, status);
+
+  cv::Mat image;
+  SharedFrame* frame = AllocSourceFrame(m_source, 64, 48, image, &status);
+  ASSERT_NE(nullptr, frame);
+  PutSourceSharedFrame(other, frame, &status);
+  EXPECT_EQ(CS_INVALID_HANDLE, status);
+}
+
+TEST_F(SharedFrameTest, PutHandsOverImage) {
+  CS_Status status = 0;
+  cv::Mat image;
+  SharedFrame* frame = AllocSourceFrame(m_source, 64, 48, image, &status);
+  ASSERT_NE(nullptr, frame);
+  uchar* data = image.data;
+  PutSourceSharedFrame(m_source, frame, &status);
+  EXPECT_EQ(0, status);
+
+  // The source now holds the image as its current frame, so the next
+  // allocation cannot reuse it
+  frame = AllocSourceFrame(m_source, 64, 48, image, &status);
+  ASSERT_NE(nullptr, frame);
+  EXPECT_NE(data, image.data);
+  ReleaseSharedFrame(frame);
+}
+
+}  // namespace cs
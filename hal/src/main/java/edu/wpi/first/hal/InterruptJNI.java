@@ -36,6 +36,12 @@ public class InterruptJNI extends JNIWrapper {
                                                    InterruptJNIHandlerFunction handler,
                                                    Object param);
 
+  public static native long attachInterruptEdgeCapture(int interruptHandle, int capacity);
+
+  public static native int readInterruptEdges(long edgeCapture, long[] edges, int count);
+
+  public static native long getInterruptEdgeOverflowCount(long edgeCapture);
+
   public static native void setInterruptUpSourceEdge(int interruptHandle, boolean risingEdge,
                                                      boolean fallingEdge);
 }
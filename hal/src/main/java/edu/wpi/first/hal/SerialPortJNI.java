@@ -7,6 +7,8 @@
 
 package edu.wpi.first.hal;
 
+import java.nio.ByteBuffer;
+
 public class SerialPortJNI extends JNIWrapper {
   public static native void serialInitializePort(byte port);
 
@@ -38,6 +40,8 @@ public class SerialPortJNI extends JNIWrapper {
 
   public static native int serialRead(byte port, byte[] buffer, int count);
 
+  public static native int serialReadDirect(byte port, ByteBuffer buffer, int count);
+
   public static native int serialWrite(byte port, byte[] buffer, int count);
 
   public static native void serialFlush(byte port);
@@ -7,9 +7,12 @@
 
 #include <jni.h>
 
+#include <algorithm>
 #include <atomic>
 #include <cassert>
+#include <memory>
 #include <thread>
+#include <vector>
 
 #include <wpi/SafeThread.h>
 #include <wpi/mutex.h>
@@ -52,10 +55,37 @@ class InterruptThreadJNI : public wpi::SafeThread {
   jobject m_param = nullptr;
 };
 
+// Queue of every edge captured by an interrupt, filled directly from the HAL
+// interrupt callback so that edges closer together than a Java callback are
+// not merged.  There is a single producer and a single consumer, so neither
+// side locks.  Each edge is stored as its timestamp shifted left by one, with
+// the low bit set for a rising edge.
+class InterruptEdgeQueue {
+ public:
+  InterruptEdgeQueue(HAL_InterruptHandle handle, size_t capacity)
+      : m_handle(handle), m_edges(capacity) {}
+
+  void Capture(uint32_t mask);
+  int32_t Read(JNIEnv* env, jlongArray edges, int32_t count);
+
+  std::atomic<uint64_t> m_overflowCount{0};
+
+ private:
+  void Add(int64_t timestamp, bool rising);
+
+  HAL_InterruptHandle m_handle;
+  std::vector<int64_t> m_edges;
+  std::atomic<uint64_t> m_head{0};
+  std::atomic<uint64_t> m_tail{0};
+};
+
 class InterruptJNI : public wpi::SafeThreadOwner<InterruptThreadJNI> {
  public:
   void SetFunc(JNIEnv* env, jobject func, jmethodID mid, jobject param);
 
+  // Set instead of starting the thread when edges are captured
+  std::unique_ptr<InterruptEdgeQueue> m_edges;
+
   void Notify(uint32_t mask) {
     auto thr = GetThread();
     if (!thr) return;
@@ -118,6 +148,58 @@ void interruptHandler(uint32_t mask, void* param) {
   static_cast<InterruptJNI*>(param)->Notify(mask);
 }
 
+void InterruptEdgeQueue::Capture(uint32_t mask) {
+  bool rising = (mask & 0xFF) != 0;
+  bool falling = (mask & 0xFF00) != 0;
+  int32_t status = 0;
+  int64_t risingTime =
+      rising ? HAL_ReadInterruptRisingTimestamp(m_handle, &status) : 0;
+  int64_t fallingTime =
+      falling ? HAL_ReadInterruptFallingTimestamp(m_handle, &status) : 0;
+  if (rising && falling && fallingTime < risingTime) {
+    Add(fallingTime, false);
+    falling = false;
+  }
+  if (rising) Add(risingTime, true);
+  if (falling) Add(fallingTime, false);
+}
+
+void InterruptEdgeQueue::Add(int64_t timestamp, bool rising) {
+  uint64_t tail = m_tail.load(std::memory_order_relaxed);
+  if (tail - m_head.load(std::memory_order_acquire) == m_edges.size()) {
+    m_overflowCount.fetch_add(1, std::memory_order_relaxed);
+    return;
+  }
+  m_edges[tail % m_edges.size()] = (timestamp << 1) | (rising ? 1 : 0);
+  m_tail.store(tail + 1, std::memory_order_release);
+}
+
+int32_t InterruptEdgeQueue::Read(JNIEnv* env, jlongArray edges,
+                                 int32_t count) {
+  uint64_t head = m_head.load(std::memory_order_relaxed);
+  uint64_t available = m_tail.load(std::memory_order_acquire) - head;
+  if (count < 0) count = 0;
+  if (available < static_cast<uint64_t>(count)) {
+    count = static_cast<int32_t>(available);
+  }
+
+  // Copy out in at most two pieces, as the edges may wrap around the end
+  size_t start = head % m_edges.size();
+  size_t first = std::min(static_cast<size_t>(count), m_edges.size() - start);
+  env->SetLongArrayRegion(edges, 0, first,
+                          reinterpret_cast<const jlong*>(&m_edges[start]));
+  if (first < static_cast<size_t>(count)) {
+    env->SetLongArrayRegion(edges, first, count - first,
+                            reinterpret_cast<const jlong*>(&m_edges[0]));
+  }
+  m_head.store(head + count, std::memory_order_release);
+  return count;
+}
+
+void edgeCaptureHandler(uint32_t mask, void* param) {
+  static_cast<InterruptJNI*>(param)->m_edges->Capture(mask);
+}
+
 extern "C" {
 
 /*
@@ -346,6 +428,60 @@ Java_edu_wpi_first_hal_InterruptJNI_attachInterruptHandler
   CheckStatus(env, status);
 }
 
+/*
+ * Class:     edu_wpi_first_hal_InterruptJNI
+ * Method:    attachInterruptEdgeCapture
+ * Signature: (II)J
+ */
+JNIEXPORT jlong JNICALL
+Java_edu_wpi_first_hal_InterruptJNI_attachInterruptEdgeCapture
+  (JNIEnv* env, jclass, jint interruptHandle, jint capacity)
+{
+  INTERRUPTJNI_LOG(logDEBUG)
+      << "Calling INTERRUPTJNI attachInterruptEdgeCapture";
+  INTERRUPTJNI_LOG(logDEBUG)
+      << "Interrupt Handle = " << (HAL_InterruptHandle)interruptHandle;
+
+  // The queue is freed with the handler parameter by cleanInterrupts
+  InterruptJNI* intr = new InterruptJNI;
+  intr->m_edges = std::make_unique<InterruptEdgeQueue>(
+      (HAL_InterruptHandle)interruptHandle, capacity);
+
+  int32_t status = 0;
+  HAL_AttachInterruptHandler((HAL_InterruptHandle)interruptHandle,
+                             edgeCaptureHandler, intr, &status);
+
+  INTERRUPTJNI_LOG(logDEBUG) << "Status = " << status;
+  CheckStatus(env, status);
+  return reinterpret_cast<jlong>(intr);
+}
+
+/*
+ * Class:     edu_wpi_first_hal_InterruptJNI
+ * Method:    readInterruptEdges
+ * Signature: (J[JI)I
+ */
+JNIEXPORT jint JNICALL
+Java_edu_wpi_first_hal_InterruptJNI_readInterruptEdges
+  (JNIEnv* env, jclass, jlong edgeCapture, jlongArray edges, jint count)
+{
+  auto intr = reinterpret_cast<InterruptJNI*>(edgeCapture);
+  return intr->m_edges->Read(env, edges, count);
+}
+
+/*
+ * Class:     edu_wpi_first_hal_InterruptJNI
+ * Method:    getInterruptEdgeOverflowCount
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL
+Java_edu_wpi_first_hal_InterruptJNI_getInterruptEdgeOverflowCount
+  (JNIEnv* env, jclass, jlong edgeCapture)
+{
+  auto intr = reinterpret_cast<InterruptJNI*>(edgeCapture);
+  return intr->m_edges->m_overflowCount.load(std::memory_order_relaxed);
+}
+
 /*
  * Class:     edu_wpi_first_hal_InterruptJNI
  * Method:    setInterruptUpSourceEdge
@@ -296,6 +296,27 @@ Java_edu_wpi_first_hal_SerialPortJNI_serialRead
   return retVal;
 }
 
+/*
+ * Class:     edu_wpi_first_hal_SerialPortJNI
+ * Method:    serialReadDirect
+ * Signature: (BLjava/nio/ByteBuffer;I)I
+ */
+JNIEXPORT jint JNICALL
+Java_edu_wpi_first_hal_SerialPortJNI_serialReadDirect
+  (JNIEnv* env, jclass, jbyte port, jobject dataReceived, jint size)
+{
+  SERIALJNI_LOG(logDEBUG) << "Serial Read Direct";
+  char* dataReceivedPtr =
+      reinterpret_cast<char*>(env->GetDirectBufferAddress(dataReceived));
+  int32_t status = 0;
+  jint retVal = HAL_ReadSerial(static_cast<HAL_SerialPort>(port),
+                               dataReceivedPtr, size, &status);
+  SERIALJNI_LOG(logDEBUG) << "ReturnValue = " << retVal;
+  SERIALJNI_LOG(logDEBUG) << "Status = " << status;
+  CheckStatus(env, status);
+  return retVal;
+}
+
 /*
  * Class:     edu_wpi_first_hal_SerialPortJNI
  * Method:    serialWrite
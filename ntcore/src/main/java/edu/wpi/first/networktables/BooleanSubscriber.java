@@ -0,0 +1,98 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+/**
+ * Mirrors the value of a boolean entry in Java.
+ *
+ * <p>{@link NetworkTableEntry#getBoolean(boolean)} reads the value through JNI
+ * on every call.  A subscriber instead receives each update from a listener
+ * shared by all subscribers of the instance, so {@link #get()} only reads a
+ * field.  The value lags the entry by however long the listener takes to
+ * deliver the update.
+ *
+ * <p>A subscriber can also queue every update, for entries which change more
+ * than once between reads.  Call {@link #readQueue(boolean[], long[])} to
+ * remove them.
+ *
+ * <p>Close the subscriber to stop receiving updates.
+ */
+public final class BooleanSubscriber extends EntrySubscriber {
+  private final boolean m_defaultValue;
+  private volatile boolean m_value;
+  private final boolean[] m_queueValues;
+
+  /**
+   * Constructs a subscriber which does not queue updates.
+   *
+   * @param entry        Entry to subscribe to
+   * @param defaultValue Value when the entry does not exist or is not a
+   *                     boolean
+   */
+  public BooleanSubscriber(NetworkTableEntry entry, boolean defaultValue) {
+    this(entry, defaultValue, 0);
+  }
+
+  /**
+   * Constructs a subscriber.
+   *
+   * @param entry        Entry to subscribe to
+   * @param defaultValue Value when the entry does not exist or is not a
+   *                     boolean
+   * @param queueSize    Number of updates to queue between calls to
+   *                     {@link #readQueue(boolean[], long[])}
+   */
+  public BooleanSubscriber(NetworkTableEntry entry, boolean defaultValue, int queueSize) {
+    super(entry, NetworkTableType.kBoolean, queueSize);
+    m_defaultValue = defaultValue;
+    m_value = defaultValue;
+    m_queueValues = new boolean[queueSize];
+    start();
+  }
+
+  /**
+   * Gets the last value received.
+   *
+   * @return The value, or the default value if the entry does not exist or is
+   *         not a boolean
+   */
+  public boolean get() {
+    return m_value;
+  }
+
+  /**
+   * Removes queued updates, oldest first.  Updates which do not fit in the
+   * arrays are left in the queue.
+   *
+   * @param values Array where the values are stored
+   * @param times  Array where the time of each update is stored
+   * @return The number of updates removed
+   */
+  public int readQueue(boolean[] values, long[] times) {
+    return dequeue(m_queueValues, values, values.length, times);
+  }
+
+  @Override
+  void setValue(NetworkTableValue value) {
+    m_value = value.getBoolean();
+  }
+
+  @Override
+  void resetValue() {
+    m_value = m_defaultValue;
+  }
+
+  @Override
+  void storeValue(EntryNotificationBuffer buffer, int index, int queueIndex) {
+    boolean value = buffer.getBoolean(index);
+    m_value = value;
+    if (queueIndex >= 0) {
+      m_queueValues[queueIndex] = value;
+    }
+  }
+}
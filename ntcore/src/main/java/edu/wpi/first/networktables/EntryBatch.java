@@ -0,0 +1,86 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import java.util.Arrays;
+
+/**
+ * Collects double and boolean entry values and sets them all with a single native call.
+ *
+ * <p>Setting values one at a time crosses into native code once per entry. When many entries are
+ * updated together, such as when dashboard data is published each robot loop, queueing them in a
+ * batch and calling {@link #flush()} once is cheaper. Values are set as with {@link
+ * NetworkTableEntry#setDouble(double)} and {@link NetworkTableEntry#setBoolean(boolean)}, so an
+ * entry which already has a different type is left unchanged.
+ *
+ * <p>The batch reuses its storage, so queueing and flushing do not allocate once it has grown to
+ * the number of values queued per flush. This class is not thread-safe.
+ */
+public final class EntryBatch {
+  private int[] m_doubleEntries = new int[16];
+  private double[] m_doubleValues = new double[16];
+  private int m_doubleCount;
+
+  private int[] m_booleanEntries = new int[16];
+  private boolean[] m_booleanValues = new boolean[16];
+  private int m_booleanCount;
+
+  /**
+   * Queues a double value to be set on the next flush.
+   *
+   * @param entry the entry
+   * @param value the value to set
+   */
+  public void setDouble(NetworkTableEntry entry, double value) {
+    if (m_doubleCount == m_doubleEntries.length) {
+      m_doubleEntries = Arrays.copyOf(m_doubleEntries, m_doubleCount * 2);
+      m_doubleValues = Arrays.copyOf(m_doubleValues, m_doubleCount * 2);
+    }
+    m_doubleEntries[m_doubleCount] = entry.getHandle();
+    m_doubleValues[m_doubleCount] = value;
+    m_doubleCount++;
+  }
+
+  /**
+   * Queues a boolean value to be set on the next flush.
+   *
+   * @param entry the entry
+   * @param value the value to set
+   */
+  public void setBoolean(NetworkTableEntry entry, boolean value) {
+    if (m_booleanCount == m_booleanEntries.length) {
+      m_booleanEntries = Arrays.copyOf(m_booleanEntries, m_booleanCount * 2);
+      m_booleanValues = Arrays.copyOf(m_booleanValues, m_booleanCount * 2);
+    }
+    m_booleanEntries[m_booleanCount] = entry.getHandle();
+    m_booleanValues[m_booleanCount] = value;
+    m_booleanCount++;
+  }
+
+  /**
+   * Returns the number of values queued since the last flush.
+   *
+   * @return the number of queued values
+   */
+  public int size() {
+    return m_doubleCount + m_booleanCount;
+  }
+
+  /**
+   * Sets all queued values and empties the batch. Does nothing if the batch is empty.
+   */
+  public void flush() {
+    if (m_doubleCount == 0 && m_booleanCount == 0) {
+      return;
+    }
+    NetworkTablesJNI.setDoublesAndBooleans(m_doubleEntries, m_doubleValues, m_doubleCount,
+        m_booleanEntries, m_booleanValues, m_booleanCount);
+    m_doubleCount = 0;
+    m_booleanCount = 0;
+  }
+}
@@ -0,0 +1,363 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Calls entry listeners for notifications polled by the entry listener thread.
+ *
+ * <p>By default listeners are called on the polling thread, one after another.
+ * With a dispatch pool, each listener is assigned to one of a fixed set of
+ * worker threads, each with a bounded queue.  Since a listener always runs on
+ * the same worker, its notifications are delivered in order, while a slow
+ * listener only delays the listeners sharing its worker.  When a queue is full
+ * the polling thread blocks, which bounds the lag of every listener.
+ *
+ * <p>The pool is only started and stopped by the polling thread between
+ * batches, so reconfiguring it does not reorder notifications.
+ */
+final class EntryListenerDispatcher {
+  private final String m_name;
+
+  // Requested pool configuration, applied by the polling thread
+  private final ReentrantLock m_configLock = new ReentrantLock();
+  private int m_requestedThreads;
+  private int m_requestedCapacity;
+  private volatile boolean m_configChanged;
+
+  // Current workers; only replaced by the polling thread
+  private volatile Worker[] m_workers = new Worker[0];
+
+  private final AtomicInteger m_queueDepth = new AtomicInteger();
+  private final AtomicInteger m_maxQueueDepth = new AtomicInteger();
+  private final AtomicLong m_dispatchCount = new AtomicLong();
+  private final AtomicLong m_totalLatency = new AtomicLong();
+  private final AtomicLong m_maxLatency = new AtomicLong();
+
+  private final class Worker implements Runnable {
+    private final ReentrantLock m_lock = new ReentrantLock();
+    private final Condition m_notEmpty = m_lock.newCondition();
+    private final Condition m_notFull = m_lock.newCondition();
+    private final Condition m_idle = m_lock.newCondition();
+
+    // Ring of pending notifications, their listeners, and when they were polled
+    private final EntryNotification[] m_events;
+    private final Consumer<EntryNotification>[] m_consumers;
+    private final long[] m_pollTimes;
+    private int m_head;
+    private int m_count;
+
+    private boolean m_busy;
+    private boolean m_running = true;
+    private final Thread m_thread;
+
+    @SuppressWarnings("unchecked")
+    Worker(int capacity, int index) {
+      m_events = new EntryNotification[capacity];
+      m_consumers = (Consumer<EntryNotification>[]) new Consumer<?>[capacity];
+      m_pollTimes = new long[capacity];
+      m_thread = new Thread(this, m_name + "-" + index);
+      m_thread.setDaemon(true);
+      m_thread.start();
+    }
+
+    void put(EntryNotification event, Consumer<EntryNotification> consumer, long pollTime)
+        throws InterruptedException {
+      m_lock.lock();
+      try {
+        while (m_count == m_events.length) {
+          m_notFull.await();
+        }
+        int index = m_head + m_count;
+        if (index >= m_events.length) {
+          index -= m_events.length;
+        }
+        m_events[index] = event;
+        m_consumers[index] = consumer;
+        m_pollTimes[index] = pollTime;
+        m_count++;
+        m_notEmpty.signal();
+      } finally {
+        m_lock.unlock();
+      }
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        EntryNotification event;
+        Consumer<EntryNotification> consumer;
+        long pollTime;
+        m_lock.lock();
+        try {
+          while (m_count == 0 && m_running) {
+            m_notEmpty.awaitUninterruptibly();
+          }
+          if (m_count == 0) {
+            return;
+          }
+          event = m_events[m_head];
+          consumer = m_consumers[m_head];
+          pollTime = m_pollTimes[m_head];
+          m_events[m_head] = null;
+          m_consumers[m_head] = null;
+          m_head = m_head + 1 == m_events.length ? 0 : m_head + 1;
+          m_count--;
+          m_busy = true;
+          m_notFull.signal();
+        } finally {
+          m_lock.unlock();
+        }
+
+        call(event, consumer, pollTime);
+
+        m_lock.lock();
+        try {
+          m_busy = false;
+          if (m_count == 0) {
+            m_idle.signalAll();
+          }
+        } finally {
+          m_lock.unlock();
+        }
+      }
+    }
+
+    boolean awaitIdle(long deadline, boolean timed) throws InterruptedException {
+      m_lock.lock();
+      try {
+        while (m_count > 0 || m_busy) {
+          if (!timed) {
+            m_idle.await();
+          } else {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              return false;
+            }
+            m_idle.awaitNanos(remaining);
+          }
+        }
+        return true;
+      } finally {
+        m_lock.unlock();
+      }
+    }
+
+    /**
+     * Stops the worker once its queue is empty, and waits for it to exit.
+     */
+    void stop() {
+      m_lock.lock();
+      try {
+        m_running = false;
+        m_notEmpty.signal();
+      } finally {
+        m_lock.unlock();
+      }
+      boolean interrupted = false;
+      while (true) {
+        try {
+          m_thread.join();
+          break;
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  EntryListenerDispatcher(String name) {
+    m_name = name;
+  }
+
+  /**
+   * Sets the dispatch pool configuration.  It takes effect before the next
+   * batch of notifications is dispatched.
+   *
+   * @param threads Number of worker threads, or 0 to call listeners on the
+   *                polling thread
+   * @param capacity Maximum number of queued notifications per worker
+   */
+  void setPool(int threads, int capacity) {
+    m_configLock.lock();
+    try {
+      m_requestedThreads = threads;
+      m_requestedCapacity = capacity;
+      m_configChanged = true;
+    } finally {
+      m_configLock.unlock();
+    }
+  }
+
+  /**
+   * Starts a batch of polled notifications.  Must only be called by the
+   * polling thread.
+   *
+   * @param count Number of notifications in the batch
+   */
+  void beginBatch(int count) {
+    if (m_configChanged) {
+      applyConfig();
+    }
+    int depth = m_queueDepth.addAndGet(count);
+    m_maxQueueDepth.accumulateAndGet(depth, Math::max);
+  }
+
+  /**
+   * Ends the current batch early, when the polling thread is interrupted
+   * before dispatching all of its notifications.  Must only be called by the
+   * polling thread.
+   *
+   * @param count Number of notifications in the batch which were not
+   *              dispatched
+   */
+  void abortBatch(int count) {
+    m_queueDepth.addAndGet(-count);
+  }
+
+  /**
+   * Dispatches one notification from the current batch.  Must only be called
+   * by the polling thread.
+   *
+   * @param event Notification
+   * @param consumer Listener to call, or null if the listener was removed
+   * @param pollTime When the batch was polled, from System.nanoTime()
+   */
+  void dispatch(EntryNotification event, Consumer<EntryNotification> consumer, long pollTime)
+      throws InterruptedException {
+    if (consumer == null) {
+      m_queueDepth.decrementAndGet();
+      return;
+    }
+    Worker[] workers = m_workers;
+    if (workers.length == 0) {
+      call(event, consumer, pollTime);
+      return;
+    }
+
+    try {
+      workers[workerIndex(event.listener, workers.length)].put(event, consumer, pollTime);
+    } catch (InterruptedException ex) {
+      m_queueDepth.decrementAndGet();
+      throw ex;
+    }
+  }
+
+  /**
+   * Gets the worker a listener is assigned to.
+   *
+   * @param listener Listener handle
+   * @param workers Number of workers
+   * @return Worker index
+   */
+  static int workerIndex(int listener, int workers) {
+    // Scramble the handle so listeners created in sequence spread across workers
+    int hash = listener * 0x9E3779B9;
+    hash ^= hash >>> 16;
+    return Math.floorMod(hash, workers);
+  }
+
+  /**
+   * Waits for every queued notification to be delivered.  When called by a
+   * listener running on a worker, the notifications queued behind it on the
+   * same worker are not waited for, as they cannot be delivered until it
+   * returns.
+   *
+   * @param timeout timeout, in seconds, or a negative value to block
+   *                indefinitely
+   * @return False if timed out, otherwise true.
+   */
+  boolean awaitIdle(double timeout) {
+    boolean timed = timeout >= 0;
+    long deadline = System.nanoTime() + (timed ? (long) (timeout * 1e9) : 0);
+    try {
+      Thread current = Thread.currentThread();
+      for (Worker worker : m_workers) {
+        if (worker.m_thread == current) {
+          continue;
+        }
+        if (!worker.awaitIdle(deadline, timed)) {
+          return false;
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    return true;
+  }
+
+  /**
+   * Stops the dispatch pool after delivering the queued notifications.  Must
+   * only be called by the polling thread.
+   */
+  void stop() {
+    Worker[] workers = m_workers;
+    m_workers = new Worker[0];
+    for (Worker worker : workers) {
+      worker.stop();
+    }
+  }
+
+  EntryListenerStats getStats() {
+    return new EntryListenerStats(m_queueDepth.get(), m_maxQueueDepth.get(),
+        m_dispatchCount.get(), m_totalLatency.get(), m_maxLatency.get());
+  }
+
+  void resetStats() {
+    m_maxQueueDepth.set(m_queueDepth.get());
+    m_dispatchCount.set(0);
+    m_totalLatency.set(0);
+    m_maxLatency.set(0);
+  }
+
+  private void applyConfig() {
+    int threads;
+    int capacity;
+    m_configLock.lock();
+    try {
+      threads = m_requestedThreads;
+      capacity = m_requestedCapacity;
+      m_configChanged = false;
+    } finally {
+      m_configLock.unlock();
+    }
+
+    // Deliver everything queued on the old workers before any new notification
+    stop();
+    Worker[] workers = new Worker[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Worker(capacity, i);
+    }
+    m_workers = workers;
+  }
+
+  private void call(EntryNotification event, Consumer<EntryNotification> consumer,
+                    long pollTime) {
+    long latency = System.nanoTime() - pollTime;
+    m_queueDepth.decrementAndGet();
+    m_dispatchCount.incrementAndGet();
+    m_totalLatency.addAndGet(latency);
+    m_maxLatency.accumulateAndGet(latency, Math::max);
+
+    try {
+      consumer.accept(event);
+    } catch (Throwable throwable) {
+      System.err.println("Unhandled exception during entry listener callback: "
+          + throwable.toString());
+      throwable.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+/**
+ * Entry listeners whose notifications are polled into a reusable
+ * {@link EntryNotificationBuffer}, rather than delivered to callbacks.
+ *
+ * <p>The listeners added with
+ * {@link NetworkTableInstance#addEntryListener(String, java.util.function.Consumer, int)}
+ * allocate a notification, a value and an entry name for every event.  A
+ * poller instead copies each batch of events into a buffer owned by the
+ * caller, so a thread which handles high-rate updates can do so without
+ * allocating:
+ *
+ * <pre>{@code
+ * EntryNotificationBuffer buffer = new EntryNotificationBuffer(64);
+ * try (EntryListenerPoller poller = new EntryListenerPoller(inst)) {
+ *   poller.addListener(entry, EntryListenerFlags.kUpdate);
+ *   while (running) {
+ *     int count = poller.poll(buffer);
+ *     for (int i = 0; i < count; i++) {
+ *       setpoint = buffer.getDouble(i);
+ *     }
+ *   }
+ * }
+ * }</pre>
+ */
+public final class EntryListenerPoller implements AutoCloseable {
+  private final NetworkTableInstance m_inst;
+  private final int m_handle;
+
+  /**
+   * Constructs a poller.
+   *
+   * @param inst Instance whose entries are listened to
+   */
+  public EntryListenerPoller(NetworkTableInstance inst) {
+    m_inst = inst;
+    m_handle = NetworkTablesJNI.createEntryListenerPoller(inst.getHandle());
+  }
+
+  /**
+   * Destroys the poller.  Any blocked {@link #poll(EntryNotificationBuffer)}
+   * is interrupted and all of the poller's listeners are removed.
+   */
+  @Override
+  public void close() {
+    NetworkTablesJNI.destroyEntryListenerPoller(m_handle);
+  }
+
+  /**
+   * Gets the native handle for the poller.
+   *
+   * @return Native handle
+   */
+  public int getHandle() {
+    return m_handle;
+  }
+
+  /**
+   * Add a listener for all entries starting with a certain prefix.
+   *
+   * @param prefix            UTF-8 string prefix
+   * @param flags             {@link EntryListenerFlags} bitmask
+   * @return Listener handle
+   */
+  public int addListener(String prefix, int flags) {
+    return NetworkTablesJNI.addPolledEntryListener(m_handle, prefix, flags);
+  }
+
+  /**
+   * Add a listener for a particular entry.
+   *
+   * @param entry             the entry
+   * @param flags             {@link EntryListenerFlags} bitmask
+   * @return Listener handle
+   */
+  public int addListener(NetworkTableEntry entry, int flags) {
+    if (!m_inst.equals(entry.getInstance())) {
+      throw new IllegalArgumentException("entry does not belong to this instance");
+    }
+    return NetworkTablesJNI.addPolledEntryListener(m_handle, entry.getHandle(), flags);
+  }
+
+  /**
+   * Remove a listener.
+   *
+   * @param listener Listener handle to remove
+   */
+  public void removeListener(int listener) {
+    NetworkTablesJNI.removeEntryListener(listener);
+  }
+
+  /**
+   * Waits for notifications and copies them into a buffer, replacing the
+   * notifications from any earlier poll.
+   *
+   * @param buffer Buffer to fill
+   * @return Number of notifications
+   * @throws InterruptedException if the poll was canceled or the poller was
+   *                              closed
+   */
+  public int poll(EntryNotificationBuffer buffer) throws InterruptedException {
+    buffer.setSize(0);
+    int count = NetworkTablesJNI.pollEntryListenerInto(m_handle, buffer);
+    buffer.setSize(count);
+    return count;
+  }
+
+  /**
+   * Waits for notifications and copies them into a buffer, replacing the
+   * notifications from any earlier poll.
+   *
+   * @param buffer  Buffer to fill
+   * @param timeout timeout, in seconds
+   * @return Number of notifications, or 0 if timed out
+   * @throws InterruptedException if the poll was canceled or the poller was
+   *                              closed
+   */
+  public int poll(EntryNotificationBuffer buffer, double timeout) throws InterruptedException {
+    buffer.setSize(0);
+    int count = NetworkTablesJNI.pollEntryListenerIntoTimeout(m_handle, buffer, timeout);
+    buffer.setSize(count);
+    return count;
+  }
+
+  /**
+   * Cancels a blocked {@link #poll(EntryNotificationBuffer)}, which throws
+   * InterruptedException.
+   */
+  public void cancelPoll() {
+    NetworkTablesJNI.cancelPollEntryListener(m_handle);
+  }
+}
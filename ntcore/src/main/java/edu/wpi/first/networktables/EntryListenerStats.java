@@ -0,0 +1,82 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+/**
+ * Entry listener dispatch statistics, as returned by
+ * {@link NetworkTableInstance#getEntryListenerStats()}.
+ *
+ * <p>Dispatch latency is the time from a notification being polled from the
+ * native queue to its listener being called.  It grows when listeners are slow
+ * to return, since later notifications wait behind them.
+ */
+public final class EntryListenerStats {
+  private final int m_queueDepth;
+  private final int m_maxQueueDepth;
+  private final long m_dispatchCount;
+  private final long m_totalLatencyNanos;
+  private final long m_maxLatencyNanos;
+
+  EntryListenerStats(int queueDepth, int maxQueueDepth, long dispatchCount,
+                     long totalLatencyNanos, long maxLatencyNanos) {
+    m_queueDepth = queueDepth;
+    m_maxQueueDepth = maxQueueDepth;
+    m_dispatchCount = dispatchCount;
+    m_totalLatencyNanos = totalLatencyNanos;
+    m_maxLatencyNanos = maxLatencyNanos;
+  }
+
+  /**
+   * Gets the number of notifications which have been polled but whose
+   * listeners have not yet been called.
+   *
+   * @return Queue depth
+   */
+  public int getQueueDepth() {
+    return m_queueDepth;
+  }
+
+  /**
+   * Gets the largest queue depth seen since the statistics were last reset.
+   *
+   * @return Maximum queue depth
+   */
+  public int getMaxQueueDepth() {
+    return m_maxQueueDepth;
+  }
+
+  /**
+   * Gets the number of listener calls since the statistics were last reset.
+   *
+   * @return Number of listener calls
+   */
+  public long getDispatchCount() {
+    return m_dispatchCount;
+  }
+
+  /**
+   * Gets the average dispatch latency since the statistics were last reset.
+   *
+   * @return Average latency, in seconds
+   */
+  public double getAverageDispatchLatency() {
+    if (m_dispatchCount == 0) {
+      return 0.0;
+    }
+    return m_totalLatencyNanos / (double) m_dispatchCount / 1e9;
+  }
+
+  /**
+   * Gets the largest dispatch latency since the statistics were last reset.
+   *
+   * @return Maximum latency, in seconds
+   */
+  public double getMaxDispatchLatency() {
+    return m_maxLatencyNanos / 1e9;
+  }
+}
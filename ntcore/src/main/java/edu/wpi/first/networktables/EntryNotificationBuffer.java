@@ -0,0 +1,204 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+/**
+ * A reusable buffer of entry notifications, filled by
+ * {@link EntryListenerPoller#poll(EntryNotificationBuffer)}.
+ *
+ * <p>Each poll overwrites the notifications from the previous one, so polling
+ * does not allocate a notification or value object per event.  Boolean and
+ * double values are stored unboxed.  The buffer only allocates when a poll
+ * returns more notifications than it has room for, in which case it grows to
+ * fit them.
+ *
+ * <p>Notifications are accessed by index, from 0 to {@link #size()} - 1.
+ */
+public final class EntryNotificationBuffer {
+  // Layout of each notification in m_data; must match the JNI code
+  private static final int kListener = 0;
+  private static final int kEntry = 1;
+  private static final int kFlags = 2;
+  private static final int kType = 3;
+  private static final int kTime = 4;
+  private static final int kPayload = 5;
+  private static final int kStride = 6;
+
+  // Read by NetworkTablesJNI.pollEntryListenerInto(), which fills them in
+  private long[] m_data;
+  private Object[] m_values;
+  private int m_size;
+
+  /**
+   * Constructs a buffer.
+   *
+   * @param capacity Number of notifications to allocate room for
+   */
+  public EntryNotificationBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity was not at least 1");
+    }
+    m_data = new long[capacity * kStride];
+    m_values = new Object[capacity];
+  }
+
+  /**
+   * Grows the buffer to hold at least the given number of notifications.
+   * Called by the JNI poll before it fills the buffer.
+   *
+   * @param capacity Number of notifications
+   */
+  void ensureCapacity(int capacity) {
+    if (capacity <= m_values.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, m_values.length * 2);
+    m_data = new long[newCapacity * kStride];
+    m_values = new Object[newCapacity];
+  }
+
+  void setSize(int size) {
+    m_size = size;
+  }
+
+  /**
+   * Gets the number of notifications from the last poll.
+   *
+   * @return Number of notifications
+   */
+  public int size() {
+    return m_size;
+  }
+
+  /**
+   * Gets the number of notifications the buffer can hold without growing.
+   *
+   * @return Capacity
+   */
+  public int getCapacity() {
+    return m_values.length;
+  }
+
+  /**
+   * Gets the listener that was triggered.
+   *
+   * @param index Notification index
+   * @return Listener handle
+   */
+  public int getListener(int index) {
+    return (int) get(index, kListener);
+  }
+
+  /**
+   * Gets the entry handle.
+   *
+   * @param index Notification index
+   * @return Entry handle
+   */
+  public int getEntry(int index) {
+    return (int) get(index, kEntry);
+  }
+
+  /**
+   * Gets the entry name.  This looks up the name, so allocates a string.
+   *
+   * @param index Notification index
+   * @return Entry name
+   */
+  public String getName(int index) {
+    return NetworkTablesJNI.getEntryName(getEntry(index));
+  }
+
+  /**
+   * Gets the update flags.  For example, {@link EntryListenerFlags#kNew} if
+   * the key did not previously exist.
+   *
+   * @param index Notification index
+   * @return Update flags
+   */
+  public int getFlags(int index) {
+    return (int) get(index, kFlags);
+  }
+
+  /**
+   * Gets the type of the new value.
+   *
+   * @param index Notification index
+   * @return Value type
+   */
+  public NetworkTableType getType(int index) {
+    return NetworkTableType.getFromInt((int) get(index, kType));
+  }
+
+  /**
+   * Gets the creation time of the new value.
+   *
+   * @param index Notification index
+   * @return The time, in the units returned by NetworkTablesJNI.now().
+   */
+  public long getTime(int index) {
+    return get(index, kTime);
+  }
+
+  /**
+   * Gets the new boolean value.
+   *
+   * @param index Notification index
+   * @return The boolean value
+   * @throws ClassCastException if the value is not of boolean type.
+   */
+  public boolean getBoolean(int index) {
+    checkType(index, NetworkTableType.kBoolean);
+    return m_data[index * kStride + kPayload] != 0;
+  }
+
+  /**
+   * Gets the new double value.
+   *
+   * @param index Notification index
+   * @return The double value
+   * @throws ClassCastException if the value is not of double type.
+   */
+  public double getDouble(int index) {
+    checkType(index, NetworkTableType.kDouble);
+    return Double.longBitsToDouble(m_data[index * kStride + kPayload]);
+  }
+
+  /**
+   * Gets the new value as an object.  Boolean and double values are boxed,
+   * so use {@link #getBoolean(int)} or {@link #getDouble(int)} for those to
+   * avoid allocating.
+   *
+   * @param index Notification index
+   * @return The value, or null if the entry has no value
+   */
+  public Object getValue(int index) {
+    switch (getType(index)) {
+      case kBoolean:
+        return getBoolean(index);
+      case kDouble:
+        return getDouble(index);
+      default:
+        return m_values[index];
+    }
+  }
+
+  private long get(int index, int field) {
+    if (index < 0 || index >= m_size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of range; size " + m_size);
+    }
+    return m_data[index * kStride + field];
+  }
+
+  private void checkType(int index, NetworkTableType type) {
+    NetworkTableType actual = getType(index);
+    if (actual != type) {
+      throw new ClassCastException("cannot convert " + actual + " to " + type);
+    }
+  }
+}
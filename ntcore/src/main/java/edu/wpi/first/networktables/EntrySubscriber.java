@@ -0,0 +1,192 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+/**
+ * Common base of the typed subscribers.  Applies updates and keeps the time
+ * of the last change and the update queue; subclasses only store the values.
+ *
+ * <p>Updates are written by the subscriber poller thread while holding the
+ * subscriber's monitor, and the queue is read while holding it.
+ */
+abstract class EntrySubscriber implements AutoCloseable {
+  private final NetworkTableEntry m_entry;
+  private final NetworkTableType m_type;
+  private EntrySubscriberPoller m_poller;
+  private volatile long m_lastChange;
+
+  // Listener handle, assigned by the poller
+  int m_listener;
+
+  // Ring of queued update times; the values are in the subclass
+  private final long[] m_queueTimes;
+  private int m_queueHead;
+  private int m_queueCount;
+  private long m_queueOverflowCount;
+
+  EntrySubscriber(NetworkTableEntry entry, NetworkTableType type, int queueSize) {
+    if (queueSize < 0) {
+      throw new IllegalArgumentException("Queue size was negative");
+    }
+    m_entry = entry;
+    m_type = type;
+    m_queueTimes = new long[queueSize];
+  }
+
+  /**
+   * Starts receiving updates.  Called at the end of subclass constructors.
+   */
+  final void start() {
+    m_poller = m_entry.getInstance().getSubscriberPoller();
+    m_poller.add(this);
+  }
+
+  /**
+   * Stops receiving updates.  The last value received is kept.
+   */
+  @Override
+  public void close() {
+    if (m_poller != null) {
+      m_poller.remove(this);
+    }
+  }
+
+  /**
+   * Gets the entry this subscribes to.
+   *
+   * @return Entry
+   */
+  public NetworkTableEntry getEntry() {
+    return m_entry;
+  }
+
+  /**
+   * Gets the time the value last changed, as of the last update received.
+   *
+   * @return The time, in the units returned by NetworkTablesJNI.now(), or 0
+   *         if the entry has had no value
+   */
+  public long getLastChange() {
+    return m_lastChange;
+  }
+
+  /**
+   * Gets the number of updates dropped from the queue because it was full.
+   * The oldest updates are dropped.
+   *
+   * @return Number of updates dropped
+   */
+  public synchronized long getQueueOverflowCount() {
+    return m_queueOverflowCount;
+  }
+
+  /**
+   * Sets the initial value.  Called by the poller before any update.
+   *
+   * @param value Current value of the entry
+   */
+  final synchronized void initialize(NetworkTableValue value) {
+    if (value.getType() == m_type) {
+      setValue(value);
+      m_lastChange = value.getTime();
+    }
+  }
+
+  /**
+   * Applies an update.  Called by the poller thread.
+   *
+   * @param buffer Polled notifications
+   * @param index  Index of the notification for this subscriber
+   */
+  final synchronized void update(EntryNotificationBuffer buffer, int index) {
+    long time = buffer.getTime(index);
+    if ((buffer.getFlags(index) & EntryListenerFlags.kDelete) != 0
+        || buffer.getType(index) != m_type) {
+      resetValue();
+    } else {
+      storeValue(buffer, index, enqueue(time));
+    }
+    m_lastChange = time;
+  }
+
+  /**
+   * Sets the value from the initial value of the entry, which has the
+   * subscriber's type.  Called while holding the monitor.
+   *
+   * @param value Value of the entry
+   */
+  abstract void setValue(NetworkTableValue value);
+
+  /**
+   * Sets the value to the default value.  Called while holding the monitor.
+   */
+  abstract void resetValue();
+
+  /**
+   * Sets the value from an update, which has the subscriber's type, and
+   * stores it in the queue.  Called while holding the monitor.
+   *
+   * @param buffer     Polled notifications
+   * @param index      Index of the notification for this subscriber
+   * @param queueIndex Index in the queue values where the value is stored, or
+   *                   -1 if it is not queued
+   */
+  abstract void storeValue(EntryNotificationBuffer buffer, int index, int queueIndex);
+
+  /**
+   * Removes queued updates, oldest first.  Updates which do not fit in the
+   * arrays are left in the queue.
+   *
+   * @param queueValues The subclass's queue values, an array of the queue size
+   * @param values      Array of the same type where the values are stored
+   * @param length      Length of values
+   * @param times       Array where the time of each update is stored
+   * @return The number of updates removed
+   */
+  final synchronized int dequeue(Object queueValues, Object values, int length, long[] times) {
+    int count = Math.min(m_queueCount, Math.min(length, times.length));
+    // The queued updates wrap at most once around the end of the ring
+    int first = Math.min(count, m_queueTimes.length - m_queueHead);
+    System.arraycopy(queueValues, m_queueHead, values, 0, first);
+    System.arraycopy(m_queueTimes, m_queueHead, times, 0, first);
+    System.arraycopy(queueValues, 0, values, first, count - first);
+    System.arraycopy(m_queueTimes, 0, times, first, count - first);
+    int head = m_queueHead + count;
+    m_queueHead = head >= m_queueTimes.length ? head - m_queueTimes.length : head;
+    m_queueCount -= count;
+    return count;
+  }
+
+  /**
+   * Adds an update time to the queue, dropping the oldest if it is full.
+   *
+   * @param time Time of the update
+   * @return Index where the subclass stores the value, or -1 if the queue has
+   *         no room at all
+   */
+  private int enqueue(long time) {
+    int size = m_queueTimes.length;
+    if (size == 0) {
+      return -1;
+    }
+    int index;
+    if (m_queueCount == size) {
+      index = m_queueHead;
+      m_queueHead = m_queueHead + 1 == size ? 0 : m_queueHead + 1;
+      m_queueOverflowCount++;
+    } else {
+      index = m_queueHead + m_queueCount;
+      if (index >= size) {
+        index -= size;
+      }
+      m_queueCount++;
+    }
+    m_queueTimes[index] = time;
+    return index;
+  }
+}
@@ -0,0 +1,98 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the subscribers of an instance up to date.
+ *
+ * <p>Every subscriber has a listener on a single poller, and one thread polls
+ * it, so the updates to all subscribed entries are delivered in bulk.  The
+ * subscribers are kept sorted by listener handle so each notification is
+ * routed without allocating.
+ *
+ * <p>Subscribers are added and removed, and each polled batch is delivered,
+ * while holding the same lock.  A subscriber reads its initial value after its
+ * listener is created but before any of its notifications are delivered, so no
+ * update is missed and none is applied out of order.
+ */
+final class EntrySubscriberPoller {
+  private static final int kFlags = EntryListenerFlags.kNew | EntryListenerFlags.kUpdate
+      | EntryListenerFlags.kDelete | EntryListenerFlags.kLocal;
+
+  private final EntryListenerPoller m_poller;
+  private final EntryNotificationBuffer m_buffer = new EntryNotificationBuffer(256);
+
+  // Sorted by listener handle
+  private final Object m_lock = new Object();
+  private int[] m_handles = new int[16];
+  private EntrySubscriber[] m_subscribers = new EntrySubscriber[16];
+  private int m_count;
+
+  EntrySubscriberPoller(NetworkTableInstance inst) {
+    m_poller = new EntryListenerPoller(inst);
+    Thread thread = new Thread(this::run, "NTSubscriber");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  void add(EntrySubscriber subscriber) {
+    synchronized (m_lock) {
+      int handle = m_poller.addListener(subscriber.getEntry(), kFlags);
+      subscriber.m_listener = handle;
+
+      int index = -(Arrays.binarySearch(m_handles, 0, m_count, handle) + 1);
+      if (m_count == m_handles.length) {
+        m_handles = Arrays.copyOf(m_handles, m_count * 2);
+        m_subscribers = Arrays.copyOf(m_subscribers, m_count * 2);
+      }
+      System.arraycopy(m_handles, index, m_handles, index + 1, m_count - index);
+      System.arraycopy(m_subscribers, index, m_subscribers, index + 1, m_count - index);
+      m_handles[index] = handle;
+      m_subscribers[index] = subscriber;
+      m_count++;
+
+      subscriber.initialize(subscriber.getEntry().getValue());
+    }
+  }
+
+  void remove(EntrySubscriber subscriber) {
+    synchronized (m_lock) {
+      int index = Arrays.binarySearch(m_handles, 0, m_count, subscriber.m_listener);
+      if (index < 0) {
+        return;
+      }
+      m_poller.removeListener(subscriber.m_listener);
+      m_count--;
+      System.arraycopy(m_handles, index + 1, m_handles, index, m_count - index);
+      System.arraycopy(m_subscribers, index + 1, m_subscribers, index, m_count - index);
+      m_subscribers[m_count] = null;
+    }
+  }
+
+  private void run() {
+    while (!Thread.interrupted()) {
+      int count;
+      try {
+        count = m_poller.poll(m_buffer);
+      } catch (InterruptedException ex) {
+        // The instance was destroyed
+        break;
+      }
+      synchronized (m_lock) {
+        for (int i = 0; i < count; i++) {
+          int index = Arrays.binarySearch(m_handles, 0, m_count, m_buffer.getListener(i));
+          if (index >= 0) {
+            m_subscribers[index].update(m_buffer, i);
+          }
+        }
+      }
+    }
+  }
+}
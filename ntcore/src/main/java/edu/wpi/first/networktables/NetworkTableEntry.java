@@ -102,6 +102,26 @@ public final class NetworkTableEntry {
     return NetworkTablesJNI.getEntryLastChange(m_handle);
   }
 
+  /**
+   * Gets the number of bytes of the entry's assignments and updates sent to
+   * all connections.
+   *
+   * @return Bytes sent
+   */
+  public long getBytesSent() {
+    return NetworkTablesJNI.getEntryBytesSent(m_handle);
+  }
+
+  /**
+   * Gets the number of bytes of the entry's assignments and updates received
+   * from all connections.
+   *
+   * @return Bytes received
+   */
+  public long getBytesReceived() {
+    return NetworkTablesJNI.getEntryBytesReceived(m_handle);
+  }
+
   /**
    * Gets combined information about the entry.
    *
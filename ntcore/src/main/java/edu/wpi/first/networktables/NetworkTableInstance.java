@@ -50,6 +50,16 @@ public final class NetworkTableInstance implements AutoCloseable {
    */
   public static final int kDefaultPort = 1735;
 
+  /**
+   * Persistent file formats for
+   * {@link #startServer(String, String, int, int)}.  The text format rewrites
+   * the whole file on every save.  The binary log format appends just the
+   * values which changed, is compacted in the background as it grows, and
+   * loads faster.
+   */
+  public static final int kPersistText = 0;
+  public static final int kPersistBinaryLog = 1;
+
   /**
    * Construct from native handle.
    *
@@ -224,6 +234,22 @@ public final class NetworkTableInstance implements AutoCloseable {
   private int m_entryListenerPoller;
   private boolean m_entryListenerWaitQueue;
   private final Condition m_entryListenerWaitQueueCond = m_entryListenerLock.newCondition();
+  private final EntryListenerDispatcher m_entryListenerDispatcher
+      = new EntryListenerDispatcher("NTEntryListener");
+  private EntrySubscriberPoller m_subscriberPoller;
+
+  /**
+   * Gets the poller which updates the subscribers of this instance, starting
+   * it the first time it is needed.
+   *
+   * @return Subscriber poller
+   */
+  synchronized EntrySubscriberPoller getSubscriberPoller() {
+    if (m_subscriberPoller == null) {
+      m_subscriberPoller = new EntrySubscriberPoller(this);
+    }
+    return m_subscriberPoller;
+  }
 
   private void startEntryListenerThread() {
     m_entryListenerThread = new Thread(() -> {
@@ -248,26 +274,34 @@ public final class NetworkTableInstance implements AutoCloseable {
           wasInterrupted = true;
           break;
         }
-        for (EntryNotification event : events) {
-          EntryConsumer<EntryNotification> listener;
-          m_entryListenerLock.lock();
-          try {
-            listener = m_entryListeners.get(event.listener);
-          } finally {
-            m_entryListenerLock.unlock();
-          }
-          if (listener != null) {
-            event.m_entryObject = listener.m_entry;
+        long pollTime = System.nanoTime();
+        m_entryListenerDispatcher.beginBatch(events.length);
+        int dispatched = 0;
+        try {
+          for (EntryNotification event : events) {
+            // dispatch() accounts for the event itself if it is interrupted
+            dispatched++;
+            EntryConsumer<EntryNotification> listener;
+            m_entryListenerLock.lock();
             try {
-              listener.m_consumer.accept(event);
-            } catch (Throwable throwable) {
-              System.err.println("Unhandled exception during entry listener callback: "
-                  + throwable.toString());
-              throwable.printStackTrace();
+              listener = m_entryListeners.get(event.listener);
+            } finally {
+              m_entryListenerLock.unlock();
+            }
+            if (listener != null) {
+              event.m_entryObject = listener.m_entry;
+              m_entryListenerDispatcher.dispatch(event, listener.m_consumer, pollTime);
+            } else {
+              m_entryListenerDispatcher.dispatch(event, null, pollTime);
             }
           }
+        } catch (InterruptedException ex) {
+          m_entryListenerDispatcher.abortBatch(events.length - dispatched);
+          Thread.currentThread().interrupt();
+          break;
         }
       }
+      m_entryListenerDispatcher.stop();
       m_entryListenerLock.lock();
       try {
         if (!wasInterrupted) {
@@ -366,9 +400,9 @@ public final class NetworkTableInstance implements AutoCloseable {
           try {
             if (timeout < 0) {
               m_entryListenerWaitQueueCond.await();
-            } else {
-              return m_entryListenerWaitQueueCond.await((long) (timeout * 1e9),
-                  TimeUnit.NANOSECONDS);
+            } else if (!m_entryListenerWaitQueueCond.await((long) (timeout * 1e9),
+                TimeUnit.NANOSECONDS)) {
+              return false;
             }
           } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
@@ -379,7 +413,54 @@ public final class NetworkTableInstance implements AutoCloseable {
     } finally {
       m_entryListenerLock.unlock();
     }
-    return true;
+    // Every polled notification has been dispatched; wait for the pool to deliver them
+    return m_entryListenerDispatcher.awaitIdle(timeout);
+  }
+
+  /**
+   * Sets how entry listeners are called.  By default, all entry listeners are
+   * called one after another on a single thread, so a slow listener delays
+   * every other listener.  With a dispatch pool, each listener is assigned to
+   * one of several worker threads, and only delays the listeners sharing its
+   * worker.  Each listener still receives its notifications in order and never
+   * runs concurrently with itself, but different listeners may run
+   * concurrently.
+   *
+   * <p>Each worker queues at most queueCapacity notifications.  When a queue
+   * is full, polling stops until the worker catches up, which bounds how far
+   * listeners lag behind the entry updates.
+   *
+   * <p>The change takes effect before the next batch of notifications is
+   * delivered.
+   *
+   * @param threads       number of worker threads, or 0 to call all
+   *                      listeners on the entry listener thread
+   * @param queueCapacity maximum number of notifications queued per worker
+   */
+  public void setEntryListenerDispatchPool(int threads, int queueCapacity) {
+    if (threads < 0) {
+      throw new IllegalArgumentException("Number of threads was negative");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Queue capacity was not at least 1");
+    }
+    m_entryListenerDispatcher.setPool(threads, queueCapacity);
+  }
+
+  /**
+   * Gets entry listener queue depth and dispatch latency statistics.
+   *
+   * @return Statistics
+   */
+  public EntryListenerStats getEntryListenerStats() {
+    return m_entryListenerDispatcher.getStats();
+  }
+
+  /**
+   * Resets the entry listener dispatch counters and maxima.
+   */
+  public void resetEntryListenerStats() {
+    m_entryListenerDispatcher.resetStats();
   }
 
   private final ReentrantLock m_connectionListenerLock = new ReentrantLock();
@@ -722,6 +803,22 @@ public final class NetworkTableInstance implements AutoCloseable {
     NetworkTablesJNI.startServer(m_handle, persistFilename, listenAddress, port);
   }
 
+  /**
+   * Starts a server using the specified filename, listening address, port,
+   * and persistent file format.  A text file is converted to the binary log
+   * format by the first save.
+   *
+   * @param persistFilename  the name of the persist file to use
+   * @param listenAddress    the address to listen on, or empty to listen on any
+   *                         address
+   * @param port             port to communicate over
+   * @param persistFormat    {@link #kPersistText} or {@link #kPersistBinaryLog}
+   */
+  public void startServer(String persistFilename, String listenAddress, int port,
+                          int persistFormat) {
+    NetworkTablesJNI.startServer(m_handle, persistFilename, listenAddress, port, persistFormat);
+  }
+
   /**
    * Stops the server if it is running.
    */
@@ -935,6 +1032,18 @@ public final class NetworkTableInstance implements AutoCloseable {
     NetworkTablesJNI.setUpdateRate(m_handle, interval);
   }
 
+  /**
+   * Set whether double array updates are sent as deltas.
+   * If enabled, an update to a double array the same size as the previous
+   * value is sent as just the changed elements, if that is smaller, to
+   * connections which support it.  Disabled by default.
+   *
+   * @param enabled true to send delta updates
+   */
+  public void setDeltaEncoding(boolean enabled) {
+    NetworkTablesJNI.setDeltaEncoding(m_handle, enabled);
+  }
+
   /**
    * Flushes all updated values immediately to the network.
    * Note: This is rate-limited to protect the network from flooding.
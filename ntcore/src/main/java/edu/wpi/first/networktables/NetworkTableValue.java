@@ -17,6 +17,23 @@ public final class NetworkTableValue {
     m_type = type;
     m_value = value;
     m_time = time;
+    if (type == NetworkTableType.kBoolean && value instanceof Boolean) {
+      m_boolean = (Boolean) value;
+    } else if (type == NetworkTableType.kDouble && value instanceof Number) {
+      m_double = ((Number) value).doubleValue();
+    }
+  }
+
+  NetworkTableValue(boolean value, long time) {
+    m_type = NetworkTableType.kBoolean;
+    m_boolean = value;
+    m_time = time;
+  }
+
+  NetworkTableValue(double value, long time) {
+    m_type = NetworkTableType.kDouble;
+    m_double = value;
+    m_time = time;
   }
 
   NetworkTableValue(NetworkTableType type, Object value) {
@@ -37,11 +54,20 @@ public final class NetworkTableValue {
   }
 
   /**
-   * Get the data value stored.
+   * Get the data value stored.  Boolean and double values are stored
+   * unboxed, so this allocates a box the first time it is called for them;
+   * use {@link #getBoolean()} or {@link #getDouble()} to avoid that.
    *
    * @return The type.
    */
   public Object getValue() {
+    if (m_value == null) {
+      if (m_type == NetworkTableType.kBoolean) {
+        m_value = Boolean.valueOf(m_boolean);
+      } else if (m_type == NetworkTableType.kDouble) {
+        m_value = Double.valueOf(m_double);
+      }
+    }
     return m_value;
   }
 
@@ -153,7 +179,7 @@ public final class NetworkTableValue {
     if (m_type != NetworkTableType.kBoolean) {
       throw new ClassCastException("cannot convert " + m_type + " to boolean");
     }
-    return ((Boolean) m_value).booleanValue();
+    return m_boolean;
   }
 
   /**
@@ -166,7 +192,7 @@ public final class NetworkTableValue {
     if (m_type != NetworkTableType.kDouble) {
       throw new ClassCastException("cannot convert " + m_type + " to double");
     }
-    return ((Number) m_value).doubleValue();
+    return m_double;
   }
 
   /**
@@ -258,7 +284,7 @@ public final class NetworkTableValue {
    * @return The entry value
    */
   public static NetworkTableValue makeBoolean(boolean value) {
-    return new NetworkTableValue(NetworkTableType.kBoolean, Boolean.valueOf(value));
+    return new NetworkTableValue(value, NetworkTablesJNI.now());
   }
 
   /**
@@ -269,7 +295,7 @@ public final class NetworkTableValue {
    * @return The entry value
    */
   public static NetworkTableValue makeBoolean(boolean value, long time) {
-    return new NetworkTableValue(NetworkTableType.kBoolean, Boolean.valueOf(value), time);
+    return new NetworkTableValue(value, time);
   }
 
   /**
@@ -279,7 +305,7 @@ public final class NetworkTableValue {
    * @return The entry value
    */
   public static NetworkTableValue makeDouble(double value) {
-    return new NetworkTableValue(NetworkTableType.kDouble, Double.valueOf(value));
+    return new NetworkTableValue(value, NetworkTablesJNI.now());
   }
 
   /**
@@ -290,7 +316,7 @@ public final class NetworkTableValue {
    * @return The entry value
    */
   public static NetworkTableValue makeDouble(double value, long time) {
-    return new NetworkTableValue(NetworkTableType.kDouble, Double.valueOf(value), time);
+    return new NetworkTableValue(value, time);
   }
 
   /**
@@ -470,12 +496,21 @@ public final class NetworkTableValue {
       return false;
     }
     NetworkTableValue ntOther = (NetworkTableValue) other;
-    return m_type == ntOther.m_type && m_value.equals(ntOther.m_value);
+    if (m_type != ntOther.m_type) {
+      return false;
+    }
+    if (m_type == NetworkTableType.kBoolean) {
+      return m_boolean == ntOther.m_boolean;
+    }
+    if (m_type == NetworkTableType.kDouble) {
+      return Double.doubleToLongBits(m_double) == Double.doubleToLongBits(ntOther.m_double);
+    }
+    return m_value.equals(ntOther.m_value);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(m_type, m_value);
+    return Objects.hash(m_type, getValue());
   }
 
   static boolean[] toNative(Boolean[] arr) {
@@ -512,5 +547,7 @@ public final class NetworkTableValue {
 
   private NetworkTableType m_type;
   private Object m_value;
+  private boolean m_boolean;
+  private double m_double;
   private long m_time;
 }
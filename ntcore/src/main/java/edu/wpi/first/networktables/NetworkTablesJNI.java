@@ -38,11 +38,14 @@ public final class NetworkTablesJNI {
   public static native int[] getEntries(int inst, String prefix, int types);
   public static native String getEntryName(int entry);
   public static native long getEntryLastChange(int entry);
+  public static native long getEntryBytesSent(int entry);
+  public static native long getEntryBytesReceived(int entry);
 
   public static native int getType(int entry);
 
   public static native boolean setBoolean(int entry, long time, boolean value, boolean force);
   public static native boolean setDouble(int entry, long time, double value, boolean force);
+  public static native void setDoublesAndBooleans(int[] doubleEntries, double[] doubleValues, int doubleCount, int[] booleanEntries, boolean[] booleanValues, int booleanCount);
   public static native boolean setString(int entry, long time, String value, boolean force);
   public static native boolean setRaw(int entry, long time, byte[] value, boolean force);
   public static native boolean setRaw(int entry, long time, ByteBuffer value, int len, boolean force);
@@ -84,6 +87,8 @@ public final class NetworkTablesJNI {
   public static native int addPolledEntryListener(int poller, int entry, int flags);
   public static native EntryNotification[] pollEntryListener(NetworkTableInstance inst, int poller) throws InterruptedException;
   public static native EntryNotification[] pollEntryListenerTimeout(NetworkTableInstance inst, int poller, double timeout) throws InterruptedException;
+  public static native int pollEntryListenerInto(int poller, EntryNotificationBuffer buffer) throws InterruptedException;
+  public static native int pollEntryListenerIntoTimeout(int poller, EntryNotificationBuffer buffer, double timeout) throws InterruptedException;
   public static native void cancelPollEntryListener(int poller);
   public static native void removeEntryListener(int entryListener);
   public static native boolean waitForEntryListenerQueue(int inst, double timeout);
@@ -115,6 +120,7 @@ public final class NetworkTablesJNI {
   public static native void setNetworkIdentity(int inst, String name);
   public static native int getNetworkMode(int inst);
   public static native void startServer(int inst, String persistFilename, String listenAddress, int port);
+  public static native void startServer(int inst, String persistFilename, String listenAddress, int port, int persistFormat);
   public static native void stopServer(int inst);
   public static native void startClient(int inst);
   public static native void startClient(int inst, String serverName, int port);
@@ -127,6 +133,7 @@ public final class NetworkTablesJNI {
   public static native void startDSClient(int inst, int port);
   public static native void stopDSClient(int inst);
   public static native void setUpdateRate(int inst, double interval);
+  public static native void setDeltaEncoding(int inst, boolean enabled);
 
   public static native void flush(int inst);
 
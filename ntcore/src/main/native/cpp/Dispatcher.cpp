@@ -17,16 +17,19 @@
 #include "IStorage.h"
 #include "Log.h"
 #include "NetworkConnection.h"
+#include "PersistentLog.h"
 
 using namespace nt;
 
 void Dispatcher::StartServer(const Twine& persist_filename,
-                             const char* listen_address, unsigned int port) {
+                             const char* listen_address, unsigned int port,
+                             unsigned int persist_format) {
   std::string listen_address_copy(StringRef(listen_address).trim());
   DispatcherBase::StartServer(
       persist_filename,
       std::unique_ptr<wpi::NetworkAcceptor>(new wpi::TCPAcceptor(
-          static_cast<int>(port), listen_address_copy.c_str(), m_logger)));
+          static_cast<int>(port), listen_address_copy.c_str(), m_logger)),
+      persist_format);
 }
 
 void Dispatcher::SetServer(const char* server_name, unsigned int port) {
@@ -109,6 +112,7 @@ DispatcherBase::DispatcherBase(IStorage& storage, IConnectionNotifier& notifier,
     : m_storage(storage), m_notifier(notifier), m_logger(logger) {
   m_active = false;
   m_update_rate = 100;
+  m_delta_encoding = false;
 }
 
 DispatcherBase::~DispatcherBase() { Stop(); }
@@ -117,7 +121,8 @@ unsigned int DispatcherBase::GetNetworkMode() const { return m_networkMode; }
 
 void DispatcherBase::StartServer(
     const Twine& persist_filename,
-    std::unique_ptr<wpi::NetworkAcceptor> acceptor) {
+    std::unique_ptr<wpi::NetworkAcceptor> acceptor,
+    unsigned int persist_format) {
   {
     std::lock_guard<wpi::mutex> lock(m_user_mutex);
     if (m_active) return;
@@ -132,15 +137,26 @@ void DispatcherBase::StartServer(
       (!persist_filename.isSingleStringRef() ||
        !persist_filename.getSingleStringRef().empty())) {
     bool first = true;
-    m_storage.LoadPersistent(
-        persist_filename, [&](size_t line, const char* msg) {
-          if (first) {
-            first = false;
-            WARNING("When reading initial persistent values from '"
-                    << persist_filename << "':");
-          }
-          WARNING(persist_filename << ":" << line << ": " << msg);
-        });
+    auto warn = [&](size_t line, const char* msg) {
+      if (first) {
+        first = false;
+        WARNING("When reading initial persistent values from '"
+                << persist_filename << "':");
+      }
+      WARNING(persist_filename << ":" << line << ": " << msg);
+    };
+    if (persist_format == NT_PERSIST_BINARY_LOG) {
+      // A text file is loaded as such, and converted by the first save.
+      m_persist_log.reset(new PersistentLog(m_logger));
+      std::vector<PersistentLog::Entry> entries;
+      if (m_persist_log->Open(persist_filename, &entries, warn))
+        m_storage.LoadPersistentEntries(entries);
+      else
+        m_storage.LoadPersistent(persist_filename, warn);
+    } else {
+      m_persist_log.reset();
+      m_storage.LoadPersistent(persist_filename, warn);
+    }
   }
 
   m_storage.SetDispatcher(this, true);
@@ -182,6 +198,13 @@ void DispatcherBase::Stop() {
   if (m_dispatch_thread.joinable()) m_dispatch_thread.join();
   if (m_clientserver_thread.joinable()) m_clientserver_thread.join();
 
+  // The log is cheap to save, so save any last changes.
+  if (m_persist_log) {
+    SavePersistentLog();
+    m_persist_log->Close();
+    m_persist_log.reset();
+  }
+
   std::vector<std::shared_ptr<INetworkConnection>> conns;
   {
     std::lock_guard<wpi::mutex> lock(m_user_mutex);
@@ -201,6 +224,12 @@ void DispatcherBase::SetUpdateRate(double interval) {
   m_update_rate = static_cast<unsigned int>(interval * 1000);
 }
 
+void DispatcherBase::SetDeltaEncoding(bool enabled) {
+  std::lock_guard<wpi::mutex> lock(m_user_mutex);
+  m_delta_encoding = enabled;
+  for (auto& conn : m_connections) conn->set_delta_encoding(enabled);
+}
+
 void DispatcherBase::SetIdentity(const Twine& name) {
   std::lock_guard<wpi::mutex> lock(m_user_mutex);
   m_identity = name.str();
@@ -314,8 +343,12 @@ void DispatcherBase::DispatchThreadMain() {
       next_save_time += save_delta_time;
       // handle loop taking too long
       if (start > next_save_time) next_save_time = start + save_delta_time;
-      const char* err = m_storage.SavePersistent(m_persist_filename, true);
-      if (err) WARNING("periodic persistent save: " << err);
+      if (m_persist_log) {
+        SavePersistentLog();
+      } else {
+        const char* err = m_storage.SavePersistent(m_persist_filename, true);
+        if (err) WARNING("periodic persistent save: " << err);
+      }
     }
 
     {
@@ -391,8 +424,11 @@ void DispatcherBase::ServerThreadMain() {
     conn->set_process_incoming(
         std::bind(&IStorage::ProcessIncoming, &m_storage, _1, _2,
                   std::weak_ptr<NetworkConnection>(conn)));
+    conn->set_wire_bytes(
+        std::bind(&IStorage::AddWireBytes, &m_storage, _1, _2));
     {
       std::lock_guard<wpi::mutex> lock(m_user_mutex);
+      conn->set_delta_encoding(m_delta_encoding);
       // reuse dead connection slots
       bool placed = false;
       for (auto& c : m_connections) {
@@ -448,6 +484,9 @@ void DispatcherBase::ClientThreadMain() {
     conn->set_process_incoming(
         std::bind(&IStorage::ProcessIncoming, &m_storage, _1, _2,
                   std::weak_ptr<NetworkConnection>(conn)));
+    conn->set_wire_bytes(
+        std::bind(&IStorage::AddWireBytes, &m_storage, _1, _2));
+    conn->set_delta_encoding(m_delta_encoding);
     m_connections.resize(0);  // disconnect any current
     m_connections.emplace_back(conn);
     conn->set_proto_rev(m_reconnect_proto_rev);
@@ -496,6 +535,8 @@ bool DispatcherBase::ClientHandshake(
     if (!msg->Is(Message::kServerHello)) return false;
     conn.set_remote_id(msg->str());
     if ((msg->flags() & 1) != 0) new_server = false;
+    if ((msg->flags() & Message::kDeltaUpdatesSupported) != 0)
+      conn.set_delta_updates(true);
     // get the next message
     msg = get_msg();
   }
@@ -533,6 +574,9 @@ bool DispatcherBase::ClientHandshake(
 
   m_storage.ApplyInitialAssignments(conn, incoming, new_server, &outgoing);
 
+  if (conn.delta_updates())
+    outgoing.emplace_back(Message::DeltaUpdatesAccept());
+
   if (conn.proto_rev() >= 0x0300)
     outgoing.emplace_back(Message::ClientHelloDone());
 
@@ -577,7 +621,8 @@ bool DispatcherBase::ServerHandshake(
   // Start with server hello.  TODO: initial connection flag
   if (proto_rev >= 0x0300) {
     std::lock_guard<wpi::mutex> lock(m_user_mutex);
-    outgoing.emplace_back(Message::ServerHello(0u, m_identity));
+    outgoing.emplace_back(
+        Message::ServerHello(Message::kDeltaUpdatesSupported, m_identity));
   }
 
   // Get snapshot of initial assignments
@@ -610,6 +655,12 @@ bool DispatcherBase::ServerHandshake(
         msg = get_msg();
         continue;
       }
+      // the client can receive delta updates
+      if (msg->Is(Message::kDeltaUpdatesAccept)) {
+        conn.set_delta_updates(true);
+        msg = get_msg();
+        continue;
+      }
       if (!msg->Is(Message::kEntryAssign)) {
         // unexpected message
         DEBUG("server: received message ("
@@ -639,3 +690,18 @@ void DispatcherBase::ClientReconnect(unsigned int proto_rev) {
   }
   m_reconnect_cv.notify_one();
 }
+
+void DispatcherBase::SavePersistentLog() {
+  std::vector<PersistentLog::Entry> entries;
+  if (m_storage.GetPersistentChanges(&entries)) {
+    const char* err = m_persist_log->Append(entries);
+    if (err) WARNING("periodic persistent save: " << err);
+  }
+
+  // Changes made after the snapshot are appended to the new file.
+  if (m_persist_log->NeedsCompaction()) {
+    entries.clear();
+    m_storage.GetPersistentSnapshot(&entries);
+    m_persist_log->StartCompaction(std::move(entries));
+  }
+}
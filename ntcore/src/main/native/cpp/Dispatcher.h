@@ -36,6 +36,7 @@ namespace nt {
 class IConnectionNotifier;
 class IStorage;
 class NetworkConnection;
+class PersistentLog;
 
 class DispatcherBase : public IDispatcher {
   friend class DispatcherTest;
@@ -49,10 +50,12 @@ class DispatcherBase : public IDispatcher {
 
   unsigned int GetNetworkMode() const;
   void StartServer(const Twine& persist_filename,
-                   std::unique_ptr<wpi::NetworkAcceptor> acceptor);
+                   std::unique_ptr<wpi::NetworkAcceptor> acceptor,
+                   unsigned int persist_format);
   void StartClient();
   void Stop();
   void SetUpdateRate(double interval);
+  void SetDeltaEncoding(bool enabled);
   void SetIdentity(const Twine& name);
   void Flush();
   std::vector<ConnectionInfo> GetConnections() const;
@@ -89,6 +92,8 @@ class DispatcherBase : public IDispatcher {
 
   void ClientReconnect(unsigned int proto_rev = 0x0300);
 
+  void SavePersistentLog();
+
   void QueueOutgoing(std::shared_ptr<Message> msg, INetworkConnection* only,
                      INetworkConnection* except) override;
 
@@ -96,6 +101,8 @@ class DispatcherBase : public IDispatcher {
   IConnectionNotifier& m_notifier;
   unsigned int m_networkMode = NT_NET_MODE_NONE;
   std::string m_persist_filename;
+  // Only used with the binary log format
+  std::unique_ptr<PersistentLog> m_persist_log;
   std::thread m_dispatch_thread;
   std::thread m_clientserver_thread;
 
@@ -111,6 +118,7 @@ class DispatcherBase : public IDispatcher {
 
   std::atomic_bool m_active;       // set to false to terminate threads
   std::atomic_uint m_update_rate;  // periodic dispatch update rate, in ms
+  bool m_delta_encoding;           // protected by user mutex
 
   // Condition variable for forced dispatch wakeup (flush)
   wpi::mutex m_flush_mutex;
@@ -136,7 +144,7 @@ class Dispatcher : public DispatcherBase {
       : DispatcherBase(storage, notifier, logger) {}
 
   void StartServer(const Twine& persist_filename, const char* listen_address,
-                   unsigned int port);
+                   unsigned int port, unsigned int persist_format);
 
   void SetServer(const char* server_name, unsigned int port);
   void SetServer(ArrayRef<std::pair<StringRef, unsigned int>> servers);
@@ -34,6 +34,8 @@ class INetworkConnection {
 
   virtual State state() const = 0;
   virtual void set_state(State state) = 0;
+
+  virtual void set_delta_encoding(bool enabled) = 0;
 };
 
 }  // namespace nt
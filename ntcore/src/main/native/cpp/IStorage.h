@@ -10,6 +10,8 @@
 
 #include <functional>
 #include <memory>
+#include <string>
+#include <utility>
 #include <vector>
 
 #include <wpi/ArrayRef.h>
@@ -51,6 +53,11 @@ class IStorage {
       INetworkConnection& conn, wpi::ArrayRef<std::shared_ptr<Message>> msgs,
       bool new_server, std::vector<std::shared_ptr<Message>>* out_msgs) = 0;
 
+  // Counts the bytes of entry assignments and updates sent or received on
+  // a connection, by entry id.
+  virtual void AddWireBytes(
+      wpi::ArrayRef<std::pair<unsigned int, size_t>> bytes, bool sent) = 0;
+
   // Filename-based save/load functions.  Used both by periodic saves and
   // accessible directly via the user API.
   virtual const char* SavePersistent(const Twine& filename,
@@ -58,6 +65,22 @@ class IStorage {
   virtual const char* LoadPersistent(
       const Twine& filename,
       std::function<void(size_t line, const char* msg)> warn) = 0;
+
+  // Entry-based save/load functions.  Used by periodic saves in the binary
+  // log format, which only writes the entries that changed.
+  virtual bool GetPersistentEntries(
+      bool periodic,
+      std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
+      const = 0;
+  virtual bool GetPersistentChanges(
+      std::vector<std::pair<std::string, std::shared_ptr<Value>>>* changes)
+      const = 0;
+  virtual bool GetPersistentSnapshot(
+      std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
+      const = 0;
+  virtual void LoadPersistentEntries(
+      wpi::ArrayRef<std::pair<std::string, std::shared_ptr<Value>>>
+          entries) = 0;
 };
 
 }  // namespace nt
@@ -18,7 +18,8 @@
 using namespace nt;
 
 std::shared_ptr<Message> Message::Read(WireDecoder& decoder,
-                                       GetEntryTypeFunc get_entry_type) {
+                                       GetEntryTypeFunc get_entry_type,
+                                       GetDeltaBaseFunc get_delta_base) {
   unsigned int msg_type = 0;
   if (!decoder.Read8(&msg_type)) return nullptr;
   auto msg =
@@ -57,6 +58,12 @@ std::shared_ptr<Message> Message::Read(WireDecoder& decoder,
         return nullptr;
       }
       break;
+    case kDeltaUpdatesAccept:
+      if (decoder.proto_rev() < 0x0300u) {
+        decoder.set_error("received DELTA_UPDATES_ACCEPT in protocol < 3.0");
+        return nullptr;
+      }
+      break;
     case kEntryAssign: {
       if (!decoder.ReadString(&msg->m_str)) return nullptr;  // name
       NT_Type type;
@@ -115,6 +122,52 @@ std::shared_ptr<Message> Message::Read(WireDecoder& decoder,
       }
       break;
     }
+    case kEntryDeltaUpdate: {
+      if (decoder.proto_rev() < 0x0300u) {
+        decoder.set_error("received ENTRY_DELTA_UPDATE in protocol < 3.0");
+        return nullptr;
+      }
+      if (!decoder.Read16(&msg->m_id)) return nullptr;           // id
+      if (!decoder.Read16(&msg->m_seq_num_uid)) return nullptr;  // seq num
+      if (!decoder.Read16(&msg->m_base_seq_num)) return nullptr;
+      auto base = get_delta_base(msg->m_id, msg->m_base_seq_num);
+      std::vector<double> arr;
+      if (base && base->IsDoubleArray()) {
+        auto base_arr = base->GetDoubleArray();
+        arr.assign(base_arr.begin(), base_arr.end());
+      } else {
+        base.reset();
+      }
+      // changed elements; all of them must be read even without a base
+      uint64_t count;
+      if (!decoder.ReadUleb128(&count)) return nullptr;
+      uint64_t index = 0;
+      for (; count > 0; --count) {
+        uint64_t gap;
+        double val;
+        if (!decoder.ReadUleb128(&gap)) return nullptr;
+        if (!decoder.ReadDouble(&val)) return nullptr;
+        index += gap;
+        if (index < arr.size())
+          arr[index] = val;
+        else
+          base.reset();  // doesn't match the base value
+        ++index;
+      }
+      if (base) {
+        msg->m_type = kEntryUpdate;
+        msg->m_value = Value::MakeDoubleArray(std::move(arr));
+      }
+      break;
+    }
+    case kEntryResync: {
+      if (decoder.proto_rev() < 0x0300u) {
+        decoder.set_error("received ENTRY_RESYNC in protocol < 3.0");
+        return nullptr;
+      }
+      if (!decoder.Read16(&msg->m_id)) return nullptr;
+      break;
+    }
     case kExecuteRpc: {
       if (decoder.proto_rev() < 0x0300u) {
         decoder.set_error("received EXECUTE_RPC in protocol < 3.0");
@@ -189,6 +242,24 @@ std::shared_ptr<Message> Message::EntryUpdate(unsigned int id,
   return msg;
 }
 
+std::shared_ptr<Message> Message::EntryDeltaUpdate(
+    unsigned int id, unsigned int seq_num, std::shared_ptr<Value> value,
+    unsigned int base_seq_num, std::shared_ptr<Value> base_value) {
+  auto msg = std::make_shared<Message>(kEntryDeltaUpdate, private_init());
+  msg->m_value = value;
+  msg->m_id = id;
+  msg->m_seq_num_uid = seq_num;
+  msg->m_base_value = base_value;
+  msg->m_base_seq_num = base_seq_num;
+  return msg;
+}
+
+std::shared_ptr<Message> Message::EntryResync(unsigned int id) {
+  auto msg = std::make_shared<Message>(kEntryResync, private_init());
+  msg->m_id = id;
+  return msg;
+}
+
 std::shared_ptr<Message> Message::FlagsUpdate(unsigned int id,
                                               unsigned int flags) {
   auto msg = std::make_shared<Message>(kFlagsUpdate, private_init());
@@ -249,6 +320,10 @@ void Message::Write(WireEncoder& encoder) const {
       if (encoder.proto_rev() < 0x0300u) return;  // new message in version 3.0
       encoder.Write8(kClientHelloDone);
       break;
+    case kDeltaUpdatesAccept:
+      if (encoder.proto_rev() < 0x0300u) return;  // extension to version 3.0
+      encoder.Write8(kDeltaUpdatesAccept);
+      break;
     case kEntryAssign:
       encoder.Write8(kEntryAssign);
       encoder.WriteString(m_str);
@@ -281,6 +356,20 @@ void Message::Write(WireEncoder& encoder) const {
       encoder.Write8(kClearEntries);
       encoder.Write32(kClearAllMagic);
       break;
+    case kEntryDeltaUpdate:
+      if (encoder.proto_rev() < 0x0300u) return;  // extension to version 3.0
+      encoder.Write8(kEntryDeltaUpdate);
+      encoder.Write16(m_id);
+      encoder.Write16(m_seq_num_uid);
+      encoder.Write16(m_base_seq_num);
+      encoder.WriteDoubleArrayDelta(m_base_value->GetDoubleArray(),
+                                    m_value->GetDoubleArray());
+      break;
+    case kEntryResync:
+      if (encoder.proto_rev() < 0x0300u) return;  // extension to version 3.0
+      encoder.Write8(kEntryResync);
+      encoder.Write16(m_id);
+      break;
     case kExecuteRpc:
       if (encoder.proto_rev() < 0x0300u) return;  // new message in version 3.0
       encoder.Write8(kExecuteRpc);
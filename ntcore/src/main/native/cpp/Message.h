@@ -31,15 +31,25 @@ class Message {
     kServerHelloDone = 0x03,
     kServerHello = 0x04,
     kClientHelloDone = 0x05,
+    kDeltaUpdatesAccept = 0x06,
     kEntryAssign = 0x10,
     kEntryUpdate = 0x11,
     kFlagsUpdate = 0x12,
     kEntryDelete = 0x13,
     kClearEntries = 0x14,
+    kEntryDeltaUpdate = 0x15,
+    kEntryResync = 0x16,
     kExecuteRpc = 0x20,
     kRpcResponse = 0x21
   };
+  // Server hello flags.  Bit 0 is set if the client was previously seen.
+  enum ServerHelloFlags { kDeltaUpdatesSupported = 0x02 };
   typedef std::function<NT_Type(unsigned int id)> GetEntryTypeFunc;
+  // Returns the last value received for an entry, or nullptr if it is not
+  // the value with the given sequence number.
+  typedef std::function<std::shared_ptr<Value>(unsigned int id,
+                                               unsigned int seq_num)>
+      GetDeltaBaseFunc;
 
   Message() : m_type(kUnknown), m_id(0), m_flags(0), m_seq_num_uid(0) {}
   Message(MsgType type, const private_init&)
@@ -56,10 +66,13 @@ class Message {
   unsigned int flags() const { return m_flags; }
   unsigned int seq_num_uid() const { return m_seq_num_uid; }
 
-  // Read and write from wire representation
+  // Read and write from wire representation.  A received delta update is
+  // returned as an entry update with the full value, or if the base value
+  // is not available, as a delta update with no value.
   void Write(WireEncoder& encoder) const;
   static std::shared_ptr<Message> Read(WireDecoder& decoder,
-                                       GetEntryTypeFunc get_entry_type);
+                                       GetEntryTypeFunc get_entry_type,
+                                       GetDeltaBaseFunc get_delta_base);
 
   // Create messages without data
   static std::shared_ptr<Message> KeepAlive() {
@@ -77,6 +90,9 @@ class Message {
   static std::shared_ptr<Message> ClearEntries() {
     return std::make_shared<Message>(kClearEntries, private_init());
   }
+  static std::shared_ptr<Message> DeltaUpdatesAccept() {
+    return std::make_shared<Message>(kDeltaUpdatesAccept, private_init());
+  }
 
   // Create messages with data
   static std::shared_ptr<Message> ClientHello(wpi::StringRef self_id);
@@ -90,6 +106,11 @@ class Message {
   static std::shared_ptr<Message> EntryUpdate(unsigned int id,
                                               unsigned int seq_num,
                                               std::shared_ptr<Value> value);
+  // Only valid for double arrays the same size as the base value
+  static std::shared_ptr<Message> EntryDeltaUpdate(
+      unsigned int id, unsigned int seq_num, std::shared_ptr<Value> value,
+      unsigned int base_seq_num, std::shared_ptr<Value> base_value);
+  static std::shared_ptr<Message> EntryResync(unsigned int id);
   static std::shared_ptr<Message> FlagsUpdate(unsigned int id,
                                               unsigned int flags);
   static std::shared_ptr<Message> EntryDelete(unsigned int id);
@@ -110,6 +131,9 @@ class Message {
   unsigned int m_id;  // also used for proto_rev
   unsigned int m_flags;
   unsigned int m_seq_num_uid;
+  // Delta updates only
+  std::shared_ptr<Value> m_base_value;
+  unsigned int m_base_seq_num = 0;
 };
 
 }  // namespace nt
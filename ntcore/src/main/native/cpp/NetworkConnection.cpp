@@ -34,6 +34,8 @@ NetworkConnection::NetworkConnection(unsigned int uid,
   m_active = false;
   m_proto_rev = 0x0300;
   m_last_update = 0;
+  m_delta_encoding = false;
+  m_delta_updates = false;
 
   // turn off Nagle algorithm; we bundle packets for transmission
   m_stream->setNoDelay();
@@ -133,14 +135,19 @@ void NetworkConnection::set_remote_id(StringRef remote_id) {
 void NetworkConnection::ReadThreadMain() {
   wpi::raw_socket_istream is(*m_stream);
   WireDecoder decoder(is, m_proto_rev, m_logger);
+  using namespace std::placeholders;
+  Message::GetDeltaBaseFunc get_delta_base =
+      std::bind(&NetworkConnection::GetDeltaBase, this, _1, _2);
 
   set_state(kHandshake);
   if (!m_handshake(*this,
                    [&] {
                      decoder.set_proto_rev(m_proto_rev);
-                     auto msg = Message::Read(decoder, m_get_entry_type);
+                     auto msg = Message::Read(decoder, m_get_entry_type,
+                                              get_delta_base);
                      if (!msg && decoder.error())
                        DEBUG("error reading in handshake: " << decoder.error());
+                     if (msg) UpdateDeltaBase(m_delta_received, *msg);
                      return msg;
                    },
                    [&](wpi::ArrayRef<std::shared_ptr<Message>> msgs) {
@@ -156,7 +163,8 @@ void NetworkConnection::ReadThreadMain() {
     if (!m_stream) break;
     decoder.set_proto_rev(m_proto_rev);
     decoder.Reset();
-    auto msg = Message::Read(decoder, m_get_entry_type);
+    uint64_t start = decoder.bytes_read();
+    auto msg = Message::Read(decoder, m_get_entry_type, get_delta_base);
     if (!msg) {
       if (decoder.error()) INFO("read error: " << decoder.error());
       // terminate connection on bad message
@@ -167,7 +175,29 @@ void NetworkConnection::ReadThreadMain() {
                             << " id=" << msg->id()
                             << " seq_num=" << msg->seq_num_uid());
     m_last_update = Now();
-    m_process_incoming(std::move(msg), this);
+    auto type = msg->type();
+    if (type == Message::kEntryResync) {
+      {
+        std::lock_guard<wpi::mutex> lock(m_resync_mutex);
+        m_resync_ids.push_back(msg->id());
+      }
+      m_outgoing.push(Outgoing());  // wake up the write thread
+      continue;
+    }
+    // counted after processing, which assigns the id of a new entry
+    std::pair<unsigned int, size_t> bytes{msg->id(),
+                                          decoder.bytes_read() - start};
+    if (type == Message::kEntryDeltaUpdate) {
+      // we don't have the value the delta was made from
+      RequestResync(msg->id());
+    } else {
+      UpdateDeltaBase(m_delta_received, *msg);
+      m_process_incoming(std::move(msg), this);
+    }
+    if (m_wire_bytes && bytes.first != 0xffff &&
+        (type == Message::kEntryAssign || type == Message::kEntryUpdate ||
+         type == Message::kEntryDeltaUpdate))
+      m_wire_bytes(bytes, false);
   }
   DEBUG2("read thread died (" << this << ")");
   set_state(kDead);
@@ -185,20 +215,33 @@ done:
 
 void NetworkConnection::WriteThreadMain() {
   WireEncoder encoder(m_proto_rev);
+  // bytes written for each entry id
+  std::vector<std::pair<unsigned int, size_t>> bytes;
 
   while (m_active) {
     auto msgs = m_outgoing.pop();
     DEBUG4("write thread woke up");
-    if (msgs.empty()) continue;
     encoder.set_proto_rev(m_proto_rev);
     encoder.Reset();
+    bytes.resize(0);
+    WriteResyncs(encoder, &bytes);
+    if (msgs.empty() && encoder.size() == 0) continue;
     DEBUG3("sending " << msgs.size() << " messages");
     for (auto& msg : msgs) {
       if (msg) {
         DEBUG3("sending type=" << msg->type() << " with str=" << msg->str()
                                << " id=" << msg->id()
                                << " seq_num=" << msg->seq_num_uid());
-        msg->Write(encoder);
+        size_t start = encoder.size();
+        if (auto delta = GetDeltaUpdate(*msg, encoder))
+          delta->Write(encoder);
+        else
+          msg->Write(encoder);
+        UpdateDeltaBase(m_delta_sent, *msg);
+        if ((msg->Is(Message::kEntryAssign) ||
+             msg->Is(Message::kEntryUpdate)) &&
+            msg->id() != 0xffff)
+          bytes.emplace_back(msg->id(), encoder.size() - start);
       }
     }
     wpi::NetworkStream::Error err;
@@ -206,6 +249,7 @@ void NetworkConnection::WriteThreadMain() {
     if (encoder.size() == 0) continue;
     if (m_stream->send(encoder.data(), encoder.size(), &err) == 0) break;
     DEBUG4("sent " << encoder.size() << " bytes");
+    if (m_wire_bytes && !bytes.empty()) m_wire_bytes(bytes, true);
   }
   DEBUG2("write thread died (" << this << ")");
   set_state(kDead);
@@ -220,6 +264,97 @@ void NetworkConnection::WriteThreadMain() {
   }
 }
 
+void NetworkConnection::UpdateDeltaBase(std::vector<DeltaBase>& bases,
+                                        const Message& msg) {
+  switch (msg.type()) {
+    case Message::kEntryAssign:
+    case Message::kEntryUpdate: {
+      unsigned int id = msg.id();
+      if (id == 0xffff) break;
+      auto value = msg.value();
+      // longer arrays are truncated on the wire
+      if (value->IsDoubleArray() && value->GetDoubleArray().size() <= 0xff) {
+        if (id >= bases.size()) bases.resize(id + 1);
+        auto& base = bases[id];
+        base.seq_num = msg.seq_num_uid();
+        base.value = value;
+        base.resync_pending = false;
+      } else if (id < bases.size()) {
+        bases[id] = DeltaBase();
+      }
+      break;
+    }
+    case Message::kEntryDelete:
+      if (msg.id() < bases.size()) bases[msg.id()] = DeltaBase();
+      break;
+    case Message::kClearEntries:
+      bases.clear();
+      break;
+    default:
+      break;
+  }
+}
+
+std::shared_ptr<Value> NetworkConnection::GetDeltaBase(
+    unsigned int id, unsigned int seq_num) const {
+  if (id >= m_delta_received.size()) return nullptr;
+  auto& base = m_delta_received[id];
+  if (!base.value || base.seq_num != seq_num) return nullptr;
+  return base.value;
+}
+
+void NetworkConnection::RequestResync(unsigned int id) {
+  if (id >= m_delta_received.size()) m_delta_received.resize(id + 1);
+  auto& base = m_delta_received[id];
+  base.value.reset();
+  // later deltas fail too until the full value arrives; only ask once
+  if (base.resync_pending) return;
+  base.resync_pending = true;
+  DEBUG("requesting resync of entry " << id);
+  m_outgoing.emplace(Outgoing{Message::EntryResync(id)});
+}
+
+std::shared_ptr<Message> NetworkConnection::GetDeltaUpdate(
+    const Message& msg, const WireEncoder& encoder) const {
+  if (!m_delta_encoding || !m_delta_updates) return nullptr;
+  if (!msg.Is(Message::kEntryUpdate)) return nullptr;
+  unsigned int id = msg.id();
+  if (id >= m_delta_sent.size()) return nullptr;
+  auto& base = m_delta_sent[id];
+  auto value = msg.value();
+  if (!base.value || !value->IsDoubleArray()) return nullptr;
+  auto base_arr = base.value->GetDoubleArray();
+  auto arr = value->GetDoubleArray();
+  if (arr.size() != base_arr.size() || arr.size() > 0xff) return nullptr;
+  // A delta update has the base sequence number instead of the value type,
+  // so it must save more than one byte over the full value.
+  if (encoder.GetDoubleArrayDeltaSize(base_arr, arr) + 1 >=
+      encoder.GetValueSize(*value))
+    return nullptr;
+  return Message::EntryDeltaUpdate(id, msg.seq_num_uid(), value, base.seq_num,
+                                   base.value);
+}
+
+void NetworkConnection::WriteResyncs(
+    WireEncoder& encoder,
+    std::vector<std::pair<unsigned int, size_t>>* bytes) {
+  std::vector<unsigned int> ids;
+  {
+    std::lock_guard<wpi::mutex> lock(m_resync_mutex);
+    if (m_resync_ids.empty()) return;
+    ids.swap(m_resync_ids);
+  }
+  // Resend the last value sent in full; later deltas are made from it.  If
+  // there is none, the next update is sent in full anyway.
+  for (auto id : ids) {
+    if (id >= m_delta_sent.size() || !m_delta_sent[id].value) continue;
+    auto& base = m_delta_sent[id];
+    size_t start = encoder.size();
+    Message::EntryUpdate(id, base.seq_num, base.value)->Write(encoder);
+    bytes->emplace_back(id, encoder.size() - start);
+  }
+}
+
 void NetworkConnection::QueueOutgoing(std::shared_ptr<Message> msg) {
   std::lock_guard<wpi::mutex> lock(m_pending_mutex);
 
@@ -34,6 +34,7 @@ class NetworkStream;
 namespace nt {
 
 class IConnectionNotifier;
+class WireEncoder;
 
 class NetworkConnection : public INetworkConnection {
  public:
@@ -45,6 +46,9 @@ class NetworkConnection : public INetworkConnection {
   typedef std::function<void(std::shared_ptr<Message> msg,
                              NetworkConnection* conn)>
       ProcessIncomingFunc;
+  typedef std::function<void(
+      wpi::ArrayRef<std::pair<unsigned int, size_t>> bytes, bool sent)>
+      WireBytesFunc;
   typedef std::vector<std::shared_ptr<Message>> Outgoing;
   typedef wpi::ConcurrentQueue<Outgoing> OutgoingQueue;
 
@@ -60,6 +64,10 @@ class NetworkConnection : public INetworkConnection {
     m_process_incoming = func;
   }
 
+  // Set the function which counts the bytes sent and received for each
+  // entry id.  This must be called before Start().
+  void set_wire_bytes(WireBytesFunc func) { m_wire_bytes = func; }
+
   void Start();
   void Stop();
 
@@ -84,13 +92,38 @@ class NetworkConnection : public INetworkConnection {
 
   uint64_t last_update() const { return m_last_update; }
 
+  // Set during the handshake if both ends support delta updates
+  bool delta_updates() const { return m_delta_updates; }
+  void set_delta_updates(bool supported) { m_delta_updates = supported; }
+
+  void set_delta_encoding(bool enabled) override {
+    m_delta_encoding = enabled;
+  }
+
   NetworkConnection(const NetworkConnection&) = delete;
   NetworkConnection& operator=(const NetworkConnection&) = delete;
 
  private:
+  // Last double array value sent or received for an entry id
+  struct DeltaBase {
+    unsigned int seq_num = 0;
+    std::shared_ptr<Value> value;
+    bool resync_pending = false;
+  };
+
   void ReadThreadMain();
   void WriteThreadMain();
 
+  static void UpdateDeltaBase(std::vector<DeltaBase>& bases,
+                              const Message& msg);
+  std::shared_ptr<Value> GetDeltaBase(unsigned int id,
+                                      unsigned int seq_num) const;
+  void RequestResync(unsigned int id);
+  std::shared_ptr<Message> GetDeltaUpdate(const Message& msg,
+                                          const WireEncoder& encoder) const;
+  void WriteResyncs(WireEncoder& encoder,
+                    std::vector<std::pair<unsigned int, size_t>>* bytes);
+
   unsigned int m_uid;
   std::unique_ptr<wpi::NetworkStream> m_stream;
   IConnectionNotifier& m_notifier;
@@ -99,6 +132,7 @@ class NetworkConnection : public INetworkConnection {
   HandshakeFunc m_handshake;
   Message::GetEntryTypeFunc m_get_entry_type;
   ProcessIncomingFunc m_process_incoming;
+  WireBytesFunc m_wire_bytes;
   std::thread m_read_thread;
   std::thread m_write_thread;
   std::atomic_bool m_active;
@@ -110,6 +144,16 @@ class NetworkConnection : public INetworkConnection {
   std::atomic_ullong m_last_update;
   std::chrono::steady_clock::time_point m_last_post;
 
+  std::atomic_bool m_delta_encoding;
+  std::atomic_bool m_delta_updates;
+  // Only used by the write thread
+  std::vector<DeltaBase> m_delta_sent;
+  // Only used by the read thread
+  std::vector<DeltaBase> m_delta_received;
+  // Ids the peer asked to resync, from the read thread to the write thread
+  wpi::mutex m_resync_mutex;
+  std::vector<unsigned int> m_resync_ids;
+
   wpi::mutex m_pending_mutex;
   Outgoing m_pending_outgoing;
   std::vector<std::pair<size_t, size_t>> m_pending_update;
@@ -0,0 +1,468 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+#include "PersistentLog.h"
+
+#include <cstdio>
+
+#include <wpi/FileSystem.h>
+#include <wpi/MathExtras.h>
+#include <wpi/SmallString.h>
+#include <wpi/StringMap.h>
+#include <wpi/leb128.h>
+#include <wpi/raw_istream.h>
+#include <wpi/raw_ostream.h>
+
+#include "Log.h"
+
+using namespace nt;
+
+// "NTPLOG", a null, and the format version
+static const char kHeader[8] = {'N', 'T', 'P', 'L', 'O', 'G', '\0', 1};
+
+// Compaction is started once the file is this much larger than twice its
+// compacted size, so small files are not constantly rewritten.
+static const uint64_t kCompactSlack = 64 * 1024;
+
+static bool IsSaved(const Value* value) {
+  if (!value) return false;
+  switch (value->type()) {
+    case NT_BOOLEAN:
+    case NT_DOUBLE:
+    case NT_STRING:
+    case NT_RAW:
+    case NT_BOOLEAN_ARRAY:
+    case NT_DOUBLE_ARRAY:
+    case NT_STRING_ARRAY:
+      return true;
+    default:
+      return false;
+  }
+}
+
+static void WriteDouble(wpi::SmallVectorImpl<char>& buf, double val) {
+  uint64_t v = wpi::DoubleToBits(val);
+  buf.append(
+      {static_cast<char>((v >> 56) & 0xff), static_cast<char>((v >> 48) & 0xff),
+       static_cast<char>((v >> 40) & 0xff), static_cast<char>((v >> 32) & 0xff),
+       static_cast<char>((v >> 24) & 0xff), static_cast<char>((v >> 16) & 0xff),
+       static_cast<char>((v >> 8) & 0xff), static_cast<char>(v & 0xff)});
+}
+
+static void WriteString(wpi::SmallVectorImpl<char>& buf, wpi::StringRef str) {
+  wpi::WriteUleb128(buf, str.size());
+  buf.append(str.begin(), str.end());
+}
+
+static void WriteValue(wpi::SmallVectorImpl<char>& buf, const Value& value) {
+  switch (value.type()) {
+    case NT_BOOLEAN:
+      buf.push_back(value.GetBoolean() ? 1 : 0);
+      break;
+    case NT_DOUBLE:
+      WriteDouble(buf, value.GetDouble());
+      break;
+    case NT_STRING:
+      WriteString(buf, value.GetString());
+      break;
+    case NT_RAW:
+      WriteString(buf, value.GetRaw());
+      break;
+    case NT_BOOLEAN_ARRAY: {
+      auto v = value.GetBooleanArray();
+      wpi::WriteUleb128(buf, v.size());
+      for (auto elem : v) buf.push_back(elem ? 1 : 0);
+      break;
+    }
+    case NT_DOUBLE_ARRAY: {
+      auto v = value.GetDoubleArray();
+      wpi::WriteUleb128(buf, v.size());
+      for (auto elem : v) WriteDouble(buf, elem);
+      break;
+    }
+    case NT_STRING_ARRAY: {
+      auto v = value.GetStringArray();
+      wpi::WriteUleb128(buf, v.size());
+      for (auto& elem : v) WriteString(buf, elem);
+      break;
+    }
+    default:
+      break;
+  }
+}
+
+namespace {
+
+// Reads the records of a log already in memory.  All reads are bounds
+// checked, and return false at the end of the data.
+class RecordReader {
+ public:
+  explicit RecordReader(wpi::StringRef data) : m_data(data) {}
+
+  bool empty() const { return m_data.empty(); }
+  size_t size() const { return m_data.size(); }
+
+  bool Read(size_t len, wpi::StringRef* out) {
+    if (len > m_data.size()) return false;
+    *out = m_data.substr(0, len);
+    m_data = m_data.substr(len);
+    return true;
+  }
+
+  bool Read8(unsigned int* val) {
+    if (m_data.empty()) return false;
+    *val = static_cast<unsigned char>(m_data.front());
+    m_data = m_data.drop_front();
+    return true;
+  }
+
+  bool ReadUleb128(uint64_t* val) {
+    uint64_t result = 0;
+    int shift = 0;
+    for (;;) {
+      unsigned int byte;
+      if (!Read8(&byte) || shift > 63) return false;
+      result |= static_cast<uint64_t>(byte & 0x7f) << shift;
+      shift += 7;
+      if (!(byte & 0x80)) break;
+    }
+    *val = result;
+    return true;
+  }
+
+  bool ReadDouble(double* val) {
+    wpi::StringRef buf;
+    if (!Read(8, &buf)) return false;
+    uint64_t v = 0;
+    for (auto ch : buf) v = (v << 8) | static_cast<unsigned char>(ch);
+    *val = wpi::BitsToDouble(v);
+    return true;
+  }
+
+  bool ReadString(wpi::StringRef* str) {
+    uint64_t len;
+    return ReadUleb128(&len) && Read(len, str);
+  }
+
+  std::shared_ptr<Value> ReadValue(NT_Type type);
+
+ private:
+  wpi::StringRef m_data;
+};
+
+}  // namespace
+
+std::shared_ptr<Value> RecordReader::ReadValue(NT_Type type) {
+  switch (type) {
+    case NT_BOOLEAN: {
+      unsigned int v;
+      if (!Read8(&v)) return nullptr;
+      return Value::MakeBoolean(v != 0);
+    }
+    case NT_DOUBLE: {
+      double v;
+      if (!ReadDouble(&v)) return nullptr;
+      return Value::MakeDouble(v);
+    }
+    case NT_STRING: {
+      wpi::StringRef v;
+      if (!ReadString(&v)) return nullptr;
+      return Value::MakeString(v);
+    }
+    case NT_RAW: {
+      wpi::StringRef v;
+      if (!ReadString(&v)) return nullptr;
+      return Value::MakeRaw(v);
+    }
+    case NT_BOOLEAN_ARRAY: {
+      uint64_t size;
+      wpi::StringRef buf;
+      if (!ReadUleb128(&size) || !Read(size, &buf)) return nullptr;
+      std::vector<int> v;
+      v.reserve(size);
+      for (auto ch : buf) v.push_back(ch != 0 ? 1 : 0);
+      return Value::MakeBooleanArray(std::move(v));
+    }
+    case NT_DOUBLE_ARRAY: {
+      uint64_t size;
+      if (!ReadUleb128(&size) || size > m_data.size() / 8) return nullptr;
+      std::vector<double> v(size);
+      for (auto& elem : v) ReadDouble(&elem);
+      return Value::MakeDoubleArray(std::move(v));
+    }
+    case NT_STRING_ARRAY: {
+      uint64_t size;
+      if (!ReadUleb128(&size) || size > m_data.size()) return nullptr;
+      std::vector<std::string> v;
+      v.reserve(size);
+      for (uint64_t i = 0; i < size; ++i) {
+        wpi::StringRef elem;
+        if (!ReadString(&elem)) return nullptr;
+        v.emplace_back(elem);
+      }
+      return Value::MakeStringArray(std::move(v));
+    }
+    default:
+      return nullptr;
+  }
+}
+
+void PersistentLog::WriteHeader(wpi::SmallVectorImpl<char>& buf) {
+  buf.append(kHeader, kHeader + sizeof(kHeader));
+}
+
+void PersistentLog::WriteRecord(wpi::SmallVectorImpl<char>& buf,
+                                wpi::StringRef name, const Value* value) {
+  if (!IsSaved(value)) value = nullptr;
+
+  // The length prefix is written once the record size is known
+  wpi::SmallVector<char, 128> record;
+  record.push_back(static_cast<char>(value ? value->type() : NT_UNASSIGNED));
+  WriteString(record, name);
+  if (value) WriteValue(record, *value);
+
+  wpi::WriteUleb128(buf, record.size());
+  buf.append(record.begin(), record.end());
+}
+
+bool PersistentLog::Load(wpi::StringRef data, std::vector<Entry>* entries,
+                         size_t* valid_size, WarnFunc warn) {
+  if (!data.startswith(wpi::StringRef(kHeader, sizeof(kHeader)))) return false;
+
+  RecordReader reader(data.substr(sizeof(kHeader)));
+  *valid_size = sizeof(kHeader);
+
+  // later records override earlier ones
+  wpi::StringMap<std::shared_ptr<Value>> values;
+  size_t record_num = 0;
+  while (!reader.empty()) {
+    ++record_num;
+    uint64_t len;
+    wpi::StringRef buf;
+    if (!reader.ReadUleb128(&len) || !reader.Read(len, &buf)) {
+      if (warn) warn(record_num, "truncated record, ignoring rest of file");
+      break;
+    }
+    *valid_size = data.size() - reader.size();
+
+    RecordReader record(buf);
+    unsigned int type;
+    wpi::StringRef name;
+    if (!record.Read8(&type) || !record.ReadString(&name) || name.empty()) {
+      if (warn) warn(record_num, "missing name");
+      continue;
+    }
+    if (type == NT_UNASSIGNED) {
+      values.erase(name);
+      continue;
+    }
+    auto value = record.ReadValue(static_cast<NT_Type>(type));
+    if (!value) {
+      if (warn) warn(record_num, "unrecognized or invalid value");
+      continue;
+    }
+    values[name] = std::move(value);
+  }
+
+  entries->reserve(entries->size() + values.size());
+  for (auto& i : values) entries->emplace_back(i.getKey(), std::move(i.second));
+  return true;
+}
+
+PersistentLog::PersistentLog(wpi::Logger& logger) : m_logger(logger) {}
+
+PersistentLog::~PersistentLog() { Close(); }
+
+bool PersistentLog::Open(const Twine& filename, std::vector<Entry>* entries,
+                         WarnFunc warn) {
+  Close();
+  m_filename = filename.str();
+
+  // read the whole file at once; records are decoded from memory
+  std::string data;
+  {
+    std::error_code ec;
+    wpi::raw_fd_istream is(m_filename, ec, 64 * 1024);
+    if (ec.value() == 0) {
+      for (;;) {
+        size_t old_size = data.size();
+        data.resize(old_size + 64 * 1024);
+        is.read(&data[old_size], data.size() - old_size);
+        if (is.has_error()) {
+          data.resize(old_size + is.read_count());
+          break;
+        }
+      }
+    }
+  }
+
+  std::lock_guard<wpi::mutex> lock(m_mutex);
+  m_size = 0;
+  m_compacted_size = 0;
+  m_needs_rewrite = true;
+
+  // a missing or empty file is created by the first compaction
+  if (data.empty()) return true;
+
+  size_t valid_size;
+  if (!Load(data, entries, &valid_size, warn)) return false;
+
+  // what the file would compact to, to decide when to compact it
+  wpi::SmallVector<char, 128> buf;
+  m_compacted_size = sizeof(kHeader);
+  for (auto& entry : *entries) {
+    buf.clear();
+    WriteRecord(buf, entry.first, entry.second.get());
+    m_compacted_size += buf.size();
+  }
+  m_size = valid_size;
+
+  // anything appended after a truncated record would be lost, so the file
+  // must be rewritten first
+  if (valid_size != data.size()) return true;
+
+  std::error_code ec;
+  m_os.reset(new wpi::raw_fd_ostream(m_filename, ec, wpi::sys::fs::F_Append));
+  if (ec.value() != 0) {
+    m_os.reset();
+    return true;
+  }
+  m_needs_rewrite = false;
+  return true;
+}
+
+const char* PersistentLog::Append(wpi::ArrayRef<Entry> changes) {
+  if (changes.empty()) return nullptr;
+
+  wpi::SmallVector<char, 256> buf;
+  for (auto& change : changes)
+    WriteRecord(buf, change.first, change.second.get());
+
+  std::lock_guard<wpi::mutex> lock(m_mutex);
+  if (m_compacting) m_pending.append(buf.begin(), buf.end());
+
+  // if the file is waiting to be rewritten, the changes are in the snapshot
+  // it will be rewritten from
+  if (!m_os) return nullptr;
+
+  m_os->write(buf.data(), buf.size());
+  m_os->flush();
+  if (m_os->has_error()) {
+    m_os->clear_error();
+    m_os.reset();
+    m_needs_rewrite = true;
+    return "error appending to file";
+  }
+  m_size += buf.size();
+  return nullptr;
+}
+
+bool PersistentLog::NeedsCompaction() const {
+  std::lock_guard<wpi::mutex> lock(m_mutex);
+  if (m_compacting) return false;
+  return m_needs_rewrite || m_size > 2 * m_compacted_size + kCompactSlack;
+}
+
+void PersistentLog::StartCompaction(std::vector<Entry>&& entries) {
+  if (m_compact_thread.joinable()) m_compact_thread.join();
+  {
+    std::lock_guard<wpi::mutex> lock(m_mutex);
+    m_compacting = true;
+    m_pending.clear();
+  }
+  m_compact_thread =
+      std::thread(&PersistentLog::Compact, this, std::move(entries));
+}
+
+void PersistentLog::Close() {
+  if (m_compact_thread.joinable()) m_compact_thread.join();
+  std::lock_guard<wpi::mutex> lock(m_mutex);
+  if (m_os) {
+    m_os->close();
+    m_os->clear_error();
+    m_os.reset();
+  }
+}
+
+void PersistentLog::Compact(std::vector<Entry> entries) {
+  wpi::SmallString<128> fn{m_filename};
+  wpi::SmallString<128> tmp = fn;
+  tmp += ".tmp";
+  wpi::SmallString<128> bak = fn;
+  bak += ".bak";
+
+  const char* err = nullptr;
+
+  // write the snapshot to a temporary file without holding the lock
+  std::error_code ec;
+  wpi::raw_fd_ostream os(tmp, ec, wpi::sys::fs::F_None);
+  if (ec.value() != 0) err = "could not open file";
+
+  uint64_t size = 0;
+  if (!err) {
+    DEBUG("compacting persistent file '" << fn << "'");
+    wpi::SmallVector<char, 4096> buf;
+    WriteHeader(buf);
+    for (auto& entry : entries) {
+      if (!IsSaved(entry.second.get())) continue;
+      WriteRecord(buf, entry.first, entry.second.get());
+      if (buf.size() >= 4096) {
+        os.write(buf.data(), buf.size());
+        size += buf.size();
+        buf.clear();
+      }
+    }
+    os.write(buf.data(), buf.size());
+    size += buf.size();
+  }
+
+  std::lock_guard<wpi::mutex> lock(m_mutex);
+  if (!err) {
+    // add the records appended since the snapshot
+    os.write(m_pending.data(), m_pending.size());
+    size += m_pending.size();
+    os.close();
+    if (os.has_error()) {
+      os.clear_error();
+      std::remove(tmp.c_str());
+      err = "error saving file";
+    }
+  }
+
+  if (!err) {
+    // close the old file so it can be renamed on all platforms
+    if (m_os) {
+      m_os->close();
+      m_os->clear_error();
+      m_os.reset();
+    }
+
+    // Safely move to real file.  We ignore any failures related to the
+    // backup.
+    std::remove(bak.c_str());
+    std::rename(fn.c_str(), bak.c_str());
+    if (std::rename(tmp.c_str(), fn.c_str()) != 0) {
+      std::rename(bak.c_str(), fn.c_str());  // attempt to restore backup
+      err = "could not rename temp file to real file";
+    } else {
+      m_size = size;
+      m_compacted_size = size;
+    }
+
+    // keep appending to whichever file is now in place
+    m_os.reset(new wpi::raw_fd_ostream(fn, ec, wpi::sys::fs::F_Append));
+    if (ec.value() != 0) m_os.reset();
+  }
+
+  // The snapshot cleared the changed entries, so if it was not written the
+  // file must be rewritten even if it can still be appended to.
+  m_needs_rewrite = err || !m_os;
+  m_compacting = false;
+  m_pending.clear();
+
+  if (err) WARNING("persistent file compaction: " << err);
+}
@@ -0,0 +1,109 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+#ifndef NTCORE_PERSISTENTLOG_H_
+#define NTCORE_PERSISTENTLOG_H_
+
+#include <stdint.h>
+
+#include <functional>
+#include <memory>
+#include <string>
+#include <thread>
+#include <utility>
+#include <vector>
+
+#include <wpi/ArrayRef.h>
+#include <wpi/SmallVector.h>
+#include <wpi/Twine.h>
+#include <wpi/mutex.h>
+
+#include "ntcore_cpp.h"
+
+namespace wpi {
+class Logger;
+class raw_fd_ostream;
+}  // namespace wpi
+
+namespace nt {
+
+/*
+ * Binary, append-only persistent value file.
+ *
+ * The file is a header followed by records.  Each record is the ULEB128
+ * length of the rest of the record, the value type, the entry name, and the
+ * value.  Unlike the wire encoding, string and array lengths are ULEB128 so
+ * no value is truncated.  Later records override earlier ones, and a record
+ * with the NT_UNASSIGNED type and no value deletes the entry.  A truncated
+ * record at the end of the file (e.g. from a crash while appending) is
+ * ignored.
+ *
+ * Each save appends records for just the entries which changed.  When the
+ * file has grown to more than twice its compacted size, it is rewritten in
+ * the background from a snapshot of the persistent entries; records appended
+ * while the snapshot is written are copied to the end of the new file.
+ */
+class PersistentLog {
+ public:
+  typedef std::pair<std::string, std::shared_ptr<Value>> Entry;
+  typedef std::function<void(size_t line, const char* msg)> WarnFunc;
+
+  explicit PersistentLog(wpi::Logger& logger);
+  PersistentLog(const PersistentLog&) = delete;
+  PersistentLog& operator=(const PersistentLog&) = delete;
+  ~PersistentLog();
+
+  // Loads the file and opens it for appending.  Returns false if the file
+  // exists but is not a log file, in which case the caller should load it
+  // as a text file; the log is compacted over it by the first save.  The
+  // warn line parameter is the record number.
+  bool Open(const Twine& filename, std::vector<Entry>* entries, WarnFunc warn);
+
+  // Appends records for changed entries; a null value deletes the entry.
+  // Returns an error message, or nullptr on success.
+  const char* Append(wpi::ArrayRef<Entry> changes);
+
+  // True if the file should be rewritten by StartCompaction().
+  bool NeedsCompaction() const;
+
+  // Rewrites the file from a snapshot of all persistent entries, in the
+  // background.
+  void StartCompaction(std::vector<Entry>&& entries);
+
+  // Waits for any compaction to finish.
+  void Close();
+
+  // Buffer-based functions (exposed for testing purposes).  A null value or
+  // a value type which is not saved (e.g. RPC) writes a delete record.
+  static void WriteHeader(wpi::SmallVectorImpl<char>& buf);
+  static void WriteRecord(wpi::SmallVectorImpl<char>& buf,
+                          wpi::StringRef name, const Value* value);
+  static bool Load(wpi::StringRef data, std::vector<Entry>* entries,
+                   size_t* valid_size, WarnFunc warn);
+
+ private:
+  void Compact(std::vector<Entry> entries);
+
+  std::string m_filename;
+  std::thread m_compact_thread;
+
+  mutable wpi::mutex m_mutex;
+  std::unique_ptr<wpi::raw_fd_ostream> m_os;
+  uint64_t m_size = 0;
+  uint64_t m_compacted_size = 0;
+  // Set if the file must be rewritten before it can be appended to
+  bool m_needs_rewrite = false;
+  bool m_compacting = false;
+  // Records appended since the compaction snapshot was taken
+  wpi::SmallVector<char, 128> m_pending;
+
+  wpi::Logger& m_logger;
+};
+
+}  // namespace nt
+
+#endif  // NTCORE_PERSISTENTLOG_H_
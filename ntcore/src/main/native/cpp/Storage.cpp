@@ -182,14 +182,14 @@ void Storage::ProcessIncomingEntryAssign(std::shared_ptr<Message> msg,
   if (!may_need_update && conn->proto_rev() >= 0x0300) {
     // update persistent dirty flag if persistent flag changed
     if ((entry->flags & NT_PERSISTENT) != (msg->flags() & NT_PERSISTENT))
-      m_persistent_dirty = true;
+      SetPersistentDirty(entry);
     if (entry->flags != msg->flags()) notify_flags |= NT_NOTIFY_FLAGS;
     entry->flags = msg->flags();
   }
 
   // update persistent dirty flag if the value changed and it's persistent
   if (entry->IsPersistent() && *entry->value != *msg->value())
-    m_persistent_dirty = true;
+    SetPersistentDirty(entry);
 
   // update local
   entry->value = msg->value();
@@ -231,7 +231,7 @@ void Storage::ProcessIncomingEntryUpdate(std::shared_ptr<Message> msg,
   entry->seq_num = seq_num;
 
   // update persistent dirty flag if it's a persistent value
-  if (entry->IsPersistent()) m_persistent_dirty = true;
+  if (entry->IsPersistent()) SetPersistentDirty(entry);
 
   // notify
   m_notifier.NotifyEntry(entry->local_id, entry->name, entry->value,
@@ -475,6 +475,19 @@ void Storage::ApplyInitialAssignments(
     dispatcher->QueueOutgoing(msg, nullptr, nullptr);
 }
 
+void Storage::AddWireBytes(wpi::ArrayRef<std::pair<unsigned int, size_t>> bytes,
+                           bool sent) {
+  std::lock_guard<wpi::mutex> lock(m_mutex);
+  for (auto& i : bytes) {
+    if (i.first >= m_idmap.size() || !m_idmap[i.first]) continue;
+    Entry* entry = m_idmap[i.first];
+    if (sent)
+      entry->bytes_sent += i.second;
+    else
+      entry->bytes_received += i.second;
+  }
+}
+
 std::shared_ptr<Value> Storage::GetEntryValue(StringRef name) const {
   std::lock_guard<wpi::mutex> lock(m_mutex);
   auto i = m_entries.find(name);
@@ -559,7 +572,7 @@ void Storage::SetEntryValueImpl(Entry* entry, std::shared_ptr<Value> value,
 
   // update persistent dirty flag if value changed and it's persistent
   if (entry->IsPersistent() && (!old_value || *old_value != *value))
-    m_persistent_dirty = true;
+    SetPersistentDirty(entry);
 
   // notify
   if (!old_value)
@@ -633,7 +646,7 @@ void Storage::SetEntryFlagsImpl(Entry* entry, unsigned int flags,
 
   // update persistent dirty flag if persistent flag changed
   if ((entry->flags & NT_PERSISTENT) != (flags & NT_PERSISTENT))
-    m_persistent_dirty = true;
+    SetPersistentDirty(entry);
 
   entry->flags = flags;
 
@@ -699,7 +712,7 @@ void Storage::DeleteEntryImpl(Entry* entry, std::unique_lock<wpi::mutex>& lock,
   }
 
   // update persistent dirty flag if it's a persistent value
-  if (entry->IsPersistent()) m_persistent_dirty = true;
+  if (entry->IsPersistent()) SetPersistentDirty(entry);
 
   // reset flags
   entry->flags = 0;
@@ -835,6 +848,18 @@ uint64_t Storage::GetEntryLastChange(unsigned int local_id) const {
   return entry->value->last_change();
 }
 
+uint64_t Storage::GetEntryBytesSent(unsigned int local_id) const {
+  std::unique_lock<wpi::mutex> lock(m_mutex);
+  if (local_id >= m_localmap.size()) return 0;
+  return m_localmap[local_id]->bytes_sent;
+}
+
+uint64_t Storage::GetEntryBytesReceived(unsigned int local_id) const {
+  std::unique_lock<wpi::mutex> lock(m_mutex);
+  if (local_id >= m_localmap.size()) return 0;
+  return m_localmap[local_id]->bytes_received;
+}
+
 std::vector<EntryInfo> Storage::GetEntryInfo(int inst, const Twine& prefix,
                                              unsigned int types) {
   wpi::SmallString<128> prefixBuf;
@@ -937,12 +962,28 @@ bool Storage::GetPersistentEntries(
     bool periodic,
     std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
     const {
+  return GetPersistentEntriesImpl(periodic, false, entries);
+}
+
+bool Storage::GetPersistentSnapshot(
+    std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
+    const {
+  return GetPersistentEntriesImpl(false, true, entries);
+}
+
+bool Storage::GetPersistentEntriesImpl(
+    bool periodic, bool snapshot,
+    std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
+    const {
   // copy values out of storage as quickly as possible so lock isn't held
   {
     std::lock_guard<wpi::mutex> lock(m_mutex);
     // for periodic, don't re-save unless something has changed
     if (periodic && !m_persistent_dirty) return false;
     m_persistent_dirty = false;
+    // the snapshot includes every change so far; other saves (e.g. to a
+    // different file) must leave the changes for the next log append
+    if (snapshot) ClearPersistentChanges();
     entries->reserve(m_entries.size());
     for (auto& i : m_entries) {
       Entry* entry = i.getValue();
@@ -961,6 +1002,29 @@ bool Storage::GetPersistentEntries(
   return true;
 }
 
+bool Storage::GetPersistentChanges(
+    std::vector<std::pair<std::string, std::shared_ptr<Value>>>* changes)
+    const {
+  std::lock_guard<wpi::mutex> lock(m_mutex);
+  if (m_persistent_changes.empty()) return false;
+  m_persistent_dirty = false;
+  changes->reserve(m_persistent_changes.size());
+  for (auto entry : m_persistent_changes) {
+    // a null value deletes the entry from the file
+    if (entry->value && entry->IsPersistent())
+      changes->emplace_back(entry->name, entry->value);
+    else
+      changes->emplace_back(entry->name, nullptr);
+  }
+  ClearPersistentChanges();
+  return true;
+}
+
+void Storage::ClearPersistentChanges() const {
+  for (auto entry : m_persistent_changes) entry->persistent_changed = false;
+  m_persistent_changes.clear();
+}
+
 bool Storage::GetEntries(
     const Twine& prefix,
     std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
@@ -72,6 +72,8 @@ class Storage : public IStorage {
       INetworkConnection& conn, wpi::ArrayRef<std::shared_ptr<Message>> msgs,
       bool new_server,
       std::vector<std::shared_ptr<Message>>* out_msgs) override;
+  void AddWireBytes(wpi::ArrayRef<std::pair<unsigned int, size_t>> bytes,
+                    bool sent) override;
 
   // User functions.  These are the actual implementations of the corresponding
   // user API functions in ntcore_cpp.
@@ -123,6 +125,8 @@ class Storage : public IStorage {
   std::string GetEntryName(unsigned int local_id) const;
   NT_Type GetEntryType(unsigned int local_id) const;
   uint64_t GetEntryLastChange(unsigned int local_id) const;
+  uint64_t GetEntryBytesSent(unsigned int local_id) const;
+  uint64_t GetEntryBytesReceived(unsigned int local_id) const;
 
   // Filename-based save/load functions.  Used both by periodic saves and
   // accessible directly via the user API.
@@ -132,6 +136,26 @@ class Storage : public IStorage {
       const Twine& filename,
       std::function<void(size_t line, const char* msg)> warn) override;
 
+  // Entry-based save/load functions.  GetPersistentEntries() gets all
+  // persistent values; GetPersistentChanges() gets just the entries which
+  // changed since it or GetPersistentSnapshot() was last called, with a null
+  // value for entries which were deleted or are no longer persistent.
+  // GetPersistentSnapshot() gets all persistent values, like
+  // GetPersistentEntries(), but also clears the changes.
+  bool GetPersistentEntries(
+      bool periodic,
+      std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
+      const override;
+  bool GetPersistentSnapshot(
+      std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
+      const override;
+  bool GetPersistentChanges(
+      std::vector<std::pair<std::string, std::shared_ptr<Value>>>* changes)
+      const override;
+  void LoadPersistentEntries(
+      wpi::ArrayRef<std::pair<std::string, std::shared_ptr<Value>>> entries)
+      override;
+
   const char* SaveEntries(const Twine& filename, const Twine& prefix) const;
   const char* LoadEntries(
       const Twine& filename, const Twine& prefix,
@@ -190,6 +214,13 @@ class Storage : public IStorage {
     // Last UID used when calling this RPC (primarily for client use).  This
     // is incremented for each call.
     unsigned int rpc_call_uid{0};
+
+    // If the entry is in the persistent changes list.
+    bool persistent_changed{false};
+
+    // Bytes of assignments and updates sent and received on all connections.
+    uint64_t bytes_sent{0};
+    uint64_t bytes_received{0};
   };
 
   typedef wpi::StringMap<Entry*> EntriesMap;
@@ -207,6 +238,8 @@ class Storage : public IStorage {
   RpcBlockingCallSet m_rpc_blocking_calls;
   // If any persistent values have changed
   mutable bool m_persistent_dirty = false;
+  // Entries whose persistent value or flag has changed
+  mutable std::vector<Entry*> m_persistent_changes;
 
   // condition variable and termination flag for blocking on a RPC result
   std::atomic_bool m_terminating;
@@ -236,10 +269,20 @@ class Storage : public IStorage {
   void ProcessIncomingRpcResponse(std::shared_ptr<Message> msg,
                                   INetworkConnection* conn);
 
-  bool GetPersistentEntries(
-      bool periodic,
+  // Must be called with m_mutex held
+  void SetPersistentDirty(Entry* entry) {
+    m_persistent_dirty = true;
+    if (!entry->persistent_changed) {
+      entry->persistent_changed = true;
+      m_persistent_changes.push_back(entry);
+    }
+  }
+  void ClearPersistentChanges() const;
+  bool GetPersistentEntriesImpl(
+      bool periodic, bool snapshot,
       std::vector<std::pair<std::string, std::shared_ptr<Value>>>* entries)
       const;
+
   bool GetEntries(const Twine& prefix,
                   std::vector<std::pair<std::string, std::shared_ptr<Value>>>*
                       entries) const;
@@ -255,6 +298,9 @@ class Storage : public IStorage {
   void DeleteAllEntriesImpl(bool local, F should_delete);
   void DeleteAllEntriesImpl(bool local);
   Entry* GetOrNew(const Twine& name);
+  void LoadEntriesImpl(
+      wpi::ArrayRef<std::pair<std::string, std::shared_ptr<Value>>> entries,
+      bool persistent);
 };
 
 }  // namespace nt
@@ -368,6 +368,18 @@ bool Storage::LoadEntries(
   // load file
   if (!LoadPersistentImpl(is, warn).Load(prefixStr, &entries)) return false;
 
+  LoadEntriesImpl(entries, persistent);
+  return true;
+}
+
+void Storage::LoadPersistentEntries(
+    wpi::ArrayRef<std::pair<std::string, std::shared_ptr<Value>>> entries) {
+  LoadEntriesImpl(entries, true);
+}
+
+void Storage::LoadEntriesImpl(
+    wpi::ArrayRef<std::pair<std::string, std::shared_ptr<Value>>> entries,
+    bool persistent) {
   // copy values into storage as quickly as possible so lock isn't held
   std::vector<std::shared_ptr<Message>> msgs;
   std::unique_lock<wpi::mutex> lock(m_mutex);
@@ -424,8 +436,6 @@ bool Storage::LoadEntries(
     for (auto& msg : msgs)
       dispatcher->QueueOutgoing(std::move(msg), nullptr, nullptr);
   }
-
-  return true;
 }
 
 const char* Storage::LoadPersistent(
@@ -51,6 +51,9 @@ class WireDecoder {
    */
   const char* error() const { return m_error; }
 
+  /* Returns the total number of bytes read. */
+  uint64_t bytes_read() const { return m_bytes_read; }
+
   void set_error(const char* error) { m_error = error; }
 
   /* Reads the specified number of bytes.
@@ -62,6 +65,7 @@ class WireDecoder {
     if (len > m_allocated) Realloc(len);
     *buf = m_buf;
     m_is.read(m_buf, len);
+    m_bytes_read += len;
 #if 0
     if (m_logger.min_level() <= NT_LOG_DEBUG4 && m_logger.HasLogger()) {
       std::ostringstream oss;
@@ -120,7 +124,11 @@ class WireDecoder {
   bool ReadDouble(double* val);
 
   /* Reads an ULEB128-encoded unsigned integer. */
-  bool ReadUleb128(uint64_t* val) { return wpi::ReadUleb128(m_is, val); }
+  bool ReadUleb128(uint64_t* val) {
+    if (!wpi::ReadUleb128(m_is, val)) return false;
+    m_bytes_read += wpi::SizeUleb128(*val);
+    return true;
+  }
 
   bool ReadType(NT_Type* type);
   bool ReadString(std::string* str);
@@ -151,6 +159,9 @@ class WireDecoder {
 
   /* allocated size of temporary buffer */
   size_t m_allocated;
+
+  /* total bytes read */
+  uint64_t m_bytes_read = 0;
 };
 
 }  // namespace nt
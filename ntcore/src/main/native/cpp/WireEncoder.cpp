@@ -197,3 +197,38 @@ void WireEncoder::WriteString(wpi::StringRef str) {
   // contents
   m_data.append(str.data(), str.data() + len);
 }
+
+// Elements are compared bitwise so NaN values are not always "changed"
+static inline bool DoubleChanged(double a, double b) {
+  return wpi::DoubleToBits(a) != wpi::DoubleToBits(b);
+}
+
+void WireEncoder::WriteDoubleArrayDelta(wpi::ArrayRef<double> base,
+                                        wpi::ArrayRef<double> value) {
+  assert(base.size() == value.size());
+  size_t count = 0;
+  for (size_t i = 0; i < value.size(); ++i)
+    if (DoubleChanged(base[i], value[i])) ++count;
+  WriteUleb128(count);
+  size_t next = 0;
+  for (size_t i = 0; i < value.size(); ++i) {
+    if (!DoubleChanged(base[i], value[i])) continue;
+    WriteUleb128(i - next);
+    WriteDouble(value[i]);
+    next = i + 1;
+  }
+}
+
+size_t WireEncoder::GetDoubleArrayDeltaSize(wpi::ArrayRef<double> base,
+                                            wpi::ArrayRef<double> value) const {
+  size_t count = 0;
+  size_t len = 0;
+  size_t next = 0;
+  for (size_t i = 0; i < value.size(); ++i) {
+    if (!DoubleChanged(base[i], value[i])) continue;
+    ++count;
+    len += wpi::SizeUleb128(i - next) + 8;
+    next = i + 1;
+  }
+  return wpi::SizeUleb128(count) + len;
+}
@@ -13,6 +13,7 @@
 #include <cassert>
 #include <cstddef>
 
+#include <wpi/ArrayRef.h>
 #include <wpi/SmallVector.h>
 #include <wpi/StringRef.h>
 
@@ -85,6 +86,13 @@ class WireEncoder {
   void WriteValue(const Value& value);
   void WriteString(wpi::StringRef str);
 
+  /* Writes the elements of a double array which differ from a base array of
+   * the same size: the ULEB128 count of changed elements, then the ULEB128
+   * index gap from the previous changed element and the value of each.
+   */
+  void WriteDoubleArrayDelta(wpi::ArrayRef<double> base,
+                             wpi::ArrayRef<double> value);
+
   /* Utility function to get the written size of a value (without actually
    * writing it).
    */
@@ -95,6 +103,12 @@ class WireEncoder {
    */
   size_t GetStringSize(wpi::StringRef str) const;
 
+  /* Utility function to get the written size of a double array delta
+   * (without actually writing it).
+   */
+  size_t GetDoubleArrayDeltaSize(wpi::ArrayRef<double> base,
+                                 wpi::ArrayRef<double> value) const;
+
  protected:
   /* The protocol revision.  E.g. 0x0200 for version 2.0. */
   unsigned int m_proto_rev;
@@ -8,9 +8,11 @@
 #include <jni.h>
 
 #include <cassert>
+#include <cstring>
 
 #include <wpi/ConvertUTF.h>
 #include <wpi/SmallString.h>
+#include <wpi/SmallVector.h>
 #include <wpi/jni_util.h>
 #include <wpi/raw_ostream.h>
 
@@ -34,6 +36,7 @@ static JClass connectionInfoCls;
 static JClass connectionNotificationCls;
 static JClass doubleCls;
 static JClass entryInfoCls;
+static JClass entryNotificationBufferCls;
 static JClass entryNotificationCls;
 static JClass logMessageCls;
 static JClass rpcAnswerCls;
@@ -50,6 +53,8 @@ static const JClassInit classes[] = {
      &connectionNotificationCls},
     {"java/lang/Double", &doubleCls},
     {"edu/wpi/first/networktables/EntryInfo", &entryInfoCls},
+    {"edu/wpi/first/networktables/EntryNotificationBuffer",
+     &entryNotificationBufferCls},
     {"edu/wpi/first/networktables/EntryNotification", &entryNotificationCls},
     {"edu/wpi/first/networktables/LogMessage", &logMessageCls},
     {"edu/wpi/first/networktables/RpcAnswer", &rpcAnswerCls},
@@ -197,11 +202,28 @@ static jobject MakeJObject(JNIEnv* env, const nt::Value& value) {
 static jobject MakeJValue(JNIEnv* env, const nt::Value* value) {
   static jmethodID constructor =
       env->GetMethodID(valueCls, "<init>", "(ILjava/lang/Object;J)V");
+  static jmethodID booleanConstructor =
+      env->GetMethodID(valueCls, "<init>", "(ZJ)V");
+  static jmethodID doubleConstructor =
+      env->GetMethodID(valueCls, "<init>", "(DJ)V");
   if (!value)
     return env->NewObject(valueCls, constructor, (jint)NT_UNASSIGNED, nullptr,
                           (jlong)0);
-  return env->NewObject(valueCls, constructor, (jint)value->type(),
-                        MakeJObject(env, *value), (jlong)value->time());
+  // Booleans and doubles are stored unboxed
+  switch (value->type()) {
+    case NT_BOOLEAN:
+      return env->NewObject(valueCls, booleanConstructor,
+                            (jboolean)(value->GetBoolean() ? 1 : 0),
+                            (jlong)value->time());
+    case NT_DOUBLE:
+      return env->NewObject(valueCls, doubleConstructor,
+                            (jdouble)value->GetDouble(), (jlong)value->time());
+    default: {
+      JLocal<jobject> obj{env, MakeJObject(env, *value)};
+      return env->NewObject(valueCls, constructor, (jint)value->type(),
+                            obj.obj(), (jlong)value->time());
+    }
+  }
 }
 
 static jobject MakeJObject(JNIEnv* env, const nt::ConnectionInfo& info) {
@@ -326,6 +348,65 @@ static jobjectArray MakeJObject(JNIEnv* env, jobject inst,
   return jarr;
 }
 
+// Copies notifications into an EntryNotificationBuffer, growing it if needed.
+// Each notification takes kEntryNotificationStride longs of the buffer's data
+// array; reference values go in its values array.
+static constexpr size_t kEntryNotificationStride = 6;
+
+static jint FillEntryNotificationBuffer(
+    JNIEnv* env, jobject buffer, wpi::ArrayRef<nt::EntryNotification> arr) {
+  static jfieldID dataField =
+      env->GetFieldID(entryNotificationBufferCls, "m_data", "[J");
+  static jfieldID valuesField = env->GetFieldID(
+      entryNotificationBufferCls, "m_values", "[Ljava/lang/Object;");
+  static jmethodID ensureCapacity =
+      env->GetMethodID(entryNotificationBufferCls, "ensureCapacity", "(I)V");
+
+  size_t len = arr.size() * kEntryNotificationStride;
+  JLocal<jlongArray> data{
+      env, static_cast<jlongArray>(env->GetObjectField(buffer, dataField))};
+  if (static_cast<size_t>(env->GetArrayLength(data)) < len) {
+    env->CallVoidMethod(buffer, ensureCapacity, (jint)arr.size());
+    if (env->ExceptionCheck()) return 0;
+    data = JLocal<jlongArray>{
+        env, static_cast<jlongArray>(env->GetObjectField(buffer, dataField))};
+  }
+  JLocal<jobjectArray> values{
+      env,
+      static_cast<jobjectArray>(env->GetObjectField(buffer, valuesField))};
+
+  wpi::SmallVector<jlong, 16 * kEntryNotificationStride> fields;
+  fields.reserve(len);
+  for (size_t i = 0; i < arr.size(); ++i) {
+    const nt::EntryNotification& notification = arr[i];
+    const nt::Value* value = notification.value.get();
+    NT_Type type = value ? value->type() : NT_UNASSIGNED;
+    jlong payload = 0;
+    if (type == NT_BOOLEAN) {
+      payload = value->GetBoolean() ? 1 : 0;
+    } else if (type == NT_DOUBLE) {
+      double v = value->GetDouble();
+      std::memcpy(&payload, &v, sizeof(payload));
+    }
+    fields.push_back(notification.listener);
+    fields.push_back(notification.entry);
+    fields.push_back(notification.flags);
+    fields.push_back(type);
+    fields.push_back(value ? value->time() : 0);
+    fields.push_back(payload);
+
+    // Clear references left from an earlier poll as well as setting new ones
+    if (type == NT_BOOLEAN || type == NT_DOUBLE || type == NT_UNASSIGNED) {
+      env->SetObjectArrayElement(values, i, nullptr);
+    } else {
+      JLocal<jobject> obj{env, MakeJObject(env, *value)};
+      env->SetObjectArrayElement(values, i, obj);
+    }
+  }
+  env->SetLongArrayRegion(data, 0, len, fields.data());
+  return arr.size();
+}
+
 extern "C" {
 
 /*
@@ -433,6 +514,30 @@ Java_edu_wpi_first_networktables_NetworkTablesJNI_getEntryLastChange
   return nt::GetEntryLastChange(entry);
 }
 
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    getEntryBytesSent
+ * Signature: (I)J
+ */
+JNIEXPORT jlong JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_getEntryBytesSent
+  (JNIEnv*, jclass, jint entry)
+{
+  return nt::GetEntryBytesSent(entry);
+}
+
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    getEntryBytesReceived
+ * Signature: (I)J
+ */
+JNIEXPORT jlong JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_getEntryBytesReceived
+  (JNIEnv*, jclass, jint entry)
+{
+  return nt::GetEntryBytesReceived(entry);
+}
+
 /*
  * Class:     edu_wpi_first_networktables_NetworkTablesJNI
  * Method:    getType
@@ -479,6 +584,50 @@ Java_edu_wpi_first_networktables_NetworkTablesJNI_setDouble
   return nt::SetEntryValue(entry, nt::Value::MakeDouble(value, time));
 }
 
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    setDoublesAndBooleans
+ * Signature: ([I[DI[I[ZI)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_setDoublesAndBooleans
+  (JNIEnv* env, jclass, jintArray doubleEntries, jdoubleArray doubleValues,
+   jint doubleCount, jintArray booleanEntries, jbooleanArray booleanValues,
+   jint booleanCount)
+{
+  if (!doubleEntries || !doubleValues || !booleanEntries || !booleanValues) {
+    nullPointerEx.Throw(env, "arrays cannot be null");
+    return;
+  }
+  if (doubleCount < 0 || booleanCount < 0 ||
+      doubleCount > env->GetArrayLength(doubleEntries) ||
+      doubleCount > env->GetArrayLength(doubleValues) ||
+      booleanCount > env->GetArrayLength(booleanEntries) ||
+      booleanCount > env->GetArrayLength(booleanValues)) {
+    illegalArgEx.Throw(env, "count exceeds array length");
+    return;
+  }
+  if (doubleCount > 0) {
+    JIntArrayRef entriesRef{env, doubleEntries};
+    JDoubleArrayRef valuesRef{env, doubleValues};
+    wpi::ArrayRef<jint> entries{entriesRef};
+    wpi::ArrayRef<jdouble> values{valuesRef};
+    for (jint i = 0; i < doubleCount; ++i) {
+      nt::SetEntryValue(entries[i], nt::Value::MakeDouble(values[i]));
+    }
+  }
+  if (booleanCount > 0) {
+    JIntArrayRef entriesRef{env, booleanEntries};
+    JBooleanArrayRef valuesRef{env, booleanValues};
+    wpi::ArrayRef<jint> entries{entriesRef};
+    wpi::ArrayRef<jboolean> values{valuesRef};
+    for (jint i = 0; i < booleanCount; ++i) {
+      nt::SetEntryValue(entries[i],
+                        nt::Value::MakeBoolean(values[i] != JNI_FALSE));
+    }
+  }
+}
+
 /*
  * Class:     edu_wpi_first_networktables_NetworkTablesJNI
  * Method:    setString
@@ -1010,6 +1159,49 @@ Java_edu_wpi_first_networktables_NetworkTablesJNI_pollEntryListenerTimeout
   return MakeJObject(env, inst, events);
 }
 
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    pollEntryListenerInto
+ * Signature: (ILjava/lang/Object;)I
+ */
+JNIEXPORT jint JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_pollEntryListenerInto
+  (JNIEnv* env, jclass, jint poller, jobject buffer)
+{
+  if (!buffer) {
+    nullPointerEx.Throw(env, "buffer cannot be null");
+    return 0;
+  }
+  auto events = nt::PollEntryListener(poller);
+  if (events.empty()) {
+    interruptedEx.Throw(env, "PollEntryListener interrupted");
+    return 0;
+  }
+  return FillEntryNotificationBuffer(env, buffer, events);
+}
+
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    pollEntryListenerIntoTimeout
+ * Signature: (ILjava/lang/Object;D)I
+ */
+JNIEXPORT jint JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_pollEntryListenerIntoTimeout
+  (JNIEnv* env, jclass, jint poller, jobject buffer, jdouble timeout)
+{
+  if (!buffer) {
+    nullPointerEx.Throw(env, "buffer cannot be null");
+    return 0;
+  }
+  bool timed_out = false;
+  auto events = nt::PollEntryListener(poller, timeout, &timed_out);
+  if (events.empty() && !timed_out) {
+    interruptedEx.Throw(env, "PollEntryListener interrupted");
+    return 0;
+  }
+  return FillEntryNotificationBuffer(env, buffer, events);
+}
+
 /*
  * Class:     edu_wpi_first_networktables_NetworkTablesJNI
  * Method:    cancelPollEntryListener
@@ -1374,7 +1566,7 @@ Java_edu_wpi_first_networktables_NetworkTablesJNI_getNetworkMode
  * Signature: (ILjava/lang/String;Ljava/lang/String;I)V
  */
 JNIEXPORT void JNICALL
-Java_edu_wpi_first_networktables_NetworkTablesJNI_startServer
+Java_edu_wpi_first_networktables_NetworkTablesJNI_startServer__ILjava_lang_String_2Ljava_lang_String_2I
   (JNIEnv* env, jclass, jint inst, jstring persistFilename,
    jstring listenAddress, jint port)
 {
@@ -1390,6 +1582,28 @@ Java_edu_wpi_first_networktables_NetworkTablesJNI_startServer
                   JStringRef{env, listenAddress}.c_str(), port);
 }
 
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    startServer
+ * Signature: (ILjava/lang/String;Ljava/lang/String;II)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_startServer__ILjava_lang_String_2Ljava_lang_String_2II
+  (JNIEnv* env, jclass, jint inst, jstring persistFilename,
+   jstring listenAddress, jint port, jint persistFormat)
+{
+  if (!persistFilename) {
+    nullPointerEx.Throw(env, "persistFilename cannot be null");
+    return;
+  }
+  if (!listenAddress) {
+    nullPointerEx.Throw(env, "listenAddress cannot be null");
+    return;
+  }
+  nt::StartServer(inst, JStringRef{env, persistFilename}.str(),
+                  JStringRef{env, listenAddress}.c_str(), port, persistFormat);
+}
+
 /*
  * Class:     edu_wpi_first_networktables_NetworkTablesJNI
  * Method:    stopServer
@@ -1608,6 +1822,18 @@ Java_edu_wpi_first_networktables_NetworkTablesJNI_setUpdateRate
   nt::SetUpdateRate(inst, interval);
 }
 
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    setDeltaEncoding
+ * Signature: (IZ)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_setDeltaEncoding
+  (JNIEnv*, jclass, jint inst, jboolean enabled)
+{
+  nt::SetDeltaEncoding(inst, enabled);
+}
+
 /*
  * Class:     edu_wpi_first_networktables_NetworkTablesJNI
  * Method:    flush
@@ -206,6 +206,14 @@ uint64_t NT_GetEntryLastChange(NT_Entry entry) {
   return nt::GetEntryLastChange(entry);
 }
 
+uint64_t NT_GetEntryBytesSent(NT_Entry entry) {
+  return nt::GetEntryBytesSent(entry);
+}
+
+uint64_t NT_GetEntryBytesReceived(NT_Entry entry) {
+  return nt::GetEntryBytesReceived(entry);
+}
+
 void NT_GetEntryValue(NT_Entry entry, struct NT_Value* value) {
   NT_InitValue(value);
   auto v = nt::GetEntryValue(entry);
@@ -544,6 +552,13 @@ void NT_StartServer(NT_Inst inst, const char* persist_filename,
   nt::StartServer(inst, persist_filename, listen_address, port);
 }
 
+void NT_StartServerPersistFormat(NT_Inst inst, const char* persist_filename,
+                                 const char* listen_address, unsigned int port,
+                                 unsigned int persist_format) {
+  nt::StartServer(inst, persist_filename, listen_address, port,
+                  persist_format);
+}
+
 void NT_StopServer(NT_Inst inst) { nt::StopServer(inst); }
 
 void NT_StartClientNone(NT_Inst inst) { nt::StartClient(inst); }
@@ -594,6 +609,10 @@ void NT_SetUpdateRate(NT_Inst inst, double interval) {
   nt::SetUpdateRate(inst, interval);
 }
 
+void NT_SetDeltaEncoding(NT_Inst inst, NT_Bool enabled) {
+  nt::SetDeltaEncoding(inst, enabled);
+}
+
 void NT_Flush(NT_Inst inst) { nt::Flush(inst); }
 
 NT_Bool NT_IsConnected(NT_Inst inst) { return nt::IsConnected(inst); }
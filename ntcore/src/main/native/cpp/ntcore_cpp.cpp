@@ -102,6 +102,24 @@ uint64_t GetEntryLastChange(NT_Entry entry) {
   return ii->storage.GetEntryLastChange(id);
 }
 
+uint64_t GetEntryBytesSent(NT_Entry entry) {
+  Handle handle{entry};
+  int id = handle.GetTypedIndex(Handle::kEntry);
+  auto ii = InstanceImpl::Get(handle.GetInst());
+  if (id < 0 || !ii) return 0;
+
+  return ii->storage.GetEntryBytesSent(id);
+}
+
+uint64_t GetEntryBytesReceived(NT_Entry entry) {
+  Handle handle{entry};
+  int id = handle.GetTypedIndex(Handle::kEntry);
+  auto ii = InstanceImpl::Get(handle.GetInst());
+  if (id < 0 || !ii) return 0;
+
+  return ii->storage.GetEntryBytesReceived(id);
+}
+
 std::shared_ptr<Value> GetEntryValue(StringRef name) {
   return InstanceImpl::GetDefault()->storage.GetEntryValue(name);
 }
@@ -745,7 +763,8 @@ unsigned int GetNetworkMode(NT_Inst inst) {
 void StartServer(StringRef persist_filename, const char* listen_address,
                  unsigned int port) {
   auto ii = InstanceImpl::GetDefault();
-  ii->dispatcher.StartServer(persist_filename, listen_address, port);
+  ii->dispatcher.StartServer(persist_filename, listen_address, port,
+                             NT_PERSIST_TEXT);
 }
 
 void StartServer(NT_Inst inst, const Twine& persist_filename,
@@ -753,7 +772,18 @@ void StartServer(NT_Inst inst, const Twine& persist_filename,
   auto ii = InstanceImpl::Get(Handle{inst}.GetTypedInst(Handle::kInstance));
   if (!ii) return;
 
-  ii->dispatcher.StartServer(persist_filename, listen_address, port);
+  ii->dispatcher.StartServer(persist_filename, listen_address, port,
+                             NT_PERSIST_TEXT);
+}
+
+void StartServer(NT_Inst inst, const Twine& persist_filename,
+                 const char* listen_address, unsigned int port,
+                 unsigned int persist_format) {
+  auto ii = InstanceImpl::Get(Handle{inst}.GetTypedInst(Handle::kInstance));
+  if (!ii) return;
+
+  ii->dispatcher.StartServer(persist_filename, listen_address, port,
+                             persist_format);
 }
 
 void StopServer() { InstanceImpl::GetDefault()->dispatcher.Stop(); }
@@ -881,6 +911,13 @@ void SetUpdateRate(NT_Inst inst, double interval) {
   ii->dispatcher.SetUpdateRate(interval);
 }
 
+void SetDeltaEncoding(NT_Inst inst, bool enabled) {
+  auto ii = InstanceImpl::Get(Handle{inst}.GetTypedInst(Handle::kInstance));
+  if (!ii) return;
+
+  ii->dispatcher.SetDeltaEncoding(enabled);
+}
+
 void Flush() { InstanceImpl::GetDefault()->dispatcher.Flush(); }
 
 void Flush(NT_Inst inst) {
@@ -97,6 +97,12 @@ enum NT_NetworkMode {
   NT_NET_MODE_FAILURE = 0x08,  /* flag for failure (either client or server) */
 };
 
+/** Server persistent file formats. */
+enum NT_PersistFormat {
+  NT_PERSIST_TEXT = 0,       /* text file, rewritten on every save */
+  NT_PERSIST_BINARY_LOG = 1  /* binary file, appended to on every save */
+};
+
 /*
  * Structures
  */
@@ -366,6 +372,26 @@ enum NT_Type NT_GetEntryType(NT_Entry entry);
  */
 uint64_t NT_GetEntryLastChange(NT_Entry entry);
 
+/**
+ * Gets the number of bytes of assignments and updates of the entry sent to
+ * all connections.
+ * Returns 0 if the handle is invalid.
+ *
+ * @param entry   entry handle
+ * @return Bytes sent
+ */
+uint64_t NT_GetEntryBytesSent(NT_Entry entry);
+
+/**
+ * Gets the number of bytes of assignments and updates of the entry received
+ * from all connections.
+ * Returns 0 if the handle is invalid.
+ *
+ * @param entry   entry handle
+ * @return Bytes received
+ */
+uint64_t NT_GetEntryBytesReceived(NT_Entry entry);
+
 /**
  * Get Entry Value.
  *
@@ -1050,6 +1076,27 @@ unsigned int NT_GetNetworkMode(NT_Inst inst);
 void NT_StartServer(NT_Inst inst, const char* persist_filename,
                     const char* listen_address, unsigned int port);
 
+/**
+ * Starts a server using the specified filename, listening address, port,
+ * and persistent file format.
+ *
+ * The binary log format only appends the values which changed to the file
+ * on each save, and loads faster than the text format.  The file is
+ * compacted in the background as it grows.  A text file is converted to the
+ * binary format by the first save.
+ *
+ * @param inst              instance handle
+ * @param persist_filename  the name of the persist file to use (UTF-8 string,
+ *                          null terminated)
+ * @param listen_address    the address to listen on, or null to listen on any
+ *                          address. (UTF-8 string, null terminated)
+ * @param port              port to communicate over.
+ * @param persist_format    persistent file format (NT_PersistFormat)
+ */
+void NT_StartServerPersistFormat(NT_Inst inst, const char* persist_filename,
+                                 const char* listen_address, unsigned int port,
+                                 unsigned int persist_format);
+
 /**
  * Stops the server if it is running.
  *
@@ -1160,6 +1207,18 @@ void NT_StopDSClient(NT_Inst inst);
  */
 void NT_SetUpdateRate(NT_Inst inst, double interval);
 
+/**
+ * Set whether double array updates are sent as deltas.
+ * If enabled, an update to a double array the same size as the previous
+ * value is sent as just the changed elements, if that is smaller, to
+ * connections which support it.  The receiver requests the full value if it
+ * does not have the previous value.  Disabled by default.
+ *
+ * @param inst      instance handle
+ * @param enabled   true to send delta updates
+ */
+void NT_SetDeltaEncoding(NT_Inst inst, NT_Bool enabled);
+
 /**
  * Flush Entries.
  *
@@ -375,6 +375,26 @@ NT_Type GetEntryType(NT_Entry entry);
  */
 uint64_t GetEntryLastChange(NT_Entry entry);
 
+/**
+ * Gets the number of bytes of assignments and updates of the entry sent to
+ * all connections.
+ * Returns 0 if the handle is invalid.
+ *
+ * @param entry   entry handle
+ * @return Bytes sent
+ */
+uint64_t GetEntryBytesSent(NT_Entry entry);
+
+/**
+ * Gets the number of bytes of assignments and updates of the entry received
+ * from all connections.
+ * Returns 0 if the handle is invalid.
+ *
+ * @param entry   entry handle
+ * @return Bytes received
+ */
+uint64_t GetEntryBytesReceived(NT_Entry entry);
+
 /**
  * Get Entry Value.
  *
@@ -1151,6 +1171,27 @@ void StartServer(StringRef persist_filename, const char* listen_address,
 void StartServer(NT_Inst inst, const Twine& persist_filename,
                  const char* listen_address, unsigned int port);
 
+/**
+ * Starts a server using the specified filename, listening address, port,
+ * and persistent file format.
+ *
+ * The binary log format only appends the values which changed to the file
+ * on each save, and loads faster than the text format.  The file is
+ * compacted in the background as it grows.  A text file is converted to the
+ * binary format by the first save.
+ *
+ * @param inst              instance handle
+ * @param persist_filename  the name of the persist file to use (UTF-8 string,
+ *                          null terminated)
+ * @param listen_address    the address to listen on, or null to listen on any
+ *                          address. (UTF-8 string, null terminated)
+ * @param port              port to communicate over.
+ * @param persist_format    persistent file format (NT_PersistFormat)
+ */
+void StartServer(NT_Inst inst, const Twine& persist_filename,
+                 const char* listen_address, unsigned int port,
+                 unsigned int persist_format);
+
 /**
  * Stops the server if it is running.
  */
@@ -1322,6 +1363,18 @@ void SetUpdateRate(double interval);
  */
 void SetUpdateRate(NT_Inst inst, double interval);
 
+/**
+ * Set whether double array updates are sent as deltas.
+ * If enabled, an update to a double array the same size as the previous
+ * value is sent as just the changed elements, if that is smaller, to
+ * connections which support it.  The receiver requests the full value if it
+ * does not have the previous value.  Disabled by default.
+ *
+ * @param inst      instance handle
+ * @param enabled   true to send delta updates
+ */
+void SetDeltaEncoding(NT_Inst inst, bool enabled);
+
 /**
  * Flush Entries.
  *
@@ -0,0 +1,161 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class DeltaEncodingTest {
+  private static final int kRounds = 10;
+  // size of a full update of a 64 element double array
+  private static final int kFullUpdateSize = 6 + 1 + 64 * 8;
+
+  private NetworkTableInstance m_serverInst;
+  private NetworkTableInstance m_clientInst;
+
+  @BeforeEach
+  void setUp() {
+    m_serverInst = NetworkTableInstance.create();
+    m_serverInst.setNetworkIdentity("server");
+
+    m_clientInst = NetworkTableInstance.create();
+    m_clientInst.setNetworkIdentity("client");
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_clientInst.close();
+    m_serverInst.close();
+  }
+
+  @SuppressWarnings("PMD.AvoidUsingHardCodedIP")
+  private void connect() {
+    m_serverInst.startServer("deltaencodingtest.ini", "127.0.0.1", 10011);
+    m_clientInst.startClient("127.0.0.1", 10011);
+
+    // Use connection listener to ensure we've connected
+    int poller = NetworkTablesJNI.createConnectionListenerPoller(m_clientInst.getHandle());
+    NetworkTablesJNI.addPolledConnectionListener(poller, false);
+    try {
+      if (NetworkTablesJNI.pollConnectionListenerTimeout(m_clientInst, poller, 1.0).length == 0) {
+        fail("client didn't connect to server");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      fail("interrupted while waiting for server connection");
+    }
+  }
+
+  private static void waitForValue(NetworkTableEntry entry, double[] expected) {
+    for (int i = 0; i < 100; i++) {
+      if (Arrays.equals(expected, entry.getDoubleArray(new double[0]))) {
+        return;
+      }
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        fail("interrupted while waiting for value");
+      }
+    }
+    assertArrayEquals(expected, entry.getDoubleArray(new double[0]));
+  }
+
+  /**
+   * Waits for the sender to count the bytes the receiver got; the sender counts them after
+   * writing, so they may be received first.
+   */
+  private static void waitForBytes(NetworkTableEntry from, NetworkTableEntry to) {
+    for (int i = 0; i < 100 && from.getBytesSent() != to.getBytesReceived(); i++) {
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        fail("interrupted while waiting for byte counts");
+      }
+    }
+    assertEquals(from.getBytesSent(), to.getBytesReceived());
+  }
+
+  /**
+   * Sends a full value, then changes a few elements each round and checks
+   * that the receiver has the same value.
+   */
+  private static void sendUpdates(NetworkTableInstance fromInst, NetworkTableEntry from,
+                                  NetworkTableEntry to) {
+    double[] value = new double[64];
+    for (int i = 0; i < value.length; i++) {
+      value[i] = i;
+    }
+    from.setDoubleArray(value);
+    fromInst.flush();
+    waitForValue(to, value);
+
+    for (int round = 0; round < kRounds; round++) {
+      value[round * 3] = -round;
+      if (round % 2 == 0) {
+        value[63 - round] = Double.NaN;
+      }
+      from.setDoubleArray(value);
+      fromInst.flush();
+      waitForValue(to, value);
+    }
+  }
+
+  @Test
+  void testServerToClient() {
+    connect();
+    m_serverInst.setDeltaEncoding(true);
+    NetworkTableEntry serverEntry = m_serverInst.getEntry("/array");
+    NetworkTableEntry clientEntry = m_clientInst.getEntry("/array");
+    sendUpdates(m_serverInst, serverEntry, clientEntry);
+
+    waitForBytes(serverEntry, clientEntry);
+    long sent = serverEntry.getBytesSent();
+    // the assignment is sent in full, then only the changed elements
+    assertTrue(sent < kFullUpdateSize + 100 * kRounds, "bytes sent " + sent);
+  }
+
+  @Test
+  void testClientToServer() {
+    connect();
+    NetworkTableEntry serverEntry = m_serverInst.getEntry("/array");
+    NetworkTableEntry clientEntry = m_clientInst.getEntry("/array");
+    serverEntry.setDoubleArray(new double[64]);
+    m_serverInst.flush();
+    waitForValue(clientEntry, new double[64]);
+
+    m_clientInst.setDeltaEncoding(true);
+    sendUpdates(m_clientInst, clientEntry, serverEntry);
+
+    // the first update is sent in full, as the client has not sent a value
+    waitForBytes(clientEntry, serverEntry);
+    long sent = clientEntry.getBytesSent();
+    assertTrue(sent < 2 * kFullUpdateSize + 100 * kRounds, "bytes sent " + sent);
+  }
+
+  @Test
+  void testDisabled() {
+    connect();
+    NetworkTableEntry serverEntry = m_serverInst.getEntry("/array");
+    NetworkTableEntry clientEntry = m_clientInst.getEntry("/array");
+    sendUpdates(m_serverInst, serverEntry, clientEntry);
+
+    waitForBytes(serverEntry, clientEntry);
+    long sent = serverEntry.getBytesSent();
+    assertTrue(sent >= kFullUpdateSize * (kRounds + 1), "bytes sent " + sent);
+  }
+}
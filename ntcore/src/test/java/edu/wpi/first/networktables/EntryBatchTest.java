@@ -0,0 +1,75 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class EntryBatchTest {
+  private NetworkTableInstance m_inst;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void flushSetsValuesTest() {
+    final EntryBatch batch = new EntryBatch();
+    final NetworkTable table = m_inst.getTable("batch");
+
+    // Queue more values than the initial capacity to exercise growth
+    for (int i = 0; i < 40; i++) {
+      batch.setDouble(table.getEntry("double" + i), i * 0.5);
+      batch.setBoolean(table.getEntry("boolean" + i), i % 2 == 0);
+    }
+    assertEquals(80, batch.size());
+    assertFalse(table.getEntry("double0").exists());
+
+    batch.flush();
+    assertEquals(0, batch.size());
+    for (int i = 0; i < 40; i++) {
+      assertEquals(i * 0.5, table.getEntry("double" + i).getDouble(-1));
+      assertEquals(i % 2 == 0, table.getEntry("boolean" + i).getBoolean(i % 2 != 0));
+    }
+  }
+
+  @Test
+  void typeMismatchTest() {
+    final EntryBatch batch = new EntryBatch();
+    final NetworkTableEntry stringEntry = m_inst.getEntry("string");
+    final NetworkTableEntry doubleEntry = m_inst.getEntry("double");
+    stringEntry.setString("value");
+
+    batch.setDouble(stringEntry, 1.0);
+    batch.setDouble(doubleEntry, 2.0);
+    batch.flush();
+
+    assertAll(
+        () -> assertEquals("value", stringEntry.getString("")),
+        () -> assertEquals(2.0, doubleEntry.getDouble(0.0))
+    );
+  }
+
+  @Test
+  void emptyFlushTest() {
+    final EntryBatch batch = new EntryBatch();
+    batch.flush();
+    assertEquals(0, batch.size());
+  }
+}
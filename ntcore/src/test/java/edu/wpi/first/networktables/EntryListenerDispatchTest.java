@@ -0,0 +1,154 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntryListenerDispatchTest {
+  private static final int kFlags = EntryListenerFlags.kLocal | EntryListenerFlags.kNew
+      | EntryListenerFlags.kUpdate;
+
+  private NetworkTableInstance m_inst;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void perListenerOrderTest() {
+    m_inst.setEntryListenerDispatchPool(4, 16);
+    NetworkTableEntry entry = m_inst.getEntry("/order");
+
+    List<List<Double>> received = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      List<Double> values = Collections.synchronizedList(new ArrayList<>());
+      received.add(values);
+      m_inst.addEntryListener(entry, event -> values.add(event.value.getDouble()), kFlags);
+    }
+
+    for (int i = 0; i < 500; i++) {
+      entry.setDouble(i);
+    }
+    assertTrue(m_inst.waitForEntryListenerQueue(5.0));
+
+    for (List<Double> values : received) {
+      assertEquals(500, values.size());
+      for (int i = 0; i < values.size(); i++) {
+        assertEquals(i, values.get(i).doubleValue());
+      }
+    }
+
+    EntryListenerStats stats = m_inst.getEntryListenerStats();
+    assertEquals(8 * 500, stats.getDispatchCount());
+    assertEquals(0, stats.getQueueDepth());
+    assertTrue(stats.getMaxQueueDepth() > 0);
+    assertTrue(stats.getMaxDispatchLatency() >= stats.getAverageDispatchLatency());
+
+    m_inst.resetEntryListenerStats();
+    assertEquals(0, m_inst.getEntryListenerStats().getDispatchCount());
+  }
+
+  @Test
+  void slowListenerIsolationTest() throws InterruptedException {
+    final int workers = 2;
+    m_inst.setEntryListenerDispatchPool(workers, 64);
+    NetworkTableEntry entry = m_inst.getEntry("/slow");
+
+    CountDownLatch release = new CountDownLatch(1);
+    int slow = m_inst.addEntryListener(entry, event -> {
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }, kFlags);
+
+    // Add fast listeners until one is assigned to the other worker
+    CountDownLatch fastDone = new CountDownLatch(10);
+    Integer fast = null;
+    for (int i = 0; i < 100 && fast == null; i++) {
+      int handle = m_inst.addEntryListener(entry, event -> fastDone.countDown(), kFlags);
+      if (EntryListenerDispatcher.workerIndex(handle, workers)
+          != EntryListenerDispatcher.workerIndex(slow, workers)) {
+        fast = handle;
+      } else {
+        m_inst.removeEntryListener(handle);
+      }
+    }
+    assertNotNull(fast);
+
+    for (int i = 0; i < 10; i++) {
+      entry.setDouble(i);
+    }
+
+    // The fast listener keeps up while the slow one is blocked
+    assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+    assertTrue(m_inst.getEntryListenerStats().getQueueDepth() > 0);
+
+    release.countDown();
+    assertTrue(m_inst.waitForEntryListenerQueue(5.0));
+    assertEquals(0, m_inst.getEntryListenerStats().getQueueDepth());
+  }
+
+  @Test
+  void waitFromListenerTest() throws InterruptedException {
+    m_inst.setEntryListenerDispatchPool(2, 16);
+    NetworkTableEntry entry = m_inst.getEntry("/wait");
+
+    // A listener waiting for the queue must not wait for its own worker
+    CountDownLatch done = new CountDownLatch(1);
+    boolean[] result = new boolean[1];
+    m_inst.addEntryListener(entry, event -> {
+      result[0] = m_inst.waitForEntryListenerQueue(5.0);
+      done.countDown();
+    }, kFlags);
+
+    entry.setDouble(1.0);
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertTrue(result[0]);
+  }
+
+  @Test
+  void serialDispatchStatsTest() {
+    NetworkTableEntry entry = m_inst.getEntry("/serial");
+    List<Double> values = Collections.synchronizedList(new ArrayList<>());
+    m_inst.addEntryListener(entry, event -> values.add(event.value.getDouble()), kFlags);
+
+    for (int i = 0; i < 20; i++) {
+      entry.setDouble(i);
+    }
+    assertTrue(m_inst.waitForEntryListenerQueue(5.0));
+    assertEquals(20, values.size());
+    assertEquals(20, m_inst.getEntryListenerStats().getDispatchCount());
+  }
+
+  @Test
+  void invalidPoolTest() {
+    assertThrows(IllegalArgumentException.class, () -> m_inst.setEntryListenerDispatchPool(-1, 1));
+    assertThrows(IllegalArgumentException.class, () -> m_inst.setEntryListenerDispatchPool(1, 0));
+  }
+}
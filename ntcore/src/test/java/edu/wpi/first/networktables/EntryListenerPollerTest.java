@@ -0,0 +1,111 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntryListenerPollerTest {
+  private static final int kFlags =
+      EntryListenerFlags.kLocal | EntryListenerFlags.kNew | EntryListenerFlags.kUpdate;
+
+  private NetworkTableInstance m_inst;
+  private EntryListenerPoller m_poller;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+    m_poller = new EntryListenerPoller(m_inst);
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_poller.close();
+    m_inst.close();
+  }
+
+  @Test
+  void testPollTypes() throws InterruptedException {
+    int handle = m_poller.addListener("/foo", kFlags);
+    m_inst.getEntry("/foo/double").setDouble(1.5);
+    m_inst.getEntry("/foo/boolean").setBoolean(true);
+    m_inst.getEntry("/foo/string").setString("hello");
+    m_inst.getEntry("/foo/array").setDoubleArray(new double[] {1, 2});
+    // Let every notification reach the poller, so they are returned by one poll
+    assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+
+    EntryNotificationBuffer buffer = new EntryNotificationBuffer(8);
+    assertEquals(4, m_poller.poll(buffer, 1.0));
+    assertEquals(4, buffer.size());
+    for (int i = 0; i < 4; i++) {
+      assertEquals(handle, buffer.getListener(i));
+      assertEquals(EntryListenerFlags.kNew | EntryListenerFlags.kLocal, buffer.getFlags(i));
+      assertTrue(buffer.getTime(i) > 0);
+    }
+
+    assertEquals("/foo/double", buffer.getName(0));
+    assertEquals(m_inst.getEntry("/foo/double").getHandle(), buffer.getEntry(0));
+    assertEquals(NetworkTableType.kDouble, buffer.getType(0));
+    assertEquals(1.5, buffer.getDouble(0));
+    assertThrows(ClassCastException.class, () -> buffer.getBoolean(0));
+    assertEquals(NetworkTableType.kBoolean, buffer.getType(1));
+    assertTrue(buffer.getBoolean(1));
+    assertEquals("hello", buffer.getValue(2));
+    assertArrayEquals(new double[] {1, 2}, (double[]) buffer.getValue(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> buffer.getType(4));
+  }
+
+  @Test
+  void testBufferReused() throws InterruptedException {
+    m_poller.addListener(m_inst.getEntry("/value"), kFlags);
+    EntryNotificationBuffer buffer = new EntryNotificationBuffer(1);
+
+    // A larger batch grows the buffer
+    for (int i = 0; i < 5; i++) {
+      m_inst.getEntry("/value").forceSetString("value " + i);
+    }
+    assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+    assertEquals(5, m_poller.poll(buffer, 1.0));
+    assertTrue(buffer.getCapacity() >= 5);
+    for (int i = 0; i < 5; i++) {
+      assertEquals("value " + i, buffer.getValue(i));
+    }
+
+    // The next poll replaces the notifications and their values
+    m_inst.getEntry("/value").forceSetDouble(2.0);
+    assertEquals(1, m_poller.poll(buffer, 1.0));
+    assertEquals(1, buffer.size());
+    assertEquals(2.0, buffer.getValue(0));
+    assertThrows(IndexOutOfBoundsException.class, () -> buffer.getValue(1));
+  }
+
+  @Test
+  void testTimeoutAndCancel() throws InterruptedException {
+    m_poller.addListener("/", kFlags);
+    EntryNotificationBuffer buffer = new EntryNotificationBuffer(4);
+    assertEquals(0, m_poller.poll(buffer, 0.01));
+    assertEquals(0, buffer.size());
+
+    m_poller.cancelPoll();
+    assertThrows(InterruptedException.class, () -> m_poller.poll(buffer));
+  }
+
+  @Test
+  void testRemovedListener() throws InterruptedException {
+    int handle = m_poller.addListener("/", kFlags);
+    m_poller.removeListener(handle);
+    m_inst.getEntry("/value").setDouble(1.0);
+    assertEquals(0, m_poller.poll(new EntryNotificationBuffer(4), 0.01));
+  }
+}
@@ -0,0 +1,176 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class EntrySubscriberTest {
+  private NetworkTableInstance m_inst;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  private static void waitFor(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + 1_000_000_000L;
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        fail("timed out waiting for subscriber update");
+      }
+      Thread.yield();
+    }
+  }
+
+  @Test
+  void testInitialValue() {
+    NetworkTableEntry entry = m_inst.getEntry("/value");
+    entry.setDouble(2.5);
+    try (DoubleSubscriber subscriber = new DoubleSubscriber(entry, -1.0);
+         DoubleSubscriber missing = new DoubleSubscriber(m_inst.getEntry("/missing"), -1.0)) {
+      assertEquals(2.5, subscriber.get());
+      assertEquals(entry.getLastChange(), subscriber.getLastChange());
+      assertEquals(-1.0, missing.get());
+      assertEquals(0, missing.getLastChange());
+    }
+  }
+
+  @Test
+  void testUpdate() {
+    NetworkTableEntry entry = m_inst.getEntry("/value");
+    try (DoubleSubscriber subscriber = new DoubleSubscriber(entry, 0.0)) {
+      entry.setDouble(1.0);
+      waitFor(() -> subscriber.get() == 1.0);
+      assertEquals(entry.getLastChange(), subscriber.getLastChange());
+
+      // A value of another type, or no value, reads as the default
+      entry.forceSetString("text");
+      waitFor(() -> subscriber.get() == 0.0);
+      entry.forceSetDouble(3.0);
+      waitFor(() -> subscriber.get() == 3.0);
+      entry.delete();
+      waitFor(() -> subscriber.get() == 0.0);
+    }
+  }
+
+  @Test
+  void testQueue() {
+    NetworkTableEntry entry = m_inst.getEntry("/value");
+    try (DoubleSubscriber subscriber = new DoubleSubscriber(entry, 0.0, 4)) {
+      for (int i = 1; i <= 6; i++) {
+        entry.setDouble(i);
+      }
+      waitFor(() -> subscriber.get() == 6.0);
+
+      // The oldest updates were dropped
+      assertEquals(2, subscriber.getQueueOverflowCount());
+      double[] values = new double[3];
+      long[] times = new long[3];
+      assertEquals(3, subscriber.readQueue(values, times));
+      assertArrayEquals(new double[] {3, 4, 5}, values);
+      assertTrue(times[0] <= times[1] && times[1] <= times[2]);
+      assertEquals(1, subscriber.readQueue(values, times));
+      assertEquals(6.0, values[0]);
+      assertEquals(0, subscriber.readQueue(values, times));
+
+      entry.setDouble(7.0);
+      waitFor(() -> subscriber.get() == 7.0);
+      assertEquals(1, subscriber.readQueue(values, times));
+      assertEquals(7.0, values[0]);
+      assertEquals(subscriber.getLastChange(), times[0]);
+    }
+  }
+
+  @Test
+  void testClose() {
+    NetworkTableEntry entry = m_inst.getEntry("/value");
+    DoubleSubscriber closed = new DoubleSubscriber(entry, 0.0);
+    try (DoubleSubscriber open = new DoubleSubscriber(entry, 0.0)) {
+      closed.close();
+      entry.setDouble(1.0);
+      waitFor(() -> open.get() == 1.0);
+      assertEquals(0.0, closed.get());
+    }
+  }
+
+  @Test
+  void testBoolean() {
+    NetworkTableEntry entry = m_inst.getEntry("/flag");
+    try (BooleanSubscriber subscriber = new BooleanSubscriber(entry, false, 2)) {
+      assertFalse(subscriber.get());
+      entry.setBoolean(true);
+      waitFor(subscriber::get);
+      boolean[] values = new boolean[2];
+      long[] times = new long[2];
+      assertEquals(1, subscriber.readQueue(values, times));
+      assertTrue(values[0]);
+    }
+  }
+
+  /**
+   * Times reading entries through getDouble() against reading subscribers,
+   * and prints the time per loop.  Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void readBenchmark() {
+    final int entries = 150;
+    final int loops = 10_000;
+    NetworkTableEntry[] ntEntries = new NetworkTableEntry[entries];
+    DoubleSubscriber[] subscribers = new DoubleSubscriber[entries];
+    for (int i = 0; i < entries; i++) {
+      ntEntries[i] = m_inst.getEntry("/vision/value" + i);
+      ntEntries[i].setDouble(i);
+      subscribers[i] = new DoubleSubscriber(ntEntries[i], 0.0);
+    }
+
+    double sum = 0;
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      for (int loop = 0; loop < loops; loop++) {
+        for (NetworkTableEntry entry : ntEntries) {
+          sum += entry.getDouble(0.0);
+        }
+      }
+      final long jni = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int loop = 0; loop < loops; loop++) {
+        for (DoubleSubscriber subscriber : subscribers) {
+          sum += subscriber.get();
+        }
+      }
+      final long mirrored = System.nanoTime() - start;
+
+      System.out.println("Reading " + entries + " entries: getDouble() " + jni / loops
+          + " ns/loop, subscriber " + mirrored / loops + " ns/loop");
+    }
+    assertTrue(sum > 0);
+
+    for (DoubleSubscriber subscriber : subscribers) {
+      subscriber.close();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NetworkTableValueTest {
+  @Test
+  void testUnboxedDouble() {
+    NetworkTableValue value = NetworkTableValue.makeDouble(2.5, 10);
+    assertTrue(value.isDouble());
+    assertEquals(2.5, value.getDouble());
+    assertEquals(10, value.getTime());
+    assertThrows(ClassCastException.class, value::getBoolean);
+
+    // The box is created once, on request
+    Object boxed = value.getValue();
+    assertEquals(Double.valueOf(2.5), boxed);
+    assertSame(boxed, value.getValue());
+  }
+
+  @Test
+  void testUnboxedBoolean() {
+    NetworkTableValue value = NetworkTableValue.makeBoolean(true);
+    assertTrue(value.isBoolean());
+    assertTrue(value.getBoolean());
+    assertEquals(Boolean.TRUE, value.getValue());
+    assertThrows(ClassCastException.class, value::getDouble);
+  }
+
+  @Test
+  void testBoxedAndUnboxedEqual() {
+    NetworkTableValue boxed = new NetworkTableValue(NetworkTableType.kDouble, 1.0, 5);
+    NetworkTableValue unboxed = NetworkTableValue.makeDouble(1.0, 7);
+    assertEquals(1.0, boxed.getDouble());
+    assertEquals(boxed, unboxed);
+    assertEquals(boxed.hashCode(), unboxed.hashCode());
+    assertNotEquals(boxed, NetworkTableValue.makeDouble(2.0));
+    assertFalse(NetworkTableValue.makeBoolean(true).equals(NetworkTableValue.makeBoolean(false)));
+  }
+
+  @Test
+  void testEntryValuesUnboxed() {
+    NetworkTableInstance inst = NetworkTableInstance.create();
+    try {
+      NetworkTableEntry entry = inst.getEntry("/value");
+      entry.setDouble(3.0);
+      assertEquals(3.0, entry.getValue().getDouble());
+      entry.forceSetBoolean(false);
+      assertFalse(entry.getValue().getBoolean());
+      assertEquals(Boolean.FALSE, entry.getValue().getValue());
+    } finally {
+      inst.close();
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.networktables;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentLogTest {
+  private Path m_dir;
+  private Path m_file;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    m_dir = Files.createTempDirectory("persistentlogtest");
+    m_file = m_dir.resolve("networktables.log");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(m_dir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private NetworkTableInstance startServer() {
+    NetworkTableInstance inst = NetworkTableInstance.create();
+    inst.startServer(m_file.toString(), "127.0.0.1", 10010,
+        NetworkTableInstance.kPersistBinaryLog);
+    return inst;
+  }
+
+  private static void setPersistent(NetworkTableEntry entry, Object value) {
+    entry.forceSetValue(value);
+    entry.setPersistent();
+  }
+
+  @Test
+  void testValuesRestored() {
+    double[] longArray = new double[300];
+    for (int i = 0; i < longArray.length; i++) {
+      longArray[i] = i * 0.5;
+    }
+    char[] longString = new char[70000];
+    Arrays.fill(longString, 'x');
+
+    NetworkTableInstance inst = startServer();
+    setPersistent(inst.getEntry("/double"), 1.5);
+    setPersistent(inst.getEntry("/boolean"), true);
+    setPersistent(inst.getEntry("/string"), new String(longString));
+    setPersistent(inst.getEntry("/raw"), new byte[] {0, 1, 2});
+    setPersistent(inst.getEntry("/booleanArray"), new boolean[] {true, false});
+    setPersistent(inst.getEntry("/doubleArray"), longArray);
+    setPersistent(inst.getEntry("/stringArray"), new String[] {"a", "", "b"});
+    setPersistent(inst.getEntry("/deleted"), 2.0);
+    setPersistent(inst.getEntry("/cleared"), 3.0);
+    inst.getEntry("/temporary").setDouble(4.0);
+    inst.getEntry("/deleted").delete();
+    inst.getEntry("/cleared").clearPersistent();
+    inst.getEntry("/double").setDouble(2.5);
+    inst.close();
+
+    inst = startServer();
+    try {
+      assertEquals(2.5, inst.getEntry("/double").getDouble(0));
+      assertTrue(inst.getEntry("/double").isPersistent());
+      assertTrue(inst.getEntry("/boolean").getBoolean(false));
+      assertEquals(new String(longString), inst.getEntry("/string").getString(""));
+      assertArrayEquals(new byte[] {0, 1, 2}, inst.getEntry("/raw").getRaw(null));
+      assertArrayEquals(new boolean[] {true, false},
+          inst.getEntry("/booleanArray").getBooleanArray(new boolean[0]));
+      assertArrayEquals(longArray, inst.getEntry("/doubleArray").getDoubleArray(new double[0]));
+      assertArrayEquals(new String[] {"a", "", "b"},
+          inst.getEntry("/stringArray").getStringArray(new String[0]));
+      assertFalse(inst.getEntry("/deleted").exists());
+      assertFalse(inst.getEntry("/cleared").exists());
+      assertFalse(inst.getEntry("/temporary").exists());
+    } finally {
+      inst.close();
+    }
+  }
+
+  @Test
+  void testTextFileConverted() throws IOException {
+    Files.write(m_file, Arrays.asList("[NetworkTables Storage 3.0]", "double \"/foo\"=1.5"),
+        StandardCharsets.UTF_8);
+
+    NetworkTableInstance inst = startServer();
+    assertEquals(1.5, inst.getEntry("/foo").getDouble(0));
+    inst.close();
+
+    byte[] data = Files.readAllBytes(m_file);
+    assertEquals("NTPLOG", new String(data, 0, 6, StandardCharsets.US_ASCII));
+
+    inst = startServer();
+    try {
+      assertEquals(1.5, inst.getEntry("/foo").getDouble(0));
+      assertTrue(inst.getEntry("/foo").isPersistent());
+    } finally {
+      inst.close();
+    }
+  }
+
+  @Test
+  void testTruncatedRecordIgnored() throws IOException {
+    NetworkTableInstance inst = startServer();
+    setPersistent(inst.getEntry("/foo"), 1.5);
+    inst.close();
+    inst = startServer();
+    inst.getEntry("/bar").setString("bar");
+    inst.getEntry("/bar").setPersistent();
+    inst.close();
+
+    // drop the end of the last record, as if the write was interrupted
+    byte[] data = Files.readAllBytes(m_file);
+    Files.write(m_file, Arrays.copyOf(data, data.length - 2));
+
+    inst = startServer();
+    assertEquals(1.5, inst.getEntry("/foo").getDouble(0));
+    assertFalse(inst.getEntry("/bar").exists());
+    setPersistent(inst.getEntry("/baz"), 2.5);
+    inst.close();
+
+    // the file is rewritten before anything is appended to it
+    inst = startServer();
+    try {
+      assertEquals(1.5, inst.getEntry("/foo").getDouble(0));
+      assertEquals(2.5, inst.getEntry("/baz").getDouble(0));
+    } finally {
+      inst.close();
+    }
+  }
+
+  @Test
+  void testCompaction() throws IOException {
+    char[] chars = new char[1000];
+    long appendedSize = 0;
+    for (int round = 0; round < 5; round++) {
+      NetworkTableInstance inst = startServer();
+      Arrays.fill(chars, (char) ('a' + round));
+      for (int i = 0; i < 100; i++) {
+        setPersistent(inst.getEntry("/value" + i), new String(chars));
+      }
+      inst.close();
+      appendedSize += 100 * chars.length;
+    }
+
+    // Each round appends every value, but the file was compacted
+    long size = Files.size(m_file);
+    assertTrue(size < appendedSize / 2, "file size " + size);
+
+    NetworkTableInstance inst = startServer();
+    try {
+      for (int i = 0; i < 100; i++) {
+        assertEquals(new String(chars), inst.getEntry("/value" + i).getString(""));
+      }
+    } finally {
+      inst.close();
+    }
+  }
+}
@@ -27,6 +27,8 @@ class MockNetworkConnection : public INetworkConnection {
 
   MOCK_CONST_METHOD0(state, State());
   MOCK_METHOD1(set_state, void(State state));
+
+  MOCK_METHOD1(set_delta_encoding, void(bool enabled));
 };
 
 }  // namespace nt
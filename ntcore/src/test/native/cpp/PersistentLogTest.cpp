@@ -0,0 +1,154 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+#include <algorithm>
+#include <string>
+#include <vector>
+
+#include <wpi/SmallString.h>
+
+#include "PersistentLog.h"
+#include "TestPrinters.h"
+#include "gmock/gmock.h"
+#include "gtest/gtest.h"
+
+namespace nt {
+
+class PersistentLogTest : public ::testing::Test {
+ public:
+  PersistentLogTest() { PersistentLog::WriteHeader(buf); }
+
+  // Loads buf, returning the entries sorted by name
+  std::vector<PersistentLog::Entry> Load(size_t* valid_size,
+                                         PersistentLog::WarnFunc warn) {
+    std::vector<PersistentLog::Entry> entries;
+    EXPECT_TRUE(PersistentLog::Load(buf, &entries, valid_size, warn));
+    std::sort(entries.begin(), entries.end(),
+              [](const PersistentLog::Entry& a, const PersistentLog::Entry& b) {
+                return a.first < b.first;
+              });
+    return entries;
+  }
+
+  wpi::SmallString<256> buf;
+};
+
+class MockLogWarn {
+ public:
+  MOCK_METHOD2(Warn, void(size_t record, wpi::StringRef msg));
+};
+
+TEST_F(PersistentLogTest, LoadEmpty) {
+  size_t valid_size;
+  auto entries = Load(&valid_size, nullptr);
+  EXPECT_TRUE(entries.empty());
+  EXPECT_EQ(buf.size(), valid_size);
+}
+
+TEST_F(PersistentLogTest, LoadNotLog) {
+  std::vector<PersistentLog::Entry> entries;
+  size_t valid_size;
+  EXPECT_FALSE(PersistentLog::Load("[NetworkTables Storage 3.0]\n", &entries,
+                                   &valid_size, nullptr));
+  EXPECT_TRUE(entries.empty());
+}
+
+TEST_F(PersistentLogTest, RoundTrip) {
+  std::vector<PersistentLog::Entry> values{
+      {"boolean", Value::MakeBoolean(true)},
+      {"double", Value::MakeDouble(-1.5)},
+      {"raw", Value::MakeRaw(StringRef("\0\3\5\n", 4))},
+      {"string", Value::MakeString("hello")},
+      {"z/booleanarr", Value::MakeBooleanArray(std::vector<int>{1, 0})},
+      {"z/doublearr", Value::MakeDoubleArray(std::vector<double>{0.5, -0.25})},
+      {"z/empty", Value::MakeDoubleArray(std::vector<double>{})},
+      // longer than the 255 elements the wire encoding allows
+      {"z/long", Value::MakeDoubleArray(std::vector<double>(300, 2.0))},
+      {"z/stringarr",
+       Value::MakeStringArray(std::vector<std::string>{"hello", ""})}};
+  for (auto& value : values)
+    PersistentLog::WriteRecord(buf, value.first, value.second.get());
+
+  size_t valid_size;
+  auto entries = Load(&valid_size, nullptr);
+  EXPECT_EQ(buf.size(), valid_size);
+  ASSERT_EQ(values.size(), entries.size());
+  for (size_t i = 0; i < values.size(); ++i) {
+    EXPECT_EQ(values[i].first, entries[i].first);
+    EXPECT_EQ(*values[i].second, *entries[i].second) << values[i].first;
+  }
+}
+
+TEST_F(PersistentLogTest, LaterRecordsOverride) {
+  PersistentLog::WriteRecord(buf, "a", Value::MakeDouble(1.0).get());
+  PersistentLog::WriteRecord(buf, "b", Value::MakeDouble(2.0).get());
+  PersistentLog::WriteRecord(buf, "a", Value::MakeString("one").get());
+  PersistentLog::WriteRecord(buf, "b", nullptr);
+
+  size_t valid_size;
+  auto entries = Load(&valid_size, nullptr);
+  ASSERT_EQ(1u, entries.size());
+  EXPECT_EQ("a", entries[0].first);
+  EXPECT_EQ(*Value::MakeString("one"), *entries[0].second);
+}
+
+TEST_F(PersistentLogTest, UnsavedTypeDeletes) {
+  PersistentLog::WriteRecord(buf, "a", Value::MakeDouble(1.0).get());
+  PersistentLog::WriteRecord(buf, "a", Value::MakeRpc("rpc").get());
+
+  size_t valid_size;
+  EXPECT_TRUE(Load(&valid_size, nullptr).empty());
+}
+
+TEST_F(PersistentLogTest, Truncated) {
+  PersistentLog::WriteRecord(buf, "a", Value::MakeDouble(1.0).get());
+  size_t complete_size = buf.size();
+  PersistentLog::WriteRecord(buf, "b", Value::MakeString("hello").get());
+
+  // every truncation of the last record keeps the complete record
+  for (size_t size = buf.size() - 1; size > complete_size; --size) {
+    wpi::SmallString<256> full = buf;
+    buf.resize(size);
+
+    MockLogWarn warn;
+    EXPECT_CALL(warn, Warn(2, wpi::StringRef("truncated record, ignoring rest "
+                                             "of file")));
+    size_t valid_size;
+    auto entries = Load(&valid_size, [&](size_t record, const char* msg) {
+      warn.Warn(record, msg);
+    });
+    EXPECT_EQ(complete_size, valid_size);
+    ASSERT_EQ(1u, entries.size());
+    EXPECT_EQ("a", entries[0].first);
+    EXPECT_EQ(*Value::MakeDouble(1.0), *entries[0].second);
+
+    buf = full;
+  }
+}
+
+TEST_F(PersistentLogTest, InvalidValue) {
+  PersistentLog::WriteRecord(buf, "a", Value::MakeDouble(1.0).get());
+  // a record which is complete but whose value is cut short
+  wpi::SmallString<32> record;
+  PersistentLog::WriteRecord(record, "b", Value::MakeDouble(2.0).get());
+  buf.push_back(static_cast<char>(record.size() - 2));
+  buf.append(record.begin() + 1, record.end() - 1);
+  PersistentLog::WriteRecord(buf, "c", Value::MakeBoolean(true).get());
+
+  MockLogWarn warn;
+  EXPECT_CALL(warn, Warn(2, wpi::StringRef("unrecognized or invalid value")));
+  size_t valid_size;
+  auto entries = Load(&valid_size, [&](size_t record, const char* msg) {
+    warn.Warn(record, msg);
+  });
+  EXPECT_EQ(buf.size(), valid_size);
+  ASSERT_EQ(2u, entries.size());
+  EXPECT_EQ("a", entries[0].first);
+  EXPECT_EQ("c", entries[1].first);
+}
+
+}  // namespace nt
@@ -613,6 +613,31 @@ TEST_P(StorageTestPersistent, SavePersistent) {
   ASSERT_EQ("", line);
 }
 
+TEST_P(StorageTestPopulated, SavePersistentKeepsChanges) {
+  EXPECT_CALL(dispatcher, QueueOutgoing(_, _, _)).Times(AnyNumber());
+  EXPECT_CALL(notifier, NotifyEntry(_, _, _, _, _)).Times(AnyNumber());
+  storage.SetEntryFlags("foo", NT_PERSISTENT);
+
+  // saving to a text file leaves the changes for the next binary log append
+  wpi::SmallString<256> buf;
+  wpi::raw_svector_ostream oss(buf);
+  storage.SavePersistent(oss, false);
+  std::vector<std::pair<std::string, std::shared_ptr<Value>>> changes;
+  ASSERT_TRUE(storage.GetPersistentChanges(&changes));
+  ASSERT_EQ(1u, changes.size());
+  EXPECT_EQ("foo", changes[0].first);
+  EXPECT_EQ(*Value::MakeBoolean(true), *changes[0].second);
+  EXPECT_FALSE(storage.GetPersistentChanges(&changes));
+
+  // the compaction snapshot includes every change
+  storage.SetEntryValue("foo", Value::MakeBoolean(false));
+  changes.clear();
+  ASSERT_TRUE(storage.GetPersistentSnapshot(&changes));
+  ASSERT_EQ(1u, changes.size());
+  EXPECT_EQ(*Value::MakeBoolean(false), *changes[0].second);
+  EXPECT_FALSE(storage.GetPersistentChanges(&changes));
+}
+
 TEST_P(StorageTestEmpty, LoadPersistentBadHeader) {
   MockLoadWarn warn;
   auto warn_func = [&](size_t line, const char* msg) { warn.Warn(line, msg); };
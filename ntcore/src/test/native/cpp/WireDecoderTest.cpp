@@ -10,9 +10,11 @@
 #include <cfloat>
 #include <climits>
 #include <string>
+#include <vector>
 
 #include <wpi/StringRef.h>
 
+#include "Message.h"
 #include "TestPrinters.h"
 #include "WireDecoder.h"
 #include "gtest/gtest.h"
@@ -640,4 +642,112 @@ TEST_F(WireDecoderTest, ReadString3) {
   ASSERT_EQ(nullptr, d.error());
 }
 
+// Reads a message, with a base value of {0, 0, 0, 0} for entry 5 at sequence
+// number 1
+static std::shared_ptr<Message> ReadDeltaMessage(WireDecoder& d) {
+  auto base = Value::MakeDoubleArray(std::vector<double>(4));
+  return Message::Read(
+      d, [](unsigned int) { return NT_UNASSIGNED; },
+      [&](unsigned int id, unsigned int seq_num) {
+        return id == 5u && seq_num == 1u ? base : nullptr;
+      });
+}
+
+TEST_F(WireDecoderTest, ReadEntryDeltaUpdate3) {
+  wpi::raw_mem_istream is(
+      "\x15\x00\x05\x00\x02\x00\x01"
+      "\x02\x01\x3f\xe0\x00\x00\x00\x00\x00\x00"
+      "\x00\x3f\xd0\x00\x00\x00\x00\x00\x00",
+      26);
+  wpi::Logger logger;
+  WireDecoder d(is, 0x0300u, logger);
+  auto msg = ReadDeltaMessage(d);
+  ASSERT_TRUE(static_cast<bool>(msg));
+  ASSERT_EQ(nullptr, d.error());
+  // the full value is rebuilt from the base
+  EXPECT_TRUE(msg->Is(Message::kEntryUpdate));
+  EXPECT_EQ(5u, msg->id());
+  EXPECT_EQ(2u, msg->seq_num_uid());
+  ASSERT_TRUE(static_cast<bool>(msg->value()));
+  EXPECT_EQ(*Value::MakeDoubleArray(std::vector<double>{0.0, 0.5, 0.25, 0.0}),
+            *msg->value());
+}
+
+TEST_F(WireDecoderTest, ReadEntryDeltaUpdateOutOfRange3) {
+  // the second element is past the end of the base value
+  wpi::raw_mem_istream is(
+      "\x15\x00\x05\x00\x02\x00\x01"
+      "\x02\x01\x3f\xe0\x00\x00\x00\x00\x00\x00"
+      "\x02\x3f\xd0\x00\x00\x00\x00\x00\x00\x55",
+      27);
+  wpi::Logger logger;
+  WireDecoder d(is, 0x0300u, logger);
+  auto msg = ReadDeltaMessage(d);
+  ASSERT_TRUE(static_cast<bool>(msg));
+  ASSERT_EQ(nullptr, d.error());
+  // returned without a value, so the receiver requests a resync
+  EXPECT_TRUE(msg->Is(Message::kEntryDeltaUpdate));
+  EXPECT_EQ(5u, msg->id());
+  EXPECT_FALSE(static_cast<bool>(msg->value()));
+
+  // the whole message was read
+  unsigned int b;
+  ASSERT_TRUE(d.Read8(&b));
+  EXPECT_EQ(0x55u, b);
+}
+
+TEST_F(WireDecoderTest, ReadEntryDeltaUpdateBaseMismatch3) {
+  // the base is sequence number 3, but the last value received was 1
+  wpi::raw_mem_istream is(
+      "\x15\x00\x05\x00\x04\x00\x03"
+      "\x01\x00\x3f\xe0\x00\x00\x00\x00\x00\x00\x55",
+      18);
+  wpi::Logger logger;
+  WireDecoder d(is, 0x0300u, logger);
+  auto msg = ReadDeltaMessage(d);
+  ASSERT_TRUE(static_cast<bool>(msg));
+  ASSERT_EQ(nullptr, d.error());
+  EXPECT_TRUE(msg->Is(Message::kEntryDeltaUpdate));
+  EXPECT_FALSE(static_cast<bool>(msg->value()));
+
+  unsigned int b;
+  ASSERT_TRUE(d.Read8(&b));
+  EXPECT_EQ(0x55u, b);
+}
+
+TEST_F(WireDecoderTest, ReadEntryResync3) {
+  wpi::raw_mem_istream is("\x16\x00\x05", 3);
+  wpi::Logger logger;
+  WireDecoder d(is, 0x0300u, logger);
+  auto msg = ReadDeltaMessage(d);
+  ASSERT_TRUE(static_cast<bool>(msg));
+  ASSERT_EQ(nullptr, d.error());
+  EXPECT_TRUE(msg->Is(Message::kEntryResync));
+  EXPECT_EQ(5u, msg->id());
+}
+
+TEST_F(WireDecoderTest, ReadDeltaUpdatesAccept3) {
+  wpi::raw_mem_istream is("\x06", 1);
+  wpi::Logger logger;
+  WireDecoder d(is, 0x0300u, logger);
+  auto msg = ReadDeltaMessage(d);
+  ASSERT_TRUE(static_cast<bool>(msg));
+  ASSERT_EQ(nullptr, d.error());
+  EXPECT_TRUE(msg->Is(Message::kDeltaUpdatesAccept));
+}
+
+TEST_F(WireDecoderTest, ReadDeltaMessages2) {
+  // the delta messages are errors from 2.0 peers
+  const char* messages[] = {"\x15\x00\x05\x00\x02\x00\x01\x00", "\x16\x00\x05",
+                            "\x06"};
+  const size_t sizes[] = {8, 3, 1};
+  for (size_t i = 0; i < 3; ++i) {
+    wpi::raw_mem_istream is(messages[i], sizes[i]);
+    wpi::Logger logger;
+    WireDecoder d(is, 0x0200u, logger);
+    EXPECT_FALSE(static_cast<bool>(ReadDeltaMessage(d))) << i;
+    EXPECT_NE(nullptr, d.error()) << i;
+  }
+}
+
 }  // namespace nt
@@ -7,10 +7,13 @@
 
 #include <cfloat>
 #include <climits>
+#include <cmath>
 #include <string>
+#include <vector>
 
 #include <wpi/StringRef.h>
 
+#include "Message.h"
 #include "TestPrinters.h"
 #include "WireEncoder.h"
 #include "gtest/gtest.h"
@@ -490,4 +493,73 @@ TEST_F(WireEncoderTest, WriteString3) {
   EXPECT_EQ('x', e.data()[65539]);
 }
 
+TEST_F(WireEncoderTest, WriteDoubleArrayDelta) {
+  std::vector<double> base(200);
+  std::vector<double> value(200);
+  value[1] = 0.5;
+  value[2] = 0.25;
+  value[150] = -1.0;
+  WireEncoder e(0x0300u);
+  e.WriteDoubleArrayDelta(base, value);
+  ASSERT_EQ(nullptr, e.error());
+  // count, then the gap from the previous changed element and the value
+  ASSERT_EQ(1u + (1u + 8u) + (1u + 8u) + (2u + 8u), e.size());
+  ASSERT_EQ(wpi::StringRef("\x03"
+                           "\x01\x3f\xe0\x00\x00\x00\x00\x00\x00"
+                           "\x00\x3f\xd0\x00\x00\x00\x00\x00\x00"
+                           "\x93\x01\xbf\xf0\x00\x00\x00\x00\x00\x00",
+                           29),
+            wpi::StringRef(e.data(), e.size()));
+  EXPECT_EQ(e.size(), e.GetDoubleArrayDeltaSize(base, value));
+}
+
+TEST_F(WireEncoderTest, WriteDoubleArrayDeltaUnchanged) {
+  // NaN elements with the same bits are not changed
+  std::vector<double> base{0.5, std::nan("")};
+  WireEncoder e(0x0300u);
+  e.WriteDoubleArrayDelta(base, base);
+  ASSERT_EQ(nullptr, e.error());
+  ASSERT_EQ(wpi::StringRef("\x00", 1), wpi::StringRef(e.data(), e.size()));
+  EXPECT_EQ(1u, e.GetDoubleArrayDeltaSize(base, base));
+}
+
+TEST_F(WireEncoderTest, WriteEntryDeltaUpdate3) {
+  auto base = Value::MakeDoubleArray(std::vector<double>{0.0, 0.0, 0.0});
+  auto value = Value::MakeDoubleArray(std::vector<double>{0.0, 0.0, 0.5});
+  WireEncoder e(0x0300u);
+  Message::EntryDeltaUpdate(0x1234u, 5u, value, 4u, base)->Write(e);
+  ASSERT_EQ(nullptr, e.error());
+  ASSERT_EQ(wpi::StringRef("\x15\x12\x34\x00\x05\x00\x04"
+                           "\x01\x02\x3f\xe0\x00\x00\x00\x00\x00\x00",
+                           17),
+            wpi::StringRef(e.data(), e.size()));
+}
+
+TEST_F(WireEncoderTest, WriteEntryResync3) {
+  WireEncoder e(0x0300u);
+  Message::EntryResync(0x1234u)->Write(e);
+  ASSERT_EQ(nullptr, e.error());
+  ASSERT_EQ(wpi::StringRef("\x16\x12\x34", 3),
+            wpi::StringRef(e.data(), e.size()));
+}
+
+TEST_F(WireEncoderTest, WriteDeltaUpdatesAccept3) {
+  WireEncoder e(0x0300u);
+  Message::DeltaUpdatesAccept()->Write(e);
+  ASSERT_EQ(nullptr, e.error());
+  ASSERT_EQ(wpi::StringRef("\x06", 1), wpi::StringRef(e.data(), e.size()));
+}
+
+TEST_F(WireEncoderTest, WriteDeltaMessages2) {
+  // the delta messages are not sent to 2.0 peers
+  auto base = Value::MakeDoubleArray(std::vector<double>{0.0});
+  auto value = Value::MakeDoubleArray(std::vector<double>{1.0});
+  WireEncoder e(0x0200u);
+  Message::EntryDeltaUpdate(1u, 2u, value, 1u, base)->Write(e);
+  Message::EntryResync(1u)->Write(e);
+  Message::DeltaUpdatesAccept()->Write(e);
+  EXPECT_EQ(nullptr, e.error());
+  EXPECT_EQ(0u, e.size());
+}
+
 }  // namespace nt
@@ -63,6 +63,11 @@ public class ADXL345_I2C extends SendableBase implements Accelerometer {
 
   protected I2C m_i2c;
 
+  private volatile I2CSampleStream m_stream;
+
+  // Receives the latest streamed sample in getAccelerations(); guarded by itself
+  private final double[] m_latest = new double[3];
+
   /**
    * Constructs the ADXL345 Accelerometer with I2C address 0x1D.
    *
@@ -95,6 +100,7 @@ public class ADXL345_I2C extends SendableBase implements Accelerometer {
   @Override
   public void close() {
     super.close();
+    stopStreaming();
     m_i2c.close();
   }
 
@@ -145,6 +151,11 @@ public class ADXL345_I2C extends SendableBase implements Accelerometer {
    * @return Acceleration of the ADXL345 in Gs.
    */
   public double getAcceleration(Axes axis) {
+    I2CSampleStream stream = m_stream;
+    if (stream != null) {
+      return stream.getLatest(axis.value / 2);
+    }
+
     ByteBuffer rawAccel = ByteBuffer.allocate(2);
     m_i2c.read(kDataRegister + axis.value, 2, rawAccel);
 
@@ -160,6 +171,17 @@ public class ADXL345_I2C extends SendableBase implements Accelerometer {
    */
   public AllAxes getAccelerations() {
     AllAxes data = new AllAxes();
+    I2CSampleStream stream = m_stream;
+    if (stream != null) {
+      synchronized (m_latest) {
+        stream.getLatest(m_latest);
+        data.XAxis = m_latest[0];
+        data.YAxis = m_latest[1];
+        data.ZAxis = m_latest[2];
+      }
+      return data;
+    }
+
     ByteBuffer rawData = ByteBuffer.allocate(6);
     m_i2c.read(kDataRegister, 6, rawData);
 
@@ -171,6 +193,59 @@ public class ADXL345_I2C extends SendableBase implements Accelerometer {
     return data;
   }
 
+  /**
+   * Start sampling the accelerometer from a background thread.
+   *
+   * <p>Samples are buffered for {@link #drain(long[], double[])}, and while streaming the
+   * acceleration getters return the most recent sample instead of reading the device.
+   *
+   * @param period   Time between samples, in seconds
+   * @param capacity The number of samples to buffer between calls to drain()
+   */
+  public void startStreaming(double period, int capacity) {
+    stopStreaming();
+    I2CSampleStream stream = new I2CSampleStream(m_i2c, kDataRegister, 6, 3, capacity,
+        ADXL345_I2C::decodeAccelerations);
+    stream.start(period);
+    m_stream = stream;
+  }
+
+  /**
+   * Stop sampling the accelerometer in the background. Samples which have not been drained are
+   * discarded.
+   */
+  public void stopStreaming() {
+    I2CSampleStream stream = m_stream;
+    if (stream != null) {
+      m_stream = null;
+      stream.close();
+    }
+  }
+
+  /**
+   * Read the samples taken since the previous call, oldest first. Each sample is the X, Y and Z
+   * acceleration in Gs, stored consecutively in the values array.
+   *
+   * @param timestamps Array where sample timestamps (FPGA time in microseconds) are stored
+   * @param values     Array where sample values are stored
+   * @return The number of samples read, or 0 if not streaming
+   */
+  public int drain(long[] timestamps, double[] values) {
+    I2CSampleStream stream = m_stream;
+    if (stream == null) {
+      return 0;
+    }
+    return stream.drain(timestamps, values);
+  }
+
+  private static boolean decodeAccelerations(byte[] data, double[] values) {
+    // Sensor is little endian
+    values[0] = (short) ((data[1] << 8) | (data[0] & 0xff)) * kGsPerLSB;
+    values[1] = (short) ((data[3] << 8) | (data[2] & 0xff)) * kGsPerLSB;
+    values[2] = (short) ((data[5] << 8) | (data[4] & 0xff)) * kGsPerLSB;
+    return true;
+  }
+
   @Override
   public void initSendable(SendableBuilder builder) {
     builder.setSmartDashboardType("3AxisAccelerometer");
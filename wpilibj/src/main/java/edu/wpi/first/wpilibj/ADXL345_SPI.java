@@ -66,6 +66,11 @@ public class ADXL345_SPI extends SendableBase implements Accelerometer {
 
   protected SPI m_spi;
 
+  private volatile SPISampleStream m_stream;
+
+  // Receives the latest streamed sample in getAccelerations(); guarded by itself
+  private final double[] m_latest = new double[3];
+
   /**
    * Constructor.
    *
@@ -81,6 +86,7 @@ public class ADXL345_SPI extends SendableBase implements Accelerometer {
   @Override
   public void close() {
     super.close();
+    stopStreaming();
     m_spi.close();
   }
 
@@ -109,6 +115,10 @@ public class ADXL345_SPI extends SendableBase implements Accelerometer {
 
   @Override
   public void setRange(Range range) {
+    if (m_stream != null) {
+      throw new IllegalStateException("Cannot change range while streaming");
+    }
+
     final byte value;
 
     switch (range) {
@@ -155,6 +165,11 @@ public class ADXL345_SPI extends SendableBase implements Accelerometer {
    * @return Acceleration of the ADXL345 in Gs.
    */
   public double getAcceleration(ADXL345_SPI.Axes axis) {
+    SPISampleStream stream = m_stream;
+    if (stream != null) {
+      return stream.getLatest(axis.value / 2);
+    }
+
     ByteBuffer transferBuffer = ByteBuffer.allocate(3);
     transferBuffer.put(0,
         (byte) ((kAddress_Read | kAddress_MultiByte | kDataRegister) + axis.value));
@@ -172,7 +187,15 @@ public class ADXL345_SPI extends SendableBase implements Accelerometer {
    */
   public ADXL345_SPI.AllAxes getAccelerations() {
     ADXL345_SPI.AllAxes data = new ADXL345_SPI.AllAxes();
-    if (m_spi != null) {
+    SPISampleStream stream = m_stream;
+    if (stream != null) {
+      synchronized (m_latest) {
+        stream.getLatest(m_latest);
+        data.XAxis = m_latest[0];
+        data.YAxis = m_latest[1];
+        data.ZAxis = m_latest[2];
+      }
+    } else if (m_spi != null) {
       ByteBuffer dataBuffer = ByteBuffer.allocate(7);
       // Select the data address.
       dataBuffer.put(0, (byte) (kAddress_Read | kAddress_MultiByte | kDataRegister));
@@ -187,6 +210,61 @@ public class ADXL345_SPI extends SendableBase implements Accelerometer {
     return data;
   }
 
+  /**
+   * Start sampling the accelerometer in the background with the automatic SPI transfer engine.
+   *
+   * <p>Samples are buffered for {@link #drain(long[], double[])}. No other transfers may be made
+   * on the port while streaming, so the acceleration getters return the most recent sample
+   * instead, and the range may not be changed.
+   *
+   * @param period   Time between samples, in seconds
+   * @param capacity The number of samples to buffer between calls to drain()
+   */
+  public void startStreaming(double period, int capacity) {
+    stopStreaming();
+    byte[] command = new byte[]{(byte) (kAddress_Read | kAddress_MultiByte | kDataRegister)};
+    SPISampleStream stream = new SPISampleStream(m_spi, command, 7, 3, capacity,
+        ADXL345_SPI::decodeAccelerations);
+    stream.start(period);
+    m_stream = stream;
+  }
+
+  /**
+   * Stop sampling the accelerometer in the background. Samples which have not been drained are
+   * discarded.
+   */
+  public void stopStreaming() {
+    SPISampleStream stream = m_stream;
+    if (stream != null) {
+      m_stream = null;
+      stream.close();
+    }
+  }
+
+  /**
+   * Read the samples taken since the previous call, oldest first. Each sample is the X, Y and Z
+   * acceleration in Gs, stored consecutively in the values array.
+   *
+   * @param timestamps Array where sample timestamps (FPGA time in microseconds) are stored
+   * @param values     Array where sample values are stored
+   * @return The number of samples read, or 0 if not streaming
+   */
+  public int drain(long[] timestamps, double[] values) {
+    SPISampleStream stream = m_stream;
+    if (stream == null) {
+      return 0;
+    }
+    return stream.drain(timestamps, values);
+  }
+
+  private static boolean decodeAccelerations(byte[] data, double[] values) {
+    // Sensor is little endian
+    values[0] = (short) ((data[2] << 8) | (data[1] & 0xff)) * kGsPerLSB;
+    values[1] = (short) ((data[4] << 8) | (data[3] & 0xff)) * kGsPerLSB;
+    values[2] = (short) ((data[6] << 8) | (data[5] & 0xff)) * kGsPerLSB;
+    return true;
+  }
+
   @Override
   public void initSendable(SendableBuilder builder) {
     builder.setSmartDashboardType("3AxisAccelerometer");
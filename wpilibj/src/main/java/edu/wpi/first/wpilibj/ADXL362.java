@@ -62,6 +62,10 @@ public class ADXL362 extends SendableBase implements Accelerometer {
 
   private SPI m_spi;
   private double m_gsPerLSB;
+  private volatile SPISampleStream m_stream;
+
+  // Receives the latest streamed sample in getAccelerations(); guarded by itself
+  private final double[] m_latest = new double[3];
 
   /**
    * Constructor.  Uses the onboard CS1.
@@ -114,6 +118,7 @@ public class ADXL362 extends SendableBase implements Accelerometer {
   @Override
   public void close() {
     super.close();
+    stopStreaming();
     if (m_spi != null) {
       m_spi.close();
       m_spi = null;
@@ -125,6 +130,9 @@ public class ADXL362 extends SendableBase implements Accelerometer {
     if (m_spi == null) {
       return;
     }
+    if (m_stream != null) {
+      throw new IllegalStateException("Cannot change range while streaming");
+    }
 
     final byte value;
     switch (range) {
@@ -178,6 +186,11 @@ public class ADXL362 extends SendableBase implements Accelerometer {
     if (m_spi == null) {
       return 0.0;
     }
+    SPISampleStream stream = m_stream;
+    if (stream != null) {
+      return stream.getLatest(axis.value / 2);
+    }
+
     ByteBuffer transferBuffer = ByteBuffer.allocate(4);
     transferBuffer.put(0, kRegRead);
     transferBuffer.put(1, (byte) (kDataRegister + axis.value));
@@ -195,7 +208,15 @@ public class ADXL362 extends SendableBase implements Accelerometer {
    */
   public ADXL362.AllAxes getAccelerations() {
     ADXL362.AllAxes data = new ADXL362.AllAxes();
-    if (m_spi != null) {
+    SPISampleStream stream = m_stream;
+    if (stream != null) {
+      synchronized (m_latest) {
+        stream.getLatest(m_latest);
+        data.XAxis = m_latest[0];
+        data.YAxis = m_latest[1];
+        data.ZAxis = m_latest[2];
+      }
+    } else if (m_spi != null) {
       ByteBuffer dataBuffer = ByteBuffer.allocate(8);
       // Select the data address.
       dataBuffer.put(0, kRegRead);
@@ -211,6 +232,62 @@ public class ADXL362 extends SendableBase implements Accelerometer {
     return data;
   }
 
+  /**
+   * Start sampling the accelerometer in the background with the automatic SPI transfer engine.
+   *
+   * <p>Samples are buffered for {@link #drain(long[], double[])}. No other transfers may be made
+   * on the port while streaming, so the acceleration getters return the most recent sample
+   * instead, and the range may not be changed.
+   *
+   * @param period   Time between samples, in seconds
+   * @param capacity The number of samples to buffer between calls to drain()
+   */
+  public void startStreaming(double period, int capacity) {
+    if (m_spi == null) {
+      return;
+    }
+    stopStreaming();
+    final double gsPerLSB = m_gsPerLSB;
+    SPISampleStream stream = new SPISampleStream(m_spi, new byte[]{kRegRead, kDataRegister}, 8,
+        3, capacity, (data, values) -> {
+          // Sensor is little endian
+          values[0] = (short) ((data[3] << 8) | (data[2] & 0xff)) * gsPerLSB;
+          values[1] = (short) ((data[5] << 8) | (data[4] & 0xff)) * gsPerLSB;
+          values[2] = (short) ((data[7] << 8) | (data[6] & 0xff)) * gsPerLSB;
+          return true;
+        });
+    stream.start(period);
+    m_stream = stream;
+  }
+
+  /**
+   * Stop sampling the accelerometer in the background. Samples which have not been drained are
+   * discarded.
+   */
+  public void stopStreaming() {
+    SPISampleStream stream = m_stream;
+    if (stream != null) {
+      m_stream = null;
+      stream.close();
+    }
+  }
+
+  /**
+   * Read the samples taken since the previous call, oldest first. Each sample is the X, Y and Z
+   * acceleration in Gs, stored consecutively in the values array.
+   *
+   * @param timestamps Array where sample timestamps (FPGA time in microseconds) are stored
+   * @param values     Array where sample values are stored
+   * @return The number of samples read, or 0 if not streaming
+   */
+  public int drain(long[] timestamps, double[] values) {
+    SPISampleStream stream = m_stream;
+    if (stream == null) {
+      return 0;
+    }
+    return stream.drain(timestamps, values);
+  }
+
   @Override
   public void initSendable(SendableBuilder builder) {
     builder.setSmartDashboardType("3AxisAccelerometer");
@@ -28,6 +28,8 @@ public class ADXRS450_Gyro extends GyroBase implements Gyro, PIDSource, Sendable
   private static final double kSamplePeriod = 0.0005;
   private static final double kCalibrationSampleTime = 5.0;
   private static final double kDegreePerSecondPerLSB = 0.0125;
+  // Number of samples the SPI accumulator keeps between reads
+  private static final int kSampleCapacity = 2048;
 
   private static final int kRateRegister = 0x00;
   private static final int kTemRegister = 0x02;
@@ -41,6 +43,9 @@ public class ADXRS450_Gyro extends GyroBase implements Gyro, PIDSource, Sendable
 
   private SPI m_spi;
 
+  // Raw samples read by drain(); no more than the accumulator holds are read at once
+  private final int[] m_rawSamples = new int[kSampleCapacity];
+
   /**
    * Constructor.  Uses the onboard CS0.
    */
@@ -164,4 +169,28 @@ public class ADXRS450_Gyro extends GyroBase implements Gyro, PIDSource, Sendable
     }
     return m_spi.getAccumulatorLastValue() * kDegreePerSecondPerLSB;
   }
+
+  /**
+   * Read the rate samples received since the previous call, oldest first.
+   *
+   * <p>The gyro is sampled every 0.5 ms by the automatic SPI transfer engine; this returns each
+   * sample rather than only the latest one, uncalibrated like {@link #getRate()}. Samples are only
+   * buffered after the first call, and up to 2048 are kept between calls. Only one thread may
+   * drain samples.
+   *
+   * @param timestamps Array where sample timestamps (FPGA time in microseconds) are stored
+   * @param rates      Array where rates in degrees per second are stored
+   * @return The number of samples read, at most the length of the shorter array
+   */
+  public int drain(long[] timestamps, double[] rates) {
+    if (m_spi == null) {
+      return 0;
+    }
+    int maxCount = Math.min(kSampleCapacity, Math.min(timestamps.length, rates.length));
+    int count = m_spi.readAccumulatorSamples(m_rawSamples, timestamps, maxCount);
+    for (int i = 0; i < count; i++) {
+      rates[i] = m_rawSamples[i] * kDegreePerSecondPerLSB;
+    }
+    return count;
+  }
 }
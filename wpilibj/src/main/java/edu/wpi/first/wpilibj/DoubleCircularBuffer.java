@@ -0,0 +1,200 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+/**
+ * A fixed capacity circular buffer of doubles, intended for sample histories such as filter taps.
+ *
+ * <p>Storage is rounded up to a power of two so indices wrap with a mask instead of a modulo, and
+ * bulk operations work on at most two contiguous segments of the backing array. Elements are
+ * indexed in chronological order: index 0 is the oldest element and index size() - 1 the newest.
+ */
+public class DoubleCircularBuffer {
+  private final double[] m_data;
+  private final int m_mask;
+  private final int m_capacity;
+
+  // Index of the oldest element in m_data
+  private int m_front;
+
+  // Number of elements in the buffer
+  private int m_length;
+
+  /**
+   * Create a DoubleCircularBuffer which holds the given number of elements.
+   *
+   * @param capacity The maximum number of elements in the buffer.
+   */
+  public DoubleCircularBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    m_capacity = capacity;
+    m_data = new double[tableSizeFor(capacity)];
+    m_mask = m_data.length - 1;
+  }
+
+  /**
+   * Returns the smallest power of two which is at least the given capacity.
+   */
+  static int tableSizeFor(int capacity) {
+    if (capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity is too large");
+    }
+    return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  /**
+   * Returns the number of elements in the buffer.
+   *
+   * @return number of elements in the buffer
+   */
+  public int size() {
+    return m_length;
+  }
+
+  /**
+   * Returns the maximum number of elements in the buffer.
+   *
+   * @return capacity of the buffer
+   */
+  public int capacity() {
+    return m_capacity;
+  }
+
+  /**
+   * Get the oldest element in the buffer, or 0 if the buffer is empty.
+   *
+   * @return the oldest element
+   */
+  public double getFirst() {
+    if (m_length == 0) {
+      return 0.0;
+    }
+    return m_data[m_front];
+  }
+
+  /**
+   * Get the newest element in the buffer, or 0 if the buffer is empty.
+   *
+   * @return the newest element
+   */
+  public double getLast() {
+    if (m_length == 0) {
+      return 0.0;
+    }
+    return m_data[(m_front + m_length - 1) & m_mask];
+  }
+
+  /**
+   * Get the element at the given index, where index 0 is the oldest element.
+   *
+   * @param index The index, from 0 to size() - 1.
+   * @return the element at the index
+   */
+  public double get(int index) {
+    if (index < 0 || index >= m_length) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of range for size "
+          + m_length);
+    }
+    return m_data[(m_front + index) & m_mask];
+  }
+
+  /**
+   * Push a new element onto the back of the buffer. The oldest element is overwritten if the
+   * buffer is full.
+   *
+   * @param value The value to add.
+   */
+  public void addLast(double value) {
+    m_data[(m_front + m_length) & m_mask] = value;
+    if (m_length < m_capacity) {
+      m_length++;
+    } else {
+      m_front = (m_front + 1) & m_mask;
+    }
+  }
+
+  /**
+   * Pop the oldest element from the buffer.
+   *
+   * @return the oldest element, or 0 if the buffer is empty
+   */
+  public double removeFirst() {
+    if (m_length == 0) {
+      return 0.0;
+    }
+    double value = m_data[m_front];
+    m_front = (m_front + 1) & m_mask;
+    m_length--;
+    return value;
+  }
+
+  /**
+   * Removes all elements. The backing array is not cleared.
+   */
+  public void clear() {
+    m_front = 0;
+    m_length = 0;
+  }
+
+  /**
+   * Copies the elements into an array in chronological order, oldest first.
+   *
+   * @param dest The array to copy into. It must have room for size() elements.
+   * @return the number of elements copied
+   */
+  public int copyTo(double[] dest) {
+    int first = Math.min(m_length, m_data.length - m_front);
+    System.arraycopy(m_data, m_front, dest, 0, first);
+    System.arraycopy(m_data, 0, dest, first, m_length - first);
+    return m_length;
+  }
+
+  /**
+   * Returns the dot product of the elements with the end of a coefficient array. The newest
+   * element is multiplied by the last coefficient, the one before it by the second to last
+   * coefficient and so on, so a buffer which is not yet full behaves as if its missing older
+   * elements were zero.
+   *
+   * @param coefficients The coefficients. Must have at least size() elements.
+   * @return the dot product
+   */
+  public double dot(double[] coefficients) {
+    int offset = coefficients.length - m_length;
+    int first = Math.min(m_length, m_data.length - m_front);
+
+    double sum = 0.0;
+    for (int i = 0; i < first; i++) {
+      sum += m_data[m_front + i] * coefficients[offset + i];
+    }
+    offset += first;
+    for (int i = 0; i < m_length - first; i++) {
+      sum += m_data[i] * coefficients[offset + i];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the sum of the elements.
+   *
+   * @return the sum
+   */
+  public double sum() {
+    int first = Math.min(m_length, m_data.length - m_front);
+
+    double sum = 0.0;
+    for (int i = 0; i < first; i++) {
+      sum += m_data[m_front + i];
+    }
+    for (int i = 0; i < m_length - first; i++) {
+      sum += m_data[i];
+    }
+    return sum;
+  }
+}
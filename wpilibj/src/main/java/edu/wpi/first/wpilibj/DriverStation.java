@@ -147,6 +147,9 @@ public class DriverStation {
   private int[] m_joystickButtonsPressed = new int[kJoystickPorts];
   private int[] m_joystickButtonsReleased = new int[kJoystickPorts];
 
+  // Latest data published by the DS thread for lock-free reads
+  private volatile DriverStationSnapshot m_snapshot = DriverStationSnapshot.createInitial();
+
   // preallocated byte buffer for button count
   private final ByteBuffer m_buttonCountBuffer = ByteBuffer.allocateDirect(1);
 
@@ -348,7 +351,8 @@ public class DriverStation {
     }
     boolean error = false;
     boolean retVal = false;
-    synchronized (m_cacheDataMutex) {
+    m_cacheDataMutex.lock();
+    try {
       if (button > m_joystickButtons[stick].m_count) {
         error = true;
         retVal = false;
@@ -361,6 +365,8 @@ public class DriverStation {
           retVal = false;
         }
       }
+    } finally {
+      m_cacheDataMutex.unlock();
     }
     if (error) {
       reportJoystickUnpluggedWarning("Joystick Button " + button + " on port " + stick
@@ -387,7 +393,8 @@ public class DriverStation {
     }
     boolean error = false;
     boolean retVal = false;
-    synchronized (m_cacheDataMutex) {
+    m_cacheDataMutex.lock();
+    try {
       if (button > m_joystickButtons[stick].m_count) {
         error = true;
         retVal = false;
@@ -400,6 +407,8 @@ public class DriverStation {
           retVal = false;
         }
       }
+    } finally {
+      m_cacheDataMutex.unlock();
     }
     if (error) {
       reportJoystickUnpluggedWarning("Joystick Button " + button + " on port " + stick
@@ -605,6 +614,17 @@ public class DriverStation {
     return HAL.getJoystickAxisType((byte) stick, (byte) axis);
   }
 
+  /**
+   * Returns the data received in the most recent Driver Station packet. This does not block or take
+   * any locks, so loops which read many values should get a snapshot once per iteration and read
+   * from it rather than calling the individual getters of this class.
+   *
+   * @return the most recent snapshot
+   */
+  public DriverStationSnapshot getSnapshot() {
+    return m_snapshot;
+  }
+
   /**
    * Gets a value indicating whether the Driver Station requires the robot to be enabled.
    *
@@ -1009,12 +1029,15 @@ public class DriverStation {
     int matchNumber;
     int replayNumber;
     int matchType;
-    synchronized (m_cacheDataMutex) {
+    m_cacheDataMutex.lock();
+    try {
       eventName = m_matchInfo.eventName;
       gameSpecificMessage = m_matchInfo.gameSpecificMessage;
       matchNumber = m_matchInfo.matchNumber;
       replayNumber = m_matchInfo.replayNumber;
       matchType = m_matchInfo.matchType;
+    } finally {
+      m_cacheDataMutex.unlock();
     }
 
     m_matchDataSender.alliance.setBoolean(isRedAlliance);
@@ -1080,6 +1103,8 @@ public class DriverStation {
       m_cacheDataMutex.unlock();
     }
 
+    publishSnapshot();
+
     m_waitForDataMutex.lock();
     m_waitForDataCount++;
     m_waitForDataCond.signalAll();
@@ -1088,6 +1113,47 @@ public class DriverStation {
     sendMatchData();
   }
 
+  /**
+   * Publishes a snapshot of the current data. Only the DS thread swaps the current data, so it can
+   * be read here without holding m_cacheDataMutex.
+   */
+  private void publishSnapshot() {
+    DriverStationSnapshot previous = m_snapshot;
+    DriverStationSnapshot snapshot = new DriverStationSnapshot(previous.getSequence() + 1);
+
+    for (int stick = 0; stick < kJoystickPorts; stick++) {
+      HALJoystickAxes axes = m_joystickAxes[stick];
+      snapshot.m_axisCounts[stick] = axes.m_count;
+      System.arraycopy(axes.m_axes, 0, snapshot.m_axes, stick * HAL.kMaxJoystickAxes,
+          axes.m_axes.length);
+
+      HALJoystickPOVs povs = m_joystickPOVs[stick];
+      snapshot.m_povCounts[stick] = povs.m_count;
+      System.arraycopy(povs.m_povs, 0, snapshot.m_povs, stick * HAL.kMaxJoystickPOVs,
+          povs.m_povs.length);
+
+      snapshot.setButtons(previous, stick, m_joystickButtons[stick].m_buttons,
+          m_joystickButtons[stick].m_count);
+    }
+
+    synchronized (m_controlWordMutex) {
+      snapshot.m_enabled = m_controlWordCache.getEnabled();
+      snapshot.m_autonomous = m_controlWordCache.getAutonomous();
+      snapshot.m_test = m_controlWordCache.getTest();
+      snapshot.m_eStop = m_controlWordCache.getEStop();
+      snapshot.m_fmsAttached = m_controlWordCache.getFMSAttached();
+      snapshot.m_dsAttached = m_controlWordCache.getDSAttached();
+    }
+
+    snapshot.m_eventName = m_matchInfo.eventName;
+    snapshot.m_gameSpecificMessage = m_matchInfo.gameSpecificMessage;
+    snapshot.m_matchNumber = m_matchInfo.matchNumber;
+    snapshot.m_replayNumber = m_matchInfo.replayNumber;
+    snapshot.m_matchType = m_matchInfo.matchType;
+
+    m_snapshot = snapshot;
+  }
+
   /**
    * Reports errors related to unplugged joysticks Throttles the errors so that they don't overwhelm
    * the DS.
@@ -0,0 +1,401 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation.MatchType;
+
+import static edu.wpi.first.wpilibj.DriverStation.kJoystickPorts;
+
+/**
+ * An immutable copy of the joystick data, control word and match info received in one Driver
+ * Station packet.
+ *
+ * <p>A new snapshot is published by the Driver Station thread each time new data arrives. Reading
+ * from a snapshot takes no locks, so a loop which reads many joystick values should call {@link
+ * DriverStation#getSnapshot()} once per iteration and read everything from the result. All values
+ * in a snapshot come from the same packet.
+ *
+ * <p>Unlike the {@link DriverStation} getters, the snapshot getters do not report warnings for
+ * unplugged joysticks; they return a default value instead.
+ */
+@SuppressWarnings({"PMD.TooManyFields", "PMD.TooManyMethods"})
+public final class DriverStationSnapshot {
+  private static final int kMaxJoystickButtons = 32;
+
+  private final long m_sequence;
+
+  // Per-stick joystick data, each stick's values stored contiguously
+  final float[] m_axes = new float[kJoystickPorts * HAL.kMaxJoystickAxes];
+  final short[] m_axisCounts = new short[kJoystickPorts];
+  final short[] m_povs = new short[kJoystickPorts * HAL.kMaxJoystickPOVs];
+  final short[] m_povCounts = new short[kJoystickPorts];
+  final int[] m_buttons = new int[kJoystickPorts];
+  final byte[] m_buttonCounts = new byte[kJoystickPorts];
+
+  // Number of times each button has been pressed and released since the robot program started.
+  // These are shared with the previous snapshot when no button changed state.
+  int[] m_pressCounts;
+  int[] m_releaseCounts;
+
+  // Control word
+  boolean m_enabled;
+  boolean m_autonomous;
+  boolean m_test;
+  boolean m_eStop;
+  boolean m_fmsAttached;
+  boolean m_dsAttached;
+
+  // Match info
+  String m_eventName = "";
+  String m_gameSpecificMessage = "";
+  int m_matchNumber;
+  int m_replayNumber;
+  int m_matchType;
+
+  /**
+   * Creates an empty snapshot. The fields are filled in by the Driver Station thread before the
+   * snapshot is published.
+   *
+   * @param sequence The sequence number of the snapshot.
+   */
+  DriverStationSnapshot(long sequence) {
+    m_sequence = sequence;
+  }
+
+  /**
+   * Creates the snapshot which is published before any Driver Station data arrives.
+   */
+  static DriverStationSnapshot createInitial() {
+    DriverStationSnapshot snapshot = new DriverStationSnapshot(0);
+    snapshot.m_pressCounts = new int[kJoystickPorts * kMaxJoystickButtons];
+    snapshot.m_releaseCounts = new int[kJoystickPorts * kMaxJoystickButtons];
+    return snapshot;
+  }
+
+  /**
+   * Sets the button state of one joystick, counting the buttons which changed state since the
+   * previous snapshot. Must be called for every stick, in order, before the snapshot is
+   * published.
+   */
+  void setButtons(DriverStationSnapshot previous, int stick, int buttons, byte count) {
+    m_buttons[stick] = buttons;
+    m_buttonCounts[stick] = count;
+
+    if (stick == 0) {
+      m_pressCounts = previous.m_pressCounts;
+      m_releaseCounts = previous.m_releaseCounts;
+    }
+
+    int pressed = ~previous.m_buttons[stick] & buttons;
+    int released = previous.m_buttons[stick] & ~buttons;
+    if ((pressed | released) == 0) {
+      return;
+    }
+
+    // Copy the counts on the first change so earlier snapshots are unaffected
+    if (m_pressCounts == previous.m_pressCounts) {
+      m_pressCounts = m_pressCounts.clone();
+      m_releaseCounts = m_releaseCounts.clone();
+    }
+    int base = stick * kMaxJoystickButtons;
+    for (int bit = 0; bit < kMaxJoystickButtons; bit++) {
+      if ((pressed & 1 << bit) != 0) {
+        m_pressCounts[base + bit]++;
+      }
+      if ((released & 1 << bit) != 0) {
+        m_releaseCounts[base + bit]++;
+      }
+    }
+  }
+
+  /**
+   * Returns the sequence number of this snapshot. The sequence number increases by one for each
+   * Driver Station packet, so comparing it to that of a previous snapshot tells whether new data
+   * has arrived and how many packets were missed.
+   *
+   * @return the sequence number
+   */
+  public long getSequence() {
+    return m_sequence;
+  }
+
+  private static void checkStick(int stick) {
+    if (stick < 0 || stick >= kJoystickPorts) {
+      throw new IllegalArgumentException("Joystick index is out of range, should be 0-5");
+    }
+  }
+
+  /**
+   * Get the value of the axis on a joystick.
+   *
+   * @param stick The joystick to read.
+   * @param axis  The analog axis value to read from the joystick.
+   * @return The value of the axis on the joystick, or 0 if it is not available.
+   */
+  public double getStickAxis(int stick, int axis) {
+    checkStick(stick);
+    if (axis < 0 || axis >= HAL.kMaxJoystickAxes) {
+      throw new IllegalArgumentException("Joystick axis is out of range");
+    }
+    if (axis >= m_axisCounts[stick]) {
+      return 0.0;
+    }
+    return m_axes[stick * HAL.kMaxJoystickAxes + axis];
+  }
+
+  /**
+   * Get the state of a POV on the joystick.
+   *
+   * @param stick The joystick to read.
+   * @param pov   The POV to read.
+   * @return the angle of the POV in degrees, or -1 if the POV is not pressed or not available.
+   */
+  public int getStickPOV(int stick, int pov) {
+    checkStick(stick);
+    if (pov < 0 || pov >= HAL.kMaxJoystickPOVs) {
+      throw new IllegalArgumentException("Joystick POV is out of range");
+    }
+    if (pov >= m_povCounts[stick]) {
+      return -1;
+    }
+    return m_povs[stick * HAL.kMaxJoystickPOVs + pov];
+  }
+
+  /**
+   * The state of the buttons on the joystick.
+   *
+   * @param stick The joystick to read.
+   * @return The state of the buttons on the joystick.
+   */
+  public int getStickButtons(int stick) {
+    checkStick(stick);
+    return m_buttons[stick];
+  }
+
+  /**
+   * The state of one joystick button. Button indexes begin at 1.
+   *
+   * @param stick  The joystick to read.
+   * @param button The button index, beginning at 1.
+   * @return The state of the joystick button, or false if it is not available.
+   */
+  public boolean getStickButton(int stick, int button) {
+    if (!isButtonAvailable(stick, button)) {
+      return false;
+    }
+    return (m_buttons[stick] & 1 << (button - 1)) != 0;
+  }
+
+  /**
+   * Whether one joystick button was pressed between a previous snapshot and this one. Button
+   * indexes begin at 1.
+   *
+   * <p>Presses are counted for every packet, so a press is reported even if the snapshots in
+   * between were never read.
+   *
+   * @param stick    The joystick to read.
+   * @param button   The button index, beginning at 1.
+   * @param previous An earlier snapshot.
+   * @return Whether the joystick button was pressed after previous and up to this snapshot.
+   */
+  public boolean getStickButtonPressed(int stick, int button, DriverStationSnapshot previous) {
+    if (!isButtonAvailable(stick, button)) {
+      return false;
+    }
+    int index = stick * kMaxJoystickButtons + button - 1;
+    return m_pressCounts[index] != previous.m_pressCounts[index];
+  }
+
+  /**
+   * Whether one joystick button was released between a previous snapshot and this one. Button
+   * indexes begin at 1.
+   *
+   * <p>Releases are counted for every packet, so a release is reported even if the snapshots in
+   * between were never read.
+   *
+   * @param stick    The joystick to read.
+   * @param button   The button index, beginning at 1.
+   * @param previous An earlier snapshot.
+   * @return Whether the joystick button was released after previous and up to this snapshot.
+   */
+  public boolean getStickButtonReleased(int stick, int button, DriverStationSnapshot previous) {
+    if (!isButtonAvailable(stick, button)) {
+      return false;
+    }
+    int index = stick * kMaxJoystickButtons + button - 1;
+    return m_releaseCounts[index] != previous.m_releaseCounts[index];
+  }
+
+  private boolean isButtonAvailable(int stick, int button) {
+    checkStick(stick);
+    return button > 0 && button <= m_buttonCounts[stick];
+  }
+
+  /**
+   * Returns the number of axes on a given joystick port.
+   *
+   * @param stick The joystick port number
+   * @return The number of axes on the indicated joystick
+   */
+  public int getStickAxisCount(int stick) {
+    checkStick(stick);
+    return m_axisCounts[stick];
+  }
+
+  /**
+   * Returns the number of POVs on a given joystick port.
+   *
+   * @param stick The joystick port number
+   * @return The number of POVs on the indicated joystick
+   */
+  public int getStickPOVCount(int stick) {
+    checkStick(stick);
+    return m_povCounts[stick];
+  }
+
+  /**
+   * Gets the number of buttons on a joystick.
+   *
+   * @param stick The joystick port number
+   * @return The number of buttons on the indicated joystick
+   */
+  public int getStickButtonCount(int stick) {
+    checkStick(stick);
+    return m_buttonCounts[stick];
+  }
+
+  /**
+   * Gets a value indicating whether the Driver Station requires the robot to be enabled.
+   *
+   * @return True if the robot is enabled, false otherwise.
+   */
+  public boolean isEnabled() {
+    return m_enabled && m_dsAttached;
+  }
+
+  /**
+   * Gets a value indicating whether the Driver Station requires the robot to be disabled.
+   *
+   * @return True if the robot should be disabled, false otherwise.
+   */
+  public boolean isDisabled() {
+    return !isEnabled();
+  }
+
+  /**
+   * Gets a value indicating whether the Driver Station requires the robot to be running in
+   * autonomous mode.
+   *
+   * @return True if autonomous mode should be enabled, false otherwise.
+   */
+  public boolean isAutonomous() {
+    return m_autonomous;
+  }
+
+  /**
+   * Gets a value indicating whether the Driver Station requires the robot to be running in
+   * operator-controlled mode.
+   *
+   * @return True if operator-controlled mode should be enabled, false otherwise.
+   */
+  public boolean isOperatorControl() {
+    return !(m_autonomous || m_test);
+  }
+
+  /**
+   * Gets a value indicating whether the Driver Station requires the robot to be running in test
+   * mode.
+   *
+   * @return True if test mode should be enabled, false otherwise.
+   */
+  public boolean isTest() {
+    return m_test;
+  }
+
+  /**
+   * Gets a value indicating whether the robot is emergency stopped.
+   *
+   * @return True if the robot is emergency stopped, false otherwise.
+   */
+  public boolean isEStopped() {
+    return m_eStop;
+  }
+
+  /**
+   * Gets a value indicating whether the Driver Station is attached.
+   *
+   * @return True if Driver Station is attached, false otherwise.
+   */
+  public boolean isDSAttached() {
+    return m_dsAttached;
+  }
+
+  /**
+   * Gets if the driver station attached to a Field Management System.
+   *
+   * @return true if the robot is competing on a field being controlled by a Field Management System
+   */
+  public boolean isFMSAttached() {
+    return m_fmsAttached;
+  }
+
+  /**
+   * Get the game specific message.
+   *
+   * @return the game specific message
+   */
+  public String getGameSpecificMessage() {
+    return m_gameSpecificMessage;
+  }
+
+  /**
+   * Get the event name.
+   *
+   * @return the event name
+   */
+  public String getEventName() {
+    return m_eventName;
+  }
+
+  /**
+   * Get the match type.
+   *
+   * @return the match type
+   */
+  public MatchType getMatchType() {
+    switch (m_matchType) {
+      case 1:
+        return MatchType.Practice;
+      case 2:
+        return MatchType.Qualification;
+      case 3:
+        return MatchType.Elimination;
+      default:
+        return MatchType.None;
+    }
+  }
+
+  /**
+   * Get the match number.
+   *
+   * @return the match number
+   */
+  public int getMatchNumber() {
+    return m_matchNumber;
+  }
+
+  /**
+   * Get the replay number.
+   *
+   * @return the replay number
+   */
+  public int getReplayNumber() {
+    return m_replayNumber;
+  }
+}
@@ -0,0 +1,158 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import edu.wpi.first.hal.InterruptJNI;
+
+/**
+ * Queue of the edges captured by {@link InterruptableSensorBase#requestEdgeCapture(int, boolean,
+ * boolean)}.
+ *
+ * <p>The interrupt handler adds every edge with its FPGA timestamp as it happens, and the robot
+ * loop drains all of the edges received since its last call with {@link #drain(long[],
+ * boolean[])}. The interrupt handler never waits on the robot loop. If the queue is full when an
+ * edge arrives, the edge is dropped and counted by {@link #getOverflowCount()}.
+ *
+ * <p>Each drain also measures the signal over the edges it returned, joined to the edges before
+ * them, so {@link #getPeriod()} and {@link #getDutyCycle()} describe the window since the
+ * previous drain. Only one thread should drain the queue.
+ */
+public class EdgeTimestampQueue {
+  // Guards m_edgeCapture, so the native edge capture is not freed while it is being read
+  private final Object m_edgeCaptureMutex = new Object();
+  private long m_edgeCapture;
+  private final long[] m_edges;
+
+  // Measurements carried across drains
+  private long m_lastRising = -1;
+  private long m_lastFalling = -1;
+  private double m_period;
+  private double m_dutyCycle;
+
+  /**
+   * Create a queue.
+   *
+   * @param edgeCapture The native edge capture, or 0 if edges are only processed directly
+   * @param capacity    The number of edges which can be queued between drains
+   */
+  EdgeTimestampQueue(long edgeCapture, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity was not at least 1");
+    }
+    m_edgeCapture = edgeCapture;
+    m_edges = new long[capacity];
+  }
+
+  /**
+   * Remove queued edges, oldest first, and update the period and duty cycle.
+   *
+   * @param timestamps Array where the FPGA time of each edge in microseconds is stored
+   * @param rising     Array where the direction of each edge is stored, true for rising
+   * @return The number of edges removed, at most the length of the shorter array
+   */
+  public int drain(long[] timestamps, boolean[] rising) {
+    int count = Math.min(m_edges.length, Math.min(timestamps.length, rising.length));
+    synchronized (m_edgeCaptureMutex) {
+      if (m_edgeCapture == 0) {
+        throw new IllegalStateException("The interrupt is not allocated.");
+      }
+      count = InterruptJNI.readInterruptEdges(m_edgeCapture, m_edges, count);
+    }
+    return process(m_edges, count, timestamps, rising);
+  }
+
+  /**
+   * Decodes edges read from the native queue and measures the signal over them.
+   *
+   * @param edges      Timestamps shifted left by one, with the low bit set for rising edges
+   * @param count      The number of edges
+   * @param timestamps Array where the FPGA time of each edge in microseconds is stored
+   * @param rising     Array where the direction of each edge is stored
+   * @return The number of edges
+   */
+  int process(long[] edges, int count, long[] timestamps, boolean[] rising) {
+    long periodSum = 0;
+    int periods = 0;
+    long highSum = 0;
+    long highPeriodSum = 0;
+    for (int i = 0; i < count; i++) {
+      long timestamp = edges[i] >>> 1;
+      boolean isRising = (edges[i] & 1) != 0;
+      timestamps[i] = timestamp;
+      rising[i] = isRising;
+
+      if (isRising) {
+        if (m_lastRising >= 0) {
+          periodSum += timestamp - m_lastRising;
+          periods++;
+          // The cycle was high from its rising edge until its falling edge
+          if (m_lastFalling > m_lastRising) {
+            highSum += m_lastFalling - m_lastRising;
+            highPeriodSum += timestamp - m_lastRising;
+          }
+        }
+        m_lastRising = timestamp;
+      } else {
+        m_lastFalling = timestamp;
+      }
+    }
+
+    if (periods > 0) {
+      m_period = periodSum / (periods * 1.0e6);
+    }
+    if (highPeriodSum > 0) {
+      m_dutyCycle = highSum / (double) highPeriodSum;
+    }
+    return count;
+  }
+
+  /**
+   * Get the average time between rising edges over the last window drained.
+   *
+   * @return The period in seconds, unchanged if the last window held no complete cycle, or 0 if
+   *         no cycle has been drained
+   */
+  public double getPeriod() {
+    return m_period;
+  }
+
+  /**
+   * Get the fraction of each cycle the signal was high over the last window drained. This
+   * requires that both rising and falling edges are captured.
+   *
+   * @return The duty cycle from 0 to 1, unchanged if the last window held no complete cycle, or 0
+   *         if no cycle has been drained
+   */
+  public double getDutyCycle() {
+    return m_dutyCycle;
+  }
+
+  /**
+   * Get the number of edges dropped because the queue was full.
+   *
+   * @return The number of edges dropped
+   */
+  public long getOverflowCount() {
+    synchronized (m_edgeCaptureMutex) {
+      if (m_edgeCapture == 0) {
+        return 0;
+      }
+      return InterruptJNI.getInterruptEdgeOverflowCount(m_edgeCapture);
+    }
+  }
+
+  /**
+   * Detaches the queue from the native edge capture before the interrupt is freed. Waits for any
+   * drain in progress to finish reading it.
+   */
+  void close() {
+    synchronized (m_edgeCaptureMutex) {
+      m_edgeCapture = 0;
+    }
+  }
+}
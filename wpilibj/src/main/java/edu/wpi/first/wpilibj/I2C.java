@@ -35,9 +35,16 @@ public class I2C implements AutoCloseable {
     }
   }
 
+  private static final byte[] kEmptyBuffer = new byte[0];
+
   private final int m_port;
   private final int m_deviceAddress;
 
+  // Scratch buffers for register transfers, guarded by this
+  private final byte[] m_registerBuffer = new byte[1];
+  private final byte[] m_writeBuffer = new byte[2];
+  private final byte[] m_readBuffer = new byte[4];
+
   /**
    * Constructor.
    *
@@ -133,7 +140,7 @@ public class I2C implements AutoCloseable {
    * @return Transfer Aborted... false for success, true for aborted.
    */
   public boolean addressOnly() {
-    return transaction(new byte[0], (byte) 0, new byte[0], (byte) 0);
+    return transaction(kEmptyBuffer, (byte) 0, kEmptyBuffer, (byte) 0);
   }
 
   /**
@@ -146,11 +153,10 @@ public class I2C implements AutoCloseable {
    * @return Transfer Aborted... false for success, true for aborted.
    */
   public synchronized boolean write(int registerAddress, int data) {
-    byte[] buffer = new byte[2];
-    buffer[0] = (byte) registerAddress;
-    buffer[1] = (byte) data;
-    return I2CJNI.i2CWriteB(m_port, (byte) m_deviceAddress, buffer,
-                            (byte) buffer.length) < 0;
+    m_writeBuffer[0] = (byte) registerAddress;
+    m_writeBuffer[1] = (byte) data;
+    return I2CJNI.i2CWriteB(m_port, (byte) m_deviceAddress, m_writeBuffer,
+                            (byte) m_writeBuffer.length) < 0;
   }
 
   /**
@@ -228,10 +234,24 @@ public class I2C implements AutoCloseable {
       throw new IllegalArgumentException("buffer is too small, must be at least " + count);
     }
 
-    byte[] registerAddressArray = new byte[1];
-    registerAddressArray[0] = (byte) registerAddress;
+    synchronized (this) {
+      m_registerBuffer[0] = (byte) registerAddress;
+      return transaction(m_registerBuffer, 1, buffer, count);
+    }
+  }
 
-    return transaction(registerAddressArray, registerAddressArray.length, buffer, count);
+  /**
+   * Read a single register from the device.
+   *
+   * @param registerAddress The register to read.
+   * @return The register value (0-255), or -1 if the transfer was aborted.
+   */
+  public synchronized int readRegister(int registerAddress) {
+    m_registerBuffer[0] = (byte) registerAddress;
+    if (transaction(m_registerBuffer, 1, m_readBuffer, 1)) {
+      return -1;
+    }
+    return m_readBuffer[0] & 0xff;
   }
 
   private ByteBuffer m_readDataToSendBuffer;
@@ -351,23 +371,20 @@ public class I2C implements AutoCloseable {
    * @return true if the sensor was verified to be connected
    * @pre The device must support and be configured to use register auto-increment.
    */
-  public boolean verifySensor(int registerAddress, int count,
-                              byte[] expected) {
+  public synchronized boolean verifySensor(int registerAddress, int count,
+                                           byte[] expected) {
     // TODO: Make use of all 7 read bytes
-    byte[] dataToSend = new byte[1];
-
-    byte[] deviceData = new byte[4];
     for (int i = 0; i < count; i += 4) {
       int toRead = count - i < 4 ? count - i : 4;
       // Read the chunk of data. Return false if the sensor does not
       // respond.
-      dataToSend[0] = (byte) (registerAddress + i);
-      if (transaction(dataToSend, 1, deviceData, toRead)) {
+      m_registerBuffer[0] = (byte) (registerAddress + i);
+      if (transaction(m_registerBuffer, 1, m_readBuffer, toRead)) {
         return false;
       }
 
       for (byte j = 0; j < toRead; j++) {
-        if (deviceData[j] != expected[i + j]) {
+        if (m_readBuffer[j] != expected[i + j]) {
           return false;
         }
       }
@@ -0,0 +1,158 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.hal.util.BoundaryException;
+
+/**
+ * Samples an I2C sensor at a fixed rate from a background thread and buffers the decoded,
+ * timestamped samples for the robot loop.
+ *
+ * <p>Each period the stream reads the same registers from the device, so the sampling rate is
+ * independent of the robot loop. Reads use a preallocated direct buffer and do not allocate;
+ * aborted reads are skipped. {@link #drain(long[], double[])} returns every sample since the
+ * previous call from a ring of the given capacity.
+ */
+public class I2CSampleStream implements AutoCloseable {
+  private final I2C m_i2c;
+  private final int m_registerAddress;
+  private final SensorSampleDecoder m_decoder;
+  private final SensorSampleBuffer m_buffer;
+  private final Notifier m_notifier;
+
+  // Only used by the notifier thread
+  private final ByteBuffer m_buf;
+  private final byte[] m_data;
+  private final double[] m_values;
+
+  // Only written by the notifier thread
+  private volatile long m_abortedCount;
+
+  private boolean m_running;
+
+  /**
+   * Create a sample stream. The stream does not use the I2C port until it is started.
+   *
+   * @param i2c             The I2C device to read
+   * @param registerAddress The first register to read each period
+   * @param count           The number of bytes to read each period
+   * @param channels        The number of values in each sample
+   * @param capacity        The number of samples to buffer between calls to drain()
+   * @param decoder         Converts the bytes read each period into sample values
+   */
+  public I2CSampleStream(I2C i2c, int registerAddress, int count, int channels, int capacity,
+                         SensorSampleDecoder decoder) {
+    if (count < 1) {
+      throw new BoundaryException("Value must be at least 1, " + count + " given");
+    }
+    m_i2c = i2c;
+    m_registerAddress = registerAddress;
+    m_decoder = decoder;
+    m_buffer = new SensorSampleBuffer(capacity, channels);
+    m_notifier = new Notifier(this::sample);
+    m_buf = ByteBuffer.allocateDirect(count);
+    m_data = new byte[count];
+    m_values = new double[channels];
+  }
+
+  @Override
+  public void close() {
+    stop();
+    m_notifier.close();
+  }
+
+  /**
+   * Start sampling. Any samples left from a previous run are discarded.
+   *
+   * @param period Time between samples, in seconds
+   */
+  public synchronized void start(double period) {
+    m_notifier.stop();
+    m_buffer.clear();
+    m_notifier.startPeriodic(period);
+    m_running = true;
+  }
+
+  /**
+   * Stop sampling. Samples read before stopping remain available to drain().
+   */
+  public synchronized void stop() {
+    m_notifier.stop();
+    m_running = false;
+  }
+
+  public synchronized boolean isRunning() {
+    return m_running;
+  }
+
+  /**
+   * Read the samples taken since the previous call, oldest first. The values of each sample are
+   * stored consecutively, so sample i starts at values[i * channels].
+   *
+   * @param timestamps Array where sample timestamps (FPGA time in microseconds) are stored
+   * @param values     Array where sample values are stored
+   * @return The number of samples read, at most the number that fit in both arrays
+   */
+  public int drain(long[] timestamps, double[] values) {
+    return m_buffer.drain(timestamps, values);
+  }
+
+  /**
+   * Get the most recent sample, whether or not it has been drained.
+   *
+   * @param values Array where the sample values are stored
+   * @return The sample timestamp (FPGA time in microseconds), or 0 if no samples have been taken
+   */
+  public long getLatest(double[] values) {
+    return m_buffer.getLatest(values);
+  }
+
+  /**
+   * Get one value of the most recent sample, whether or not it has been drained.
+   *
+   * @param channel The channel index, less than the number of values in each sample
+   * @return The value, or 0 if no samples have been taken
+   */
+  public double getLatest(int channel) {
+    return m_buffer.getLatest(channel);
+  }
+
+  /**
+   * Get the number of samples discarded because drain() was not called often enough.
+   *
+   * @return Number of samples dropped
+   */
+  public long getDroppedCount() {
+    return m_buffer.getDroppedCount();
+  }
+
+  /**
+   * Get the number of reads which were aborted by the device and skipped.
+   *
+   * @return Number of aborted reads
+   */
+  public long getAbortedCount() {
+    return m_abortedCount;
+  }
+
+  private void sample() {
+    if (m_i2c.read(m_registerAddress, m_data.length, m_buf)) {
+      m_abortedCount++;
+      return;
+    }
+    long timestamp = RobotController.getFPGATime();
+    for (int i = 0; i < m_data.length; i++) {
+      m_data[i] = m_buf.get(i);
+    }
+    if (m_decoder.decode(m_data, m_values)) {
+      m_buffer.add(timestamp, m_values);
+    }
+  }
+}
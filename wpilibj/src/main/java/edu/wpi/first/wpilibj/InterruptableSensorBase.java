@@ -38,6 +38,8 @@ public abstract class InterruptableSensorBase extends SendableBase {
    */
   protected boolean m_isSynchronousInterrupt;
 
+  private EdgeTimestampQueue m_edgeQueue;
+
   /**
    * Create a new InterrupatableSensorBase.
    */
@@ -112,6 +114,39 @@ public abstract class InterruptableSensorBase extends SendableBase {
 
   }
 
+  /**
+   * Request one of the 8 interrupts asynchronously on this digital input and record every edge in
+   * a queue, so pulse trains faster than the robot loop can be measured without losing edges.
+   * Edges are queued by the interrupt handler itself rather than by a Java callback. Interrupts
+   * are enabled before this returns.
+   *
+   * @param capacity    The number of edges which can be queued between drains
+   * @param risingEdge  true to capture rising edges
+   * @param fallingEdge true to capture falling edges
+   * @return The queue to drain the captured edges from
+   */
+  public EdgeTimestampQueue requestEdgeCapture(int capacity, boolean risingEdge,
+                                               boolean fallingEdge) {
+    if (m_interrupt != 0) {
+      throw new AllocationException("The interrupt has already been allocated");
+    }
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity was not at least 1");
+    }
+
+    allocateInterrupts(false);
+
+    assert m_interrupt != 0;
+
+    InterruptJNI.requestInterrupts(m_interrupt, getPortHandleForRouting(),
+        getAnalogTriggerTypeForRouting());
+    setUpSourceEdge(risingEdge, fallingEdge);
+    m_edgeQueue = new EdgeTimestampQueue(
+        InterruptJNI.attachInterruptEdgeCapture(m_interrupt, capacity), capacity);
+    enableInterrupts();
+    return m_edgeQueue;
+  }
+
   /**
    * Allocate the interrupt.
    *
@@ -132,6 +167,10 @@ public abstract class InterruptableSensorBase extends SendableBase {
     if (m_interrupt == 0) {
       throw new IllegalStateException("The interrupt is not allocated.");
     }
+    if (m_edgeQueue != null) {
+      m_edgeQueue.close();
+      m_edgeQueue = null;
+    }
     InterruptJNI.cleanInterrupts(m_interrupt);
     m_interrupt = 0;
   }
@@ -194,7 +194,9 @@ public abstract class IterativeRobotBase extends RobotBase {
   }
 
   protected void loopFunc() {
+    LoopClock.update();
     m_watchdog.reset();
+    MotorSafety.updateTimestamp();
 
     // Call the appropriate function depending upon the current robot mode
     if (isDisabled()) {
@@ -0,0 +1,265 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+/**
+ * Provides the FPGA time without reading the FPGA on every call.
+ *
+ * <p>{@link #loopTime()} returns the time snapshotted at the start of the current iteration of
+ * the robot loop, or of the current tick when called from a {@link Notifier} handler. Code which
+ * only needs loop-granular time, such as timeouts and rate limits, can read it as often as it
+ * likes.
+ *
+ * <p>{@link #getFPGATime()} returns the current time for finer measurements. On the robot it is
+ * interpolated from System.nanoTime() using a calibration which is refreshed each time the robot
+ * loop snapshots the FPGA time, so it does not call into the HAL. The calibration tracks the rate
+ * of the FPGA clock and is slewed rather than stepped, so the interpolated time does not go
+ * backward unless the clocks disagree by more than 10 ms. In simulation, where time may be paused
+ * or stepped, the FPGA time is read directly.
+ */
+public final class LoopClock {
+  // Sample brackets longer than this were likely preempted, so are not used for calibration
+  private static final long kMaxSampleNanos = 50_000;
+
+  // Interpolate at most this long before taking a new calibration sample
+  private static final long kMaxExtrapolationNanos = 1_000_000_000L;
+
+  private static final boolean m_interpolate = RobotBase.isReal();
+  private static final Calibrator m_calibrator = new Calibrator();
+
+  private static volatile long m_loopTime;
+
+  /**
+   * A thread whose loop time is the time of its latest tick rather than of the robot loop.
+   * {@link Notifier} runs its handlers on one.
+   */
+  static class TickThread extends Thread {
+    // The time of the latest tick, or 0 before the first. Only accessed by this thread.
+    long m_tickTime;
+
+    TickThread(Runnable target) {
+      super(target);
+    }
+  }
+
+  /**
+   * Fits a linear mapping from System.nanoTime() to FPGA time to samples of both.
+   *
+   * <p>The rate is measured against the oldest sample since the clocks last disagreed, so it
+   * becomes more precise the longer the calibration runs. If the new calibration would place the
+   * sample time before what the previous calibration predicted, it is anchored at the prediction
+   * instead and runs slightly slow until the FPGA time catches up.
+   */
+  static final class Calibrator {
+    static final double kNominalRate = 1.0e-3;
+
+    // Rates further than this from nominal mean a clock was stepped, so calibration restarts
+    private static final double kMaxRateError = 1.0e-3;
+
+    // Measure the rate over at least this long before trusting it
+    private static final long kMinBaselineNanos = 100_000_000L;
+
+    // Run slow by at most this fraction, aiming to remove a lead within kSlewNanos
+    private static final double kMaxSlew = 5.0e-4;
+    private static final long kSlewNanos = 1_000_000_000L;
+
+    // Leads larger than this are stepped away rather than slewed
+    private static final long kMaxLead = 10_000;
+
+    private long m_baseNanos;
+    private long m_baseFpga;
+
+    // The published calibration. m_version is 0 before the first sample and odd while the
+    // calibration is being written; readers retry until it is even and unchanged across their
+    // reads. Only sample() writes it.
+    private volatile int m_version;
+    private volatile long m_nanoAnchor;
+    private volatile long m_fpgaAnchor;
+
+    // FPGA microseconds per System.nanoTime() nanosecond
+    private volatile double m_rate;
+
+    /**
+     * Returns the FPGA time at a System.nanoTime().
+     *
+     * @param nanos       The System.nanoTime() to convert
+     * @param maxAgeNanos How long after the last sample to interpolate
+     * @return The FPGA time in microseconds, or -1 if there has been no sample or the last one was
+     *         more than maxAgeNanos before nanos
+     */
+    @SuppressWarnings("AbbreviationAsWordInName")
+    long getFPGATime(long nanos, long maxAgeNanos) {
+      while (true) {
+        int version = m_version;
+        if ((version & 1) == 0) {
+          long nanoAnchor = m_nanoAnchor;
+          long fpgaAnchor = m_fpgaAnchor;
+          double rate = m_rate;
+          if (m_version == version) {
+            if (version == 0 || nanos - nanoAnchor > maxAgeNanos) {
+              return -1;
+            }
+            return fpgaAnchor + (long) ((nanos - nanoAnchor) * rate);
+          }
+        }
+      }
+    }
+
+    double getRate() {
+      return m_rate;
+    }
+
+    /**
+     * Adds a sample and publishes the resulting calibration.
+     *
+     * @param nanos The System.nanoTime() of the sample
+     * @param fpga  The FPGA time of the sample in microseconds
+     */
+    synchronized void sample(long nanos, long fpga) {
+      if (m_version == 0) {
+        restart(nanos, fpga);
+        return;
+      }
+
+      double rate = m_rate;
+      long baseline = nanos - m_baseNanos;
+      if (baseline >= kMinBaselineNanos) {
+        rate = (fpga - m_baseFpga) / (double) baseline;
+        if (Math.abs(rate / kNominalRate - 1.0) > kMaxRateError) {
+          restart(nanos, fpga);
+          return;
+        }
+      }
+
+      long predicted = m_fpgaAnchor + (long) ((nanos - m_nanoAnchor) * m_rate);
+      long lead = predicted - fpga;
+      if (lead > kMaxLead) {
+        restart(nanos, fpga);
+      } else if (lead > 0) {
+        double slew = Math.min(lead / (kSlewNanos * rate), kMaxSlew);
+        publish(nanos, predicted, rate * (1.0 - slew));
+      } else {
+        publish(nanos, fpga, rate);
+      }
+    }
+
+    private void restart(long nanos, long fpga) {
+      m_baseNanos = nanos;
+      m_baseFpga = fpga;
+      publish(nanos, fpga, kNominalRate);
+    }
+
+    private void publish(long nanoAnchor, long fpgaAnchor, double rate) {
+      int version = m_version;
+      m_version = version + 1;
+      m_nanoAnchor = nanoAnchor;
+      m_fpgaAnchor = fpgaAnchor;
+      m_rate = rate;
+      m_version = version + 2;
+    }
+  }
+
+  private LoopClock() {
+  }
+
+  /**
+   * Snapshot the FPGA time as the start of a robot loop iteration.
+   *
+   * <p>This is called at the start of each iteration of IterativeRobotBase. Robot programs with
+   * their own main loop should call it once per iteration.
+   */
+  public static void update() {
+    m_loopTime = sample();
+  }
+
+  /**
+   * Snapshot the time of a Notifier tick for the calling thread. Does nothing unless called from a
+   * {@link TickThread}.
+   *
+   * @param fpgaTime The FPGA time of the tick in microseconds
+   */
+  static void tick(long fpgaTime) {
+    Thread thread = Thread.currentThread();
+    if (thread instanceof TickThread) {
+      ((TickThread) thread).m_tickTime = fpgaTime;
+    }
+  }
+
+  /**
+   * Return the FPGA time at the start of the current loop iteration.
+   *
+   * <p>From a Notifier handler this is the time of the current tick; from other threads it is the
+   * time of the last robot loop iteration.
+   *
+   * @return The loop start time in microseconds
+   */
+  public static long loopTime() {
+    Thread thread = Thread.currentThread();
+    if (thread instanceof TickThread) {
+      long tickTime = ((TickThread) thread).m_tickTime;
+      if (tickTime != 0) {
+        return tickTime;
+      }
+    }
+    return m_loopTime;
+  }
+
+  /**
+   * Return the FPGA time at the start of the current loop iteration.
+   *
+   * @return The loop start time in seconds
+   * @see #loopTime()
+   */
+  public static double loopTimestamp() {
+    return loopTime() / 1000000.0;
+  }
+
+  /**
+   * Return the current FPGA time, interpolated from System.nanoTime() on the robot.
+   *
+   * @return The current FPGA time in microseconds
+   */
+  @SuppressWarnings("AbbreviationAsWordInName")
+  public static long getFPGATime() {
+    if (!m_interpolate) {
+      return RobotController.getFPGATime();
+    }
+    long time = m_calibrator.getFPGATime(System.nanoTime(), kMaxExtrapolationNanos);
+    if (time < 0) {
+      return sample();
+    }
+    return time;
+  }
+
+  /**
+   * Return the current FPGA time, interpolated from System.nanoTime() on the robot.
+   *
+   * @return The current FPGA time in seconds
+   * @see #getFPGATime()
+   */
+  @SuppressWarnings("AbbreviationAsWordInName")
+  public static double getFPGATimestamp() {
+    return getFPGATime() / 1000000.0;
+  }
+
+  /**
+   * Reads the FPGA time and, if the read was not interrupted, uses it to calibrate interpolation.
+   */
+  private static long sample() {
+    long before = System.nanoTime();
+    long fpga = RobotController.getFPGATime();
+    long after = System.nanoTime();
+    if (!m_interpolate || after - before > kMaxSampleNanos) {
+      return fpga;
+    }
+    m_calibrator.sample(before + (after - before) / 2, fpga);
+
+    // Keep the returned time consistent with what getFPGATime() reports from now on
+    return m_calibrator.getFPGATime(after, Long.MAX_VALUE);
+  }
+}
@@ -7,31 +7,100 @@
 
 package edu.wpi.first.wpilibj;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 /**
  * This base class runs a watchdog timer and calls the subclass's StopMotor()
  * function if the timeout expires.
  *
  * <p>The subclass should call feed() whenever the motor value is updated.
+ *
+ * <p>Feeding does not read the clock or take a lock, since it happens on every motor write.
+ * Instead it records the current epoch of a shared cached timestamp, which advances at the start
+ * of each robot loop iteration and each time the motors are checked. A motor is treated as fed at
+ * the end of the epoch in which it was last fed, so a timeout may be detected up to one epoch
+ * late but a motor is never stopped early.
  */
 public abstract class MotorSafety {
   private static final double kDefaultSafetyExpiration = 0.1;
 
-  private double m_expiration = kDefaultSafetyExpiration;
-  private boolean m_enabled;
-  private double m_stopTime = Timer.getFPGATimestamp();
-  private final Object m_thisMutex = new Object();
-  private static final Set<MotorSafety> m_instanceList = new LinkedHashSet<>();
+  // Feed epoch of a motor which has never been fed
+  private static final long kNeverFed = Long.MIN_VALUE;
+
+  private volatile double m_expiration = kDefaultSafetyExpiration;
+  private volatile boolean m_enabled;
+  private volatile long m_feedEpoch = kNeverFed;
+  private final FeedClock m_clock;
+
+  private static final FeedClock m_defaultClock = new FeedClock();
+
+  // Registered instances, replaced rather than modified so checkMotors() can iterate without a lock
+  private static volatile MotorSafety[] m_instances = new MotorSafety[0];
   private static final Object m_listMutex = new Object();
 
+  /**
+   * The cached timestamp shared by motors. Each time it is advanced a new epoch begins, and the
+   * start time of recent epochs is kept to bound when a feed in that epoch could have happened.
+   */
+  static final class FeedClock {
+    // Number of epoch start times kept; must be a power of 2
+    private static final int kHistory = 64;
+
+    private final long[] m_epochStarts = new long[kHistory];
+    private volatile long m_epoch;
+
+    /**
+     * Begin a new epoch.
+     *
+     * @param now The current FPGA time in microseconds
+     */
+    synchronized void advance(long now) {
+      long epoch = m_epoch + 1;
+      m_epochStarts[(int) epoch & (kHistory - 1)] = now;
+      m_epoch = epoch;
+    }
+
+    long getEpoch() {
+      return m_epoch;
+    }
+
+    /**
+     * Returns the latest time at which a feed in the given epoch could have happened.
+     *
+     * <p>Start times are published by the volatile epoch, so this does not lock. If the history
+     * wraps while reading, a later start time is returned, which only delays a timeout.
+     *
+     * @param epoch The epoch of the feed
+     * @param now   The current FPGA time in microseconds
+     * @return The end of the epoch in microseconds
+     */
+    long getEpochEnd(long epoch, long now) {
+      if (epoch == kNeverFed) {
+        return kNeverFed;
+      }
+      long current = m_epoch;
+      if (epoch >= current) {
+        return now;
+      }
+      // Feeds older than the history happened before its oldest epoch began
+      long next = Math.max(epoch + 1, current - kHistory + 1);
+      return m_epochStarts[(int) next & (kHistory - 1)];
+    }
+  }
+
   /**
    * MotorSafety constructor.
    */
   public MotorSafety() {
+    this(m_defaultClock);
+  }
+
+  MotorSafety(FeedClock clock) {
+    m_clock = clock;
     synchronized (m_listMutex) {
-      m_instanceList.add(this);
+      MotorSafety[] instances = Arrays.copyOf(m_instances, m_instances.length + 1);
+      instances[instances.length - 1] = this;
+      m_instances = instances;
     }
   }
 
@@ -41,9 +110,7 @@ public abstract class MotorSafety {
    * <p>Resets the timer on this object that is used to do the timeouts.
    */
   public void feed() {
-    synchronized (m_thisMutex) {
-      m_stopTime = Timer.getFPGATimestamp() + m_expiration;
-    }
+    m_feedEpoch = m_clock.getEpoch();
   }
 
   /**
@@ -52,9 +119,7 @@ public abstract class MotorSafety {
    * @param expirationTime The timeout value in seconds.
    */
   public void setExpiration(double expirationTime) {
-    synchronized (m_thisMutex) {
-      m_expiration = expirationTime;
-    }
+    m_expiration = expirationTime;
   }
 
   /**
@@ -63,9 +128,7 @@ public abstract class MotorSafety {
    * @return the timeout value in seconds.
    */
   public double getExpiration() {
-    synchronized (m_thisMutex) {
-      return m_expiration;
-    }
+    return m_expiration;
   }
 
   /**
@@ -74,9 +137,7 @@ public abstract class MotorSafety {
    * @return a true value if the motor is still operating normally and hasn't timed out.
    */
   public boolean isAlive() {
-    synchronized (m_thisMutex) {
-      return !m_enabled || m_stopTime > Timer.getFPGATimestamp();
-    }
+    return !m_enabled || !isExpired(LoopClock.getFPGATime());
   }
 
   /**
@@ -85,25 +146,30 @@ public abstract class MotorSafety {
    * motor is shut down until its value is updated again.
    */
   public void check() {
-    boolean enabled;
-    double stopTime;
-
-    synchronized (m_thisMutex) {
-      enabled = m_enabled;
-      stopTime = m_stopTime;
-    }
-
-    if (!enabled || RobotState.isDisabled() || RobotState.isTest()) {
+    if (RobotState.isDisabled() || RobotState.isTest()) {
       return;
     }
+    check(LoopClock.getFPGATime());
+  }
 
-    if (stopTime < Timer.getFPGATimestamp()) {
+  /**
+   * Stops the motor if it is enabled and has exceeded its timeout.
+   *
+   * @param now The current FPGA time in microseconds
+   */
+  void check(long now) {
+    if (m_enabled && isExpired(now)) {
       DriverStation.reportError(getDescription() + "... Output not updated often enough.", false);
 
       stopMotor();
     }
   }
 
+  private boolean isExpired(long now) {
+    long fedBy = m_clock.getEpochEnd(m_feedEpoch, now);
+    return fedBy + (long) (m_expiration * 1e6) < now;
+  }
+
   /**
    * Enable/disable motor safety for this device.
    *
@@ -112,9 +178,7 @@ public abstract class MotorSafety {
    * @param enabled True if motor safety is enforced for this object
    */
   public void setSafetyEnabled(boolean enabled) {
-    synchronized (m_thisMutex) {
-      m_enabled = enabled;
-    }
+    m_enabled = enabled;
   }
 
   /**
@@ -125,9 +189,18 @@ public abstract class MotorSafety {
    * @return True if motor safety is enforced for this device
    */
   public boolean isSafetyEnabled() {
-    synchronized (m_thisMutex) {
-      return m_enabled;
-    }
+    return m_enabled;
+  }
+
+  /**
+   * Advance the timestamp used by feed().
+   *
+   * <p>This is called at the start of each iteration of IterativeRobotBase and each time the
+   * motors are checked. Robot programs with their own main loop may call it once per iteration to
+   * detect timeouts more promptly.
+   */
+  public static void updateTimestamp() {
+    m_defaultClock.advance(LoopClock.getFPGATime());
   }
 
   /**
@@ -137,10 +210,14 @@ public abstract class MotorSafety {
    * timed out.
    */
   public static void checkMotors() {
-    synchronized (m_listMutex) {
-      for (MotorSafety elem : m_instanceList) {
-        elem.check();
-      }
+    long now = LoopClock.getFPGATime();
+    m_defaultClock.advance(now);
+
+    if (RobotState.isDisabled() || RobotState.isTest()) {
+      return;
+    }
+    for (MotorSafety elem : m_instances) {
+      elem.check(now);
     }
   }
 
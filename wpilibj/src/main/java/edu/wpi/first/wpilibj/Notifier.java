@@ -88,7 +88,7 @@ public class Notifier implements AutoCloseable {
     m_handler = run;
     m_notifier.set(NotifierJNI.initializeNotifier());
 
-    m_thread = new Thread(() -> {
+    m_thread = new LoopClock.TickThread(() -> {
       while (!Thread.interrupted()) {
         int notifier = m_notifier.get();
         if (notifier == 0) {
@@ -98,6 +98,7 @@ public class Notifier implements AutoCloseable {
         if (curTime == 0) {
           break;
         }
+        LoopClock.tick(curTime);
 
         Runnable handler = null;
         m_processLock.lock();
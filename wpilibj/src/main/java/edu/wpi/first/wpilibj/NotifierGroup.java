@@ -0,0 +1,412 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.wpi.first.hal.NotifierJNI;
+
+/**
+ * Runs any number of periodic and one-shot handlers from a single HAL notifier and thread.
+ *
+ * <p>Each {@link Notifier} owns a HAL notifier and a thread. A NotifierGroup instead keeps its
+ * {@link Task Tasks} ordered by deadline and calls every handler that is due each time its one
+ * alarm fires, so many loops can share one thread. Handlers are called one after another, so a slow
+ * handler delays the others in the group; overruns are counted per task.
+ *
+ * <p>A {@link Task} offers the same startSingle()/startPeriodic()/stop() interface as {@link
+ * Notifier}, so a Notifier can be replaced with a task in a group.
+ */
+public class NotifierGroup implements AutoCloseable {
+  /**
+   * A handler scheduled by a {@link NotifierGroup}.
+   */
+  public final class Task {
+    // The handler called at the notification time.
+    private Runnable m_handler;
+    // The time, in microseconds, at which the handler should be called next. Has the same zero as
+    // RobotController.getFPGATime().
+    private long m_expirationTime;
+    // Whether the handler is called periodically or just once.
+    private boolean m_periodic;
+    // If periodic, the period of the calling in microseconds.
+    private long m_period;
+    // Position of this task in m_tasks, or -1 if it isn't scheduled.
+    private int m_heapIndex = -1;
+    private long m_runCount;
+    private long m_overrunCount;
+
+    private Task(Runnable handler) {
+      m_handler = handler;
+    }
+
+    /**
+     * Change the handler function.
+     *
+     * @param handler Handler
+     */
+    public void setHandler(Runnable handler) {
+      m_processLock.lock();
+      try {
+        m_handler = handler;
+      } finally {
+        m_processLock.unlock();
+      }
+    }
+
+    /**
+     * Register for single event notification. The handler is called once after the specified
+     * delay.
+     *
+     * @param delay Seconds to wait before the handler is called.
+     */
+    public void startSingle(double delay) {
+      m_processLock.lock();
+      try {
+        m_periodic = false;
+        schedule(this, RobotController.getFPGATime() + (long) (delay * 1e6));
+      } finally {
+        m_processLock.unlock();
+      }
+    }
+
+    /**
+     * Register for periodic event notification, starting one period after the call to this method.
+     * This matches {@link Notifier#startPeriodic(double)}.
+     *
+     * @param period Period in seconds to call the handler.
+     */
+    public void startPeriodic(double period) {
+      m_processLock.lock();
+      try {
+        m_periodic = true;
+        m_period = toPeriod(period);
+        schedule(this, RobotController.getFPGATime() + m_period);
+      } finally {
+        m_processLock.unlock();
+      }
+    }
+
+    /**
+     * Register for periodic event notification at a fixed phase. The handler is called at the
+     * group's start time plus the phase plus a whole number of periods, starting with the first
+     * such time after the call to this method. Tasks with the same period and different phases
+     * therefore keep a fixed offset from each other no matter when they were started.
+     *
+     * @param period Period in seconds to call the handler.
+     * @param phase  Offset in seconds from the group's start time.
+     */
+    public void startPeriodic(double period, double phase) {
+      m_processLock.lock();
+      try {
+        m_periodic = true;
+        m_period = toPeriod(period);
+        long now = RobotController.getFPGATime();
+        long offset = Math.floorMod(m_startTime + (long) (phase * 1e6) - now, m_period);
+        schedule(this, now + (offset == 0 ? m_period : offset));
+      } finally {
+        m_processLock.unlock();
+      }
+    }
+
+    /**
+     * Stop timer events from occurring for this task. The handler may still be called if the group
+     * is currently processing this task's notification.
+     */
+    public void stop() {
+      m_processLock.lock();
+      try {
+        if (m_heapIndex >= 0) {
+          removeAt(m_heapIndex);
+        }
+      } finally {
+        m_processLock.unlock();
+      }
+    }
+
+    /**
+     * Returns the number of times the handler has been called.
+     *
+     * @return the number of calls
+     */
+    public long getRunCount() {
+      m_processLock.lock();
+      try {
+        return m_runCount;
+      } finally {
+        m_processLock.unlock();
+      }
+    }
+
+    /**
+     * Returns the number of periods that were skipped because the handler could not be called
+     * within one period of its deadline.
+     *
+     * @return the number of skipped periods
+     */
+    public long getOverrunCount() {
+      m_processLock.lock();
+      try {
+        return m_overrunCount;
+      } finally {
+        m_processLock.unlock();
+      }
+    }
+  }
+
+  // The thread waiting on the HAL alarm.
+  private Thread m_thread;
+  // The lock for the task queue and task state.
+  private final ReentrantLock m_processLock = new ReentrantLock();
+  // The C pointer to the notifier object. We don't use it directly, it is
+  // just passed to the JNI bindings.
+  private final AtomicInteger m_notifier = new AtomicInteger();
+  // The time, in microseconds, that phase offsets are relative to.
+  private final long m_startTime;
+  // Binary min-heap of scheduled tasks ordered by expiration time.
+  private Task[] m_tasks = new Task[8];
+  private int m_taskCount;
+
+  /**
+   * Create a NotifierGroup.
+   */
+  public NotifierGroup() {
+    m_startTime = RobotController.getFPGATime();
+    m_notifier.set(NotifierJNI.initializeNotifier());
+
+    m_thread = new Thread(this::threadMain);
+    m_thread.setName("NotifierGroup");
+    m_thread.setDaemon(true);
+    m_thread.setUncaughtExceptionHandler((thread, error) -> {
+      Throwable cause = error.getCause();
+      if (cause != null) {
+        error = cause;
+      }
+      DriverStation.reportError("Unhandled exception: " + error.toString(), error.getStackTrace());
+      DriverStation.reportError(
+          "The NotifierGroup task handlers should have handled the exception above.", false);
+    });
+    m_thread.start();
+  }
+
+  @Override
+  public void close() {
+    int handle = m_notifier.getAndSet(0);
+    if (handle == 0) {
+      return;
+    }
+    NotifierJNI.stopNotifier(handle);
+    // Join the thread to ensure the handlers have exited.
+    if (m_thread.isAlive()) {
+      try {
+        m_thread.interrupt();
+        m_thread.join();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    NotifierJNI.cleanNotifier(handle);
+    m_thread = null;
+  }
+
+  /**
+   * Creates a task which is not yet scheduled.
+   *
+   * @param handler The handler that is called at the notification time which is set using the
+   *                task's startSingle() or startPeriodic().
+   * @return the task
+   */
+  public Task add(Runnable handler) {
+    return new Task(handler);
+  }
+
+  /**
+   * Creates a task and schedules it periodically, starting one period from now.
+   *
+   * @param handler The handler to call.
+   * @param period  Period in seconds to call the handler.
+   * @return the task
+   */
+  public Task addPeriodic(Runnable handler, double period) {
+    Task task = new Task(handler);
+    task.startPeriodic(period);
+    return task;
+  }
+
+  /**
+   * Creates a task and schedules it periodically at a fixed phase.
+   *
+   * @param handler The handler to call.
+   * @param period  Period in seconds to call the handler.
+   * @param phase   Offset in seconds from the group's start time.
+   * @return the task
+   * @see Task#startPeriodic(double, double)
+   */
+  public Task addPeriodic(Runnable handler, double period, double phase) {
+    Task task = new Task(handler);
+    task.startPeriodic(period, phase);
+    return task;
+  }
+
+  /**
+   * Creates a task and schedules it once.
+   *
+   * @param handler The handler to call.
+   * @param delay   Seconds to wait before the handler is called.
+   * @return the task
+   */
+  public Task addSingle(Runnable handler, double delay) {
+    Task task = new Task(handler);
+    task.startSingle(delay);
+    return task;
+  }
+
+  private static long toPeriod(double period) {
+    long periodMicros = (long) (period * 1e6);
+    if (periodMicros <= 0) {
+      throw new IllegalArgumentException("Period must be at least one microsecond");
+    }
+    return periodMicros;
+  }
+
+  @SuppressWarnings("PMD.AvoidDeeplyNestedIfStmts")
+  private void threadMain() {
+    while (!Thread.interrupted()) {
+      int notifier = m_notifier.get();
+      if (notifier == 0) {
+        break;
+      }
+      long curTime = NotifierJNI.waitForNotifierAlarm(notifier);
+      if (curTime == 0) {
+        break;
+      }
+
+      // Call every handler which is due, soonest deadline first
+      while (true) {
+        Runnable handler;
+        m_processLock.lock();
+        try {
+          if (m_taskCount == 0) {
+            NotifierJNI.cancelNotifierAlarm(notifier);
+            break;
+          }
+          Task task = m_tasks[0];
+          if (task.m_expirationTime > curTime) {
+            NotifierJNI.updateNotifierAlarm(notifier, task.m_expirationTime);
+            break;
+          }
+
+          handler = task.m_handler;
+          task.m_runCount++;
+          if (task.m_periodic) {
+            long expirationTime = task.m_expirationTime + task.m_period;
+            if (expirationTime <= curTime) {
+              // Skip the periods that were missed rather than calling the handler repeatedly
+              long missed = (curTime - expirationTime) / task.m_period + 1;
+              task.m_overrunCount += missed;
+              expirationTime += missed * task.m_period;
+            }
+            task.m_expirationTime = expirationTime;
+            siftDown(0);
+          } else {
+            removeAt(0);
+          }
+        } finally {
+          m_processLock.unlock();
+        }
+
+        if (handler != null) {
+          handler.run();
+        }
+      }
+    }
+  }
+
+  /**
+   * Inserts a task into the queue or moves it to its new position, updating the alarm if the
+   * soonest deadline moved earlier. Must be called with m_processLock held.
+   */
+  private void schedule(Task task, long expirationTime) {
+    long soonest = m_taskCount > 0 ? m_tasks[0].m_expirationTime : Long.MAX_VALUE;
+
+    task.m_expirationTime = expirationTime;
+    if (task.m_heapIndex < 0) {
+      if (m_taskCount == m_tasks.length) {
+        m_tasks = Arrays.copyOf(m_tasks, m_tasks.length * 2);
+      }
+      task.m_heapIndex = m_taskCount;
+      m_tasks[m_taskCount++] = task;
+    }
+    siftUp(task.m_heapIndex);
+    siftDown(task.m_heapIndex);
+
+    if (expirationTime < soonest) {
+      int notifier = m_notifier.get();
+      if (notifier != 0) {
+        NotifierJNI.updateNotifierAlarm(notifier, expirationTime);
+      }
+    }
+  }
+
+  /**
+   * Removes the task at the given position from the queue. Must be called with m_processLock held.
+   * The alarm is left alone; if it fires early, the thread finds nothing due and waits again.
+   */
+  private void removeAt(int index) {
+    m_tasks[index].m_heapIndex = -1;
+
+    m_taskCount--;
+    Task last = m_tasks[m_taskCount];
+    m_tasks[m_taskCount] = null;
+    if (index < m_taskCount) {
+      m_tasks[index] = last;
+      last.m_heapIndex = index;
+      siftUp(index);
+      siftDown(last.m_heapIndex);
+    }
+  }
+
+  private void siftUp(int index) {
+    Task task = m_tasks[index];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (m_tasks[parent].m_expirationTime <= task.m_expirationTime) {
+        break;
+      }
+      m_tasks[index] = m_tasks[parent];
+      m_tasks[index].m_heapIndex = index;
+      index = parent;
+    }
+    m_tasks[index] = task;
+    task.m_heapIndex = index;
+  }
+
+  private void siftDown(int index) {
+    Task task = m_tasks[index];
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= m_taskCount) {
+        break;
+      }
+      if (child + 1 < m_taskCount
+          && m_tasks[child + 1].m_expirationTime < m_tasks[child].m_expirationTime) {
+        child++;
+      }
+      if (task.m_expirationTime <= m_tasks[child].m_expirationTime) {
+        break;
+      }
+      m_tasks[index] = m_tasks[child];
+      m_tasks[index].m_heapIndex = index;
+      index = child;
+    }
+    m_tasks[index] = task;
+    task.m_heapIndex = index;
+  }
+}
@@ -97,6 +97,9 @@ public class PIDBase extends SendableBase implements PIDInterface, PIDOutput {
   protected PIDOutput m_pidOutput;
   protected Timer m_setpointTimer;
 
+  // The PIDControllerGroup running this controller, or null. Guarded by m_thisMutex.
+  private PIDControllerGroup m_group;
+
   /**
    * Tolerance is the type of tolerance used to specify if the PID controller is on target.
    *
@@ -201,107 +204,218 @@ public class PIDBase extends SendableBase implements PIDInterface, PIDOutput {
    * Read the input, calculate the output accordingly, and write to the output. This should only be
    * called by the PIDTask and is created during initialization.
    */
-  @SuppressWarnings({"LocalVariableName", "PMD.ExcessiveMethodLength", "PMD.NPathComplexity"})
   protected void calculate() {
+    if (isCalculateEnabled()) {
+      writeResult(calculateResult(true, 0.0));
+    }
+  }
+
+  /**
+   * Returns whether calculate() should run an iteration.
+   */
+  boolean isCalculateEnabled() {
     if (m_origSource == null || m_pidOutput == null) {
-      return;
+      return false;
     }
 
-    boolean enabled;
+    m_thisMutex.lock();
+    try {
+      return m_enabled;
+    } finally {
+      m_thisMutex.unlock();
+    }
+  }
 
+  /**
+   * Records that a {@link PIDControllerGroup} runs this controller. A controller can only be in one
+   * group, since the groups would each run an iteration every period.
+   *
+   * @param group The group
+   * @throws IllegalArgumentException if the controller is already in a group
+   */
+  void joinGroup(PIDControllerGroup group) {
     m_thisMutex.lock();
     try {
-      enabled = m_enabled;
+      if (m_group != null) {
+        throw new IllegalArgumentException(m_group == group ? "Controller is already in the group"
+            : "Controller is already in another group");
+      }
+      m_group = group;
     } finally {
       m_thisMutex.unlock();
     }
+  }
 
-    if (enabled) {
-      double input;
+  /**
+   * Records that a {@link PIDControllerGroup} no longer runs this controller. Does nothing if the
+   * controller is not in the group.
+   *
+   * @param group The group
+   */
+  void leaveGroup(PIDControllerGroup group) {
+    m_thisMutex.lock();
+    try {
+      if (m_group == group) {
+        m_group = null;
+      }
+    } finally {
+      m_thisMutex.unlock();
+    }
+  }
 
-      // Storage for function inputs
-      PIDSourceType pidSourceType;
-      double P;
-      double I;
-      double D;
-      double feedForward = calculateFeedForward();
-      double minimumOutput;
-      double maximumOutput;
+  /**
+   * Reads the input for an iteration run by a {@link PIDControllerGroup}, which samples every input
+   * before calculating any output.
+   */
+  double readInput() {
+    m_thisMutex.lock();
+    try {
+      return m_pidInput.pidGet();
+    } finally {
+      m_thisMutex.unlock();
+    }
+  }
 
-      // Storage for function input-outputs
-      double prevError;
-      double error;
-      double totalError;
+  /**
+   * Calculates the output for the given input and updates the controller state.
+   *
+   * @param input The input read by readInput()
+   * @return The output to pass to writeResult()
+   */
+  double calculateResult(double input) {
+    return calculateResult(false, input);
+  }
 
-      m_thisMutex.lock();
-      try {
-        input = m_pidInput.pidGet();
-
-        pidSourceType = m_pidInput.getPIDSourceType();
-        P = m_P;
-        I = m_I;
-        D = m_D;
-        minimumOutput = m_minimumOutput;
-        maximumOutput = m_maximumOutput;
-
-        prevError = m_prevError;
-        error = getContinuousError(m_setpoint - input);
-        totalError = m_totalError;
-      } finally {
-        m_thisMutex.unlock();
-      }
+  /**
+   * Calculates the output and updates the controller state.
+   *
+   * @param readInput    Whether to read the input while the configuration is copied, as
+   *                     calculate() does, instead of using sampledInput
+   * @param sampledInput The input read by readInput(), if readInput is false
+   * @return The output to pass to writeResult()
+   */
+  @SuppressWarnings("LocalVariableName")
+  private double calculateResult(boolean readInput, double sampledInput) {
+    // Storage for function inputs
+    PIDSourceType pidSourceType;
+    double P;
+    double I;
+    double D;
+    double feedForward = calculateFeedForward();
+    double minimumOutput;
+    double maximumOutput;
 
-      // Storage for function outputs
-      double result;
+    // Storage for function input-outputs
+    double prevError;
+    double error;
+    double totalError;
 
-      if (pidSourceType.equals(PIDSourceType.kRate)) {
-        if (P != 0) {
-          totalError = clamp(totalError + error, minimumOutput / P,
-              maximumOutput / P);
-        }
+    m_thisMutex.lock();
+    try {
+      double input = readInput ? m_pidInput.pidGet() : sampledInput;
+
+      pidSourceType = m_pidInput.getPIDSourceType();
+      P = m_P;
+      I = m_I;
+      D = m_D;
+      minimumOutput = m_minimumOutput;
+      maximumOutput = m_maximumOutput;
+
+      prevError = m_prevError;
+      error = getContinuousError(m_setpoint - input);
+      totalError = m_totalError;
+    } finally {
+      m_thisMutex.unlock();
+    }
 
-        result = P * totalError + D * error + feedForward;
-      } else {
-        if (I != 0) {
-          totalError = clamp(totalError + error, minimumOutput / I,
-              maximumOutput / I);
-        }
+    // Storage for function outputs
+    double result;
+
+    if (pidSourceType.equals(PIDSourceType.kRate)) {
+      if (P != 0) {
+        totalError = clamp(totalError + error, minimumOutput / P,
+            maximumOutput / P);
+      }
 
-        result = P * error + I * totalError + D * (error - prevError)
-            + feedForward;
+      result = P * totalError + D * error + feedForward;
+    } else {
+      if (I != 0) {
+        totalError = clamp(totalError + error, minimumOutput / I,
+            maximumOutput / I);
       }
 
-      result = clamp(result, minimumOutput, maximumOutput);
+      result = P * error + I * totalError + D * (error - prevError)
+          + feedForward;
+    }
+
+    result = clamp(result, minimumOutput, maximumOutput);
+
+    m_thisMutex.lock();
+    try {
+      m_prevError = error;
+      m_error = error;
+      m_totalError = totalError;
+      m_result = result;
+    } finally {
+      m_thisMutex.unlock();
+    }
+    return result;
+  }
 
-      // Ensures m_enabled check and pidWrite() call occur atomically
-      m_pidWriteMutex.lock();
+  /**
+   * Starts running the control loop.
+   */
+  void enableCalculate() {
+    m_thisMutex.lock();
+    try {
+      m_enabled = true;
+    } finally {
+      m_thisMutex.unlock();
+    }
+  }
+
+  /**
+   * Stops running the control loop, setting the output to zero.
+   */
+  void disableCalculate() {
+    // Ensures m_enabled check and pidWrite() call occur atomically
+    m_pidWriteMutex.lock();
+    try {
+      m_thisMutex.lock();
       try {
-        m_thisMutex.lock();
-        try {
-          if (m_enabled) {
-            // Don't block other PIDController operations on pidWrite()
-            m_thisMutex.unlock();
-
-            m_pidOutput.pidWrite(result);
-          }
-        } finally {
-          if (m_thisMutex.isHeldByCurrentThread()) {
-            m_thisMutex.unlock();
-          }
-        }
+        m_enabled = false;
       } finally {
-        m_pidWriteMutex.unlock();
+        m_thisMutex.unlock();
       }
 
+      m_pidOutput.pidWrite(0);
+    } finally {
+      m_pidWriteMutex.unlock();
+    }
+  }
+
+  /**
+   * Writes an output calculated by calculateResult() if the controller is still enabled.
+   */
+  void writeResult(double result) {
+    // Ensures m_enabled check and pidWrite() call occur atomically
+    m_pidWriteMutex.lock();
+    try {
       m_thisMutex.lock();
       try {
-        m_prevError = error;
-        m_error = error;
-        m_totalError = totalError;
-        m_result = result;
+        if (m_enabled) {
+          // Don't block other PIDController operations on pidWrite()
+          m_thisMutex.unlock();
+
+          m_pidOutput.pidWrite(result);
+        }
       } finally {
-        m_thisMutex.unlock();
+        if (m_thisMutex.isHeldByCurrentThread()) {
+          m_thisMutex.unlock();
+        }
       }
+    } finally {
+      m_pidWriteMutex.unlock();
     }
   }
 
@@ -111,12 +111,7 @@ public class PIDController extends PIDBase implements Controller {
    */
   @Override
   public void enable() {
-    m_thisMutex.lock();
-    try {
-      m_enabled = true;
-    } finally {
-      m_thisMutex.unlock();
-    }
+    enableCalculate();
   }
 
   /**
@@ -124,20 +119,7 @@ public class PIDController extends PIDBase implements Controller {
    */
   @Override
   public void disable() {
-    // Ensures m_enabled check and pidWrite() call occur atomically
-    m_pidWriteMutex.lock();
-    try {
-      m_thisMutex.lock();
-      try {
-        m_enabled = false;
-      } finally {
-        m_thisMutex.unlock();
-      }
-
-      m_pidOutput.pidWrite(0);
-    } finally {
-      m_pidWriteMutex.unlock();
-    }
+    disableCalculate();
   }
 
   /**
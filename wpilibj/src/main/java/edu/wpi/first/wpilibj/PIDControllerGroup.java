@@ -0,0 +1,375 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the control loops of many {@link PIDBase} instances on one shared period and thread.
+ *
+ * <p>Each {@link PIDController} owns a {@link Notifier}, so every mechanism under closed-loop
+ * control costs a HAL notifier and a thread, and the loops run at unrelated phases. A group
+ * instead runs each iteration in three passes over its loops: it reads every PIDSource, then
+ * calculates every output, then writes every PIDOutput. All inputs are therefore sampled as close
+ * together as possible, and every loop runs at the same phase each period.
+ *
+ * <p>The group records, per loop, the jitter of the interval between consecutive input reads and
+ * the time spent reading, calculating and writing that loop.
+ *
+ * <p>Loops are added as {@link PIDBase} instances, which have no thread of their own. A
+ * {@link PIDController} can't be added, since its own notifier would also run it, and a controller
+ * can only be in one group at a time.
+ */
+public class PIDControllerGroup implements Controller, AutoCloseable {
+  private static final int kDefaultStatsWindow = 128;
+
+  private final Notifier m_notifier;
+  private final long m_periodNanos;
+  private final int m_statsWindow;
+
+  // Guards the loop list and statistics. Not held while calling into the controllers, their
+  // sources or their outputs.
+  private final ReentrantLock m_lock = new ReentrantLock();
+  private Loop[] m_loops = new Loop[8];
+  private int m_loopCount;
+
+  // Per-iteration copy of the loops and scratch indexed like it, only used by the notifier thread
+  private Loop[] m_iterationLoops = new Loop[8];
+  private boolean[] m_running = new boolean[8];
+  private double[] m_values = new double[8];
+  private long[] m_elapsed = new long[8];
+  private long[] m_readTimes = new long[8];
+
+  /**
+   * A control loop run by a {@link PIDControllerGroup}.
+   */
+  public final class Loop {
+    private final PIDBase m_controller;
+    private final TimingStats m_jitterStats;
+    private final TimingStats m_executionStats;
+
+    // When the input was last read, from System.nanoTime(), or 0 if the loop wasn't running
+    private long m_lastReadTime;
+
+    private Loop(PIDBase controller) {
+      m_controller = controller;
+      m_jitterStats = new TimingStats(m_statsWindow);
+      m_executionStats = new TimingStats(m_statsWindow);
+    }
+
+    /**
+     * Returns the controller run by this loop.
+     *
+     * @return the controller
+     */
+    public PIDBase getController() {
+      return m_controller;
+    }
+
+    /**
+     * Returns a copy of the recent jitter samples of this loop. Each sample is the absolute
+     * difference in nanoseconds between the group period and the time between two consecutive
+     * input reads.
+     *
+     * @return the jitter statistics
+     */
+    public TimingStats getJitterStats() {
+      m_lock.lock();
+      try {
+        return new TimingStats(m_jitterStats);
+      } finally {
+        m_lock.unlock();
+      }
+    }
+
+    /**
+     * Returns a copy of the recent execution time samples of this loop. Each sample is the time in
+     * nanoseconds spent reading, calculating and writing this loop in one iteration.
+     *
+     * @return the execution time statistics
+     */
+    public TimingStats getExecutionStats() {
+      m_lock.lock();
+      try {
+        return new TimingStats(m_executionStats);
+      } finally {
+        m_lock.unlock();
+      }
+    }
+
+    /**
+     * Discards the recorded statistics of this loop.
+     */
+    public void resetStats() {
+      m_lock.lock();
+      try {
+        m_jitterStats.reset();
+        m_executionStats.reset();
+      } finally {
+        m_lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Create a group which runs its loops with the given period.
+   *
+   * @param period the loop time for doing calculations in seconds. This particularly affects
+   *               calculations of the integral and differential terms.
+   */
+  public PIDControllerGroup(double period) {
+    this(period, kDefaultStatsWindow);
+  }
+
+  /**
+   * Create a group which runs its loops with the given period.
+   *
+   * @param period      the loop time for doing calculations in seconds. This particularly affects
+   *                    calculations of the integral and differential terms.
+   * @param statsWindow the number of iterations per loop statistics are computed over
+   */
+  public PIDControllerGroup(double period, int statsWindow) {
+    if (period <= 0) {
+      throw new IllegalArgumentException("Period must be positive");
+    }
+    if (statsWindow <= 0) {
+      throw new IllegalArgumentException("Window size must be positive");
+    }
+    m_periodNanos = (long) (period * 1e9);
+    m_statsWindow = statsWindow;
+    m_notifier = new Notifier(this::run);
+    m_notifier.startPeriodic(period);
+  }
+
+  /**
+   * Stops running the group. Its controllers are removed, so they can be added to another group.
+   */
+  @Override
+  public void close() {
+    m_notifier.close();
+    for (PIDBase controller : getControllers()) {
+      remove(controller);
+    }
+  }
+
+  /**
+   * Adds a controller to the group. It starts disabled.
+   *
+   * @param controller the controller
+   * @return the loop running the controller
+   * @throws IllegalArgumentException if the controller is a {@link PIDController} or is already in
+   *                                  this or another group
+   */
+  public Loop add(PIDBase controller) {
+    if (controller instanceof PIDController) {
+      throw new IllegalArgumentException("PIDController already runs on its own notifier");
+    }
+    controller.joinGroup(this);
+    m_lock.lock();
+    try {
+      if (m_loopCount == m_loops.length) {
+        m_loops = Arrays.copyOf(m_loops, m_loops.length * 2);
+      }
+      Loop loop = new Loop(controller);
+      m_loops[m_loopCount++] = loop;
+      return loop;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Removes a controller from the group. It is not disabled.
+   *
+   * @param controller the controller
+   */
+  public void remove(PIDBase controller) {
+    m_lock.lock();
+    try {
+      for (int i = 0; i < m_loopCount; i++) {
+        if (m_loops[i].m_controller == controller) {
+          System.arraycopy(m_loops, i + 1, m_loops, i, m_loopCount - i - 1);
+          m_loops[--m_loopCount] = null;
+          break;
+        }
+      }
+    } finally {
+      m_lock.unlock();
+    }
+    controller.leaveGroup(this);
+  }
+
+  /**
+   * Returns the number of loops in the group.
+   *
+   * @return the number of loops
+   */
+  public int getLoopCount() {
+    m_lock.lock();
+    try {
+      return m_loopCount;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Returns a copy of the controllers in the group, so they can be called without holding the
+   * lock.
+   */
+  private PIDBase[] getControllers() {
+    m_lock.lock();
+    try {
+      PIDBase[] controllers = new PIDBase[m_loopCount];
+      for (int i = 0; i < m_loopCount; i++) {
+        controllers[i] = m_loops[i].m_controller;
+      }
+      return controllers;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Throws if the controller is not in the group.
+   */
+  private void checkMember(PIDBase controller) {
+    m_lock.lock();
+    try {
+      for (int i = 0; i < m_loopCount; i++) {
+        if (m_loops[i].m_controller == controller) {
+          return;
+        }
+      }
+    } finally {
+      m_lock.unlock();
+    }
+    throw new IllegalArgumentException("Controller is not in the group");
+  }
+
+  /**
+   * Begin running every controller in the group.
+   */
+  @Override
+  public void enable() {
+    for (PIDBase controller : getControllers()) {
+      controller.enableCalculate();
+    }
+  }
+
+  /**
+   * Stop running every controller in the group, setting their outputs to zero.
+   */
+  @Override
+  public void disable() {
+    for (PIDBase controller : getControllers()) {
+      controller.disableCalculate();
+    }
+  }
+
+  /**
+   * Begin running one controller in the group.
+   *
+   * @param controller the controller
+   * @throws IllegalArgumentException if the controller is not in the group
+   */
+  public void enable(PIDBase controller) {
+    checkMember(controller);
+    controller.enableCalculate();
+  }
+
+  /**
+   * Stop running one controller in the group, setting its output to zero.
+   *
+   * @param controller the controller
+   * @throws IllegalArgumentException if the controller is not in the group
+   */
+  public void disable(PIDBase controller) {
+    checkMember(controller);
+    controller.disableCalculate();
+  }
+
+  /**
+   * Runs one iteration of every enabled loop. The loops are copied under the lock, but the
+   * controllers are run without it, so a slow source or output doesn't block the threads
+   * configuring the group.
+   */
+  private void run() {
+    final int count;
+    m_lock.lock();
+    try {
+      count = m_loopCount;
+      if (count > m_iterationLoops.length) {
+        int capacity = m_loops.length;
+        m_iterationLoops = new Loop[capacity];
+        m_running = new boolean[capacity];
+        m_values = new double[capacity];
+        m_elapsed = new long[capacity];
+        m_readTimes = new long[capacity];
+      }
+      System.arraycopy(m_loops, 0, m_iterationLoops, 0, count);
+    } finally {
+      m_lock.unlock();
+    }
+    final Loop[] loops = m_iterationLoops;
+    final boolean[] running = m_running;
+    final double[] values = m_values;
+    final long[] elapsed = m_elapsed;
+    final long[] readTimes = m_readTimes;
+
+    // Read every input
+    for (int i = 0; i < count; i++) {
+      running[i] = loops[i].m_controller.isCalculateEnabled();
+      if (running[i]) {
+        long start = System.nanoTime();
+        values[i] = loops[i].m_controller.readInput();
+        readTimes[i] = start;
+        elapsed[i] = System.nanoTime() - start;
+      }
+    }
+
+    // Calculate every output
+    for (int i = 0; i < count; i++) {
+      if (running[i]) {
+        long start = System.nanoTime();
+        values[i] = loops[i].m_controller.calculateResult(values[i]);
+        elapsed[i] += System.nanoTime() - start;
+      }
+    }
+
+    // Write every output
+    for (int i = 0; i < count; i++) {
+      if (running[i]) {
+        long start = System.nanoTime();
+        loops[i].m_controller.writeResult(values[i]);
+        elapsed[i] += System.nanoTime() - start;
+      }
+    }
+
+    m_lock.lock();
+    try {
+      for (int i = 0; i < count; i++) {
+        Loop loop = loops[i];
+        if (!running[i]) {
+          loop.m_lastReadTime = 0;
+          continue;
+        }
+        if (loop.m_lastReadTime != 0) {
+          loop.m_jitterStats.add(Math.abs(readTimes[i] - loop.m_lastReadTime - m_periodNanos));
+        }
+        loop.m_lastReadTime = readTimes[i];
+        loop.m_executionStats.add(elapsed[i]);
+      }
+    } finally {
+      m_lock.unlock();
+    }
+    // Don't keep removed loops alive
+    Arrays.fill(loops, 0, count, null);
+  }
+}
@@ -10,6 +10,7 @@ package edu.wpi.first.wpilibj;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
+import java.util.concurrent.locks.ReentrantLock;
 
 import edu.wpi.first.hal.AccumulatorResult;
 import edu.wpi.first.hal.FRCNetComm.tResourceType;
@@ -436,13 +437,14 @@ public class SPI implements AutoCloseable {
   private static final int kAccumulateDepth = 2048;
 
   @SuppressWarnings("PMD.TooManyFields")
-  private static class Accumulator implements AutoCloseable {
+  static final class Accumulator implements AutoCloseable {
     Accumulator(int port, int xferSize, int validMask, int validValue, int dataShift,
                 int dataSize, boolean isSigned, boolean bigEndian) {
-      m_notifier = new Notifier(this::update);
+      m_notifier = new Notifier(this::updateIfIdle);
       m_buf = ByteBuffer.allocateDirect((xferSize + 1) * kAccumulateDepth * 4)
           .order(ByteOrder.nativeOrder());
       m_intBuf = m_buf.asIntBuffer();
+      m_words = new int[(xferSize + 1) * kAccumulateDepth];
       m_xferSize = xferSize + 1;  // +1 for timestamp
       m_validMask = validMask;
       m_validValue = validValue;
@@ -462,7 +464,12 @@ public class SPI implements AutoCloseable {
     final Notifier m_notifier;
     final ByteBuffer m_buf;
     final IntBuffer m_intBuf;
-    final Object m_mutex = new Object();
+
+    // Received words copied out of m_buf in bulk for decoding
+    final int[] m_words;
+
+    // Held while reading and decoding data. Only the holder writes the running totals below.
+    final ReentrantLock m_updateLock = new ReentrantLock();
 
     long m_value;
     int m_count;
@@ -470,9 +477,30 @@ public class SPI implements AutoCloseable {
     long m_lastTimestamp;
     double m_integratedValue;
 
-    int m_center;
-    int m_deadband;
-    double m_integratedCenter;
+    // Running totals published after each update. m_totalsVersion is odd while they are being
+    // written; readers needing several of them retry until it is even and unchanged across their
+    // reads. Only the update lock holder writes them.
+    volatile int m_totalsVersion;
+    volatile long m_publishedValue;
+    volatile int m_publishedCount;
+    volatile int m_publishedLastValue;
+    volatile double m_publishedIntegratedValue;
+
+    volatile int m_center;
+    volatile int m_deadband;
+    volatile double m_integratedCenter;
+
+    // Raw samples for readSamples(), in a ring written by the update lock holder and read by a
+    // single consumer. Sample n is at index n & (kAccumulateDepth - 1).
+    final int[] m_sampleValues = new int[kAccumulateDepth];
+    final long[] m_sampleTimestamps = new long[kAccumulateDepth];
+    volatile long m_sampleHead;
+    volatile long m_sampleTail;
+    volatile long m_samplesDropped;
+    volatile boolean m_streaming;
+
+    // Timestamp of the most recent sample with rollovers of the 32-bit FPGA clock removed
+    long m_streamTimestamp;
 
     final int m_validMask;
     final int m_validValue;
@@ -484,84 +512,278 @@ public class SPI implements AutoCloseable {
     final boolean m_bigEndian;  // is response big endian?
     final int m_port;
 
-    @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    /**
+     * Reads and decodes all available responses, then publishes the totals. If another thread is
+     * already updating, this waits for it to publish first, so the totals include all data
+     * received before the call.
+     */
     void update() {
-      synchronized (m_mutex) {
-        boolean done = false;
-        while (!done) {
-          done = true;
-
-          // get amount of data available
-          int numToRead = SPIJNI.spiReadAutoReceivedData(m_port, m_buf, 0, 0);
-
-          // only get whole responses
-          numToRead -= numToRead % m_xferSize;
-          if (numToRead > m_xferSize * kAccumulateDepth) {
-            numToRead = m_xferSize * kAccumulateDepth;
-            done = false;
-          }
-          if (numToRead == 0) {
-            return;  // no samples
-          }
+      m_updateLock.lock();
+      try {
+        readAndPublish();
+      } finally {
+        m_updateLock.unlock();
+      }
+    }
 
-          // read buffered data
-          SPIJNI.spiReadAutoReceivedData(m_port, m_buf, numToRead, 0);
+    /**
+     * Called periodically by the notifier. Skips the update if a getter is already updating, since
+     * that getter publishes the same data.
+     */
+    void updateIfIdle() {
+      if (!m_updateLock.tryLock()) {
+        return;
+      }
+      try {
+        readAndPublish();
+      } finally {
+        m_updateLock.unlock();
+      }
+    }
 
-          // loop over all responses
-          for (int off = 0; off < numToRead; off += m_xferSize) {
-            // get timestamp from first word
-            long timestamp = m_intBuf.get(off) & 0xffffffffL;
+    /**
+     * Reads and decodes all available responses, then publishes the totals. Must be called with
+     * the update lock held.
+     */
+    private void readAndPublish() {
+      boolean done = false;
+      boolean processed = false;
+      while (!done) {
+        done = true;
+
+        // get amount of data available
+        int numToRead = SPIJNI.spiReadAutoReceivedData(m_port, m_buf, 0, 0);
+
+        // only get whole responses
+        numToRead -= numToRead % m_xferSize;
+        if (numToRead > m_xferSize * kAccumulateDepth) {
+          numToRead = m_xferSize * kAccumulateDepth;
+          done = false;
+        }
+        if (numToRead == 0) {
+          break;  // no samples
+        }
 
-            // convert from bytes
-            int resp = 0;
-            if (m_bigEndian) {
-              for (int i = 1; i < m_xferSize; ++i) {
-                resp <<= 8;
-                resp |= m_intBuf.get(off + i) & 0xff;
-              }
-            } else {
-              for (int i = m_xferSize - 1; i >= 1; --i) {
-                resp <<= 8;
-                resp |= m_intBuf.get(off + i) & 0xff;
+        // read buffered data, then copy it out in one bulk transfer
+        SPIJNI.spiReadAutoReceivedData(m_port, m_buf, numToRead, 0);
+        m_intBuf.clear();
+        m_intBuf.get(m_words, 0, numToRead);
+
+        process(m_words, numToRead);
+        processed = true;
+      }
+      if (processed) {
+        publish();
+      }
+    }
+
+    /**
+     * Decodes whole responses and adds them to the running totals. Must be called with the update
+     * lock held.
+     *
+     * @param words    Received words, each response being a timestamp followed by one byte per
+     *                 word
+     * @param numWords Number of words to decode, a multiple of the response size
+     */
+    @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    void process(int[] words, int numWords) {
+      final int xferSize = m_xferSize;
+      final int validMask = m_validMask;
+      final int validValue = m_validValue;
+      final int dataMask = m_dataMax - 1;
+      final int center = m_center;
+      final int deadband = m_deadband;
+      final double integratedCenter = m_integratedCenter;
+      final boolean streaming = m_streaming;
+
+      long value = m_value;
+      int count = m_count;
+      int lastValue = m_lastValue;
+      long lastTimestamp = m_lastTimestamp;
+      double integratedValue = m_integratedValue;
+      long sampleTail = m_sampleTail;
+      final long sampleLimit = m_sampleHead + kAccumulateDepth;
+
+      // loop over all responses
+      for (int off = 0; off < numWords; off += xferSize) {
+        // get timestamp from first word
+        long timestamp = words[off] & 0xffffffffL;
+
+        // convert from bytes; 4-byte transfers (e.g. ADXRS450) are unrolled
+        int resp = 0;
+        if (xferSize == 5) {
+          int b1 = words[off + 1] & 0xff;
+          int b2 = words[off + 2] & 0xff;
+          int b3 = words[off + 3] & 0xff;
+          int b4 = words[off + 4] & 0xff;
+          resp = m_bigEndian ? b1 << 24 | b2 << 16 | b3 << 8 | b4
+              : b4 << 24 | b3 << 16 | b2 << 8 | b1;
+        } else if (m_bigEndian) {
+          for (int i = 1; i < xferSize; ++i) {
+            resp = (resp << 8) | (words[off + i] & 0xff);
+          }
+        } else {
+          for (int i = xferSize - 1; i >= 1; --i) {
+            resp = (resp << 8) | (words[off + i] & 0xff);
+          }
+        }
+
+        // process response
+        if ((resp & validMask) == validValue) {
+          // valid sensor data; extract data field
+          int data = (resp >> m_dataShift) & dataMask;
+          // 2s complement conversion if signed MSB is set
+          if (m_isSigned && (data & m_dataMsbMask) != 0) {
+            data -= m_dataMax;
+          }
+          // center offset
+          int dataNoCenter = data;
+          data -= center;
+          // only accumulate if outside deadband
+          if (data < -deadband || data > deadband) {
+            value += data;
+            if (count != 0) {
+              // timestamps use the 1us FPGA clock; also handle rollover
+              if (timestamp >= lastTimestamp) {
+                integratedValue += dataNoCenter * (timestamp - lastTimestamp)
+                    * 1e-6 - integratedCenter;
+              } else {
+                integratedValue += dataNoCenter * ((1L << 32) - lastTimestamp + timestamp)
+                    * 1e-6 - integratedCenter;
               }
             }
+          }
+          ++count;
+          lastValue = data;
 
-            // process response
-            if ((resp & m_validMask) == m_validValue) {
-              // valid sensor data; extract data field
-              int data = resp >> m_dataShift;
-              data &= m_dataMax - 1;
-              // 2s complement conversion if signed MSB is set
-              if (m_isSigned && (data & m_dataMsbMask) != 0) {
-                data -= m_dataMax;
-              }
-              // center offset
-              int dataNoCenter = data;
-              data -= m_center;
-              // only accumulate if outside deadband
-              if (data < -m_deadband || data > m_deadband) {
-                m_value += data;
-                if (m_count != 0) {
-                  // timestamps use the 1us FPGA clock; also handle rollover
-                  if (timestamp >= m_lastTimestamp) {
-                    m_integratedValue += dataNoCenter * (timestamp - m_lastTimestamp)
-                        * 1e-6 - m_integratedCenter;
-                  } else {
-                    m_integratedValue += dataNoCenter * ((1L << 32) - m_lastTimestamp + timestamp)
-                        * 1e-6 - m_integratedCenter;
-                  }
-                }
-              }
-              ++m_count;
-              m_lastValue = data;
+          if (streaming) {
+            long rollover = m_streamTimestamp & ~0xffffffffL;
+            if (timestamp < (m_streamTimestamp & 0xffffffffL)) {
+              rollover += 1L << 32;
+            }
+            m_streamTimestamp = rollover | timestamp;
+            if (sampleTail < sampleLimit) {
+              int index = (int) sampleTail & (kAccumulateDepth - 1);
+              m_sampleValues[index] = dataNoCenter;
+              m_sampleTimestamps[index] = m_streamTimestamp;
+              sampleTail++;
             } else {
-              // no data from the sensor; just clear the last value
-              m_lastValue = 0;
+              m_samplesDropped++;
             }
-            m_lastTimestamp = timestamp;
           }
+        } else {
+          // no data from the sensor; just clear the last value
+          lastValue = 0;
         }
+        lastTimestamp = timestamp;
       }
+
+      m_value = value;
+      m_count = count;
+      m_lastValue = lastValue;
+      m_lastTimestamp = lastTimestamp;
+      m_integratedValue = integratedValue;
+      m_sampleTail = sampleTail;
+    }
+
+    /**
+     * Publishes the running totals. Must be called with the update lock held.
+     */
+    void publish() {
+      int version = m_totalsVersion;
+      m_totalsVersion = version + 1;
+      m_publishedValue = m_value;
+      m_publishedCount = m_count;
+      m_publishedLastValue = m_lastValue;
+      m_publishedIntegratedValue = m_integratedValue;
+      m_totalsVersion = version + 2;
+    }
+
+    /**
+     * Reads the published value and count together.
+     *
+     * @param result Object to store the value and count in
+     */
+    void getOutput(AccumulatorResult result) {
+      while (true) {
+        int version = m_totalsVersion;
+        if ((version & 1) == 0) {
+          result.value = m_publishedValue;
+          result.count = m_publishedCount;
+          if (m_totalsVersion == version) {
+            return;
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns the published value divided by the published count, or 0 if the count is 0.
+     */
+    double getAverage() {
+      while (true) {
+        int version = m_totalsVersion;
+        if ((version & 1) == 0) {
+          long value = m_publishedValue;
+          int count = m_publishedCount;
+          if (m_totalsVersion == version) {
+            return count == 0 ? 0.0 : ((double) value) / count;
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns the published integrated value divided by one less than the published count, or 0
+     * if fewer than two values have been accumulated.
+     */
+    double getIntegratedAverage() {
+      while (true) {
+        int version = m_totalsVersion;
+        if ((version & 1) == 0) {
+          double integratedValue = m_publishedIntegratedValue;
+          int count = m_publishedCount;
+          if (m_totalsVersion == version) {
+            // count-1 due to not integrating the first value received
+            return count <= 1 ? 0.0 : integratedValue / (count - 1);
+          }
+        }
+      }
+    }
+
+    void reset() {
+      m_updateLock.lock();
+      try {
+        m_value = 0;
+        m_count = 0;
+        m_lastValue = 0;
+        m_lastTimestamp = 0;
+        m_integratedValue = 0;
+        publish();
+      } finally {
+        m_updateLock.unlock();
+      }
+    }
+
+    int readSamples(int[] values, long[] timestamps) {
+      return readSamples(values, timestamps, Math.min(values.length, timestamps.length));
+    }
+
+    /**
+     * Copies out at most maxCount buffered raw samples, oldest first. Must only be called by one
+     * thread.
+     */
+    int readSamples(int[] values, long[] timestamps, int maxCount) {
+      m_streaming = true;
+      long head = m_sampleHead;
+      int count = (int) Math.min(m_sampleTail - head, maxCount);
+      for (int i = 0; i < count; i++) {
+        int index = (int) (head + i) & (kAccumulateDepth - 1);
+        values[i] = m_sampleValues[index];
+        timestamps[i] = m_sampleTimestamps[index];
+      }
+      m_sampleHead = head + count;
+      return count;
     }
   }
 
@@ -626,13 +848,7 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.m_value = 0;
-      m_accum.m_count = 0;
-      m_accum.m_lastValue = 0;
-      m_accum.m_lastTimestamp = 0;
-      m_accum.m_integratedValue = 0;
-    }
+    m_accum.reset();
   }
 
   /**
@@ -646,9 +862,7 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.m_center = center;
-    }
+    m_accum.m_center = center;
   }
 
   /**
@@ -658,9 +872,7 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.m_deadband = deadband;
-    }
+    m_accum.m_deadband = deadband;
   }
 
   /**
@@ -670,10 +882,8 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return 0;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.update();
-      return m_accum.m_lastValue;
-    }
+    m_accum.update();
+    return m_accum.m_publishedLastValue;
   }
 
   /**
@@ -685,10 +895,8 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return 0;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.update();
-      return m_accum.m_value;
-    }
+    m_accum.update();
+    return m_accum.m_publishedValue;
   }
 
   /**
@@ -702,10 +910,8 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return 0;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.update();
-      return m_accum.m_count;
-    }
+    m_accum.update();
+    return m_accum.m_publishedCount;
   }
 
   /**
@@ -717,13 +923,8 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return 0;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.update();
-      if (m_accum.m_count == 0) {
-        return 0.0;
-      }
-      return ((double) m_accum.m_value) / m_accum.m_count;
-    }
+    m_accum.update();
+    return m_accum.getAverage();
   }
 
   /**
@@ -742,11 +943,8 @@ public class SPI implements AutoCloseable {
       result.count = 0;
       return;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.update();
-      result.value = m_accum.m_value;
-      result.count = m_accum.m_count;
-    }
+    m_accum.update();
+    m_accum.getOutput(result);
   }
 
   /**
@@ -760,9 +958,7 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.m_integratedCenter = center;
-    }
+    m_accum.m_integratedCenter = center;
   }
 
   /**
@@ -775,10 +971,8 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return 0;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.update();
-      return m_accum.m_integratedValue;
-    }
+    m_accum.update();
+    return m_accum.m_publishedIntegratedValue;
   }
 
   /**
@@ -792,13 +986,57 @@ public class SPI implements AutoCloseable {
     if (m_accum == null) {
       return 0;
     }
-    synchronized (m_accum.m_mutex) {
-      m_accum.update();
-      if (m_accum.m_count <= 1) {
-        return 0.0;
-      }
-      // count-1 due to not integrating the first value received
-      return m_accum.m_integratedValue / (m_accum.m_count - 1);
+    m_accum.update();
+    return m_accum.getIntegratedAverage();
+  }
+
+  /**
+   * Read raw samples received by the accumulator, oldest first, so they can be filtered or
+   * integrated by the caller instead of only through the accumulated totals.
+   *
+   * <p>Each sample is the data field of a valid response, before the center is subtracted, with
+   * the FPGA timestamp (in microseconds) at which it was received. Samples are only buffered
+   * after the first call; up to 2048 are kept between calls, and any beyond that are dropped and
+   * counted by {@link #getAccumulatorDroppedSampleCount()}. Only one thread may read samples.
+   *
+   * @param values     array where sample values are stored
+   * @param timestamps array where sample timestamps are stored
+   * @return Number of samples read, at most the length of the shorter array
+   */
+  public int readAccumulatorSamples(int[] values, long[] timestamps) {
+    if (m_accum == null) {
+      return 0;
+    }
+    m_accum.update();
+    return m_accum.readSamples(values, timestamps);
+  }
+
+  /**
+   * Read at most maxCount raw samples received by the accumulator, oldest first.
+   *
+   * @param values     array where sample values are stored
+   * @param timestamps array where sample timestamps are stored
+   * @param maxCount   maximum number of samples to read; no larger than either array
+   * @return Number of samples read
+   */
+  int readAccumulatorSamples(int[] values, long[] timestamps, int maxCount) {
+    if (m_accum == null) {
+      return 0;
+    }
+    m_accum.update();
+    return m_accum.readSamples(values, timestamps, maxCount);
+  }
+
+  /**
+   * Get the number of raw samples dropped because {@link #readAccumulatorSamples(int[], long[])}
+   * was not called often enough.
+   *
+   * @return Number of samples dropped
+   */
+  public long getAccumulatorDroppedSampleCount() {
+    if (m_accum == null) {
+      return 0;
     }
+    return m_accum.m_samplesDropped;
   }
 }
@@ -0,0 +1,248 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Samples a SPI sensor at a fixed rate with the automatic SPI transfer engine and buffers the
+ * decoded, timestamped samples for the robot loop.
+ *
+ * <p>The engine sends the same command to the sensor every period and records the response with
+ * its FPGA timestamp, so the sampling rate is independent of the robot loop and no transaction is
+ * made from Java per sample. Responses are decoded in bulk by a background thread, and whenever
+ * samples are read, into a ring of the given capacity; {@link #drain(long[], double[])} then
+ * returns every sample since the previous call.
+ *
+ * <p>Only a single automatic transfer engine is available, and while it is running no other
+ * transfers may be made on the same SPI port.
+ */
+public class SPISampleStream implements AutoCloseable {
+  // Transfers buffered by the automatic transfer engine
+  private static final int kAutoDepth = 2048;
+
+  private final SPI m_spi;
+  private final byte[] m_command;
+  private final int m_transferSize;
+  private final SensorSampleDecoder m_decoder;
+  private final SensorSampleBuffer m_buffer;
+  private final Notifier m_notifier;
+
+  // Held while reading and decoding responses. Only the holder uses the fields below.
+  private final ReentrantLock m_pollLock = new ReentrantLock();
+  private final ByteBuffer m_buf;
+  private final IntBuffer m_intBuf;
+  private final int[] m_words;
+  private final byte[] m_data;
+  private final double[] m_values;
+
+  // Timestamp of the most recent response with rollovers of the 32-bit FPGA clock removed
+  private long m_timestamp;
+
+  private volatile boolean m_running;
+
+  /**
+   * Create a sample stream. The stream does not use the SPI port until it is started.
+   *
+   * @param spi          The SPI port the sensor is connected to, already configured for it
+   * @param command      The bytes to send at the start of each transfer (maximum 16)
+   * @param transferSize The total number of bytes in each transfer, including the command
+   * @param channels     The number of values in each sample
+   * @param capacity     The number of samples to buffer between calls to drain()
+   * @param decoder      Converts the bytes received in each transfer into sample values
+   */
+  public SPISampleStream(SPI spi, byte[] command, int transferSize, int channels, int capacity,
+                         SensorSampleDecoder decoder) {
+    if (command.length > 16) {
+      throw new IllegalArgumentException("Command was longer than 16 bytes");
+    }
+    if (transferSize < command.length || transferSize > command.length + 127) {
+      throw new IllegalArgumentException("Transfer size must be at least the command length and "
+          + "at most 127 bytes longer, " + transferSize + " given");
+    }
+    m_spi = spi;
+    m_command = command.clone();
+    m_transferSize = transferSize;
+    m_decoder = decoder;
+    m_buffer = new SensorSampleBuffer(capacity, channels);
+    m_notifier = new Notifier(this::poll);
+
+    int words = (transferSize + 1) * kAutoDepth;  // +1 for timestamp
+    m_buf = ByteBuffer.allocateDirect(words * 4).order(ByteOrder.nativeOrder());
+    m_intBuf = m_buf.asIntBuffer();
+    m_words = new int[words];
+    m_data = new byte[transferSize];
+    m_values = new double[channels];
+  }
+
+  @Override
+  public void close() {
+    stop();
+    m_notifier.close();
+  }
+
+  /**
+   * Start sampling. Any samples left from a previous run are discarded.
+   *
+   * @param period Time between samples, in seconds (us resolution)
+   */
+  public synchronized void start(double period) {
+    if (m_running) {
+      stop();
+    }
+    m_buffer.clear();
+    m_spi.initAuto(m_transferSize * kAutoDepth);
+    m_spi.setAutoTransmitData(m_command, m_transferSize - m_command.length);
+    m_spi.startAutoRate(period);
+    m_running = true;
+
+    // Decode often enough that neither the engine's buffer nor the ring overflows when samples are
+    // not being read
+    int pollSamples = Math.max(1, Math.min(kAutoDepth, m_buffer.getCapacity()) / 2);
+    m_notifier.startPeriodic(period * pollSamples);
+  }
+
+  /**
+   * Stop sampling. Samples received before stopping remain available to drain().
+   */
+  public synchronized void stop() {
+    if (!m_running) {
+      return;
+    }
+    m_notifier.stop();
+    m_spi.stopAuto();
+    m_pollLock.lock();
+    try {
+      readAvailable();
+      m_running = false;
+      m_spi.freeAuto();
+    } finally {
+      m_pollLock.unlock();
+    }
+  }
+
+  public boolean isRunning() {
+    return m_running;
+  }
+
+  /**
+   * Read the samples received since the previous call, oldest first. The values of each sample are
+   * stored consecutively, so sample i starts at values[i * channels].
+   *
+   * @param timestamps Array where sample timestamps (FPGA time in microseconds) are stored
+   * @param values     Array where sample values are stored
+   * @return The number of samples read, at most the number that fit in both arrays
+   */
+  public int drain(long[] timestamps, double[] values) {
+    poll();
+    return m_buffer.drain(timestamps, values);
+  }
+
+  /**
+   * Get the most recent sample, whether or not it has been drained.
+   *
+   * @param values Array where the sample values are stored
+   * @return The sample timestamp (FPGA time in microseconds), or 0 if no samples have been received
+   */
+  public long getLatest(double[] values) {
+    poll();
+    return m_buffer.getLatest(values);
+  }
+
+  /**
+   * Get one value of the most recent sample, whether or not it has been drained.
+   *
+   * @param channel The channel index, less than the number of values in each sample
+   * @return The value, or 0 if no samples have been received
+   */
+  public double getLatest(int channel) {
+    poll();
+    return m_buffer.getLatest(channel);
+  }
+
+  /**
+   * Get the number of samples discarded because drain() was not called often enough.
+   *
+   * @return Number of samples dropped
+   */
+  public long getDroppedCount() {
+    return m_buffer.getDroppedCount();
+  }
+
+  /**
+   * Reads and decodes all available responses. If another thread is already doing so, this
+   * returns immediately and callers see the samples it buffers.
+   */
+  private void poll() {
+    if (!m_pollLock.tryLock()) {
+      return;
+    }
+    try {
+      if (m_running) {
+        readAvailable();
+      }
+    } finally {
+      m_pollLock.unlock();
+    }
+  }
+
+  /**
+   * Reads and decodes all responses received by the engine. Must be called with the poll lock held.
+   */
+  private void readAvailable() {
+    final int responseSize = m_transferSize + 1;
+    while (true) {
+      // get amount of data available, but only whole responses
+      int numToRead = m_spi.readAutoReceivedData(m_buf, 0, 0);
+      numToRead -= numToRead % responseSize;
+      numToRead = Math.min(numToRead, responseSize * kAutoDepth);
+      if (numToRead == 0) {
+        break;
+      }
+
+      m_spi.readAutoReceivedData(m_buf, numToRead, 0);
+      m_intBuf.clear();
+      m_intBuf.get(m_words, 0, numToRead);
+      process(m_words, numToRead);
+    }
+  }
+
+  /**
+   * Decodes whole responses into the sample buffer. Must be called with the poll lock held.
+   *
+   * @param words    Received words, each response being a timestamp followed by one byte per word
+   * @param numWords Number of words to decode, a multiple of the response size
+   */
+  void process(int[] words, int numWords) {
+    final int responseSize = m_transferSize + 1;
+    final byte[] data = m_data;
+    long timestamp = m_timestamp;
+
+    for (int off = 0; off < numWords; off += responseSize) {
+      // timestamps use the 32-bit 1us FPGA clock; extend them across rollovers
+      long low = words[off] & 0xffffffffL;
+      long rollover = timestamp & ~0xffffffffL;
+      if (low < (timestamp & 0xffffffffL)) {
+        rollover += 1L << 32;
+      }
+      timestamp = rollover | low;
+
+      for (int i = 0; i < data.length; i++) {
+        data[i] = (byte) words[off + 1 + i];
+      }
+      if (m_decoder.decode(data, m_values)) {
+        m_buffer.add(timestamp, m_values);
+      }
+    }
+
+    m_timestamp = timestamp;
+  }
+}
@@ -0,0 +1,144 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+/**
+ * A preallocated ring of timestamped sensor samples, filled by a background sampler and drained
+ * in bulk by the robot loop.
+ *
+ * <p>Each sample is a timestamp and a fixed number of channel values, such as the three axes of an
+ * accelerometer. When the ring is full the oldest sample is overwritten, so a consumer which falls
+ * behind still sees the most recent samples; overwritten samples are counted as dropped. Adding
+ * and draining samples do not allocate.
+ */
+class SensorSampleBuffer {
+  private final int m_channels;
+  private final long[] m_timestamps;
+  private final double[] m_values;
+
+  // Index of the oldest buffered sample and number of buffered samples
+  private int m_head;
+  private int m_count;
+  private long m_dropped;
+
+  // Most recent sample, which is kept after it is drained
+  private final double[] m_latest;
+  private long m_latestTimestamp;
+
+  /**
+   * Create a sample buffer.
+   *
+   * @param capacity The number of samples to buffer
+   * @param channels The number of values in each sample
+   */
+  SensorSampleBuffer(int capacity, int channels) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity was not at least 1");
+    }
+    if (channels <= 0) {
+      throw new IllegalArgumentException("Channel count was not at least 1");
+    }
+    m_channels = channels;
+    m_timestamps = new long[capacity];
+    m_values = new double[capacity * channels];
+    m_latest = new double[channels];
+  }
+
+  int getCapacity() {
+    return m_timestamps.length;
+  }
+
+  int getChannelCount() {
+    return m_channels;
+  }
+
+  /**
+   * Adds a sample, overwriting the oldest one if the buffer is full.
+   *
+   * @param timestamp The sample timestamp
+   * @param values    The sample values; the first getChannelCount() elements are used
+   */
+  synchronized void add(long timestamp, double[] values) {
+    int capacity = m_timestamps.length;
+    int index = m_head + m_count;
+    if (index >= capacity) {
+      index -= capacity;
+    }
+    if (m_count == capacity) {
+      m_head = m_head + 1 == capacity ? 0 : m_head + 1;
+      m_dropped++;
+    } else {
+      m_count++;
+    }
+
+    m_timestamps[index] = timestamp;
+    System.arraycopy(values, 0, m_values, index * m_channels, m_channels);
+    m_latestTimestamp = timestamp;
+    System.arraycopy(values, 0, m_latest, 0, m_channels);
+  }
+
+  /**
+   * Removes buffered samples, oldest first. The values of each sample are stored consecutively.
+   *
+   * @param timestamps Array where sample timestamps are stored
+   * @param values     Array where sample values are stored
+   * @return The number of samples removed, at most the number that fit in both arrays
+   */
+  synchronized int drain(long[] timestamps, double[] values) {
+    int count = Math.min(m_count, Math.min(timestamps.length, values.length / m_channels));
+    int capacity = m_timestamps.length;
+
+    // Copy out in at most two runs, split where the ring wraps
+    int first = Math.min(count, capacity - m_head);
+    System.arraycopy(m_timestamps, m_head, timestamps, 0, first);
+    System.arraycopy(m_values, m_head * m_channels, values, 0, first * m_channels);
+    System.arraycopy(m_timestamps, 0, timestamps, first, count - first);
+    System.arraycopy(m_values, 0, values, first * m_channels, (count - first) * m_channels);
+
+    m_head += count;
+    if (m_head >= capacity) {
+      m_head -= capacity;
+    }
+    m_count -= count;
+    return count;
+  }
+
+  /**
+   * Copies out the most recent sample, whether or not it has been drained.
+   *
+   * @param values Array where the sample values are stored
+   * @return The sample timestamp, or 0 if no samples have been added
+   */
+  synchronized long getLatest(double[] values) {
+    System.arraycopy(m_latest, 0, values, 0, m_channels);
+    return m_latestTimestamp;
+  }
+
+  /**
+   * Returns one value of the most recent sample, whether or not it has been drained.
+   *
+   * @param channel The channel index
+   * @return The value, or 0 if no samples have been added
+   */
+  synchronized double getLatest(int channel) {
+    return m_latest[channel];
+  }
+
+  synchronized int size() {
+    return m_count;
+  }
+
+  synchronized long getDroppedCount() {
+    return m_dropped;
+  }
+
+  synchronized void clear() {
+    m_head = 0;
+    m_count = 0;
+  }
+}
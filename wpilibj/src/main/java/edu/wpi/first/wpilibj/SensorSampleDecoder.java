@@ -0,0 +1,25 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+/**
+ * Converts the raw bytes of one sensor reading into sample values for {@link SPISampleStream} or
+ * {@link I2CSampleStream}. Decoders are called from the stream's background thread and should
+ * not allocate.
+ */
+@FunctionalInterface
+public interface SensorSampleDecoder {
+  /**
+   * Decode one reading.
+   *
+   * @param data   The bytes received from the sensor
+   * @param values Array where the decoded values are stored
+   * @return True if the reading was valid and should be buffered
+   */
+  boolean decode(byte[] data, double[] values);
+}
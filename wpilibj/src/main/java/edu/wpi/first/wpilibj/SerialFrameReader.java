@@ -0,0 +1,173 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+/**
+ * Splits the data received on a serial port into frames which end with a delimiter, such as the
+ * lines of text sent by many serial sensors, without blocking or allocating.
+ *
+ * <p>{@link #poll()} reads only the bytes which have already been received, so it never waits for
+ * the port timeout, and stores them in a ring buffer. {@link #readFrame(byte[])} then copies out
+ * the next complete frame without its delimiter. A frame which does not fit in the ring buffer is
+ * discarded up to its delimiter and counted by {@link #getOverflowCount()}, so reading resumes
+ * cleanly at the following frame.
+ *
+ * <p>This class is not thread safe.
+ */
+public class SerialFrameReader {
+  private final SerialPort m_port;
+  private final byte m_delimiter;
+  private final byte[] m_ring;
+  private final byte[] m_readBuffer;
+
+  // Index of the oldest buffered byte and number of buffered bytes
+  private int m_head;
+  private int m_count;
+
+  // Complete frames buffered, and bytes buffered after the last delimiter
+  private int m_frames;
+  private int m_partial;
+
+  // Whether the rest of an overflowed frame is being discarded
+  private boolean m_discarding;
+  private long m_overflowCount;
+
+  /**
+   * Create a frame reader.
+   *
+   * @param port      The serial port to read
+   * @param delimiter The byte which ends each frame, such as '\n'
+   * @param capacity  The number of bytes to buffer, which limits the frame length
+   */
+  public SerialFrameReader(SerialPort port, byte delimiter, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity was not at least 1");
+    }
+    m_port = port;
+    m_delimiter = delimiter;
+    m_ring = new byte[capacity];
+    m_readBuffer = new byte[capacity];
+  }
+
+  /**
+   * Read the bytes received since the last call without waiting for more.
+   *
+   * @return True if a complete frame is available
+   */
+  public boolean poll() {
+    int available = m_port.getBytesReceived();
+    while (available > 0) {
+      int toRead = Math.min(available, m_readBuffer.length);
+      int gotten = m_port.read(m_readBuffer, toRead);
+      receive(m_readBuffer, gotten);
+      if (gotten < toRead) {
+        break;
+      }
+      available -= gotten;
+    }
+    return m_frames > 0;
+  }
+
+  /**
+   * Copy out the next complete frame, without its delimiter, and remove it from the buffer. If the
+   * frame is longer than the array, only the first dst.length bytes are copied.
+   *
+   * @param dst Array where the frame is stored
+   * @return The length of the frame, or -1 if no complete frame is available
+   */
+  public int readFrame(byte[] dst) {
+    if (m_frames == 0) {
+      return -1;
+    }
+
+    int capacity = m_ring.length;
+    int length = 0;
+    int index = m_head;
+    while (m_ring[index] != m_delimiter) {
+      if (length < dst.length) {
+        dst[length] = m_ring[index];
+      }
+      length++;
+      index = index + 1 == capacity ? 0 : index + 1;
+    }
+
+    // Remove the frame and its delimiter
+    m_head = index + 1 == capacity ? 0 : index + 1;
+    m_count -= length + 1;
+    m_frames--;
+    return length;
+  }
+
+  /**
+   * Get the number of complete frames buffered.
+   *
+   * @return Number of frames available to readFrame()
+   */
+  public int getFrameCount() {
+    return m_frames;
+  }
+
+  /**
+   * Get the number of frames discarded because they did not fit in the buffer.
+   *
+   * @return Number of frames discarded
+   */
+  public long getOverflowCount() {
+    return m_overflowCount;
+  }
+
+  /**
+   * Discard all buffered data.
+   */
+  public void reset() {
+    m_head = 0;
+    m_count = 0;
+    m_frames = 0;
+    m_partial = 0;
+    m_discarding = false;
+  }
+
+  /**
+   * Adds received bytes to the buffer.
+   *
+   * @param data   The received bytes
+   * @param length The number of bytes received
+   */
+  void receive(byte[] data, int length) {
+    int capacity = m_ring.length;
+    for (int i = 0; i < length; i++) {
+      byte value = data[i];
+      if (m_discarding) {
+        m_discarding = value != m_delimiter;
+        continue;
+      }
+
+      if (m_count == capacity) {
+        // The frame being received does not fit; drop it through its delimiter
+        m_count -= m_partial;
+        m_partial = 0;
+        m_overflowCount++;
+        m_discarding = value != m_delimiter;
+        continue;
+      }
+
+      int index = m_head + m_count;
+      if (index >= capacity) {
+        index -= capacity;
+      }
+      m_ring[index] = value;
+      m_count++;
+      if (value == m_delimiter) {
+        m_frames++;
+        m_partial = 0;
+      } else {
+        m_partial++;
+      }
+    }
+  }
+}
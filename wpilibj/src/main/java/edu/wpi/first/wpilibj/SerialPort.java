@@ -8,6 +8,7 @@
 package edu.wpi.first.wpilibj;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import edu.wpi.first.hal.FRCNetComm.tResourceType;
@@ -296,6 +297,45 @@ public class SerialPort implements AutoCloseable {
     return retVal;
   }
 
+  /**
+   * Read raw bytes out of the buffer into an existing array.
+   *
+   * @param buffer The array to store the read bytes in.
+   * @param count  The maximum number of bytes to read.
+   * @return The number of bytes actually read.
+   */
+  public int read(byte[] buffer, int count) {
+    if (buffer.length < count) {
+      throw new IllegalArgumentException("buffer is too small, must be at least " + count);
+    }
+    return SerialPortJNI.serialRead(m_port, buffer, count);
+  }
+
+  /**
+   * Read raw bytes out of the buffer into an existing buffer, starting at index 0.
+   *
+   * @param buffer The buffer to store the read bytes in; must be direct or backed by an array
+   *               starting at its first element.
+   * @param count  The maximum number of bytes to read.
+   * @return The number of bytes actually read.
+   */
+  @SuppressWarnings("ByteBufferBackingArray")
+  public int read(ByteBuffer buffer, int count) {
+    if (buffer.capacity() < count) {
+      throw new IllegalArgumentException("buffer is too small, must be at least " + count);
+    }
+    if (buffer.hasArray()) {
+      if (buffer.arrayOffset() != 0) {
+        throw new IllegalArgumentException("buffer must start at the beginning of its array");
+      }
+      return SerialPortJNI.serialRead(m_port, buffer.array(), count);
+    }
+    if (!buffer.isDirect()) {
+      throw new IllegalArgumentException("must be a direct buffer");
+    }
+    return SerialPortJNI.serialReadDirect(m_port, buffer, count);
+  }
+
   /**
    * Write raw bytes to the serial port.
    *
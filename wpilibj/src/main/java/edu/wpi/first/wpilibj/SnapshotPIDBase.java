@@ -0,0 +1,726 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import edu.wpi.first.hal.FRCNetComm.tResourceType;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.hal.util.BoundaryException;
+import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Class implements a PID Control Loop whose configuration and results are shared without locks.
+ *
+ * <p>This computes the same outputs as {@link PIDBase}, but is organized for a control loop which
+ * runs much faster than the threads configuring and observing it. The gains, ranges, tolerance and
+ * setpoint form a configuration; each setter copies the current one, modifies the copy and
+ * publishes it with a single atomic update, so a published configuration is never modified. The
+ * loop state (integral, previous error and previous setpoint) is only touched by the thread
+ * calling {@link #calculate()}, which reads the configuration once per iteration and then
+ * publishes its results in place, versioned like a sequence lock. Getters such as getError() and
+ * get() never block the control loop, and {@link #getState()} always returns a consistent set of
+ * values from the same iteration.
+ *
+ * <p>Unlike {@link PIDBase#getError()}, getError() does not read the PIDSource; it returns the
+ * error computed by the most recent iteration.
+ *
+ * <p>This feedback controller runs in discrete time, so time deltas are not used in the integral
+ * and derivative calculations. Therefore, the sample rate affects the controller's behavior for a
+ * given set of PID constants.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public class SnapshotPIDBase extends SendableBase implements PIDInterface, PIDOutput {
+  private static int instances;
+
+  /**
+   * The results of one iteration of the control loop.
+   */
+  public static final class State {
+    private final double m_setpoint;
+    private final double m_error;
+    private final double m_totalError;
+    private final double m_output;
+
+    State(double setpoint, double error, double totalError, double output) {
+      m_setpoint = setpoint;
+      m_error = error;
+      m_totalError = totalError;
+      m_output = output;
+    }
+
+    /**
+     * Returns the setpoint used by the iteration.
+     *
+     * @return the setpoint
+     */
+    public double getSetpoint() {
+      return m_setpoint;
+    }
+
+    /**
+     * Returns the difference of the input from the setpoint.
+     *
+     * @return the error
+     */
+    public double getError() {
+      return m_error;
+    }
+
+    /**
+     * Returns the accumulated error used for the integral term.
+     *
+     * @return the total error
+     */
+    public double getTotalError() {
+      return m_totalError;
+    }
+
+    /**
+     * Returns the output, which is constrained to the output range.
+     *
+     * @return the output
+     */
+    public double getOutput() {
+      return m_output;
+    }
+  }
+
+  // Controller configuration. Setters modify a copy of the current one and publish the copy; a
+  // published configuration is never modified.
+  @SuppressWarnings("MemberName")
+  private static final class Config {
+    double m_P;
+    double m_I;
+    double m_D;
+    double m_F;
+    double m_maximumOutput = 1.0;
+    double m_minimumOutput = -1.0;
+    double m_maximumInput;
+    double m_minimumInput;
+    double m_inputRange;
+    boolean m_continuous;
+    boolean m_enabled;
+    double m_setpoint;
+
+    // Error considered on target, or NaN if no tolerance is set
+    double m_tolerance = Double.NaN;
+
+    // Whether m_tolerance is a percentage of the input range
+    boolean m_percentTolerance;
+
+    Config() {
+    }
+
+    Config(Config other) {
+      m_P = other.m_P;
+      m_I = other.m_I;
+      m_D = other.m_D;
+      m_F = other.m_F;
+      m_maximumOutput = other.m_maximumOutput;
+      m_minimumOutput = other.m_minimumOutput;
+      m_maximumInput = other.m_maximumInput;
+      m_minimumInput = other.m_minimumInput;
+      m_inputRange = other.m_inputRange;
+      m_continuous = other.m_continuous;
+      m_enabled = other.m_enabled;
+      m_setpoint = other.m_setpoint;
+      m_tolerance = other.m_tolerance;
+      m_percentTolerance = other.m_percentTolerance;
+    }
+
+    double clampSetpoint(double setpoint) {
+      if (m_maximumInput > m_minimumInput) {
+        return clamp(setpoint, m_minimumInput, m_maximumInput);
+      }
+      return setpoint;
+    }
+  }
+
+  private static final AtomicIntegerFieldUpdater<SnapshotPIDBase> kStateVersion =
+      AtomicIntegerFieldUpdater.newUpdater(SnapshotPIDBase.class, "m_stateVersion");
+
+  private final AtomicReference<Config> m_config = new AtomicReference<>(new Config());
+
+  // Results of the latest iteration. m_stateVersion is odd while they are being written; readers
+  // needing several of them retry until it is even and unchanged across their reads.
+  private volatile int m_stateVersion;
+  private volatile double m_stateSetpoint;
+  private volatile double m_stateError;
+  private volatile double m_stateTotalError;
+  private volatile double m_stateOutput;
+
+  // Incremented by reset(); the control loop clears its state when this changes
+  private final AtomicInteger m_resetCount = new AtomicInteger();
+
+  // Loop state, only accessed by the thread running calculate()
+  private double m_prevError;
+  private double m_totalError;
+  private double m_prevSetpoint;
+  private int m_loopResetCount;
+  private final Timer m_setpointTimer = new Timer();
+
+  // Ensures when disable() is called, pidWrite() won't run if calculate() is already running at
+  // that time. This is only contended when the controller is being disabled.
+  protected final ReentrantLock m_pidWriteMutex = new ReentrantLock();
+
+  protected volatile PIDSource m_pidInput;
+  protected volatile PIDOutput m_pidOutput;
+
+  /**
+   * Allocate a PID object with the given constants for P, I, D, and F.
+   *
+   * @param Kp     the proportional coefficient
+   * @param Ki     the integral coefficient
+   * @param Kd     the derivative coefficient
+   * @param Kf     the feed forward term
+   * @param source The PIDSource object that is used to get values
+   * @param output The PIDOutput object that is set to the output percentage
+   */
+  @SuppressWarnings("ParameterName")
+  public SnapshotPIDBase(double Kp, double Ki, double Kd, double Kf, PIDSource source,
+                         PIDOutput output) {
+    super(false);
+    requireNonNull(source, "Null PIDSource was given");
+    requireNonNull(output, "Null PIDOutput was given");
+
+    m_setpointTimer.start();
+    setPID(Kp, Ki, Kd, Kf);
+    m_pidInput = source;
+    m_pidOutput = output;
+
+    instances++;
+    HAL.report(tResourceType.kResourceType_PIDController, instances);
+    setName("SnapshotPIDController", instances);
+  }
+
+  /**
+   * Allocate a PID object with the given constants for P, I, and D.
+   *
+   * @param Kp     the proportional coefficient
+   * @param Ki     the integral coefficient
+   * @param Kd     the derivative coefficient
+   * @param source the PIDSource object that is used to get values
+   * @param output the PIDOutput object that is set to the output percentage
+   */
+  @SuppressWarnings("ParameterName")
+  public SnapshotPIDBase(double Kp, double Ki, double Kd, PIDSource source, PIDOutput output) {
+    this(Kp, Ki, Kd, 0.0, source, output);
+  }
+
+  /**
+   * Read the input, calculate the output accordingly, and write to the output. Only one thread
+   * may call this, since it owns the loop state.
+   */
+  @SuppressWarnings("LocalVariableName")
+  protected void calculate() {
+    PIDSource input = m_pidInput;
+    PIDOutput output = m_pidOutput;
+    if (input == null || output == null) {
+      return;
+    }
+
+    int resetCount = m_resetCount.get();
+    if (resetCount != m_loopResetCount) {
+      m_loopResetCount = resetCount;
+      m_prevError = 0;
+      m_totalError = 0;
+    }
+
+    Config config = m_config.get();
+    if (!config.m_enabled) {
+      return;
+    }
+
+    PIDSourceType pidSourceType = input.getPIDSourceType();
+    double feedForward = calculateFeedForward(config, pidSourceType);
+    double error = getContinuousError(config, config.m_setpoint - input.pidGet());
+    double totalError = m_totalError;
+    double P = config.m_P;
+    double I = config.m_I;
+    double D = config.m_D;
+    double minimumOutput = config.m_minimumOutput;
+    double maximumOutput = config.m_maximumOutput;
+
+    double result;
+    if (pidSourceType.equals(PIDSourceType.kRate)) {
+      if (P != 0) {
+        totalError = clamp(totalError + error, minimumOutput / P, maximumOutput / P);
+      }
+
+      result = P * totalError + D * error + feedForward;
+    } else {
+      if (I != 0) {
+        totalError = clamp(totalError + error, minimumOutput / I, maximumOutput / I);
+      }
+
+      result = P * error + I * totalError + D * (error - m_prevError) + feedForward;
+    }
+
+    result = clamp(result, minimumOutput, maximumOutput);
+
+    // Ensures the enabled check and pidWrite() call occur atomically with respect to disable()
+    m_pidWriteMutex.lock();
+    try {
+      if (m_config.get().m_enabled) {
+        output.pidWrite(result);
+      }
+    } finally {
+      m_pidWriteMutex.unlock();
+    }
+
+    m_prevError = error;
+    m_totalError = totalError;
+    publishState(config.m_setpoint, error, totalError, result);
+  }
+
+  /**
+   * Publishes the results of an iteration. Writers (the control loop and reset()) exclude each
+   * other by making the version odd.
+   */
+  private void publishState(double setpoint, double error, double totalError, double output) {
+    int version;
+    do {
+      version = m_stateVersion;
+    } while ((version & 1) != 0 || !kStateVersion.compareAndSet(this, version, version + 1));
+    m_stateSetpoint = setpoint;
+    m_stateError = error;
+    m_stateTotalError = totalError;
+    m_stateOutput = output;
+    m_stateVersion = version + 2;
+  }
+
+  /**
+   * Calculate the feed forward term. See {@link PIDBase#calculateFeedForward()}.
+   *
+   * <p>This is called by calculate() with the configuration it is using for the iteration.
+   */
+  private double calculateFeedForward(Config config, PIDSourceType pidSourceType) {
+    if (pidSourceType.equals(PIDSourceType.kRate)) {
+      return config.m_F * config.m_setpoint;
+    } else {
+      double deltaSetpoint = config.m_setpoint - m_prevSetpoint;
+      // Avoid 0 * 0 / 0 when no time has passed and there is no feed forward
+      double temp = config.m_F == 0 ? 0.0 : config.m_F * deltaSetpoint / m_setpointTimer.get();
+      m_prevSetpoint = config.m_setpoint;
+      m_setpointTimer.reset();
+      return temp;
+    }
+  }
+
+  /**
+   * Publishes a copy of the configuration modified by the given function.
+   */
+  private void updateConfig(UnaryOperator<Config> update) {
+    m_config.updateAndGet(config -> update.apply(new Config(config)));
+  }
+
+  /**
+   * Set the PID Controller gain parameters. Set the proportional, integral, and differential
+   * coefficients.
+   *
+   * @param p Proportional coefficient
+   * @param i Integral coefficient
+   * @param d Differential coefficient
+   */
+  @Override
+  @SuppressWarnings("ParameterName")
+  public void setPID(double p, double i, double d) {
+    updateConfig(config -> {
+      config.m_P = p;
+      config.m_I = i;
+      config.m_D = d;
+      return config;
+    });
+  }
+
+  /**
+   * Set the PID Controller gain parameters. Set the proportional, integral, and differential
+   * coefficients.
+   *
+   * @param p Proportional coefficient
+   * @param i Integral coefficient
+   * @param d Differential coefficient
+   * @param f Feed forward coefficient
+   */
+  @SuppressWarnings("ParameterName")
+  public void setPID(double p, double i, double d, double f) {
+    updateConfig(config -> {
+      config.m_P = p;
+      config.m_I = i;
+      config.m_D = d;
+      config.m_F = f;
+      return config;
+    });
+  }
+
+  /**
+   * Set the Proportional coefficient of the PID controller gain.
+   *
+   * @param p Proportional coefficient
+   */
+  @SuppressWarnings("ParameterName")
+  public void setP(double p) {
+    updateConfig(config -> {
+      config.m_P = p;
+      return config;
+    });
+  }
+
+  /**
+   * Set the Integral coefficient of the PID controller gain.
+   *
+   * @param i Integral coefficient
+   */
+  @SuppressWarnings("ParameterName")
+  public void setI(double i) {
+    updateConfig(config -> {
+      config.m_I = i;
+      return config;
+    });
+  }
+
+  /**
+   * Set the Differential coefficient of the PID controller gain.
+   *
+   * @param d differential coefficient
+   */
+  @SuppressWarnings("ParameterName")
+  public void setD(double d) {
+    updateConfig(config -> {
+      config.m_D = d;
+      return config;
+    });
+  }
+
+  /**
+   * Set the Feed forward coefficient of the PID controller gain.
+   *
+   * @param f feed forward coefficient
+   */
+  @SuppressWarnings("ParameterName")
+  public void setF(double f) {
+    updateConfig(config -> {
+      config.m_F = f;
+      return config;
+    });
+  }
+
+  /**
+   * Get the Proportional coefficient.
+   *
+   * @return proportional coefficient
+   */
+  @Override
+  public double getP() {
+    return m_config.get().m_P;
+  }
+
+  /**
+   * Get the Integral coefficient.
+   *
+   * @return integral coefficient
+   */
+  @Override
+  public double getI() {
+    return m_config.get().m_I;
+  }
+
+  /**
+   * Get the Differential coefficient.
+   *
+   * @return differential coefficient
+   */
+  @Override
+  public double getD() {
+    return m_config.get().m_D;
+  }
+
+  /**
+   * Get the Feed forward coefficient.
+   *
+   * @return feed forward coefficient
+   */
+  public double getF() {
+    return m_config.get().m_F;
+  }
+
+  /**
+   * Return the current PID result This is always centered on zero and constrained the the max and
+   * min outs.
+   *
+   * @return the latest calculated output
+   */
+  public double get() {
+    return m_stateOutput;
+  }
+
+  /**
+   * Returns the results of the most recent iteration of the control loop. All values in the
+   * returned object come from the same iteration.
+   *
+   * @return a copy of the latest state
+   */
+  public State getState() {
+    while (true) {
+      int version = m_stateVersion;
+      if ((version & 1) == 0) {
+        State state = new State(m_stateSetpoint, m_stateError, m_stateTotalError, m_stateOutput);
+        if (m_stateVersion == version) {
+          return state;
+        }
+      }
+    }
+  }
+
+  /**
+   * Set the PID controller to consider the input to be continuous, Rather then using the max and
+   * min input range as constraints, it considers them to be the same point and automatically
+   * calculates the shortest route to the setpoint.
+   *
+   * @param continuous Set to true turns on continuous, false turns off continuous
+   */
+  public void setContinuous(boolean continuous) {
+    // Checked against the configuration being updated, so a concurrent setInputRange() can't
+    // slip in between
+    updateConfig(config -> {
+      if (continuous && config.m_inputRange <= 0) {
+        throw new IllegalStateException("No input range set when calling setContinuous().");
+      }
+      config.m_continuous = continuous;
+      return config;
+    });
+  }
+
+  /**
+   * Set the PID controller to consider the input to be continuous, Rather then using the max and
+   * min input range as constraints, it considers them to be the same point and automatically
+   * calculates the shortest route to the setpoint.
+   */
+  public void setContinuous() {
+    setContinuous(true);
+  }
+
+  /**
+   * Sets the maximum and minimum values expected from the input and setpoint.
+   *
+   * @param minimumInput the minimum value expected from the input
+   * @param maximumInput the maximum value expected from the input
+   */
+  public void setInputRange(double minimumInput, double maximumInput) {
+    if (minimumInput > maximumInput) {
+      throw new BoundaryException("Lower bound is greater than upper bound");
+    }
+    updateConfig(config -> {
+      config.m_minimumInput = minimumInput;
+      config.m_maximumInput = maximumInput;
+      config.m_inputRange = maximumInput - minimumInput;
+      config.m_setpoint = config.clampSetpoint(config.m_setpoint);
+      return config;
+    });
+  }
+
+  /**
+   * Sets the minimum and maximum values to write.
+   *
+   * @param minimumOutput the minimum percentage to write to the output
+   * @param maximumOutput the maximum percentage to write to the output
+   */
+  public void setOutputRange(double minimumOutput, double maximumOutput) {
+    if (minimumOutput > maximumOutput) {
+      throw new BoundaryException("Lower bound is greater than upper bound");
+    }
+    updateConfig(config -> {
+      config.m_minimumOutput = minimumOutput;
+      config.m_maximumOutput = maximumOutput;
+      return config;
+    });
+  }
+
+  /**
+   * Set the setpoint for the PIDController.
+   *
+   * @param setpoint the desired setpoint
+   */
+  @Override
+  public void setSetpoint(double setpoint) {
+    updateConfig(config -> {
+      config.m_setpoint = config.clampSetpoint(setpoint);
+      return config;
+    });
+  }
+
+  /**
+   * Returns the current setpoint of the PIDController.
+   *
+   * @return the current setpoint
+   */
+  @Override
+  public double getSetpoint() {
+    return m_config.get().m_setpoint;
+  }
+
+  /**
+   * Returns the difference of the input from the setpoint computed by the most recent iteration of
+   * the control loop.
+   *
+   * @return the current error
+   */
+  @Override
+  public double getError() {
+    return m_stateError;
+  }
+
+  /**
+   * Sets what type of input the PID controller will use.
+   *
+   * @param pidSource the type of input
+   */
+  public void setPIDSourceType(PIDSourceType pidSource) {
+    m_pidInput.setPIDSourceType(pidSource);
+  }
+
+  /**
+   * Returns the type of input the PID controller is using.
+   *
+   * @return the PID controller input type
+   */
+  public PIDSourceType getPIDSourceType() {
+    return m_pidInput.getPIDSourceType();
+  }
+
+  /**
+   * Set the absolute error which is considered tolerable for use with OnTarget.
+   *
+   * @param absvalue absolute error which is tolerable in the units of the input object
+   */
+  public void setAbsoluteTolerance(double absvalue) {
+    updateConfig(config -> {
+      config.m_tolerance = absvalue;
+      config.m_percentTolerance = false;
+      return config;
+    });
+  }
+
+  /**
+   * Set the percentage error which is considered tolerable for use with OnTarget. (Input of 15.0 =
+   * 15 percent)
+   *
+   * @param percentage percent error which is tolerable
+   */
+  public void setPercentTolerance(double percentage) {
+    updateConfig(config -> {
+      config.m_tolerance = percentage;
+      config.m_percentTolerance = true;
+      return config;
+    });
+  }
+
+  /**
+   * Return true if the error is within the percentage of the total input range, determined by
+   * setTolerance. This assumes that the maximum and minimum input were set using setInput.
+   *
+   * @return true if the error is less than the tolerance
+   */
+  public boolean onTarget() {
+    Config config = m_config.get();
+    if (Double.isNaN(config.m_tolerance)) {
+      throw new IllegalStateException("No tolerance value set when calling onTarget().");
+    }
+    if (config.m_percentTolerance) {
+      return Math.abs(getError()) < config.m_tolerance / 100 * config.m_inputRange;
+    }
+    return Math.abs(getError()) < config.m_tolerance;
+  }
+
+  /**
+   * Reset the previous error and the integral term. The control loop clears its state before its
+   * next iteration.
+   */
+  @Override
+  public void reset() {
+    m_resetCount.incrementAndGet();
+    publishState(getSetpoint(), 0.0, 0.0, 0.0);
+  }
+
+  /**
+   * Passes the output directly to setSetpoint().
+   *
+   * <p>PIDControllers can be nested by passing a PIDController as another PIDController's output.
+   * In that case, the output of the parent controller becomes the input (i.e., the reference) of
+   * the child.
+   *
+   * <p>It is the caller's responsibility to put the data into a valid form for setSetpoint().
+   */
+  @Override
+  public void pidWrite(double output) {
+    setSetpoint(output);
+  }
+
+  /**
+   * Sets whether the control loop runs and writes to the output.
+   *
+   * @param enabled true to run the control loop
+   */
+  protected void setEnabledFlag(boolean enabled) {
+    updateConfig(config -> {
+      config.m_enabled = enabled;
+      return config;
+    });
+  }
+
+  /**
+   * Returns whether the control loop runs and writes to the output.
+   *
+   * @return true if the control loop is enabled
+   */
+  protected boolean getEnabledFlag() {
+    return m_config.get().m_enabled;
+  }
+
+  @Override
+  public void initSendable(SendableBuilder builder) {
+    builder.setSmartDashboardType("PIDController");
+    builder.setSafeState(this::reset);
+    builder.addDoubleProperty("p", this::getP, this::setP);
+    builder.addDoubleProperty("i", this::getI, this::setI);
+    builder.addDoubleProperty("d", this::getD, this::setD);
+    builder.addDoubleProperty("f", this::getF, this::setF);
+    builder.addDoubleProperty("setpoint", this::getSetpoint, this::setSetpoint);
+  }
+
+  /**
+   * Wraps error around for continuous inputs. The original error is returned if continuous mode is
+   * disabled.
+   */
+  private static double getContinuousError(Config config, double error) {
+    double inputRange = config.m_inputRange;
+    if (config.m_continuous && inputRange > 0) {
+      error %= inputRange;
+      if (Math.abs(error) > inputRange / 2) {
+        if (error > 0) {
+          return error - inputRange;
+        } else {
+          return error + inputRange;
+        }
+      }
+    }
+
+    return error;
+  }
+
+  private static double clamp(double value, double low, double high) {
+    return Math.max(low, Math.min(value, high));
+  }
+}
@@ -0,0 +1,178 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent execution time samples of an operation and computes summary statistics
+ * over them.
+ *
+ * <p>All storage is allocated at construction, so recording a sample and computing statistics do
+ * not allocate. This class is not thread-safe.
+ */
+public class TimingStats {
+  private final long[] m_samples;
+  private final long[] m_sorted;
+
+  // Index the next sample will be written to
+  private int m_next;
+
+  // Number of valid samples in m_samples
+  private int m_count;
+
+  // Whether m_sorted holds the current samples in order
+  private boolean m_sortedValid;
+
+  /**
+   * Create a TimingStats which keeps the given number of samples.
+   *
+   * @param windowSize The number of most recent samples statistics are computed over.
+   */
+  public TimingStats(int windowSize) {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("Window size must be positive");
+    }
+    m_samples = new long[windowSize];
+    m_sorted = new long[windowSize];
+  }
+
+  /**
+   * Create a TimingStats with a copy of the samples of another.
+   *
+   * @param other The statistics to copy.
+   */
+  public TimingStats(TimingStats other) {
+    m_samples = other.m_samples.clone();
+    m_sorted = new long[m_samples.length];
+    m_next = other.m_next;
+    m_count = other.m_count;
+  }
+
+  /**
+   * Returns the number of samples statistics are computed over.
+   *
+   * @return the window size
+   */
+  public int getWindowSize() {
+    return m_samples.length;
+  }
+
+  /**
+   * Records a sample, overwriting the oldest one if the window is full.
+   *
+   * @param nanos The execution time in nanoseconds.
+   */
+  public void add(long nanos) {
+    m_samples[m_next] = nanos;
+    m_next++;
+    if (m_next == m_samples.length) {
+      m_next = 0;
+    }
+    if (m_count < m_samples.length) {
+      m_count++;
+    }
+    m_sortedValid = false;
+  }
+
+  /**
+   * Discards all recorded samples.
+   */
+  public void reset() {
+    m_next = 0;
+    m_count = 0;
+    m_sortedValid = false;
+  }
+
+  /**
+   * Returns the number of samples currently in the window.
+   *
+   * @return the number of samples
+   */
+  public int getCount() {
+    return m_count;
+  }
+
+  /**
+   * Returns the most recently recorded sample in nanoseconds, or 0 if there are none.
+   *
+   * @return the most recent sample
+   */
+  public long getLast() {
+    if (m_count == 0) {
+      return 0;
+    }
+    return m_samples[m_next == 0 ? m_samples.length - 1 : m_next - 1];
+  }
+
+  /**
+   * Returns the smallest sample in the window in nanoseconds, or 0 if there are none.
+   *
+   * @return the minimum sample
+   */
+  public long getMin() {
+    if (m_count == 0) {
+      return 0;
+    }
+    long min = Long.MAX_VALUE;
+    for (int i = 0; i < m_count; i++) {
+      min = Math.min(min, m_samples[i]);
+    }
+    return min;
+  }
+
+  /**
+   * Returns the largest sample in the window in nanoseconds, or 0 if there are none.
+   *
+   * @return the maximum sample
+   */
+  public long getMax() {
+    long max = 0;
+    for (int i = 0; i < m_count; i++) {
+      max = Math.max(max, m_samples[i]);
+    }
+    return max;
+  }
+
+  /**
+   * Returns the mean of the samples in the window in nanoseconds, or 0 if there are none.
+   *
+   * @return the mean sample
+   */
+  public double getMean() {
+    if (m_count == 0) {
+      return 0.0;
+    }
+    long sum = 0;
+    for (int i = 0; i < m_count; i++) {
+      sum += m_samples[i];
+    }
+    return (double) sum / m_count;
+  }
+
+  /**
+   * Returns the sample at the given percentile of the window in nanoseconds, or 0 if there are
+   * none. The nearest-rank method is used, so the result is always a recorded sample. The samples
+   * are only sorted again after a sample is added.
+   *
+   * @param percentile The percentile, between 0 and 1 (e.g. 0.99 for the 99th percentile).
+   * @return the sample at the percentile
+   */
+  public long getPercentile(double percentile) {
+    if (m_count == 0) {
+      return 0;
+    }
+    if (!m_sortedValid) {
+      System.arraycopy(m_samples, 0, m_sorted, 0, m_count);
+      Arrays.sort(m_sorted, 0, m_count);
+      m_sortedValid = true;
+    }
+    int rank = (int) Math.ceil(percentile * m_count) - 1;
+    return m_sorted[Math.max(0, Math.min(m_count - 1, rank))];
+  }
+}
@@ -8,9 +8,9 @@
 package edu.wpi.first.wpilibj;
 
 import java.io.Closeable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -41,11 +41,17 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
 
   boolean m_suppressTimeoutMessage;
 
+  // Position of this watchdog in m_watchdogs, or -1 if it isn't enabled
+  private int m_heapIndex = -1;
+
   static {
     startDaemonThread(() -> schedulerFunc());
   }
 
-  private static final PriorityQueue<Watchdog> m_watchdogs = new PriorityQueue<>();
+  // Binary min-heap of enabled watchdogs ordered by expiration time. Each watchdog tracks its own
+  // position in the heap, so resetting or disabling one is O(log n) rather than a linear search.
+  private static Watchdog[] m_watchdogs = new Watchdog[8];
+  private static int m_watchdogCount;
   private static ReentrantLock m_queueMutex = new ReentrantLock();
   private static Condition m_schedulerWaiter = m_queueMutex.newCondition();
 
@@ -82,7 +88,7 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
    * Returns the time in seconds since the watchdog was last fed.
    */
   public double getTime() {
-    return (RobotController.getFPGATime() - m_startTime) / 1.0e6;
+    return (LoopClock.getFPGATime() - m_startTime) / 1.0e6;
   }
 
   /**
@@ -92,7 +98,7 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
    *                resolution.
    */
   public void setTimeout(double timeout) {
-    m_startTime = RobotController.getFPGATime();
+    m_startTime = LoopClock.getFPGATime();
     m_epochs.clear();
 
     m_queueMutex.lock();
@@ -100,10 +106,7 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
       m_timeout = (long) (timeout * 1.0e6);
       m_isExpired = false;
 
-      m_watchdogs.remove(this);
-      m_expirationTime = m_startTime + m_timeout;
-      m_watchdogs.add(this);
-      m_schedulerWaiter.signalAll();
+      schedule(m_startTime + m_timeout);
     } finally {
       m_queueMutex.unlock();
     }
@@ -142,7 +145,7 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
    * @param epochName The name to associate with the epoch.
    */
   public void addEpoch(String epochName) {
-    long currentTime = RobotController.getFPGATime();
+    long currentTime = LoopClock.getFPGATime();
     m_epochs.put(epochName, currentTime - m_startTime);
     m_startTime = currentTime;
   }
@@ -173,17 +176,14 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
    * Enables the watchdog timer.
    */
   public void enable() {
-    m_startTime = RobotController.getFPGATime();
+    m_startTime = LoopClock.getFPGATime();
     m_epochs.clear();
 
     m_queueMutex.lock();
     try {
       m_isExpired = false;
 
-      m_watchdogs.remove(this);
-      m_expirationTime = m_startTime + m_timeout;
-      m_watchdogs.add(this);
-      m_schedulerWaiter.signalAll();
+      schedule(m_startTime + m_timeout);
     } finally {
       m_queueMutex.unlock();
     }
@@ -195,8 +195,11 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
   public void disable() {
     m_queueMutex.lock();
     try {
-      m_watchdogs.remove(this);
-      m_schedulerWaiter.signalAll();
+      // The scheduler thread isn't woken; if this was the soonest watchdog, the scheduler finds
+      // nothing expired when its wait finishes and waits again.
+      if (m_heapIndex >= 0) {
+        removeAt(m_heapIndex);
+      }
     } finally {
       m_queueMutex.unlock();
     }
@@ -213,6 +216,93 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
     m_suppressTimeoutMessage = suppress;
   }
 
+  /**
+   * Inserts this watchdog into the queue or moves it to its new position. The scheduler thread is
+   * only woken if the soonest expiration time moved earlier, since it otherwise rechecks the queue
+   * when its current wait finishes.
+   *
+   * <p>Must be called with m_queueMutex held.
+   *
+   * @param expirationTime The new expiration time in microseconds.
+   */
+  private void schedule(long expirationTime) {
+    long soonest = m_watchdogCount > 0 ? m_watchdogs[0].m_expirationTime : Long.MAX_VALUE;
+
+    m_expirationTime = expirationTime;
+    if (m_heapIndex < 0) {
+      if (m_watchdogCount == m_watchdogs.length) {
+        m_watchdogs = Arrays.copyOf(m_watchdogs, m_watchdogs.length * 2);
+      }
+      m_heapIndex = m_watchdogCount;
+      m_watchdogs[m_watchdogCount++] = this;
+    }
+    siftUp(m_heapIndex);
+    siftDown(m_heapIndex);
+
+    if (expirationTime < soonest) {
+      m_schedulerWaiter.signalAll();
+    }
+  }
+
+  /**
+   * Removes the watchdog at the given position from the queue. Must be called with m_queueMutex
+   * held.
+   *
+   * @param index The position in m_watchdogs.
+   * @return The removed watchdog.
+   */
+  private static Watchdog removeAt(int index) {
+    Watchdog watchdog = m_watchdogs[index];
+    watchdog.m_heapIndex = -1;
+
+    m_watchdogCount--;
+    Watchdog last = m_watchdogs[m_watchdogCount];
+    m_watchdogs[m_watchdogCount] = null;
+    if (index < m_watchdogCount) {
+      m_watchdogs[index] = last;
+      last.m_heapIndex = index;
+      siftUp(index);
+      siftDown(last.m_heapIndex);
+    }
+    return watchdog;
+  }
+
+  private static void siftUp(int index) {
+    Watchdog watchdog = m_watchdogs[index];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (m_watchdogs[parent].compareTo(watchdog) <= 0) {
+        break;
+      }
+      m_watchdogs[index] = m_watchdogs[parent];
+      m_watchdogs[index].m_heapIndex = index;
+      index = parent;
+    }
+    m_watchdogs[index] = watchdog;
+    watchdog.m_heapIndex = index;
+  }
+
+  private static void siftDown(int index) {
+    Watchdog watchdog = m_watchdogs[index];
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= m_watchdogCount) {
+        break;
+      }
+      if (child + 1 < m_watchdogCount && m_watchdogs[child + 1].compareTo(m_watchdogs[child]) < 0) {
+        child++;
+      }
+      if (watchdog.compareTo(m_watchdogs[child]) <= 0) {
+        break;
+      }
+      m_watchdogs[index] = m_watchdogs[child];
+      m_watchdogs[index].m_heapIndex = index;
+      index = child;
+    }
+    m_watchdogs[index] = watchdog;
+    watchdog.m_heapIndex = index;
+  }
+
   private static Thread startDaemonThread(Runnable target) {
     Thread inst = new Thread(target);
     inst.setDaemon(true);
@@ -226,17 +316,19 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
 
     try {
       while (true) {
-        if (m_watchdogs.size() > 0) {
-          boolean timedOut = !awaitUntil(m_schedulerWaiter, m_watchdogs.peek().m_expirationTime);
+        if (m_watchdogCount > 0) {
+          boolean timedOut = !awaitUntil(m_schedulerWaiter, m_watchdogs[0].m_expirationTime);
           if (timedOut) {
-            if (m_watchdogs.size() == 0 || m_watchdogs.peek().m_expirationTime
-                > RobotController.getFPGATime()) {
+            // Expiration times are stamped with LoopClock, so they must be checked against it
+            // rather than the HAL time it interpolates
+            if (m_watchdogCount == 0 || m_watchdogs[0].m_expirationTime
+                > LoopClock.getFPGATime()) {
               continue;
             }
 
             // If the condition variable timed out, that means a Watchdog timeout
             // has occurred, so call its timeout function.
-            Watchdog watchdog = m_watchdogs.poll();
+            Watchdog watchdog = removeAt(0);
 
             long now = RobotController.getFPGATime();
             if (now  - watchdog.m_lastTimeoutPrintTime > kMinPrintPeriod) {
@@ -259,7 +351,7 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
           // the scheduler of this) or a spurious wakeup occurred, so just
           // rewait with the soonest watchdog timeout.
         } else {
-          while (m_watchdogs.size() == 0) {
+          while (m_watchdogCount == 0) {
             m_schedulerWaiter.awaitUninterruptibly();
           }
         }
@@ -273,11 +365,11 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
    * Wrapper emulating functionality of C++'s std::condition_variable::wait_until().
    *
    * @param cond The condition variable on which to wait.
-   * @param time The time at which to stop waiting.
+   * @param time The {@link LoopClock#getFPGATime()} at which to stop waiting.
    * @return False if the deadline has elapsed upon return, else true.
    */
   private static boolean awaitUntil(Condition cond, long time) {
-    long delta = time - RobotController.getFPGATime();
+    long delta = time - LoopClock.getFPGATime();
     try {
       return cond.await(delta, TimeUnit.MICROSECONDS);
     } catch (InterruptedException ex) {
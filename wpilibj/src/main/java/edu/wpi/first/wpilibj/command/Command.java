@@ -7,6 +7,7 @@
 
 package edu.wpi.first.wpilibj.command;
 
+import java.util.Arrays;
 import java.util.Enumeration;
 
 import edu.wpi.first.wpilibj.RobotState;
@@ -61,6 +62,22 @@ public abstract class Command extends SendableBase {
    */
   private final Set m_requirements = new Set();
 
+  /**
+   * The required subsystems as a bitmask indexed by {@link Subsystem} scheduler index.
+   */
+  private long[] m_requirementBits = new long[1];
+
+  /**
+   * The slot this command occupies in the {@link Scheduler}, or -1 if it is not scheduled.
+   */
+  int m_schedulerSlot = -1;
+
+  /**
+   * The execution times recorded by the {@link Scheduler} while profiling, or null if this command
+   * has not been profiled.
+   */
+  Scheduler.ProfiledStats m_executionStats;
+
   /**
    * Whether or not it is running.
    */
@@ -245,6 +262,12 @@ public abstract class Command extends SendableBase {
     validate("Can not add new requirement to command");
     if (subsystem != null) {
       m_requirements.add(subsystem);
+      int index = subsystem.getSchedulerIndex();
+      int word = index >>> 6;
+      if (word >= m_requirementBits.length) {
+        m_requirementBits = Arrays.copyOf(m_requirementBits, word + 1);
+      }
+      m_requirementBits[word] |= 1L << index;
     } else {
       throw new IllegalArgumentException("Subsystem must not be null.");
     }
@@ -398,6 +421,16 @@ public abstract class Command extends SendableBase {
     return m_requirements.getElements();
   }
 
+  /**
+   * Returns the requirements of this command as a bitmask, where bit <i>n</i> is set if the {@link
+   * Subsystem} with scheduler index <i>n</i> is required. The returned array must not be modified.
+   *
+   * @return the requirement bitmask of this command
+   */
+  synchronized long[] getRequirementBits() {
+    return m_requirementBits;
+  }
+
   /**
    * Prevents further changes from being made.
    */
@@ -448,6 +481,7 @@ public abstract class Command extends SendableBase {
    */
   protected void clearRequirements() {
     m_requirements.clear();
+    m_requirementBits = new long[1];
   }
 
   /**
@@ -7,15 +7,14 @@
 
 package edu.wpi.first.wpilibj.command;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
-import java.util.Vector;
+import java.util.Arrays;
 
 import edu.wpi.first.hal.FRCNetComm.tInstances;
 import edu.wpi.first.hal.FRCNetComm.tResourceType;
 import edu.wpi.first.hal.HAL;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.SendableBase;
+import edu.wpi.first.wpilibj.TimingStats;
 import edu.wpi.first.wpilibj.buttons.Trigger.ButtonScheduler;
 import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
 
@@ -31,6 +30,7 @@ import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
  *
  * @see Command
  */
+@SuppressWarnings({"PMD.TooManyFields", "PMD.TooManyMethods"})
 public final class Scheduler extends SendableBase {
   /**
    * The Singleton Instance.
@@ -50,22 +50,36 @@ public final class Scheduler extends SendableBase {
   }
 
   /**
-   * A hashtable of active {@link Command Commands} to their {@link LinkedListElement}.
+   * The initial capacity of the command, subsystem and button arrays. The arrays grow as needed,
+   * so that steady state operation of {@link Scheduler#run()} does not allocate.
    */
-  @SuppressWarnings("PMD.LooseCoupling")
-  private final Hashtable<Command, LinkedListElement> m_commandTable = new Hashtable<>();
+  private static final int kInitialCapacity = 16;
+
+  /**
+   * The active {@link Command Commands}, in the order they were added. Removed commands leave a
+   * null slot behind until the array is compacted at the end of {@link Scheduler#run()}.
+   */
+  private Command[] m_commands = new Command[kInitialCapacity];
+  /**
+   * The number of used slots in {@link Scheduler#m_commands}, including removed ones.
+   */
+  private int m_commandCount;
   /**
-   * The {@link Set} of all {@link Subsystem Subsystems}.
+   * Whether or not {@link Scheduler#m_commands} contains removed slots.
    */
-  private final Set m_subsystems = new Set();
+  private boolean m_commandsRemoved;
   /**
-   * The first {@link Command} in the list.
+   * All registered {@link Subsystem Subsystems}, indexed by their scheduler index.
    */
-  private LinkedListElement m_firstCommand;
+  private Subsystem[] m_subsystems = new Subsystem[kInitialCapacity];
   /**
-   * The last {@link Command} in the list.
+   * The number of registered {@link Subsystem Subsystems}.
    */
-  private LinkedListElement m_lastCommand;
+  private int m_subsystemCount;
+  /**
+   * Bitmask of the {@link Subsystem Subsystems} which are currently claimed by a command.
+   */
+  private long[] m_lockedBits = new long[1];
   /**
    * Whether or not we are currently adding a command.
    */
@@ -75,21 +89,65 @@ public final class Scheduler extends SendableBase {
    */
   private boolean m_disabled;
   /**
-   * A list of all {@link Command Commands} which need to be added.
+   * A list of all {@link Command Commands} which need to be added. Guarded by {@code this}, since
+   * commands may be started from other threads.
    */
-  @SuppressWarnings({"PMD.LooseCoupling", "PMD.UseArrayListInsteadOfVector"})
-  private final Vector<Command> m_additions = new Vector<>();
+  private Command[] m_additions = new Command[kInitialCapacity];
+  private int m_additionCount;
   private NetworkTableEntry m_namesEntry;
   private NetworkTableEntry m_idsEntry;
   private NetworkTableEntry m_cancelEntry;
   /**
-   * A list of all {@link edu.wpi.first.wpilibj.buttons.Trigger.ButtonScheduler Buttons}. It is
-   * created lazily.
+   * A list of all {@link edu.wpi.first.wpilibj.buttons.Trigger.ButtonScheduler Buttons}.
    */
-  @SuppressWarnings("PMD.LooseCoupling")
-  private Vector<ButtonScheduler> m_buttons;
+  private ButtonScheduler[] m_buttons = new ButtonScheduler[kInitialCapacity];
+  private int m_buttonCount;
   private boolean m_runningCommandsChanged;
 
+  /**
+   * The default number of {@link Scheduler#run()} iterations profiling statistics are kept for.
+   */
+  private static final int kDefaultProfilingWindow = 50;
+  /**
+   * The number of slowest commands and subsystems published to the dashboard while profiling.
+   */
+  private static final int kProfilingPublishCount = 10;
+  private boolean m_profilingEnabled;
+  private int m_profilingWindow = kDefaultProfilingWindow;
+  /**
+   * Incremented each time profiling is enabled, so statistics recorded before can be told apart.
+   */
+  private int m_profilingGeneration;
+  /**
+   * The statistics of the scheduled commands and registered subsystems which have been profiled.
+   */
+  private ProfiledStats[] m_profiled = new ProfiledStats[kInitialCapacity];
+  private int m_profiledCount;
+  private long[] m_profiledP99 = new long[kInitialCapacity];
+  private NetworkTableEntry m_profileNamesEntry;
+  private NetworkTableEntry m_profileMinEntry;
+  private NetworkTableEntry m_profileMeanEntry;
+  private NetworkTableEntry m_profileP99Entry;
+  private NetworkTableEntry m_profileMaxEntry;
+
+  /**
+   * The statistics of a profiled command or subsystem.
+   */
+  static final class ProfiledStats extends TimingStats {
+    private final SendableBase m_source;
+    private final int m_generation;
+    /**
+     * The index of these statistics in {@link Scheduler#m_profiled}, or -1 if not listed.
+     */
+    private int m_index = -1;
+
+    ProfiledStats(SendableBase source, int windowSize, int generation) {
+      super(windowSize);
+      m_source = source;
+      m_generation = generation;
+    }
+  }
+
   /**
    * Instantiates a {@link Scheduler}.
    */
@@ -110,7 +168,12 @@ public final class Scheduler extends SendableBase {
    */
   public void add(Command command) {
     if (command != null) {
-      m_additions.addElement(command);
+      synchronized (this) {
+        if (m_additionCount == m_additions.length) {
+          m_additions = Arrays.copyOf(m_additions, m_additions.length * 2);
+        }
+        m_additions[m_additionCount++] = command;
+      }
     }
   }
 
@@ -120,12 +183,11 @@ public final class Scheduler extends SendableBase {
    *
    * @param button the button to add
    */
-  @SuppressWarnings("PMD.UseArrayListInsteadOfVector")
   public void addButton(ButtonScheduler button) {
-    if (m_buttons == null) {
-      m_buttons = new Vector<>();
+    if (m_buttonCount == m_buttons.length) {
+      m_buttons = Arrays.copyOf(m_buttons, m_buttons.length * 2);
     }
-    m_buttons.addElement(button);
+    m_buttons[m_buttonCount++] = button;
   }
 
   /**
@@ -148,39 +210,49 @@ public final class Scheduler extends SendableBase {
     }
 
     // Only add if not already in
-    if (!m_commandTable.containsKey(command)) {
-      // Check that the requirements can be had
-      Enumeration requirements = command.getRequirements();
-      while (requirements.hasMoreElements()) {
-        Subsystem lock = (Subsystem) requirements.nextElement();
-        if (lock.getCurrentCommand() != null && !lock.getCurrentCommand().isInterruptible()) {
-          return;
+    if (command.m_schedulerSlot < 0) {
+      long[] requirements = command.getRequirementBits();
+
+      // Check that the requirements can be had; only subsystems which are currently claimed by
+      // another command can conflict
+      for (int word = 0; word < requirements.length; word++) {
+        long conflicts = requirements[word] & m_lockedBits[word];
+        while (conflicts != 0) {
+          Subsystem lock = m_subsystems[(word << 6) + Long.numberOfTrailingZeros(conflicts)];
+          conflicts &= conflicts - 1;
+          if (lock.getCurrentCommand() != null && !lock.getCurrentCommand().isInterruptible()) {
+            return;
+          }
         }
       }
 
       // Give it the requirements
       m_adding = true;
-      requirements = command.getRequirements();
-      while (requirements.hasMoreElements()) {
-        Subsystem lock = (Subsystem) requirements.nextElement();
-        if (lock.getCurrentCommand() != null) {
-          lock.getCurrentCommand().cancel();
-          remove(lock.getCurrentCommand());
+      for (int word = 0; word < requirements.length; word++) {
+        long bits = requirements[word];
+        while (bits != 0) {
+          long bit = Long.lowestOneBit(bits);
+          Subsystem lock = m_subsystems[(word << 6) + Long.numberOfTrailingZeros(bit)];
+          bits &= ~bit;
+          if (lock.getCurrentCommand() != null) {
+            lock.getCurrentCommand().cancel();
+            remove(lock.getCurrentCommand());
+          }
+          lock.setCurrentCommand(command);
+          m_lockedBits[word] |= bit;
         }
-        lock.setCurrentCommand(command);
       }
       m_adding = false;
 
       // Add it to the list
-      LinkedListElement element = new LinkedListElement();
-      element.setData(command);
-      if (m_firstCommand == null) {
-        m_firstCommand = m_lastCommand = element;
-      } else {
-        m_lastCommand.add(element);
-        m_lastCommand = element;
+      if (m_commandCount == m_commands.length) {
+        compactCommands();
+        if (m_commandCount == m_commands.length) {
+          m_commands = Arrays.copyOf(m_commands, m_commands.length * 2);
+        }
       }
-      m_commandTable.put(command, element);
+      command.m_schedulerSlot = m_commandCount;
+      m_commands[m_commandCount++] = command;
 
       m_runningCommandsChanged = true;
 
@@ -204,44 +276,129 @@ public final class Scheduler extends SendableBase {
     } // Don't run when m_disabled
 
     // Get button input (going backwards preserves button priority)
-    if (m_buttons != null) {
-      for (int i = m_buttons.size() - 1; i >= 0; i--) {
-        m_buttons.elementAt(i).execute();
-      }
+    for (int i = m_buttonCount - 1; i >= 0; i--) {
+      m_buttons[i].execute();
     }
 
     // Call every subsystem's periodic method
-    Enumeration subsystems = m_subsystems.getElements();
-    while (subsystems.hasMoreElements()) {
-      ((Subsystem) subsystems.nextElement()).periodic();
+    for (int i = 0; i < m_subsystemCount; i++) {
+      if (m_profilingEnabled) {
+        runProfiled(m_subsystems[i]);
+      } else {
+        m_subsystems[i].periodic();
+      }
     }
 
     // Loop through the commands
-    LinkedListElement element = m_firstCommand;
-    while (element != null) {
-      Command command = element.getData();
-      element = element.getNext();
-      if (!command.run()) {
+    for (int i = 0; i < m_commandCount; i++) {
+      Command command = m_commands[i];
+      if (command == null) {
+        continue;
+      }
+      if (!(m_profilingEnabled ? runProfiled(command) : command.run())) {
         remove(command);
         m_runningCommandsChanged = true;
       }
     }
 
     // Add the new things
-    for (int i = 0; i < m_additions.size(); i++) {
-      _add(m_additions.elementAt(i));
+    for (int i = 0; ; i++) {
+      Command command;
+      synchronized (this) {
+        if (i >= m_additionCount) {
+          Arrays.fill(m_additions, 0, m_additionCount, null);
+          m_additionCount = 0;
+          break;
+        }
+        command = m_additions[i];
+      }
+      _add(command);
     }
-    m_additions.removeAllElements();
 
     // Add in the defaults
-    Enumeration locks = m_subsystems.getElements();
-    while (locks.hasMoreElements()) {
-      Subsystem lock = (Subsystem) locks.nextElement();
+    for (int i = 0; i < m_subsystemCount; i++) {
+      Subsystem lock = m_subsystems[i];
       if (lock.getCurrentCommand() == null) {
         _add(lock.getDefaultCommand());
       }
       lock.confirmCommand();
     }
+
+    compactCommands();
+  }
+
+  /**
+   * Calls {@link Subsystem#periodic()}, recording how long it took.
+   *
+   * @param subsystem the subsystem
+   */
+  private void runProfiled(Subsystem subsystem) {
+    long start = System.nanoTime();
+    subsystem.periodic();
+    long elapsed = System.nanoTime() - start;
+
+    ProfiledStats stats = subsystem.m_periodicStats;
+    if (stats == null || stats.m_generation != m_profilingGeneration) {
+      stats = new ProfiledStats(subsystem, m_profilingWindow, m_profilingGeneration);
+      subsystem.m_periodicStats = stats;
+      addProfiled(stats);
+    }
+    stats.add(elapsed);
+  }
+
+  /**
+   * Runs the command, recording how long it took.
+   *
+   * @param command the command
+   * @return whether or not the command should stay within the {@link Scheduler}
+   */
+  private boolean runProfiled(Command command) {
+    long start = System.nanoTime();
+    boolean keep = command.run();
+    long elapsed = System.nanoTime() - start;
+
+    ProfiledStats stats = command.m_executionStats;
+    if (stats == null || stats.m_generation != m_profilingGeneration) {
+      stats = new ProfiledStats(command, m_profilingWindow, m_profilingGeneration);
+      command.m_executionStats = stats;
+    }
+    if (stats.m_index < 0) {
+      // First run since the command was (re)started
+      addProfiled(stats);
+    }
+    stats.add(elapsed);
+    return keep;
+  }
+
+  /**
+   * Lists the statistics of a command or subsystem, so they are published to the dashboard.
+   *
+   * @param stats the statistics
+   */
+  private void addProfiled(ProfiledStats stats) {
+    if (m_profiledCount == m_profiled.length) {
+      m_profiled = Arrays.copyOf(m_profiled, m_profiledCount * 2);
+      m_profiledP99 = Arrays.copyOf(m_profiledP99, m_profiledCount * 2);
+    }
+    stats.m_index = m_profiledCount;
+    m_profiled[m_profiledCount++] = stats;
+  }
+
+  /**
+   * Stops publishing the statistics of a command which is no longer scheduled or a subsystem which
+   * has been closed. Does nothing if given null or statistics which are not listed.
+   *
+   * @param stats the statistics
+   */
+  private void removeProfiled(ProfiledStats stats) {
+    if (stats == null || stats.m_index < 0) {
+      return;
+    }
+    int last = m_profiledCount - 1;
+    swapProfiled(stats.m_index, last);
+    m_profiled[last] = null;
+    m_profiledCount = last;
+    stats.m_index = -1;
   }
 
   /**
@@ -252,46 +409,84 @@ public final class Scheduler extends SendableBase {
    * @param system the system
    */
   void registerSubsystem(Subsystem system) {
-    if (system != null) {
-      m_subsystems.add(system);
+    if (system != null && system.getSchedulerIndex() < 0) {
+      if (m_subsystemCount == m_subsystems.length) {
+        m_subsystems = Arrays.copyOf(m_subsystems, m_subsystems.length * 2);
+      }
+      int word = m_subsystemCount >>> 6;
+      if (word >= m_lockedBits.length) {
+        m_lockedBits = Arrays.copyOf(m_lockedBits, word + 1);
+      }
+      system.setSchedulerIndex(m_subsystemCount);
+      m_subsystems[m_subsystemCount++] = system;
     }
   }
 
+  /**
+   * Stops publishing the profiling statistics of a closed {@link Subsystem}. The subsystem keeps
+   * its statistics, and they are not listed again until profiling is enabled again.
+   *
+   * @param system the system
+   */
+  void removeProfiled(Subsystem system) {
+    removeProfiled(system.m_periodicStats);
+  }
+
   /**
    * Removes the {@link Command} from the {@link Scheduler}.
    *
    * @param command the command to remove
    */
   void remove(Command command) {
-    if (command == null || !m_commandTable.containsKey(command)) {
+    if (command == null || command.m_schedulerSlot < 0) {
       return;
     }
-    LinkedListElement element = m_commandTable.get(command);
-    m_commandTable.remove(command);
-
-    if (element.equals(m_lastCommand)) {
-      m_lastCommand = element.getPrevious();
-    }
-    if (element.equals(m_firstCommand)) {
-      m_firstCommand = element.getNext();
-    }
-    element.remove();
-
-    Enumeration requirements = command.getRequirements();
-    while (requirements.hasMoreElements()) {
-      ((Subsystem) requirements.nextElement()).setCurrentCommand(null);
+    m_commands[command.m_schedulerSlot] = null;
+    command.m_schedulerSlot = -1;
+    m_commandsRemoved = true;
+
+    long[] requirements = command.getRequirementBits();
+    for (int word = 0; word < requirements.length; word++) {
+      long bits = requirements[word];
+      while (bits != 0) {
+        m_subsystems[(word << 6) + Long.numberOfTrailingZeros(bits)].setCurrentCommand(null);
+        bits &= bits - 1;
+      }
+      m_lockedBits[word] &= ~requirements[word];
     }
+    removeProfiled(command.m_executionStats);
 
     command.removed();
   }
 
+  /**
+   * Removes the null slots left behind by removed commands, preserving the order of the remaining
+   * commands.
+   */
+  private void compactCommands() {
+    if (!m_commandsRemoved) {
+      return;
+    }
+    int count = 0;
+    for (int i = 0; i < m_commandCount; i++) {
+      Command command = m_commands[i];
+      if (command != null) {
+        command.m_schedulerSlot = count;
+        m_commands[count++] = command;
+      }
+    }
+    Arrays.fill(m_commands, count, m_commandCount, null);
+    m_commandCount = count;
+    m_commandsRemoved = false;
+  }
+
   /**
    * Removes all commands.
    */
   public void removeAll() {
     // TODO: Confirm that this works with "uninteruptible" commands
-    while (m_firstCommand != null) {
-      remove(m_firstCommand.getData());
+    for (int i = 0; i < m_commandCount; i++) {
+      remove(m_commands[i]);
     }
   }
 
@@ -309,21 +504,153 @@ public final class Scheduler extends SendableBase {
     m_disabled = false;
   }
 
+  /**
+   * Enables profiling of command execution and subsystem periodic times, keeping statistics over
+   * the last 50 iterations of {@link Scheduler#run()}.
+   *
+   * @see Scheduler#enableProfiling(int)
+   */
+  public void enableProfiling() {
+    enableProfiling(kDefaultProfilingWindow);
+  }
+
+  /**
+   * Enables profiling of command execution and subsystem periodic times. Any previously recorded
+   * statistics are discarded.
+   *
+   * <p>While profiling, the time taken by each {@link Command} and {@link Subsystem#periodic()} is
+   * recorded, and the slowest ones (by 99th percentile) are published to the "Profile" subtable of
+   * the Scheduler on the dashboard.
+   *
+   * @param windowSize the number of iterations of {@link Scheduler#run()} statistics are kept for
+   */
+  public void enableProfiling(int windowSize) {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("Window size must be positive");
+    }
+    for (int i = 0; i < m_profiledCount; i++) {
+      m_profiled[i].m_index = -1;
+      m_profiled[i] = null;
+    }
+    m_profiledCount = 0;
+    m_profilingGeneration++;
+    m_profilingWindow = windowSize;
+    m_profilingEnabled = true;
+  }
+
+  /**
+   * Disables profiling. Statistics recorded so far are kept.
+   */
+  public void disableProfiling() {
+    m_profilingEnabled = false;
+  }
+
+  /**
+   * Returns whether or not command and subsystem times are being profiled.
+   *
+   * @return whether or not profiling is enabled
+   */
+  public boolean isProfilingEnabled() {
+    return m_profilingEnabled;
+  }
+
+  /**
+   * Returns the execution times recorded for a command while profiling.
+   *
+   * <p>Statistics are kept by the command after it finishes, until profiling is enabled again.
+   *
+   * @param command the command
+   * @return the execution time statistics, or null if the command has not been profiled
+   */
+  public TimingStats getExecutionStats(Command command) {
+    ProfiledStats stats = command.m_executionStats;
+    return stats != null && stats.m_generation == m_profilingGeneration ? stats : null;
+  }
+
+  /**
+   * Returns the {@link Subsystem#periodic()} times recorded for a subsystem while profiling.
+   *
+   * @param subsystem the subsystem
+   * @return the periodic time statistics, or null if the subsystem has not been profiled
+   */
+  public TimingStats getPeriodicStats(Subsystem subsystem) {
+    ProfiledStats stats = subsystem.m_periodicStats;
+    return stats != null && stats.m_generation == m_profilingGeneration ? stats : null;
+  }
+
+  /**
+   * Publishes the statistics of the slowest profiled commands and subsystems, in milliseconds.
+   */
+  private void updateProfileTable() {
+    for (int i = 0; i < m_profiledCount; i++) {
+      m_profiledP99[i] = m_profiled[i].getPercentile(0.99);
+    }
+
+    int number = Math.min(m_profiledCount, kProfilingPublishCount);
+    String[] names = new String[number];
+    double[] min = new double[number];
+    double[] mean = new double[number];
+    double[] p99 = new double[number];
+    double[] max = new double[number];
+    for (int n = 0; n < number; n++) {
+      // Selection sort only as far as the number of published entries
+      int slowest = n;
+      for (int i = n + 1; i < m_profiledCount; i++) {
+        if (m_profiledP99[i] > m_profiledP99[slowest]) {
+          slowest = i;
+        }
+      }
+      swapProfiled(n, slowest);
+
+      ProfiledStats stats = m_profiled[n];
+      names[n] = stats.m_source.getName();
+      min[n] = stats.getMin() / 1.0e6;
+      mean[n] = stats.getMean() / 1.0e6;
+      p99[n] = m_profiledP99[n] / 1.0e6;
+      max[n] = stats.getMax() / 1.0e6;
+    }
+    m_profileNamesEntry.setStringArray(names);
+    m_profileMinEntry.setDoubleArray(min);
+    m_profileMeanEntry.setDoubleArray(mean);
+    m_profileP99Entry.setDoubleArray(p99);
+    m_profileMaxEntry.setDoubleArray(max);
+  }
+
+  private void swapProfiled(int first, int second) {
+    ProfiledStats stats = m_profiled[first];
+    m_profiled[first] = m_profiled[second];
+    m_profiled[second] = stats;
+    m_profiled[first].m_index = first;
+    m_profiled[second].m_index = second;
+    long p99 = m_profiledP99[first];
+    m_profiledP99[first] = m_profiledP99[second];
+    m_profiledP99[second] = p99;
+  }
+
   @Override
   public void initSendable(SendableBuilder builder) {
     builder.setSmartDashboardType("Scheduler");
     m_namesEntry = builder.getEntry("Names");
     m_idsEntry = builder.getEntry("Ids");
     m_cancelEntry = builder.getEntry("Cancel");
+    m_profileNamesEntry = builder.getEntry("Profile/Names");
+    m_profileMinEntry = builder.getEntry("Profile/Min");
+    m_profileMeanEntry = builder.getEntry("Profile/Mean");
+    m_profileP99Entry = builder.getEntry("Profile/P99");
+    m_profileMaxEntry = builder.getEntry("Profile/Max");
     builder.setUpdateTable(() -> {
       if (m_namesEntry != null && m_idsEntry != null && m_cancelEntry != null) {
         // Get the commands to cancel
         double[] toCancel = m_cancelEntry.getDoubleArray(new double[0]);
         if (toCancel.length > 0) {
-          for (LinkedListElement e = m_firstCommand; e != null; e = e.getNext()) {
+          for (int i = 0; i < m_commandCount; i++) {
+            Command command = m_commands[i];
+            if (command == null) {
+              continue;
+            }
             for (double d : toCancel) {
-              if (e.getData().hashCode() == d) {
-                e.getData().cancel();
+              if (command.hashCode() == d) {
+                command.cancel();
               }
             }
           }
@@ -333,20 +660,29 @@ public final class Scheduler extends SendableBase {
         if (m_runningCommandsChanged) {
           // Set the the running commands
           int number = 0;
-          for (LinkedListElement e = m_firstCommand; e != null; e = e.getNext()) {
-            number++;
+          for (int i = 0; i < m_commandCount; i++) {
+            if (m_commands[i] != null) {
+              number++;
+            }
           }
           String[] commands = new String[number];
           double[] ids = new double[number];
           number = 0;
-          for (LinkedListElement e = m_firstCommand; e != null; e = e.getNext()) {
-            commands[number] = e.getData().getName();
-            ids[number] = e.getData().hashCode();
-            number++;
+          for (int i = 0; i < m_commandCount; i++) {
+            Command command = m_commands[i];
+            if (command != null) {
+              commands[number] = command.getName();
+              ids[number] = command.hashCode();
+              number++;
+            }
           }
           m_namesEntry.setStringArray(commands);
           m_idsEntry.setDoubleArray(ids);
         }
+
+        if (m_profilingEnabled) {
+          updateProfileTable();
+        }
       }
     });
   }
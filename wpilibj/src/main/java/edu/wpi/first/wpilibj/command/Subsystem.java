@@ -44,6 +44,17 @@ public abstract class Subsystem extends SendableBase {
    */
   private Command m_defaultCommand;
 
+  /**
+   * The index assigned to this subsystem by the {@link Scheduler}, or -1 if not registered.
+   */
+  private int m_schedulerIndex = -1;
+
+  /**
+   * The {@link Subsystem#periodic()} execution times recorded by the {@link Scheduler} while
+   * profiling, or null if this subsystem has not been profiled.
+   */
+  Scheduler.ProfiledStats m_periodicStats;
+
   /**
    * Creates a subsystem with the given name.
    *
@@ -137,6 +148,24 @@ public abstract class Subsystem extends SendableBase {
     m_currentCommandChanged = true;
   }
 
+  /**
+   * Returns the index assigned to this subsystem by the {@link Scheduler}.
+   *
+   * @return the scheduler index, or -1 if the subsystem has not been registered
+   */
+  int getSchedulerIndex() {
+    return m_schedulerIndex;
+  }
+
+  /**
+   * Sets the index assigned to this subsystem by the {@link Scheduler}.
+   *
+   * @param index the scheduler index
+   */
+  void setSchedulerIndex(int index) {
+    m_schedulerIndex = index;
+  }
+
   /**
    * Call this to alert Subsystem that the current command is actually the command. Sometimes, the
    * {@link Subsystem} is told that it has no command while the {@link Scheduler} is going through
@@ -193,6 +222,15 @@ public abstract class Subsystem extends SendableBase {
     LiveWindow.add(child);
   }
 
+  /**
+   * Stops publishing the profiled {@link Subsystem#periodic()} times of this subsystem.
+   */
+  @Override
+  public void close() {
+    super.close();
+    Scheduler.getInstance().removeProfiled(this);
+  }
+
   @Override
   public String toString() {
     return getSubsystem();
@@ -7,11 +7,9 @@
 
 package edu.wpi.first.wpilibj.filters;
 
-import java.util.Arrays;
-
 import edu.wpi.first.hal.FRCNetComm.tResourceType;
 import edu.wpi.first.hal.HAL;
-import edu.wpi.first.wpilibj.CircularBuffer;
+import edu.wpi.first.wpilibj.DoubleCircularBuffer;
 import edu.wpi.first.wpilibj.PIDSource;
 
 /**
@@ -54,11 +52,22 @@ import edu.wpi.first.wpilibj.PIDSource;
 public class LinearDigitalFilter extends Filter {
   private static int instances;
 
-  private final CircularBuffer m_inputs;
-  private final CircularBuffer m_outputs;
+  // Input and output histories, or null if there are no gains for them
+  private final DoubleCircularBuffer m_inputs;
+  private final DoubleCircularBuffer m_outputs;
+
+  // Gains in chronological order (oldest sample first), matching the order of the histories
   private final double[] m_inputGains;
   private final double[] m_outputGains;
 
+  // Whether this is a moving average, in which case the output is kept as a running sum of the
+  // inputs instead of being recomputed from every tap
+  private final boolean m_movingAverage;
+  private double m_inputSum;
+
+  // Samples until the running sum is recomputed to discard accumulated rounding error
+  private int m_samplesUntilResum;
+
   /**
    * Create a linear FIR or IIR filter.
    *
@@ -69,10 +78,12 @@ public class LinearDigitalFilter extends Filter {
   public LinearDigitalFilter(PIDSource source, double[] ffGains,
                              double[] fbGains) {
     super(source);
-    m_inputs = new CircularBuffer(ffGains.length);
-    m_outputs = new CircularBuffer(fbGains.length);
-    m_inputGains = Arrays.copyOf(ffGains, ffGains.length);
-    m_outputGains = Arrays.copyOf(fbGains, fbGains.length);
+    m_inputs = ffGains.length > 0 ? new DoubleCircularBuffer(ffGains.length) : null;
+    m_outputs = fbGains.length > 0 ? new DoubleCircularBuffer(fbGains.length) : null;
+    m_inputGains = chronological(ffGains);
+    m_outputGains = chronological(fbGains);
+    m_movingAverage = isMovingAverage(ffGains, fbGains);
+    m_samplesUntilResum = ffGains.length;
 
     instances++;
     HAL.report(tResourceType.kResourceType_LinearFilter, instances);
@@ -122,7 +133,8 @@ public class LinearDigitalFilter extends Filter {
    * Creates a K-tap FIR moving average filter of the form: y[n] = 1/k * (x[k] + x[k-1] + ... +
    * x[0]).
    *
-   * <p>This filter is always stable.
+   * <p>This filter is always stable. The output is kept as a running sum, so each sample takes
+   * constant time regardless of the number of taps.
    *
    * @param source The PIDSource object that is used to get values
    * @param taps   The number of samples to average over. Higher = smoother but slower
@@ -143,25 +155,67 @@ public class LinearDigitalFilter extends Filter {
     return new LinearDigitalFilter(source, ffGains, fbGains);
   }
 
+  /**
+   * Returns a copy of gains given newest sample first (b0, b1, ...) in chronological order, oldest
+   * sample first, which is the order filter histories are stored in.
+   *
+   * @param gains The gains, newest sample first
+   * @return the gains, oldest sample first
+   */
+  static double[] chronological(double[] gains) {
+    double[] result = new double[gains.length];
+    for (int i = 0; i < gains.length; i++) {
+      result[i] = gains[gains.length - 1 - i];
+    }
+    return result;
+  }
+
+  /**
+   * Returns whether the gains describe a moving average, which can be computed from a running sum
+   * of the inputs instead of from every tap.
+   *
+   * @param ffGains The "feed forward" or FIR gains
+   * @param fbGains The "feed back" or IIR gains
+   * @return true if there are no feedback gains and all feed forward gains are equal
+   */
+  static boolean isMovingAverage(double[] ffGains, double[] fbGains) {
+    if (fbGains.length != 0 || ffGains.length == 0) {
+      return false;
+    }
+    for (double gain : ffGains) {
+      if (gain != ffGains[0]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public double get() {
-    double retVal = 0.0;
+    if (m_movingAverage) {
+      return m_inputSum * m_inputGains[0];
+    }
 
-    // Calculate the new value
-    for (int i = 0; i < m_inputGains.length; i++) {
-      retVal += m_inputs.get(i) * m_inputGains[i];
+    double retVal = 0.0;
+    if (m_inputs != null) {
+      retVal += m_inputs.dot(m_inputGains);
     }
-    for (int i = 0; i < m_outputGains.length; i++) {
-      retVal -= m_outputs.get(i) * m_outputGains[i];
+    if (m_outputs != null) {
+      retVal -= m_outputs.dot(m_outputGains);
     }
-
     return retVal;
   }
 
   @Override
   public void reset() {
-    m_inputs.clear();
-    m_outputs.clear();
+    if (m_inputs != null) {
+      m_inputs.clear();
+    }
+    if (m_outputs != null) {
+      m_outputs.clear();
+    }
+    m_inputSum = 0.0;
+    m_samplesUntilResum = m_inputGains.length;
   }
 
   /**
@@ -171,21 +225,35 @@ public class LinearDigitalFilter extends Filter {
    */
   @Override
   public double pidGet() {
-    double retVal = 0.0;
+    double input = pidGetSource();
+
+    if (m_movingAverage) {
+      if (m_inputs.size() == m_inputs.capacity()) {
+        m_inputSum -= m_inputs.getFirst();
+      }
+      m_inputs.addLast(input);
+      m_samplesUntilResum--;
+      if (m_samplesUntilResum == 0) {
+        m_inputSum = m_inputs.sum();
+        m_samplesUntilResum = m_inputs.capacity();
+      } else {
+        m_inputSum += input;
+      }
+      return m_inputSum * m_inputGains[0];
+    }
 
     // Rotate the inputs
-    m_inputs.addFirst(pidGetSource());
+    if (m_inputs != null) {
+      m_inputs.addLast(input);
+    }
 
     // Calculate the new value
-    for (int i = 0; i < m_inputGains.length; i++) {
-      retVal += m_inputs.get(i) * m_inputGains[i];
-    }
-    for (int i = 0; i < m_outputGains.length; i++) {
-      retVal -= m_outputs.get(i) * m_outputGains[i];
-    }
+    double retVal = get();
 
     // Rotate the outputs
-    m_outputs.addFirst(retVal);
+    if (m_outputs != null) {
+      m_outputs.addLast(retVal);
+    }
 
     return retVal;
   }
@@ -0,0 +1,235 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import java.util.Arrays;
+
+/**
+ * Applies the same linear FIR or IIR filter to several channels at once.
+ *
+ * <p>This computes the same outputs as one {@link LinearDigitalFilter} per channel, but all
+ * channels are updated with a single call to {@link #update(double[], double[])} and their
+ * histories are stored tap by tap, with the channels of each tap next to each other. The inner
+ * loop over channels then reads contiguous memory, which lets the JIT vectorize it. This suits
+ * groups of sensors sampled together, such as the axes of an IMU or a set of wheel encoders.
+ *
+ * <p>As with {@link LinearDigitalFilter}, update() should be called on a known, regular period.
+ */
+public class LinearDigitalFilterBank {
+  private final int m_channels;
+
+  // Gains in chronological order (oldest sample first), as in LinearDigitalFilter
+  private final double[] m_inputGains;
+  private final double[] m_outputGains;
+
+  // Histories stored as [slot][channel]. The slot of the i-th most recent sample is
+  // (position + i) wrapped to the number of slots.
+  private final double[] m_inputs;
+  private final double[] m_outputs;
+  private int m_inputPosition;
+  private int m_outputPosition;
+
+  // Running sums per channel if this is a moving average, otherwise null
+  private final double[] m_inputSums;
+
+  // Samples until the running sums are recomputed to discard accumulated rounding error
+  private int m_samplesUntilResum;
+
+  /**
+   * Create a bank of linear FIR or IIR filters.
+   *
+   * @param channels The number of channels to filter
+   * @param ffGains  The "feed forward" or FIR gains
+   * @param fbGains  The "feed back" or IIR gains
+   */
+  public LinearDigitalFilterBank(int channels, double[] ffGains, double[] fbGains) {
+    if (channels <= 0) {
+      throw new IllegalArgumentException("Number of channels was not at least 1");
+    }
+    m_channels = channels;
+    m_inputGains = LinearDigitalFilter.chronological(ffGains);
+    m_outputGains = LinearDigitalFilter.chronological(fbGains);
+    m_inputs = new double[ffGains.length * channels];
+    m_outputs = new double[fbGains.length * channels];
+    m_inputSums = LinearDigitalFilter.isMovingAverage(ffGains, fbGains)
+        ? new double[channels] : null;
+    m_samplesUntilResum = ffGains.length;
+  }
+
+  /**
+   * Creates a bank of one-pole IIR low-pass filters. See {@link
+   * LinearDigitalFilter#singlePoleIIR(edu.wpi.first.wpilibj.PIDSource, double, double)}.
+   *
+   * @param channels     The number of channels to filter
+   * @param timeConstant The discrete-time time constant in seconds
+   * @param period       The period in seconds between samples taken by the user
+   * @return the filter bank
+   */
+  public static LinearDigitalFilterBank singlePoleIIR(int channels, double timeConstant,
+                                                      double period) {
+    double gain = Math.exp(-period / timeConstant);
+    double[] ffGains = {1.0 - gain};
+    double[] fbGains = {-gain};
+
+    return new LinearDigitalFilterBank(channels, ffGains, fbGains);
+  }
+
+  /**
+   * Creates a bank of first-order high-pass filters. See {@link
+   * LinearDigitalFilter#highPass(edu.wpi.first.wpilibj.PIDSource, double, double)}.
+   *
+   * @param channels     The number of channels to filter
+   * @param timeConstant The discrete-time time constant in seconds
+   * @param period       The period in seconds between samples taken by the user
+   * @return the filter bank
+   */
+  public static LinearDigitalFilterBank highPass(int channels, double timeConstant,
+                                                 double period) {
+    double gain = Math.exp(-period / timeConstant);
+    double[] ffGains = {gain, -gain};
+    double[] fbGains = {-gain};
+
+    return new LinearDigitalFilterBank(channels, ffGains, fbGains);
+  }
+
+  /**
+   * Creates a bank of K-tap FIR moving average filters. See {@link
+   * LinearDigitalFilter#movingAverage(edu.wpi.first.wpilibj.PIDSource, int)}.
+   *
+   * <p>The outputs are kept as running sums, so each update takes time proportional to the number
+   * of channels regardless of the number of taps.
+   *
+   * @param channels The number of channels to filter
+   * @param taps     The number of samples to average over. Higher = smoother but slower
+   * @return the filter bank
+   * @throws IllegalArgumentException if number of taps is less than 1
+   */
+  public static LinearDigitalFilterBank movingAverage(int channels, int taps) {
+    if (taps <= 0) {
+      throw new IllegalArgumentException("Number of taps was not at least 1");
+    }
+
+    double[] ffGains = new double[taps];
+    Arrays.fill(ffGains, 1.0 / taps);
+
+    return new LinearDigitalFilterBank(channels, ffGains, new double[0]);
+  }
+
+  /**
+   * Returns the number of channels filtered.
+   *
+   * @return the number of channels
+   */
+  public int getChannelCount() {
+    return m_channels;
+  }
+
+  /**
+   * Calculates the next value of every channel.
+   *
+   * @param in  The new input of each channel. Must have at least getChannelCount() elements.
+   * @param out Receives the filtered value of each channel. Must have at least getChannelCount()
+   *            elements, and may be the same array as in.
+   */
+  public void update(double[] in, double[] out) {
+    if (in.length < m_channels || out.length < m_channels) {
+      throw new IllegalArgumentException("Arrays must have at least " + m_channels
+          + " elements");
+    }
+    final int channels = m_channels;
+
+    // Rotate the inputs, overwriting the oldest
+    int inputTaps = m_inputGains.length;
+    if (inputTaps > 0) {
+      m_inputPosition = m_inputPosition == 0 ? inputTaps - 1 : m_inputPosition - 1;
+    }
+    int newest = m_inputPosition * channels;
+
+    if (m_inputSums != null) {
+      updateMovingAverage(in, out, newest);
+      return;
+    }
+
+    if (inputTaps > 0) {
+      System.arraycopy(in, 0, m_inputs, newest, channels);
+    }
+
+    // Calculate the new values. out may alias in, which has been copied to the history above.
+    Arrays.fill(out, 0, channels, 0.0);
+    for (int i = 0; i < inputTaps; i++) {
+      int slot = m_inputPosition + i;
+      if (slot >= inputTaps) {
+        slot -= inputTaps;
+      }
+      final double gain = m_inputGains[inputTaps - 1 - i];
+      final int base = slot * channels;
+      for (int c = 0; c < channels; c++) {
+        out[c] += gain * m_inputs[base + c];
+      }
+    }
+    int outputTaps = m_outputGains.length;
+    for (int i = 0; i < outputTaps; i++) {
+      int slot = m_outputPosition + i;
+      if (slot >= outputTaps) {
+        slot -= outputTaps;
+      }
+      final double gain = m_outputGains[outputTaps - 1 - i];
+      final int base = slot * channels;
+      for (int c = 0; c < channels; c++) {
+        out[c] -= gain * m_outputs[base + c];
+      }
+    }
+
+    // Rotate the outputs
+    if (outputTaps > 0) {
+      m_outputPosition = m_outputPosition == 0 ? outputTaps - 1 : m_outputPosition - 1;
+      System.arraycopy(out, 0, m_outputs, m_outputPosition * channels, channels);
+    }
+  }
+
+  private void updateMovingAverage(double[] in, double[] out, int newest) {
+    final int channels = m_channels;
+    final double[] sums = m_inputSums;
+
+    // The slot being written holds the oldest input, which leaves the window
+    for (int c = 0; c < channels; c++) {
+      sums[c] += in[c] - m_inputs[newest + c];
+    }
+    System.arraycopy(in, 0, m_inputs, newest, channels);
+
+    m_samplesUntilResum--;
+    if (m_samplesUntilResum == 0) {
+      Arrays.fill(sums, 0.0);
+      for (int base = 0; base < m_inputs.length; base += channels) {
+        for (int c = 0; c < channels; c++) {
+          sums[c] += m_inputs[base + c];
+        }
+      }
+      m_samplesUntilResum = m_inputGains.length;
+    }
+
+    final double gain = m_inputGains[0];
+    for (int c = 0; c < channels; c++) {
+      out[c] = sums[c] * gain;
+    }
+  }
+
+  /**
+   * Reset the filter state of every channel.
+   */
+  public void reset() {
+    Arrays.fill(m_inputs, 0.0);
+    Arrays.fill(m_outputs, 0.0);
+    m_inputPosition = 0;
+    m_outputPosition = 0;
+    if (m_inputSums != null) {
+      Arrays.fill(m_inputSums, 0.0);
+    }
+    m_samplesUntilResum = m_inputGains.length;
+  }
+}
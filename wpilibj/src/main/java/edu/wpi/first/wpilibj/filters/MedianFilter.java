@@ -0,0 +1,212 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import edu.wpi.first.wpilibj.PIDSource;
+
+/**
+ * A sliding window median filter. The output is the median of the most recent samples, which
+ * rejects isolated spikes such as the occasional bad reading from an ultrasonic sensor while
+ * following steps in the signal with a delay of half the window.
+ *
+ * <p>The window is kept in two heaps: a max-heap of the lower half and a min-heap of the upper
+ * half. Each sample replaces the oldest one in place, so pidGet() takes O(log n) time for a window
+ * of n samples and does not allocate. Until the window fills, the median of the samples seen so
+ * far is returned.
+ */
+public class MedianFilter extends Filter {
+  private final int m_size;
+
+  // Window samples, stored in a ring ordered by arrival
+  private final double[] m_values;
+  private int m_next;
+  private int m_count;
+
+  // Heaps of slot indices into m_values. m_lower is a max-heap, m_upper a min-heap, and every value
+  // in m_lower is at most every value in m_upper. m_lower holds the extra element for odd counts.
+  private final int[] m_lower;
+  private final int[] m_upper;
+  private int m_lowerCount;
+  private int m_upperCount;
+
+  // For each slot, whether it is in m_upper and its position in that heap
+  private final boolean[] m_inUpper;
+  private final int[] m_heapIndex;
+
+  /**
+   * Create a median filter.
+   *
+   * @param source The PIDSource object that is used to get values
+   * @param size   The number of samples in the window
+   */
+  public MedianFilter(PIDSource source, int size) {
+    super(source);
+    if (size <= 0) {
+      throw new IllegalArgumentException("Window size was not at least 1");
+    }
+    m_size = size;
+    m_values = new double[size];
+    // Either heap may briefly hold one element more than half the window while it fills
+    m_lower = new int[size / 2 + 1];
+    m_upper = new int[size / 2 + 1];
+    m_inUpper = new boolean[size];
+    m_heapIndex = new int[size];
+  }
+
+  @Override
+  public double get() {
+    if (m_count == 0) {
+      return 0.0;
+    }
+    double lower = m_values[m_lower[0]];
+    if (m_lowerCount > m_upperCount) {
+      return lower;
+    }
+    return (lower + m_values[m_upper[0]]) / 2.0;
+  }
+
+  @Override
+  public void reset() {
+    m_next = 0;
+    m_count = 0;
+    m_lowerCount = 0;
+    m_upperCount = 0;
+  }
+
+  /**
+   * Calculates the next value of the filter.
+   *
+   * @return The median of the window including the new sample
+   */
+  @Override
+  public double pidGet() {
+    double value = pidGetSource();
+    int slot = m_next;
+    m_next = m_next + 1 == m_size ? 0 : m_next + 1;
+    m_values[slot] = value;
+
+    if (m_count < m_size) {
+      m_count++;
+      insert(slot);
+    } else {
+      replace(slot);
+    }
+    return get();
+  }
+
+  /**
+   * Adds a new slot to the heaps while the window is filling.
+   */
+  private void insert(int slot) {
+    if (m_lowerCount == 0 || m_values[slot] <= m_values[m_lower[0]]) {
+      m_lower[m_lowerCount] = slot;
+      setPosition(slot, false, m_lowerCount++);
+      siftUp(m_lower, slot, m_heapIndex[slot], false);
+    } else {
+      m_upper[m_upperCount] = slot;
+      setPosition(slot, true, m_upperCount++);
+      siftUp(m_upper, slot, m_heapIndex[slot], true);
+    }
+
+    // Rebalance so m_lower has the same number of elements as m_upper or one more
+    if (m_lowerCount > m_upperCount + 1) {
+      int top = removeTop(m_lower, --m_lowerCount, false);
+      m_upper[m_upperCount] = top;
+      setPosition(top, true, m_upperCount++);
+      siftUp(m_upper, top, m_heapIndex[top], true);
+    } else if (m_upperCount > m_lowerCount) {
+      int top = removeTop(m_upper, --m_upperCount, true);
+      m_lower[m_lowerCount] = top;
+      setPosition(top, false, m_lowerCount++);
+      siftUp(m_lower, top, m_heapIndex[top], false);
+    }
+  }
+
+  /**
+   * Restores the heaps after the value of a slot which is already in one of them changed.
+   */
+  private void replace(int slot) {
+    boolean upper = m_inUpper[slot];
+    int[] heap = upper ? m_upper : m_lower;
+    int count = upper ? m_upperCount : m_lowerCount;
+    siftUp(heap, slot, m_heapIndex[slot], upper);
+    siftDown(heap, slot, m_heapIndex[slot], count, upper);
+
+    // If the new value crossed the median, swap the tops of the heaps
+    if (m_upperCount > 0 && m_values[m_lower[0]] > m_values[m_upper[0]]) {
+      int lowerTop = m_lower[0];
+      int upperTop = m_upper[0];
+      m_lower[0] = upperTop;
+      setPosition(upperTop, false, 0);
+      m_upper[0] = lowerTop;
+      setPosition(lowerTop, true, 0);
+      siftDown(m_lower, upperTop, 0, m_lowerCount, false);
+      siftDown(m_upper, lowerTop, 0, m_upperCount, true);
+    }
+  }
+
+  /**
+   * Removes the top of a heap whose new count is given, returning the removed slot.
+   */
+  private int removeTop(int[] heap, int count, boolean upper) {
+    int top = heap[0];
+    if (count > 0) {
+      int last = heap[count];
+      heap[0] = last;
+      setPosition(last, upper, 0);
+      siftDown(heap, last, 0, count, upper);
+    }
+    return top;
+  }
+
+  private void setPosition(int slot, boolean upper, int index) {
+    m_inUpper[slot] = upper;
+    m_heapIndex[slot] = index;
+  }
+
+  /**
+   * Returns whether slot a belongs above slot b in the heap.
+   */
+  private boolean before(int slotA, int slotB, boolean upper) {
+    return upper ? m_values[slotA] < m_values[slotB] : m_values[slotA] > m_values[slotB];
+  }
+
+  private void siftUp(int[] heap, int slot, int index, boolean upper) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (!before(slot, heap[parent], upper)) {
+        break;
+      }
+      heap[index] = heap[parent];
+      m_heapIndex[heap[index]] = index;
+      index = parent;
+    }
+    heap[index] = slot;
+    m_heapIndex[slot] = index;
+  }
+
+  private void siftDown(int[] heap, int slot, int index, int count, boolean upper) {
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= count) {
+        break;
+      }
+      if (child + 1 < count && before(heap[child + 1], heap[child], upper)) {
+        child++;
+      }
+      if (!before(heap[child], slot, upper)) {
+        break;
+      }
+      heap[index] = heap[child];
+      m_heapIndex[heap[index]] = index;
+      index = child;
+    }
+    heap[index] = slot;
+    m_heapIndex[slot] = index;
+  }
+}
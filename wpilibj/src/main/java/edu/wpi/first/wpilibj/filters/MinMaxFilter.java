@@ -0,0 +1,173 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import edu.wpi.first.wpilibj.PIDSource;
+
+/**
+ * A sliding window minimum or maximum filter. The output is the smallest or largest of the most
+ * recent samples, which is useful for peak detection or for a conservative reading of a noisy
+ * distance sensor. Both the minimum and maximum of the window are available from either kind.
+ *
+ * <p>Each extremum is tracked with a monotonic queue of candidate samples, so pidGet() takes
+ * amortized constant time regardless of the window size and does not allocate. Until the window
+ * fills, the extremum of the samples seen so far is returned.
+ */
+public class MinMaxFilter extends Filter {
+  private final int m_size;
+  private final boolean m_maximum;
+
+  // Number of samples taken. The sample with sequence number s is in the window if
+  // s > m_sequence - m_size.
+  private long m_sequence;
+
+  // Candidates for the minimum in increasing order of value and sequence, stored in a ring
+  private final MonotonicQueue m_minQueue;
+
+  // Candidates for the maximum in decreasing order of value and increasing sequence
+  private final MonotonicQueue m_maxQueue;
+
+  private static final class MonotonicQueue {
+    final double[] m_values;
+    final long[] m_sequences;
+    int m_head;
+    int m_count;
+
+    MonotonicQueue(int size) {
+      m_values = new double[size];
+      m_sequences = new long[size];
+    }
+
+    double first() {
+      return m_values[m_head];
+    }
+
+    /**
+     * Adds a sample, first discarding the candidates it supersedes. A candidate is superseded if
+     * it is not better than the new sample, since the new sample will stay in the window longer.
+     */
+    void add(double value, long sequence, boolean maximum) {
+      int capacity = m_values.length;
+      while (m_count > 0) {
+        int tail = m_head + m_count - 1;
+        if (tail >= capacity) {
+          tail -= capacity;
+        }
+        double last = m_values[tail];
+        if (maximum ? last > value : last < value) {
+          break;
+        }
+        m_count--;
+      }
+
+      int index = m_head + m_count;
+      if (index >= capacity) {
+        index -= capacity;
+      }
+      m_values[index] = value;
+      m_sequences[index] = sequence;
+      m_count++;
+    }
+
+    /**
+     * Discards candidates which have left the window.
+     */
+    void expire(long oldestSequence) {
+      while (m_count > 0 && m_sequences[m_head] < oldestSequence) {
+        m_head = m_head + 1 == m_values.length ? 0 : m_head + 1;
+        m_count--;
+      }
+    }
+
+    void clear() {
+      m_head = 0;
+      m_count = 0;
+    }
+  }
+
+  private MinMaxFilter(PIDSource source, int size, boolean maximum) {
+    super(source);
+    if (size <= 0) {
+      throw new IllegalArgumentException("Window size was not at least 1");
+    }
+    m_size = size;
+    m_maximum = maximum;
+    m_minQueue = new MonotonicQueue(size);
+    m_maxQueue = new MonotonicQueue(size);
+  }
+
+  /**
+   * Creates a filter whose output is the minimum of the window.
+   *
+   * @param source The PIDSource object that is used to get values
+   * @param size   The number of samples in the window
+   * @return the filter
+   */
+  public static MinMaxFilter minimum(PIDSource source, int size) {
+    return new MinMaxFilter(source, size, false);
+  }
+
+  /**
+   * Creates a filter whose output is the maximum of the window.
+   *
+   * @param source The PIDSource object that is used to get values
+   * @param size   The number of samples in the window
+   * @return the filter
+   */
+  public static MinMaxFilter maximum(PIDSource source, int size) {
+    return new MinMaxFilter(source, size, true);
+  }
+
+  /**
+   * Returns the minimum of the window, or 0 if no samples have been taken.
+   *
+   * @return the minimum
+   */
+  public double getMin() {
+    return m_minQueue.m_count == 0 ? 0.0 : m_minQueue.first();
+  }
+
+  /**
+   * Returns the maximum of the window, or 0 if no samples have been taken.
+   *
+   * @return the maximum
+   */
+  public double getMax() {
+    return m_maxQueue.m_count == 0 ? 0.0 : m_maxQueue.first();
+  }
+
+  @Override
+  public double get() {
+    return m_maximum ? getMax() : getMin();
+  }
+
+  @Override
+  public void reset() {
+    m_sequence = 0;
+    m_minQueue.clear();
+    m_maxQueue.clear();
+  }
+
+  /**
+   * Calculates the next value of the filter.
+   *
+   * @return The minimum or maximum of the window including the new sample
+   */
+  @Override
+  public double pidGet() {
+    double value = pidGetSource();
+    long sequence = m_sequence++;
+    long oldest = m_sequence - m_size;
+
+    m_minQueue.expire(oldest);
+    m_minQueue.add(value, sequence, false);
+    m_maxQueue.expire(oldest);
+    m_maxQueue.add(value, sequence, true);
+    return get();
+  }
+}
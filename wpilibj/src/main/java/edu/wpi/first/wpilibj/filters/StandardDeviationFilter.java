@@ -0,0 +1,127 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import edu.wpi.first.wpilibj.DoubleCircularBuffer;
+import edu.wpi.first.wpilibj.PIDSource;
+
+/**
+ * A sliding window standard deviation filter. The output is the population standard deviation of
+ * the most recent samples, which measures how noisy a sensor currently is; the mean and variance
+ * of the window are also available.
+ *
+ * <p>The mean and the sum of squared deviations are updated as samples enter and leave the window
+ * (Welford's method), so pidGet() takes constant time regardless of the window size and does not
+ * allocate. Both are recomputed from the window once per window length to discard accumulated
+ * rounding error.
+ */
+public class StandardDeviationFilter extends Filter {
+  private final DoubleCircularBuffer m_window;
+  private double m_mean;
+
+  // Sum of squared deviations from the mean
+  private double m_sumSquares;
+
+  // Samples until the statistics are recomputed from the window
+  private int m_samplesUntilRecompute;
+
+  /**
+   * Create a standard deviation filter.
+   *
+   * @param source The PIDSource object that is used to get values
+   * @param size   The number of samples in the window
+   */
+  public StandardDeviationFilter(PIDSource source, int size) {
+    super(source);
+    if (size <= 0) {
+      throw new IllegalArgumentException("Window size was not at least 1");
+    }
+    m_window = new DoubleCircularBuffer(size);
+    m_samplesUntilRecompute = size;
+  }
+
+  /**
+   * Returns the mean of the window, or 0 if no samples have been taken.
+   *
+   * @return the mean
+   */
+  public double getMean() {
+    return m_mean;
+  }
+
+  /**
+   * Returns the population variance of the window, or 0 if no samples have been taken.
+   *
+   * @return the variance
+   */
+  public double getVariance() {
+    int count = m_window.size();
+    if (count == 0) {
+      return 0.0;
+    }
+    // Rounding can leave a tiny negative sum for a constant signal
+    return Math.max(0.0, m_sumSquares / count);
+  }
+
+  @Override
+  public double get() {
+    return Math.sqrt(getVariance());
+  }
+
+  @Override
+  public void reset() {
+    m_window.clear();
+    m_mean = 0.0;
+    m_sumSquares = 0.0;
+    m_samplesUntilRecompute = m_window.capacity();
+  }
+
+  /**
+   * Calculates the next value of the filter.
+   *
+   * @return The standard deviation of the window including the new sample
+   */
+  @Override
+  public double pidGet() {
+    double value = pidGetSource();
+
+    if (m_window.size() < m_window.capacity()) {
+      // Add a sample
+      m_window.addLast(value);
+      double delta = value - m_mean;
+      m_mean += delta / m_window.size();
+      m_sumSquares += delta * (value - m_mean);
+    } else {
+      // Replace the oldest sample
+      double oldest = m_window.getFirst();
+      m_window.addLast(value);
+      double oldMean = m_mean;
+      m_mean += (value - oldest) / m_window.size();
+      m_sumSquares += (value - oldest) * (value - m_mean + oldest - oldMean);
+    }
+
+    m_samplesUntilRecompute--;
+    if (m_samplesUntilRecompute == 0) {
+      recompute();
+      m_samplesUntilRecompute = m_window.capacity();
+    }
+
+    return get();
+  }
+
+  private void recompute() {
+    int count = m_window.size();
+    m_mean = m_window.sum() / count;
+    double sumSquares = 0.0;
+    for (int i = 0; i < count; i++) {
+      double deviation = m_window.get(i) - m_mean;
+      sumSquares += deviation * deviation;
+    }
+    m_sumSquares = sumSquares;
+  }
+}
@@ -10,6 +10,7 @@ package edu.wpi.first.wpilibj.livewindow;
 import java.util.HashMap;
 import java.util.Map;
 
+import edu.wpi.first.networktables.EntryBatch;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
@@ -46,6 +47,7 @@ public class LiveWindow {
   private static boolean startLiveWindow;
   private static boolean liveWindowEnabled;
   private static boolean telemetryEnabled = true;
+  private static EntryBatch batch;
 
   private LiveWindow() {
     throw new UnsupportedOperationException("This is a utility class!");
@@ -242,6 +244,24 @@ public class LiveWindow {
     }
   }
 
+  /**
+   * Enable batched updates. While enabled, {@link #updateValues()} only publishes component
+   * property values which changed since the previous call, and sets all changed numeric and
+   * boolean values with a single call into NetworkTables.
+   */
+  public static synchronized void enableBatchedUpdates() {
+    if (batch == null) {
+      batch = new EntryBatch();
+    }
+  }
+
+  /**
+   * Disable batched updates. {@link #updateValues()} publishes every property value each call.
+   */
+  public static synchronized void disableBatchedUpdates() {
+    batch = null;
+  }
+
   /**
    * Tell all the sensors to update (send) their values.
    *
@@ -287,10 +307,17 @@ public class LiveWindow {
         if (startLiveWindow) {
           component.m_builder.startLiveWindowMode();
         }
-        component.m_builder.updateTable();
+        if (batch == null) {
+          component.m_builder.updateTable();
+        } else {
+          component.m_builder.updateTable(batch);
+        }
       }
     }
 
+    if (batch != null) {
+      batch.flush();
+    }
     startLiveWindow = false;
   }
 }
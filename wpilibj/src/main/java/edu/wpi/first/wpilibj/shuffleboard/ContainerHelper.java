@@ -16,6 +16,7 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
+import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.Sendable;
 
@@ -28,6 +29,10 @@ final class ContainerHelper {
   private final List<ShuffleboardComponent<?>> m_components = new ArrayList<>();
   private final Map<String, ShuffleboardLayout> m_layouts = new LinkedHashMap<>();
 
+  // Metadata tables of the components built so far, in the same order as m_components
+  private final List<NetworkTable> m_metaTables = new ArrayList<>();
+  private NetworkTable m_metaTable;
+
   ContainerHelper(ShuffleboardContainer container) {
     m_container = container;
   }
@@ -36,6 +41,28 @@ final class ContainerHelper {
     return m_components;
   }
 
+  /**
+   * Builds every component of the container. The metadata table of each component is looked up
+   * the first time it is built and reused afterwards, so that rebuilding a container whose
+   * components have not changed does not create any tables.
+   *
+   * @param table     the table containing the data for the container
+   * @param metaTable the table containing the metadata for the container
+   */
+  void buildInto(NetworkTable table, NetworkTable metaTable) {
+    if (metaTable != m_metaTable) {
+      m_metaTable = metaTable;
+      m_metaTables.clear();
+    }
+    for (int i = 0; i < m_components.size(); i++) {
+      ShuffleboardComponent<?> component = m_components.get(i);
+      if (i == m_metaTables.size()) {
+        m_metaTables.add(metaTable.getSubTable(component.getTitle()));
+      }
+      component.buildInto(table, m_metaTables.get(i));
+    }
+  }
+
   ShuffleboardLayout getLayout(String title, String type) {
     if (!m_layouts.containsKey(title)) {
       ShuffleboardLayout layout = new ShuffleboardLayout(m_container, type, title);
@@ -7,6 +7,7 @@
 
 package edu.wpi.first.wpilibj.shuffleboard;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -18,6 +19,7 @@ import edu.wpi.first.networktables.NetworkTableInstance;
 
 final class ShuffleboardInstance implements ShuffleboardRoot {
   private final Map<String, ShuffleboardTab> m_tabs = new LinkedHashMap<>();
+  private final Map<ShuffleboardTab, NetworkTable> m_tabMetaTables = new HashMap<>();
 
   private boolean m_tabsChanged = false; // NOPMD redundant field initializer
   private final NetworkTable m_rootTable;
@@ -35,7 +37,9 @@ final class ShuffleboardInstance implements ShuffleboardRoot {
   public ShuffleboardTab getTab(String title) {
     Objects.requireNonNull(title, "Tab title cannot be null");
     if (!m_tabs.containsKey(title)) {
-      m_tabs.put(title, new ShuffleboardTab(this, title));
+      ShuffleboardTab tab = new ShuffleboardTab(this, title);
+      m_tabs.put(title, tab);
+      m_tabMetaTables.put(tab, m_rootMetaTable.getSubTable(title));
       m_tabsChanged = true;
     }
     return m_tabs.get(title);
@@ -52,8 +56,7 @@ final class ShuffleboardInstance implements ShuffleboardRoot {
       m_tabsChanged = false;
     }
     for (ShuffleboardTab tab : m_tabs.values()) {
-      String title = tab.getTitle();
-      tab.buildInto(m_rootTable, m_rootMetaTable.getSubTable(title));
+      tab.buildInto(m_rootTable, m_tabMetaTables.get(tab));
     }
   }
 
@@ -12,6 +12,7 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.Sendable;
 
 /**
@@ -20,6 +21,9 @@ import edu.wpi.first.wpilibj.Sendable;
 public class ShuffleboardLayout extends ShuffleboardComponent<ShuffleboardLayout>
     implements ShuffleboardContainer {
   private final ContainerHelper m_helper = new ContainerHelper(this);
+  private NetworkTable m_parentTable;
+  private NetworkTable m_table;
+  private NetworkTableEntry m_typeEntry;
 
   ShuffleboardLayout(ShuffleboardContainer parent, String name, String type) {
     super(parent, Objects.requireNonNull(type, "Layout type must be specified"), name);
@@ -58,11 +62,14 @@ public class ShuffleboardLayout extends ShuffleboardComponent<ShuffleboardLayout
   @Override
   public void buildInto(NetworkTable parentTable, NetworkTable metaTable) {
     buildMetadata(metaTable);
-    NetworkTable table = parentTable.getSubTable(getTitle());
-    table.getEntry(".type").setString("ShuffleboardLayout");
-    for (ShuffleboardComponent<?> component : getComponents()) {
-      component.buildInto(table, metaTable.getSubTable(component.getTitle()));
+    if (parentTable != m_parentTable) {
+      m_parentTable = parentTable;
+      m_table = parentTable.getSubTable(getTitle());
+      m_typeEntry = m_table.getEntry(".type");
     }
+    // Set every time, so the type is republished if the entry was deleted
+    m_typeEntry.setString("ShuffleboardLayout");
+    m_helper.buildInto(m_table, metaTable);
   }
 
 }
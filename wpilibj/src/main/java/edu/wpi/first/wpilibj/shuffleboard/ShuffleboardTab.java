@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.Sendable;
 
 /**
@@ -23,6 +24,9 @@ public final class ShuffleboardTab implements ShuffleboardContainer {
   private final ContainerHelper m_helper = new ContainerHelper(this);
   private final ShuffleboardRoot m_root;
   private final String m_title;
+  private NetworkTable m_parentTable;
+  private NetworkTable m_table;
+  private NetworkTableEntry m_typeEntry;
 
   ShuffleboardTab(ShuffleboardRoot root, String title) {
     m_root = root;
@@ -70,11 +74,14 @@ public final class ShuffleboardTab implements ShuffleboardContainer {
 
   @Override
   public void buildInto(NetworkTable parentTable, NetworkTable metaTable) {
-    NetworkTable tabTable = parentTable.getSubTable(m_title);
-    tabTable.getEntry(".type").setString("ShuffleboardTab");
-    for (ShuffleboardComponent<?> component : m_helper.getComponents()) {
-      component.buildInto(tabTable, metaTable.getSubTable(component.getTitle()));
+    if (parentTable != m_parentTable) {
+      m_parentTable = parentTable;
+      m_table = parentTable.getSubTable(m_title);
+      m_typeEntry = m_table.getEntry(".type");
     }
+    // Set every time, so the type is republished if the entry was deleted
+    m_typeEntry.setString("ShuffleboardTab");
+    m_helper.buildInto(m_table, metaTable);
   }
 
 }
@@ -16,6 +16,7 @@ import java.util.function.DoubleSupplier;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import edu.wpi.first.networktables.EntryBatch;
 import edu.wpi.first.networktables.EntryListenerFlags;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
@@ -50,7 +51,14 @@ public class SendableBuilderImpl implements SendableBuilder {
     final NetworkTableEntry m_entry;
     int m_listener;
     Consumer<NetworkTableEntry> m_update;
+    Consumer<EntryBatch> m_batchUpdate;
     Function<NetworkTableEntry, Integer> m_createListener;
+
+    // The value last published by m_batchUpdate, valid if m_cached is set. Doubles are stored as
+    // their raw bits, booleans as 0 or 1.
+    boolean m_cached;
+    long m_cachedBits;
+    String m_cachedString;
   }
 
   private final List<Property> m_properties = new ArrayList<>();
@@ -93,6 +101,33 @@ public class SendableBuilderImpl implements SendableBuilder {
     for (Property property : m_properties) {
       if (property.m_update != null) {
         property.m_update.accept(property.m_entry);
+        property.m_cached = false;
+      }
+    }
+    if (m_updateTable != null) {
+      m_updateTable.run();
+    }
+  }
+
+  /**
+   * Update the network table values by calling the getters for all properties, only publishing
+   * values which changed since the last call.
+   *
+   * <p>Changed double and boolean values are queued in the batch rather than set immediately;
+   * the caller must flush the batch to publish them. Changed string values are set immediately.
+   * Array, raw and NetworkTableValue properties are always set, as by {@link #updateTable()}.
+   *
+   * <p>A value which is changed by another NetworkTables client is not overwritten until the
+   * property's value changes or {@link #updateTable()} is called.
+   *
+   * @param batch batch to queue double and boolean values in
+   */
+  public void updateTable(EntryBatch batch) {
+    for (Property property : m_properties) {
+      if (property.m_batchUpdate != null) {
+        property.m_batchUpdate.accept(batch);
+      } else if (property.m_update != null) {
+        property.m_update.accept(property.m_entry);
       }
     }
     if (m_updateTable != null) {
@@ -217,6 +252,15 @@ public class SendableBuilderImpl implements SendableBuilder {
     Property property = new Property(m_table, key);
     if (getter != null) {
       property.m_update = entry -> entry.setBoolean(getter.getAsBoolean());
+      property.m_batchUpdate = batch -> {
+        boolean value = getter.getAsBoolean();
+        long bits = value ? 1 : 0;
+        if (!property.m_cached || property.m_cachedBits != bits) {
+          batch.setBoolean(property.m_entry, value);
+          property.m_cachedBits = bits;
+          property.m_cached = true;
+        }
+      };
     }
     if (setter != null) {
       property.m_createListener = entry -> entry.addListener(event -> {
@@ -240,6 +284,15 @@ public class SendableBuilderImpl implements SendableBuilder {
     Property property = new Property(m_table, key);
     if (getter != null) {
       property.m_update = entry -> entry.setDouble(getter.getAsDouble());
+      property.m_batchUpdate = batch -> {
+        double value = getter.getAsDouble();
+        long bits = Double.doubleToLongBits(value);
+        if (!property.m_cached || property.m_cachedBits != bits) {
+          batch.setDouble(property.m_entry, value);
+          property.m_cachedBits = bits;
+          property.m_cached = true;
+        }
+      };
     }
     if (setter != null) {
       property.m_createListener = entry -> entry.addListener(event -> {
@@ -263,6 +316,14 @@ public class SendableBuilderImpl implements SendableBuilder {
     Property property = new Property(m_table, key);
     if (getter != null) {
       property.m_update = entry -> entry.setString(getter.get());
+      property.m_batchUpdate = batch -> {
+        String value = getter.get();
+        if (!property.m_cached || !value.equals(property.m_cachedString)) {
+          property.m_entry.setString(value);
+          property.m_cachedString = value;
+          property.m_cached = true;
+        }
+      };
     }
     if (setter != null) {
       property.m_createListener = entry -> entry.addListener(event -> {
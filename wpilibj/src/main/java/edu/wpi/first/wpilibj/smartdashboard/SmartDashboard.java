@@ -14,6 +14,7 @@ import java.util.Set;
 
 import edu.wpi.first.hal.FRCNetComm.tResourceType;
 import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.EntryBatch;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
@@ -51,6 +52,12 @@ public class SmartDashboard {
   @SuppressWarnings("PMD.UseConcurrentHashMap")
   private static final Map<String, Data> tablesToData = new HashMap<>();
 
+  /**
+   * The batch sendable values are queued in by {@link #updateValues()}, or null if batched updates
+   * are disabled.
+   */
+  private static EntryBatch batch;
+
   static {
     HAL.report(tResourceType.kResourceType_SmartDashboard, 0);
   }
@@ -522,12 +529,40 @@ public class SmartDashboard {
     return getEntry(key).getRaw(defaultValue);
   }
 
+  /**
+   * Enable batched updates. While enabled, {@link #updateValues()} only publishes sendable
+   * property values which changed since the previous call, and sets all changed numeric and
+   * boolean values with a single call into NetworkTables.
+   *
+   * <p>A property value which is changed by another NetworkTables client, such as a dashboard, is
+   * not restored until the property's value changes on the robot.
+   */
+  public static synchronized void enableBatchedUpdates() {
+    if (batch == null) {
+      batch = new EntryBatch();
+    }
+  }
+
+  /**
+   * Disable batched updates. {@link #updateValues()} publishes every property value each call.
+   */
+  public static synchronized void disableBatchedUpdates() {
+    batch = null;
+  }
+
   /**
    * Puts all sendable data to the dashboard.
    */
   public static synchronized void updateValues() {
-    for (Data data : tablesToData.values()) {
-      data.m_builder.updateTable();
+    if (batch == null) {
+      for (Data data : tablesToData.values()) {
+        data.m_builder.updateTable();
+      }
+    } else {
+      for (Data data : tablesToData.values()) {
+        data.m_builder.updateTable(batch);
+      }
+      batch.flush();
     }
   }
 }
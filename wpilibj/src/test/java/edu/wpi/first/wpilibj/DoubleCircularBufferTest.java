@@ -0,0 +1,100 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DoubleCircularBufferTest {
+  private final double[] m_values = {751.848, 766.366, 342.657, 234.252, 716.126,
+      132.344, 445.697, 22.727, 421.125, 799.913};
+  private final double[] m_addLastOut = {234.252, 716.126, 132.344, 445.697, 22.727, 421.125,
+      799.913};
+
+  @Test
+  void addLastTest() {
+    // A capacity which isn't a power of two exercises the difference between capacity and storage
+    DoubleCircularBuffer buffer = new DoubleCircularBuffer(7);
+
+    for (double value : m_values) {
+      buffer.addLast(value);
+    }
+
+    assertEquals(7, buffer.size());
+    for (int i = 0; i < m_addLastOut.length; i++) {
+      assertEquals(m_addLastOut[i], buffer.get(i), 0.00005);
+    }
+    assertEquals(234.252, buffer.getFirst(), 0.00005);
+    assertEquals(799.913, buffer.getLast(), 0.00005);
+  }
+
+  @Test
+  void copyToTest() {
+    DoubleCircularBuffer buffer = new DoubleCircularBuffer(7);
+    for (double value : m_values) {
+      buffer.addLast(value);
+    }
+
+    double[] out = new double[7];
+    assertEquals(7, buffer.copyTo(out));
+    assertArrayEquals(m_addLastOut, out, 0.00005);
+  }
+
+  @Test
+  void dotTest() {
+    DoubleCircularBuffer buffer = new DoubleCircularBuffer(4);
+    double[] coefficients = {1.0, 10.0, 100.0, 1000.0};
+
+    // Missing older elements act as zeros
+    buffer.addLast(1.0);
+    buffer.addLast(2.0);
+    assertEquals(2100.0, buffer.dot(coefficients), 0.00005);
+
+    // Wrap the buffer so the dot product spans both segments
+    for (int i = 3; i <= 6; i++) {
+      buffer.addLast(i);
+    }
+    assertEquals(3.0 + 40.0 + 500.0 + 6000.0, buffer.dot(coefficients), 0.00005);
+    assertEquals(18.0, buffer.sum(), 0.00005);
+  }
+
+  @Test
+  void removeFirstTest() {
+    DoubleCircularBuffer buffer = new DoubleCircularBuffer(3);
+    buffer.addLast(1.0);
+    buffer.addLast(2.0);
+    buffer.addLast(3.0);
+    buffer.addLast(4.0);
+
+    assertEquals(2.0, buffer.removeFirst(), 0.00005);
+    assertEquals(2, buffer.size());
+    assertEquals(3.0, buffer.getFirst(), 0.00005);
+
+    buffer.clear();
+    assertEquals(0, buffer.size());
+    assertEquals(0.0, buffer.removeFirst(), 0.00005);
+    assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(0));
+  }
+
+  @Test
+  void floatBufferTest() {
+    FloatCircularBuffer buffer = new FloatCircularBuffer(7);
+    for (double value : m_values) {
+      buffer.addLast((float) value);
+    }
+
+    double[] out = new double[7];
+    assertEquals(7, buffer.copyTo(out));
+    assertArrayEquals(m_addLastOut, out, 0.0001);
+    assertEquals(799.913, buffer.getLast(), 0.0001);
+    assertEquals(buffer.sum(), buffer.dot(new double[] {1, 1, 1, 1, 1, 1, 1}), 0.001);
+  }
+}
@@ -0,0 +1,126 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.sim.mockdata.DriverStationDataJNI;
+import edu.wpi.first.wpilibj.DriverStation.MatchType;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class DriverStationSnapshotTest {
+  private static final byte kStick = 2;
+
+  /**
+   * Notifies the DS thread of new data and waits for it to publish the resulting snapshot. The
+   * notification is repeated because it is lost if the DS thread isn't waiting when it is sent.
+   */
+  private static DriverStationSnapshot publish() {
+    DriverStation ds = DriverStation.getInstance();
+    long sequence = ds.getSnapshot().getSequence();
+    for (int i = 0; i < 200; i++) {
+      DriverStationDataJNI.notifyNewData();
+      DriverStationSnapshot snapshot = ds.getSnapshot();
+      if (snapshot.getSequence() > sequence) {
+        return snapshot;
+      }
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    fail("Driver Station thread did not publish a snapshot");
+    return null;
+  }
+
+  @Test
+  void joystickDataTest() {
+    DriverStationDataJNI.setJoystickAxes(kStick, new float[] {0.25f, -0.5f, 1.0f});
+    DriverStationDataJNI.setJoystickPOVs(kStick, new short[] {90, -1});
+    DriverStationDataJNI.setJoystickButtons(kStick, 0b101, 4);
+    DriverStationDataJNI.setMatchInfo("Event", "LRL", 12, 1, MatchType.Elimination.ordinal());
+    DriverStationDataJNI.setEnabled(true);
+    DriverStationDataJNI.setDsAttached(true);
+    DriverStationDataJNI.setAutonomous(true);
+    DriverStationDataJNI.setTest(false);
+
+    DriverStationSnapshot snapshot = publish();
+
+    assertAll(
+        () -> assertEquals(3, snapshot.getStickAxisCount(kStick)),
+        () -> assertEquals(0.25, snapshot.getStickAxis(kStick, 0), 1e-6),
+        () -> assertEquals(-0.5, snapshot.getStickAxis(kStick, 1), 1e-6),
+        () -> assertEquals(0.0, snapshot.getStickAxis(kStick, 5), 1e-6),
+        () -> assertEquals(2, snapshot.getStickPOVCount(kStick)),
+        () -> assertEquals(90, snapshot.getStickPOV(kStick, 0)),
+        () -> assertEquals(-1, snapshot.getStickPOV(kStick, 3)),
+        () -> assertEquals(4, snapshot.getStickButtonCount(kStick)),
+        () -> assertEquals(0b101, snapshot.getStickButtons(kStick)),
+        () -> assertTrue(snapshot.getStickButton(kStick, 1)),
+        () -> assertFalse(snapshot.getStickButton(kStick, 2)),
+        () -> assertFalse(snapshot.getStickButton(kStick, 5)),
+        () -> assertTrue(snapshot.isEnabled()),
+        () -> assertTrue(snapshot.isAutonomous()),
+        () -> assertFalse(snapshot.isOperatorControl()),
+        () -> assertEquals("Event", snapshot.getEventName()),
+        () -> assertEquals("LRL", snapshot.getGameSpecificMessage()),
+        () -> assertEquals(12, snapshot.getMatchNumber()),
+        () -> assertEquals(MatchType.Elimination, snapshot.getMatchType())
+    );
+  }
+
+  @Test
+  void snapshotIsImmutableTest() {
+    DriverStationDataJNI.setJoystickButtons(kStick, 0b1, 2);
+    DriverStationSnapshot first = publish();
+
+    DriverStationDataJNI.setJoystickButtons(kStick, 0b10, 2);
+    DriverStationSnapshot second = publish();
+
+    assertTrue(second.getSequence() > first.getSequence());
+    assertTrue(first.getStickButton(kStick, 1));
+    assertFalse(first.getStickButton(kStick, 2));
+    assertFalse(second.getStickButton(kStick, 1));
+    assertTrue(second.getStickButton(kStick, 2));
+  }
+
+  @Test
+  void edgesAcrossSkippedSnapshotsTest() {
+    DriverStationDataJNI.setJoystickButtons(kStick, 0, 3);
+    final DriverStationSnapshot start = publish();
+
+    // Press and release button 3 without reading the snapshots in between
+    DriverStationDataJNI.setJoystickButtons(kStick, 0b100, 3);
+    publish();
+    DriverStationDataJNI.setJoystickButtons(kStick, 0, 3);
+    final DriverStationSnapshot end = publish();
+
+    assertAll(
+        () -> assertFalse(end.getStickButton(kStick, 3)),
+        () -> assertTrue(end.getStickButtonPressed(kStick, 3, start)),
+        () -> assertTrue(end.getStickButtonReleased(kStick, 3, start)),
+        () -> assertFalse(end.getStickButtonPressed(kStick, 1, start)),
+        () -> assertFalse(end.getStickButtonPressed(kStick, 3, end)),
+        () -> assertFalse(end.getStickButtonReleased(kStick, 3, end))
+    );
+  }
+
+  @Test
+  void stickOutOfRangeTest() {
+    DriverStationSnapshot snapshot = DriverStation.getInstance().getSnapshot();
+    assertThrows(IllegalArgumentException.class,
+        () -> snapshot.getStickAxis(DriverStation.kJoystickPorts, 0));
+  }
+}
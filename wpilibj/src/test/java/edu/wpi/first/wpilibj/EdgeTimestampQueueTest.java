@@ -0,0 +1,117 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.sim.DIOSim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdgeTimestampQueueTest {
+  private static long edge(long timestamp, boolean rising) {
+    return (timestamp << 1) | (rising ? 1 : 0);
+  }
+
+  @Test
+  void decodeTest() {
+    EdgeTimestampQueue queue = new EdgeTimestampQueue(0, 4);
+    long[] edges = {edge(10, true), edge(15, false), edge(1L << 40, true)};
+    long[] timestamps = new long[3];
+    boolean[] rising = new boolean[3];
+    assertEquals(3, queue.process(edges, 3, timestamps, rising));
+    assertArrayEquals(new long[] {10, 15, 1L << 40}, timestamps);
+    assertArrayEquals(new boolean[] {true, false, true}, rising);
+  }
+
+  @Test
+  void periodAndDutyCycleTest() {
+    // A 1 kHz signal high for 250 us of each cycle
+    EdgeTimestampQueue queue = new EdgeTimestampQueue(0, 16);
+    long[] edges = new long[16];
+    long[] timestamps = new long[16];
+    boolean[] rising = new boolean[16];
+    for (int i = 0; i < 3; i++) {
+      edges[2 * i] = edge(i * 1000, true);
+      edges[2 * i + 1] = edge(i * 1000 + 250, false);
+    }
+    queue.process(edges, 6, timestamps, rising);
+    assertEquals(0.001, queue.getPeriod(), 1e-12);
+    assertEquals(0.25, queue.getDutyCycle(), 1e-12);
+
+    // The next window joins onto the last edges drained and slows to 500 Hz at 50%
+    edges[0] = edge(3000, true);
+    edges[1] = edge(4000, false);
+    edges[2] = edge(5000, true);
+    queue.process(edges, 3, timestamps, rising);
+    assertEquals(0.0015, queue.getPeriod(), 1e-12);
+    assertEquals((250 + 1000) / 3000.0, queue.getDutyCycle(), 1e-12);
+
+    // Windows without a complete cycle keep the last measurement
+    queue.process(edges, 0, timestamps, rising);
+    assertEquals(0.0015, queue.getPeriod(), 1e-12);
+  }
+
+  @Test
+  void digitalInputCaptureTest() {
+    try (DigitalInput input = new DigitalInput(0)) {
+      DIOSim sim = new DIOSim(0);
+      sim.setValue(false);
+      EdgeTimestampQueue queue = input.requestEdgeCapture(8, true, true);
+      for (int i = 0; i < 3; i++) {
+        sim.setValue(true);
+        sim.setValue(false);
+      }
+
+      // Every edge is kept, however close together
+      long[] timestamps = new long[8];
+      boolean[] rising = new boolean[8];
+      assertEquals(6, queue.drain(timestamps, rising));
+      for (int i = 0; i < 6; i++) {
+        assertEquals(i % 2 == 0, rising[i]);
+        if (i > 0) {
+          assertTrue(timestamps[i] >= timestamps[i - 1]);
+        }
+      }
+      assertEquals(0, queue.drain(timestamps, rising));
+      assertEquals(0, queue.getOverflowCount());
+
+      input.cancelInterrupts();
+      assertThrows(IllegalStateException.class, () -> queue.drain(timestamps, rising));
+    }
+  }
+
+  @Test
+  void overflowTest() {
+    try (DigitalInput input = new DigitalInput(1)) {
+      DIOSim sim = new DIOSim(1);
+      sim.setValue(false);
+      EdgeTimestampQueue queue = input.requestEdgeCapture(3, true, false);
+      for (int i = 0; i < 5; i++) {
+        sim.setValue(true);
+        sim.setValue(false);
+      }
+      assertEquals(2, queue.getOverflowCount());
+
+      // The newest edges are the ones dropped, and the queue wraps once drained
+      long[] timestamps = new long[2];
+      boolean[] rising = new boolean[2];
+      assertEquals(2, queue.drain(timestamps, rising));
+      sim.setValue(true);
+      sim.setValue(false);
+      long last = timestamps[1];
+      assertEquals(2, queue.drain(timestamps, rising));
+      assertTrue(timestamps[0] >= last);
+      assertTrue(timestamps[1] >= timestamps[0]);
+      assertEquals(0, queue.drain(timestamps, rising));
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoopClockTest {
+  private static final long kNoLimit = Long.MAX_VALUE;
+
+  @Test
+  void firstSampleTest() {
+    LoopClock.Calibrator calibrator = new LoopClock.Calibrator();
+    assertEquals(-1, calibrator.getFPGATime(5_000_000_000L, kNoLimit));
+
+    calibrator.sample(5_000_000_000L, 1_000_000);
+    assertEquals(1_000_000, calibrator.getFPGATime(5_000_000_000L, kNoLimit));
+    assertEquals(1_020_000, calibrator.getFPGATime(5_020_000_000L, kNoLimit));
+
+    // Too long after the sample
+    assertEquals(-1, calibrator.getFPGATime(5_020_000_000L, 10_000_000L));
+  }
+
+  @Test
+  void learnRateTest() {
+    // The FPGA clock runs 200 ppm fast relative to System.nanoTime()
+    LoopClock.Calibrator calibrator = new LoopClock.Calibrator();
+    for (long nanos = 0; nanos <= 10_000_000_000L; nanos += 20_000_000L) {
+      calibrator.sample(nanos, nanos * 10002 / 10_000_000);
+    }
+
+    assertEquals(1.0002e-3, calibrator.getRate(), 1.0e-9);
+    long nanos = 10_015_000_000L;
+    assertEquals(nanos * 10002 / 10_000_000, calibrator.getFPGATime(nanos, kNoLimit), 1.0);
+  }
+
+  @Test
+  void slewInsteadOfStepBackTest() {
+    LoopClock.Calibrator calibrator = new LoopClock.Calibrator();
+    calibrator.sample(0, 0);
+
+    // The FPGA reads 50 us behind the prediction, so the calibration runs slow instead
+    long nanos = 20_000_000L;
+    long predicted = calibrator.getFPGATime(nanos, kNoLimit);
+    calibrator.sample(nanos, 19_950);
+    assertEquals(predicted, calibrator.getFPGATime(nanos, kNoLimit));
+    assertTrue(calibrator.getRate() < LoopClock.Calibrator.kNominalRate);
+
+    long previous = predicted;
+    for (nanos += 1_000_000L; nanos < 1_000_000_000L; nanos += 1_000_000L) {
+      long time = calibrator.getFPGATime(nanos, kNoLimit);
+      assertTrue(time >= previous);
+      previous = time;
+    }
+  }
+
+  @Test
+  void restartAfterStepTest() {
+    LoopClock.Calibrator calibrator = new LoopClock.Calibrator();
+    calibrator.sample(0, 0);
+
+    // The FPGA clock was reset, which is too far to slew
+    calibrator.sample(1_000_000_000L, 5_000);
+    assertEquals(5_000, calibrator.getFPGATime(1_000_000_000L, kNoLimit));
+    assertEquals(LoopClock.Calibrator.kNominalRate, calibrator.getRate());
+  }
+
+  @Test
+  void tickTimeTest() throws InterruptedException {
+    LoopClock.update();
+    long loopTime = LoopClock.loopTime();
+    assertTrue(loopTime > 0);
+
+    // A tick only affects loopTime() on its own thread, and only on a tick thread
+    AtomicLong tickTime = new AtomicLong();
+    AtomicLong beforeTickTime = new AtomicLong();
+    Thread thread = new LoopClock.TickThread(() -> {
+      beforeTickTime.set(LoopClock.loopTime());
+      LoopClock.tick(loopTime + 1234);
+      tickTime.set(LoopClock.loopTime());
+    });
+    thread.start();
+    thread.join();
+    assertEquals(loopTime, beforeTickTime.get());
+    assertEquals(loopTime + 1234, tickTime.get());
+    assertEquals(loopTime, LoopClock.loopTime());
+
+    AtomicLong plainTime = new AtomicLong();
+    thread = new Thread(() -> {
+      LoopClock.tick(loopTime + 1234);
+      plainTime.set(LoopClock.loopTime());
+    });
+    thread.start();
+    thread.join();
+    assertEquals(loopTime, plainTime.get());
+  }
+
+  /**
+   * Times reading the FPGA time from the HAL, by interpolation and from the loop snapshot, and
+   * prints the time per read. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void clockBenchmark() {
+    final int reads = 1_000_000;
+    LoopClock.Calibrator calibrator = new LoopClock.Calibrator();
+    calibrator.sample(System.nanoTime(), RobotController.getFPGATime());
+    long sum = 0;
+
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < reads; i++) {
+        sum += RobotController.getFPGATime();
+      }
+      final long hal = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < reads; i++) {
+        sum += calibrator.getFPGATime(System.nanoTime(), kNoLimit);
+      }
+      final long interpolated = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < reads; i++) {
+        sum += LoopClock.loopTime();
+      }
+      final long loop = System.nanoTime() - start;
+
+      System.out.println("FPGA time, " + reads + " reads: HAL " + hal / reads
+          + " ns/read, interpolated " + interpolated / reads + " ns/read, loop time "
+          + loop / reads + " ns/read");
+    }
+    assertTrue(sum != 0);
+  }
+}
@@ -0,0 +1,166 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MotorSafetyTest {
+  private static class MockMotor extends MotorSafety {
+    int m_stopCount;
+
+    MockMotor(FeedClock clock) {
+      super(clock);
+      setSafetyEnabled(true);
+    }
+
+    @Override
+    public void stopMotor() {
+      m_stopCount++;
+    }
+
+    @Override
+    public String getDescription() {
+      return "MockMotor";
+    }
+  }
+
+  /**
+   * The feed path MotorSafety used before feeds recorded clock epochs, kept for the benchmark.
+   */
+  private static class LockedFeed {
+    private double m_expiration = 0.1;
+    private double m_stopTime;
+    private final Object m_thisMutex = new Object();
+
+    void feed() {
+      synchronized (m_thisMutex) {
+        m_stopTime = Timer.getFPGATimestamp() + m_expiration;
+      }
+    }
+  }
+
+  @Test
+  void neverFedTest() {
+    MotorSafety.FeedClock clock = new MotorSafety.FeedClock();
+    MockMotor motor = new MockMotor(clock);
+    motor.check(1000);
+    assertEquals(1, motor.m_stopCount);
+
+    motor.setSafetyEnabled(false);
+    motor.check(2000);
+    assertEquals(1, motor.m_stopCount);
+  }
+
+  @Test
+  void fedInCurrentEpochTest() {
+    MotorSafety.FeedClock clock = new MotorSafety.FeedClock();
+    clock.advance(0);
+    MockMotor motor = new MockMotor(clock);
+    motor.feed();
+
+    // However stale the cached timestamp, a motor fed since it advanced is alive
+    motor.check(10_000_000);
+    assertEquals(0, motor.m_stopCount);
+  }
+
+  @Test
+  void expiresAfterEpochEndTest() {
+    MotorSafety.FeedClock clock = new MotorSafety.FeedClock();
+    clock.advance(0);
+    MockMotor motor = new MockMotor(clock);
+    motor.feed();
+
+    // The feed may have happened as late as 20 ms, when the next epoch began
+    clock.advance(20_000);
+    clock.advance(40_000);
+    motor.check(119_000);
+    assertEquals(0, motor.m_stopCount);
+    motor.check(121_000);
+    assertEquals(1, motor.m_stopCount);
+
+    motor.feed();
+    motor.check(1_000_000);
+    assertEquals(1, motor.m_stopCount);
+  }
+
+  @Test
+  void expirationTest() {
+    MotorSafety.FeedClock clock = new MotorSafety.FeedClock();
+    clock.advance(0);
+    MockMotor motor = new MockMotor(clock);
+    motor.setExpiration(0.5);
+    assertEquals(0.5, motor.getExpiration());
+    motor.feed();
+    clock.advance(10_000);
+    motor.check(500_000);
+    assertEquals(0, motor.m_stopCount);
+    motor.check(511_000);
+    assertEquals(1, motor.m_stopCount);
+  }
+
+  @Test
+  void feedOlderThanHistoryTest() {
+    MotorSafety.FeedClock clock = new MotorSafety.FeedClock();
+    clock.advance(0);
+    MockMotor motor = new MockMotor(clock);
+    motor.feed();
+    for (int i = 1; i <= 1000; i++) {
+      clock.advance(i * 20_000L);
+    }
+
+    // The feed happened before the oldest kept epoch, which began well over 100 ms ago
+    motor.check(20_000_000);
+    assertEquals(1, motor.m_stopCount);
+  }
+
+  /**
+   * Times feeding motors through the epoch clock against the old locked feed, and prints the time
+   * per feed. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void feedBenchmark() {
+    // 20 motors written at 200 Hz for 10 seconds of robot time
+    final int motors = 20;
+    final int loops = 2000;
+    MotorSafety.FeedClock clock = new MotorSafety.FeedClock();
+    MockMotor[] epochFeeds = new MockMotor[motors];
+    LockedFeed[] lockedFeeds = new LockedFeed[motors];
+    for (int i = 0; i < motors; i++) {
+      epochFeeds[i] = new MockMotor(clock);
+      lockedFeeds[i] = new LockedFeed();
+    }
+
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      for (int loop = 0; loop < loops; loop++) {
+        for (LockedFeed feed : lockedFeeds) {
+          feed.feed();
+        }
+      }
+      final long lockedTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int loop = 0; loop < loops; loop++) {
+        clock.advance(RobotController.getFPGATime());
+        for (MockMotor motor : epochFeeds) {
+          motor.feed();
+        }
+      }
+      final long epochTime = System.nanoTime() - start;
+
+      System.out.println("MotorSafety feed, " + motors + " motors x " + loops + " loops: locked "
+          + lockedTime / (motors * loops) + " ns/feed, epoch "
+          + epochTime / (motors * loops) + " ns/feed (including one clock read per loop)");
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisabledOnOs(OS.MAC)
+class NotifierGroupTest {
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void periodicAndSingleTest() {
+    final AtomicInteger fastCounter = new AtomicInteger(0);
+    final AtomicInteger slowCounter = new AtomicInteger(0);
+    final AtomicInteger singleCounter = new AtomicInteger(0);
+
+    try (NotifierGroup group = new NotifierGroup()) {
+      final NotifierGroup.Task fast = group.addPeriodic(fastCounter::incrementAndGet, 0.02);
+      final NotifierGroup.Task slow = group.addPeriodic(slowCounter::incrementAndGet, 0.1, 0.01);
+      group.addSingle(singleCounter::incrementAndGet, 0.05);
+
+      sleep(510);
+      fast.stop();
+      slow.stop();
+      final int fastCount = fastCounter.get();
+      final int slowCount = slowCounter.get();
+
+      sleep(100);
+      assertAll(
+          () -> assertTrue(fastCount >= 20 && fastCount <= 26, "fast task ran " + fastCount),
+          () -> assertTrue(slowCount >= 4 && slowCount <= 6, "slow task ran " + slowCount),
+          () -> assertEquals(1, singleCounter.get()),
+          () -> assertEquals(fastCount, fastCounter.get(), "fast task ran after stop()"),
+          () -> assertEquals(slowCount, slowCounter.get(), "slow task ran after stop()"),
+          () -> assertEquals(fastCount, fast.getRunCount())
+      );
+    }
+  }
+
+  @Test
+  void overrunTest() {
+    try (NotifierGroup group = new NotifierGroup()) {
+      final NotifierGroup.Task task = group.addPeriodic(() -> sleep(50), 0.02);
+
+      sleep(300);
+      task.stop();
+      sleep(60);
+
+      assertTrue(task.getOverrunCount() > 0, "no overruns were counted");
+      assertTrue(task.getRunCount() <= 7, "task ran " + task.getRunCount() + " times");
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PIDControllerGroupTest {
+  private static final int kLoops = 4;
+
+  // Records reads as "r<n>" and writes as "w<n>" in the order they happen
+  private final List<String> m_events = new ArrayList<>();
+
+  private PIDControllerGroup m_group;
+  private PIDBase[] m_controllers;
+  private double[] m_outputs;
+
+  private class FakeInput implements PIDSource {
+    private final int m_index;
+
+    FakeInput(int index) {
+      m_index = index;
+    }
+
+    @Override
+    public void setPIDSourceType(PIDSourceType pidSource) {
+    }
+
+    @Override
+    public PIDSourceType getPIDSourceType() {
+      return PIDSourceType.kDisplacement;
+    }
+
+    @Override
+    public double pidGet() {
+      synchronized (m_events) {
+        m_events.add("r" + m_index);
+      }
+      return m_index * 0.1;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    m_group = new PIDControllerGroup(0.005);
+    m_controllers = new PIDBase[kLoops];
+    m_outputs = new double[kLoops];
+    for (int i = 0; i < kLoops; i++) {
+      final int index = i;
+      m_controllers[i] = new PIDBase(1.0, 0.0, 0.0, new FakeInput(i), output -> {
+        synchronized (m_events) {
+          m_events.add("w" + index);
+        }
+        m_outputs[index] = output;
+      });
+      m_controllers[i].setSetpoint(0.5);
+      m_group.add(m_controllers[i]);
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_group.close();
+    for (PIDBase controller : m_controllers) {
+      controller.close();
+    }
+  }
+
+  @Test
+  void outputTest() {
+    m_group.enable();
+    Timer.delay(0.1);
+    for (int i = 0; i < kLoops; i++) {
+      assertEquals(0.5 - i * 0.1, m_outputs[i], 1e-12);
+      assertEquals(0.5 - i * 0.1, m_controllers[i].get(), 1e-12);
+    }
+
+    m_group.disable();
+    for (int i = 0; i < kLoops; i++) {
+      assertEquals(0.0, m_outputs[i]);
+    }
+  }
+
+  @Test
+  void phaseOrderTest() {
+    m_group.enable();
+    Timer.delay(0.1);
+    m_group.disable();
+
+    List<String> events;
+    synchronized (m_events) {
+      events = new ArrayList<>(m_events);
+    }
+
+    // Every iteration reads all inputs in order, then writes all outputs in order. disable()
+    // writes the final zeros.
+    int iterations = 0;
+    int n = 0;
+    while (n + 2 * kLoops <= events.size() - kLoops) {
+      for (int i = 0; i < kLoops; i++) {
+        assertEquals("r" + i, events.get(n + i));
+        assertEquals("w" + i, events.get(n + kLoops + i));
+      }
+      n += 2 * kLoops;
+      iterations++;
+    }
+    assertEquals(events.size() - kLoops, n);
+    assertTrue(iterations > 0);
+  }
+
+  @Test
+  void singleLoopTest() {
+    m_group.enable(m_controllers[2]);
+    Timer.delay(0.1);
+    assertEquals(0.0, m_outputs[0]);
+    assertEquals(0.3, m_outputs[2], 1e-12);
+
+    m_group.disable(m_controllers[2]);
+    assertEquals(0.0, m_outputs[2]);
+  }
+
+  @Test
+  void statsTest() {
+    PIDControllerGroup.Loop loop = m_group.add(new PIDBase(1.0, 0.0, 0.0, new FakeInput(9),
+        output -> { }));
+    assertEquals(kLoops + 1, m_group.getLoopCount());
+
+    m_group.enable();
+    Timer.delay(0.1);
+    m_group.disable();
+
+    TimingStats execution = loop.getExecutionStats();
+    TimingStats jitter = loop.getJitterStats();
+    assertTrue(execution.getCount() > 1);
+    assertEquals(execution.getCount() - 1, jitter.getCount());
+    assertTrue(execution.getMax() > 0);
+
+    loop.resetStats();
+    assertEquals(0, loop.getExecutionStats().getCount());
+    // The copies are unaffected
+    assertTrue(execution.getCount() > 1);
+
+    m_group.remove(loop.getController());
+    assertEquals(kLoops, m_group.getLoopCount());
+    loop.getController().close();
+  }
+
+  @Test
+  void invalidAddTest() {
+    assertThrows(IllegalArgumentException.class, () -> m_group.add(m_controllers[0]));
+
+    PIDController controller = new PIDController(1.0, 0.0, 0.0, new FakeInput(0), output -> { });
+    assertThrows(IllegalArgumentException.class, () -> m_group.add(controller));
+    controller.close();
+  }
+
+  @Test
+  void otherGroupTest() {
+    try (PIDControllerGroup other = new PIDControllerGroup(0.005)) {
+      assertThrows(IllegalArgumentException.class, () -> other.add(m_controllers[0]));
+      assertEquals(0, other.getLoopCount());
+
+      // Once removed, the controller can move to the other group
+      m_group.remove(m_controllers[0]);
+      other.add(m_controllers[0]);
+      assertThrows(IllegalArgumentException.class, () -> m_group.add(m_controllers[0]));
+    }
+
+    // Closing a group releases its controllers
+    m_group.add(m_controllers[0]);
+    assertEquals(kLoops, m_group.getLoopCount());
+  }
+
+  @Test
+  void nonMemberTest() {
+    PIDBase controller = new PIDBase(1.0, 0.0, 0.0, new FakeInput(0), output -> { });
+    assertThrows(IllegalArgumentException.class, () -> m_group.enable(controller));
+    assertThrows(IllegalArgumentException.class, () -> m_group.disable(controller));
+    controller.close();
+  }
+}
@@ -0,0 +1,255 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import edu.wpi.first.hal.AccumulatorResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SPIAccumulatorTest {
+  // ADXRS450 response format
+  private static final int kXferSize = 4;
+  private static final int kValidMask = 0x0c00000e;
+  private static final int kValidValue = 0x04000000;
+  private static final int kDataShift = 10;
+  private static final int kDataSize = 16;
+
+  /**
+   * The per-word IntBuffer decode SPI.Accumulator used before bulk decoding, kept as a reference.
+   */
+  @SuppressWarnings("MemberName")
+  private static final class ReferenceDecoder {
+    long m_value;
+    int m_count;
+    int m_lastValue;
+    long m_lastTimestamp;
+    double m_integratedValue;
+    int m_center;
+    int m_deadband;
+    double m_integratedCenter;
+    final int m_xferSize;
+    final boolean m_bigEndian;
+    final boolean m_isSigned;
+
+    ReferenceDecoder(boolean bigEndian, boolean isSigned) {
+      m_xferSize = kXferSize + 1;
+      m_bigEndian = bigEndian;
+      m_isSigned = isSigned;
+    }
+
+    void process(IntBuffer intBuf, int numToRead) {
+      final int xferSize = m_xferSize;
+      final int dataMax = 1 << kDataSize;
+      final int dataMsbMask = 1 << (kDataSize - 1);
+      for (int off = 0; off < numToRead; off += xferSize) {
+        long timestamp = intBuf.get(off) & 0xffffffffL;
+        int resp = 0;
+        if (m_bigEndian) {
+          for (int i = 1; i < xferSize; ++i) {
+            resp <<= 8;
+            resp |= intBuf.get(off + i) & 0xff;
+          }
+        } else {
+          for (int i = xferSize - 1; i >= 1; --i) {
+            resp <<= 8;
+            resp |= intBuf.get(off + i) & 0xff;
+          }
+        }
+        if ((resp & kValidMask) == kValidValue) {
+          int data = resp >> kDataShift;
+          data &= dataMax - 1;
+          if (m_isSigned && (data & dataMsbMask) != 0) {
+            data -= dataMax;
+          }
+          int dataNoCenter = data;
+          data -= m_center;
+          if (data < -m_deadband || data > m_deadband) {
+            m_value += data;
+            if (m_count != 0) {
+              if (timestamp >= m_lastTimestamp) {
+                m_integratedValue += dataNoCenter * (timestamp - m_lastTimestamp)
+                    * 1e-6 - m_integratedCenter;
+              } else {
+                m_integratedValue += dataNoCenter * ((1L << 32) - m_lastTimestamp + timestamp)
+                    * 1e-6 - m_integratedCenter;
+              }
+            }
+          }
+          ++m_count;
+          m_lastValue = data;
+        } else {
+          m_lastValue = 0;
+        }
+        m_lastTimestamp = timestamp;
+      }
+    }
+  }
+
+  /**
+   * Generates responses 500 us apart starting just before the FPGA clock rolls over, one in ten
+   * of them invalid.
+   */
+  private static int[] responses(int count, boolean bigEndian, Random random) {
+    int[] words = new int[count * (kXferSize + 1)];
+    long timestamp = 0xffffffffL - 2000;
+    for (int n = 0; n < count; n++) {
+      int off = n * (kXferSize + 1);
+      words[off] = (int) timestamp;
+      timestamp = (timestamp + 500) & 0xffffffffL;
+
+      int resp = ((random.nextInt(1 << kDataSize)) << kDataShift) & ~kValidMask;
+      resp |= random.nextInt(10) == 0 ? 0x08000000 : kValidValue;
+      for (int i = 0; i < kXferSize; i++) {
+        int shift = bigEndian ? 8 * (kXferSize - 1 - i) : 8 * i;
+        words[off + 1 + i] = (resp >>> shift) & 0xff;
+      }
+    }
+    return words;
+  }
+
+  @ParameterizedTest
+  @CsvSource({"true, true", "true, false", "false, true", "false, false"})
+  void matchesReferenceDecodeTest(boolean bigEndian, boolean isSigned) {
+    SPI.Accumulator accum = new SPI.Accumulator(0, kXferSize, kValidMask, kValidValue,
+        kDataShift, kDataSize, isSigned, bigEndian);
+    ReferenceDecoder reference = new ReferenceDecoder(bigEndian, isSigned);
+    accum.m_center = 100;
+    accum.m_deadband = 5;
+    accum.m_integratedCenter = 0.25;
+    reference.m_center = 100;
+    reference.m_deadband = 5;
+    reference.m_integratedCenter = 0.25;
+
+    Random random = new Random(7);
+    for (int block = 0; block < 5; block++) {
+      int[] words = responses(100 + block, bigEndian, random);
+      accum.process(words, words.length);
+      reference.process(IntBuffer.wrap(words), words.length);
+    }
+    accum.publish();
+
+    assertEquals(reference.m_value, accum.m_publishedValue);
+    assertEquals(reference.m_count, accum.m_publishedCount);
+    assertEquals(reference.m_lastValue, accum.m_publishedLastValue);
+    assertEquals(reference.m_integratedValue, accum.m_publishedIntegratedValue, 1e-9);
+    assertEquals((double) reference.m_value / reference.m_count, accum.getAverage(), 1e-12);
+    assertEquals(reference.m_integratedValue / (reference.m_count - 1),
+        accum.getIntegratedAverage(), 1e-9);
+
+    AccumulatorResult result = new AccumulatorResult();
+    accum.getOutput(result);
+    assertEquals(reference.m_value, result.value);
+    assertEquals(reference.m_count, result.count);
+
+    accum.reset();
+    assertEquals(0, accum.m_publishedCount);
+    assertEquals(0.0, accum.getAverage());
+    assertEquals(0.0, accum.getIntegratedAverage());
+    accum.close();
+  }
+
+  @Test
+  void sampleStreamTest() {
+    SPI.Accumulator accum = new SPI.Accumulator(0, kXferSize, kValidMask, kValidValue,
+        kDataShift, kDataSize, true, true);
+    int[] values = new int[4096];
+    long[] timestamps = new long[4096];
+
+    // Samples are only buffered once a reader has asked for them
+    int[] words = responses(10, true, new Random(1));
+    accum.process(words, words.length);
+    assertEquals(0, accum.readSamples(values, timestamps));
+
+    words = responses(20, true, new Random(2));
+    accum.process(words, words.length);
+    int count = accum.readSamples(values, timestamps);
+    assertEquals(20 - countInvalid(words, 0, 20), count);
+    for (int i = 1; i < count; i++) {
+      // Timestamps keep increasing across the 32-bit rollover
+      assertTrue(timestamps[i] > timestamps[i - 1]);
+    }
+    assertTrue(timestamps[count - 1] > 0xffffffffL);
+
+    // Samples beyond the buffer are dropped and counted
+    words = responses(3000, true, new Random(3));
+    accum.process(words, words.length);
+    int valid = 3000 - countInvalid(words, 0, 3000);
+    assertEquals(2048, accum.readSamples(values, timestamps));
+    assertEquals(valid - 2048, accum.m_samplesDropped);
+    assertEquals(0, accum.readSamples(values, timestamps));
+    accum.close();
+  }
+
+  private static int countInvalid(int[] words, int first, int count) {
+    int invalid = 0;
+    for (int n = first; n < first + count; n++) {
+      int off = n * (kXferSize + 1);
+      int resp = 0;
+      for (int i = 1; i <= kXferSize; i++) {
+        resp = (resp << 8) | words[off + i];
+      }
+      if ((resp & kValidMask) != kValidValue) {
+        invalid++;
+      }
+    }
+    return invalid;
+  }
+
+  /**
+   * Times decoding a full receive buffer with per-word IntBuffer reads against a bulk copy and
+   * array decode, and prints the time per response. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void decodeBenchmark() {
+    final int responses = 2048;
+    int[] words = responses(responses, true, new Random(5));
+    ByteBuffer buf = ByteBuffer.allocateDirect(words.length * 4).order(ByteOrder.nativeOrder());
+    IntBuffer intBuf = buf.asIntBuffer();
+    intBuf.put(words);
+    int[] scratch = new int[words.length];
+
+    SPI.Accumulator accum = new SPI.Accumulator(0, kXferSize, kValidMask, kValidValue,
+        kDataShift, kDataSize, true, true);
+    ReferenceDecoder reference = new ReferenceDecoder(true, true);
+
+    long referenceNanos = 0;
+    long bulkNanos = 0;
+    for (int run = 0; run < 20; run++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < 200; i++) {
+        reference.process(intBuf, words.length);
+      }
+      referenceNanos = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < 200; i++) {
+        intBuf.clear();
+        intBuf.get(scratch, 0, words.length);
+        accum.process(scratch, words.length);
+      }
+      bulkNanos = System.nanoTime() - start;
+    }
+    System.out.println("SPI accumulator decode ns per response (IntBuffer / bulk): "
+        + referenceNanos / (200.0 * responses) + " / " + bulkNanos / (200.0 * responses));
+    assertEquals(reference.m_value, accum.m_value);
+    accum.close();
+  }
+}
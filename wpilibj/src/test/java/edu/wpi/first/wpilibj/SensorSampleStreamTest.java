@@ -0,0 +1,114 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SensorSampleStreamTest {
+  @Test
+  void drainInOrderTest() {
+    SensorSampleBuffer buffer = new SensorSampleBuffer(8, 2);
+    for (int i = 0; i < 5; i++) {
+      buffer.add(100 + i, new double[] {i, -i});
+    }
+
+    long[] timestamps = new long[3];
+    double[] values = new double[6];
+    assertEquals(3, buffer.drain(timestamps, values));
+    assertArrayEquals(new long[] {100, 101, 102}, timestamps);
+    assertArrayEquals(new double[] {0, 0, 1, -1, 2, -2}, values);
+
+    assertEquals(2, buffer.drain(timestamps, values));
+    assertEquals(103, timestamps[0]);
+    assertEquals(104, timestamps[1]);
+    assertEquals(0, buffer.drain(timestamps, values));
+    assertEquals(0, buffer.getDroppedCount());
+  }
+
+  @Test
+  void overwriteOldestTest() {
+    SensorSampleBuffer buffer = new SensorSampleBuffer(4, 1);
+    long[] timestamps = new long[4];
+    double[] values = new double[4];
+
+    // Wrap the ring partway before overflowing it
+    buffer.add(0, new double[] {0});
+    buffer.add(1, new double[] {1});
+    assertEquals(2, buffer.drain(timestamps, values));
+    for (int i = 2; i < 9; i++) {
+      buffer.add(i, new double[] {i});
+    }
+
+    assertEquals(3, buffer.getDroppedCount());
+    assertEquals(4, buffer.drain(timestamps, values));
+    assertArrayEquals(new long[] {5, 6, 7, 8}, timestamps);
+    assertArrayEquals(new double[] {5, 6, 7, 8}, values);
+  }
+
+  @Test
+  void latestTest() {
+    SensorSampleBuffer buffer = new SensorSampleBuffer(4, 3);
+    double[] latest = new double[3];
+    assertEquals(0, buffer.getLatest(latest));
+
+    buffer.add(10, new double[] {1, 2, 3});
+    buffer.add(20, new double[] {4, 5, 6});
+    buffer.drain(new long[4], new double[12]);
+    assertEquals(20, buffer.getLatest(latest));
+    assertArrayEquals(new double[] {4, 5, 6}, latest);
+  }
+
+  @Test
+  void invalidSizeTest() {
+    assertThrows(IllegalArgumentException.class, () -> new SensorSampleBuffer(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new SensorSampleBuffer(1, 0));
+  }
+
+  @Test
+  void decodeResponsesTest() {
+    // Two 3-byte transfers: a command byte then a little endian value; odd values are invalid
+    SensorSampleDecoder decoder = (data, values) -> {
+      values[0] = (short) ((data[2] << 8) | (data[1] & 0xff));
+      return ((int) values[0] & 1) == 0;
+    };
+    try (SPI spi = new SPI(SPI.Port.kOnboardCS0);
+         SPISampleStream stream = new SPISampleStream(spi, new byte[] {0x42}, 3, 1, 16,
+             decoder)) {
+      int[] words = {
+          0xfffffff0, 0x42, 0xfe, 0xff,
+          0xfffffffa, 0x42, 0x01, 0x00,
+          0x00000004, 0x42, 0x00, 0x01,
+      };
+      stream.process(words, words.length);
+
+      long[] timestamps = new long[4];
+      double[] values = new double[4];
+      assertEquals(2, stream.drain(timestamps, values));
+      assertEquals(0xfffffff0L, timestamps[0]);
+      assertEquals(-2.0, values[0]);
+
+      // The FPGA timestamp rolled over between the second and third transfers
+      assertEquals((1L << 32) + 4, timestamps[1]);
+      assertEquals(256.0, values[1]);
+    }
+  }
+
+  @Test
+  void invalidTransferSizeTest() {
+    try (SPI spi = new SPI(SPI.Port.kOnboardCS0)) {
+      assertThrows(IllegalArgumentException.class,
+          () -> new SPISampleStream(spi, new byte[] {1, 2}, 1, 1, 16, (data, values) -> true));
+      assertThrows(IllegalArgumentException.class,
+          () -> new SPISampleStream(spi, new byte[17], 17, 1, 16, (data, values) -> true));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SerialFrameReaderTest {
+  private static void receive(SerialFrameReader reader, String data) {
+    byte[] bytes = data.getBytes(StandardCharsets.US_ASCII);
+    reader.receive(bytes, bytes.length);
+  }
+
+  private static String readFrame(SerialFrameReader reader) {
+    byte[] frame = new byte[64];
+    int length = reader.readFrame(frame);
+    return length < 0 ? null : new String(frame, 0, length, StandardCharsets.US_ASCII);
+  }
+
+  @Test
+  void splitFramesTest() {
+    SerialFrameReader reader = new SerialFrameReader(null, (byte) '\n', 32);
+    receive(reader, "12.5\n-3");
+    assertEquals(1, reader.getFrameCount());
+    assertEquals("12.5", readFrame(reader));
+    assertEquals(null, readFrame(reader));
+
+    // Complete the partial frame and add an empty one
+    receive(reader, "7\n\n");
+    assertEquals(2, reader.getFrameCount());
+    assertEquals("-37", readFrame(reader));
+    assertEquals("", readFrame(reader));
+    assertEquals(0, reader.getFrameCount());
+  }
+
+  @Test
+  void wrapAroundTest() {
+    SerialFrameReader reader = new SerialFrameReader(null, (byte) ';', 8);
+    for (int i = 0; i < 20; i++) {
+      receive(reader, "ab" + i + ";");
+      assertEquals("ab" + i, readFrame(reader));
+    }
+    assertEquals(0, reader.getOverflowCount());
+  }
+
+  @Test
+  void overflowTest() {
+    SerialFrameReader reader = new SerialFrameReader(null, (byte) '\n', 8);
+    receive(reader, "ok\n0123456789\nnext\n");
+
+    // The long frame is dropped and the reader resynchronizes on the following one
+    assertEquals(1, reader.getOverflowCount());
+    assertEquals("ok", readFrame(reader));
+    assertEquals("next", readFrame(reader));
+    assertEquals(null, readFrame(reader));
+  }
+
+  @Test
+  void truncatedCopyTest() {
+    SerialFrameReader reader = new SerialFrameReader(null, (byte) '\n', 16);
+    receive(reader, "abcdef\nxy\n");
+    byte[] frame = new byte[3];
+    assertEquals(6, reader.readFrame(frame));
+    assertEquals("abc", new String(frame, StandardCharsets.US_ASCII));
+    assertEquals("xy", readFrame(reader));
+  }
+}
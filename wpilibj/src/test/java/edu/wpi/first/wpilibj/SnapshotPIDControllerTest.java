@@ -0,0 +1,279 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotPIDControllerTest {
+  private static class FakeInput implements PIDSource {
+    volatile double m_value;
+    PIDSourceType m_type = PIDSourceType.kDisplacement;
+
+    @Override
+    public void setPIDSourceType(PIDSourceType pidSource) {
+      m_type = pidSource;
+    }
+
+    @Override
+    public PIDSourceType getPIDSourceType() {
+      return m_type;
+    }
+
+    @Override
+    public double pidGet() {
+      return m_value;
+    }
+  }
+
+  private static class FakeOutput implements PIDOutput {
+    volatile double m_value;
+    final AtomicLong m_writes = new AtomicLong();
+
+    @Override
+    public void pidWrite(double output) {
+      m_value = output;
+      m_writes.incrementAndGet();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(PIDSourceType.class)
+  void matchesPIDBaseTest(PIDSourceType type) {
+    FakeInput input = new FakeInput();
+    input.m_type = type;
+    FakeOutput expectedOutput = new FakeOutput();
+    FakeOutput output = new FakeOutput();
+
+    // F is zero, so skip PIDBase's feed forward, which is NaN if the setpoint timer reads zero
+    PIDBase expected = new PIDBase(0.3, 0.05, 0.1, input, expectedOutput) {
+      @Override
+      protected double calculateFeedForward() {
+        return 0.0;
+      }
+    };
+    SnapshotPIDBase pid = new SnapshotPIDBase(0.3, 0.05, 0.1, input, output);
+    expected.setInputRange(-180, 180);
+    expected.setContinuous();
+    expected.setOutputRange(-0.8, 0.9);
+    expected.m_enabled = true;
+    pid.setInputRange(-180, 180);
+    pid.setContinuous();
+    pid.setOutputRange(-0.8, 0.9);
+    pid.setEnabledFlag(true);
+
+    Random random = new Random(1);
+    for (int i = 0; i < 1000; i++) {
+      if (i % 100 == 0) {
+        double setpoint = random.nextDouble() * 400 - 200;
+        expected.setSetpoint(setpoint);
+        pid.setSetpoint(setpoint);
+      }
+      if (i == 500) {
+        expected.setPID(0.2, 0.01, 0.0);
+        pid.setPID(0.2, 0.01, 0.0);
+      }
+      input.m_value = random.nextDouble() * 360 - 180;
+
+      expected.calculate();
+      pid.calculate();
+      assertEquals(expectedOutput.m_value, output.m_value, 1e-12, "iteration " + i);
+      assertEquals(expected.get(), pid.get(), 1e-12);
+      assertEquals(expected.getSetpoint(), pid.getState().getSetpoint());
+      assertEquals(expected.getError(), pid.getError(), 1e-12);
+    }
+
+    expected.close();
+    pid.close();
+  }
+
+  @Test
+  void rateFeedForwardTest() {
+    FakeInput input = new FakeInput();
+    input.m_type = PIDSourceType.kRate;
+    FakeOutput output = new FakeOutput();
+    SnapshotPIDBase pid = new SnapshotPIDBase(0.0, 0.0, 0.0, 0.5, input, output);
+    pid.setEnabledFlag(true);
+    pid.setSetpoint(1.5);
+    pid.calculate();
+    assertEquals(0.75, output.m_value, 1e-12);
+    pid.close();
+  }
+
+  @Test
+  void resetTest() {
+    FakeInput input = new FakeInput();
+    FakeOutput output = new FakeOutput();
+    SnapshotPIDBase pid = new SnapshotPIDBase(0.0, 0.1, 0.0, input, output);
+    pid.setEnabledFlag(true);
+    pid.setSetpoint(1.0);
+    for (int i = 0; i < 5; i++) {
+      pid.calculate();
+    }
+    assertEquals(5.0, pid.getState().getTotalError(), 1e-12);
+    assertEquals(0.5, pid.get(), 1e-12);
+
+    pid.reset();
+    assertEquals(0.0, pid.get());
+    pid.calculate();
+    assertEquals(1.0, pid.getState().getTotalError(), 1e-12);
+    assertEquals(0.1, output.m_value, 1e-12);
+    pid.close();
+  }
+
+  @Test
+  void toleranceTest() {
+    FakeInput input = new FakeInput();
+    SnapshotPIDBase pid = new SnapshotPIDBase(0.05, 0.0, 0.0, input, new FakeOutput());
+    pid.setEnabledFlag(true);
+    pid.setInputRange(-100, 100);
+    pid.setSetpoint(50.0);
+    assertThrows(IllegalStateException.class, pid::onTarget);
+
+    pid.setPercentTolerance(5.0);
+    input.m_value = 35.0;
+    pid.calculate();
+    assertFalse(pid.onTarget());
+    input.m_value = 55.0;
+    pid.calculate();
+    assertTrue(pid.onTarget());
+
+    pid.setAbsoluteTolerance(1.0);
+    assertFalse(pid.onTarget());
+    pid.close();
+  }
+
+  @Test
+  void continuousWithoutInputRangeTest() {
+    SnapshotPIDBase pid = new SnapshotPIDBase(0.05, 0.0, 0.0, new FakeInput(), new FakeOutput());
+    assertThrows(IllegalStateException.class, pid::setContinuous);
+    pid.setInputRange(-180, 180);
+    pid.setContinuous();
+    pid.close();
+  }
+
+  @Test
+  void disableWritesZeroTest() {
+    FakeInput input = new FakeInput();
+    FakeOutput output = new FakeOutput();
+    SnapshotPIDController pid = new SnapshotPIDController(1.0, 0.0, 0.0, input, output, 0.005);
+    pid.setSetpoint(0.5);
+    pid.enable();
+    assertTrue(pid.isEnabled());
+    Timer.delay(0.1);
+    assertEquals(0.5, output.m_value, 1e-12);
+
+    pid.disable();
+    long writes = output.m_writes.get();
+    Timer.delay(0.05);
+    assertEquals(0.0, output.m_value);
+    assertEquals(writes, output.m_writes.get());
+    pid.close();
+  }
+
+  /**
+   * Records the longest time between writes.
+   */
+  private static class GapOutput implements PIDOutput {
+    final AtomicLong m_writes = new AtomicLong();
+    private long m_lastWrite;
+    volatile long m_maxGap;
+
+    @Override
+    public void pidWrite(double output) {
+      long now = System.nanoTime();
+      if (m_writes.getAndIncrement() > 0) {
+        m_maxGap = Math.max(m_maxGap, now - m_lastWrite);
+      }
+      m_lastWrite = now;
+    }
+  }
+
+  private interface Reader {
+    void read();
+  }
+
+  /**
+   * Runs a 1 kHz control loop for a second while reader threads poll it, and prints how many
+   * iterations the loop managed, its longest gap between writes and the number of reads.
+   */
+  @SuppressWarnings("PMD.SystemPrintln")
+  private static void runContention(String name, Controller controller, GapOutput output,
+                                    Reader reader, int readers) throws InterruptedException {
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicLong reads = new AtomicLong();
+    Thread[] threads = new Thread[readers];
+    for (int i = 0; i < readers; i++) {
+      threads[i] = new Thread(() -> {
+        long count = 0;
+        while (running.get()) {
+          reader.read();
+          count++;
+        }
+        reads.addAndGet(count);
+      });
+    }
+
+    controller.enable();
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    Thread.sleep(1000);
+    running.set(false);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    controller.disable();
+
+    System.out.println("  " + name + ": " + output.m_writes.get() + " iterations, max gap "
+        + output.m_maxGap / 1000 + " us, " + reads.get() / 1000 + "k reads");
+  }
+
+  /**
+   * Runs a 1 kHz PIDController and SnapshotPIDController in turn while reader threads poll their
+   * error, setpoint and output. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void contentionBenchmark() throws InterruptedException {
+    final int readers = 4;
+    System.out.println("1 kHz PID loop for 1 s with " + readers + " reader threads:");
+
+    FakeInput input = new FakeInput();
+    GapOutput output = new GapOutput();
+    PIDController locked = new PIDController(0.1, 0.01, 0.0, input, output, 0.001);
+    runContention("PIDController", locked, output, () -> {
+      locked.getError();
+      locked.getSetpoint();
+      locked.get();
+    }, readers);
+    locked.close();
+
+    GapOutput snapshotOutput = new GapOutput();
+    SnapshotPIDController snapshot = new SnapshotPIDController(0.1, 0.01, 0.0, input,
+        snapshotOutput, 0.001);
+    runContention("SnapshotPIDController", snapshot, snapshotOutput, () -> {
+      snapshot.getError();
+      snapshot.getSetpoint();
+      snapshot.get();
+    }, readers);
+    snapshot.close();
+  }
+}
@@ -0,0 +1,88 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimingStatsTest {
+  @Test
+  void emptyTest() {
+    TimingStats stats = new TimingStats(4);
+
+    assertAll(
+        () -> assertEquals(0, stats.getCount()),
+        () -> assertEquals(0, stats.getMin()),
+        () -> assertEquals(0, stats.getMax()),
+        () -> assertEquals(0.0, stats.getMean()),
+        () -> assertEquals(0, stats.getPercentile(0.99)),
+        () -> assertEquals(0, stats.getLast())
+    );
+  }
+
+  @Test
+  void statisticsTest() {
+    TimingStats stats = new TimingStats(100);
+    for (int i = 100; i >= 1; i--) {
+      stats.add(i);
+    }
+
+    assertAll(
+        () -> assertEquals(100, stats.getCount()),
+        () -> assertEquals(1, stats.getMin()),
+        () -> assertEquals(100, stats.getMax()),
+        () -> assertEquals(50.5, stats.getMean(), 1e-9),
+        () -> assertEquals(99, stats.getPercentile(0.99)),
+        () -> assertEquals(50, stats.getPercentile(0.5)),
+        () -> assertEquals(1, stats.getLast())
+    );
+  }
+
+  @Test
+  void rollingWindowTest() {
+    TimingStats stats = new TimingStats(3);
+    stats.add(1000);
+    stats.add(5);
+    stats.add(6);
+    stats.add(7);
+
+    assertAll(
+        () -> assertEquals(3, stats.getCount()),
+        () -> assertEquals(5, stats.getMin()),
+        () -> assertEquals(7, stats.getMax()),
+        () -> assertEquals(6.0, stats.getMean(), 1e-9),
+        () -> assertEquals(7, stats.getLast())
+    );
+
+    stats.reset();
+    assertEquals(0, stats.getCount());
+  }
+
+  @Test
+  void percentileAfterAddTest() {
+    TimingStats stats = new TimingStats(4);
+    stats.add(1);
+    stats.add(2);
+    assertEquals(2, stats.getPercentile(0.99));
+
+    stats.add(10);
+    assertEquals(10, stats.getPercentile(0.99));
+
+    stats.reset();
+    stats.add(3);
+    assertEquals(3, stats.getPercentile(0.99));
+  }
+
+  @Test
+  void invalidWindowTest() {
+    assertThrows(IllegalArgumentException.class, () -> new TimingStats(0));
+  }
+}
@@ -9,6 +9,7 @@ package edu.wpi.first.wpilibj;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
@@ -224,4 +225,101 @@ class WatchdogTest {
         "Watchdog either didn't trigger or triggered more than once");
     assertEquals(0, watchdogCounter2.get(), "Watchdog triggered early");
   }
+
+  @Test
+  void manyWatchdogsTest() {
+    final int count = 32;
+    final AtomicInteger[] watchdogCounters = new AtomicInteger[count];
+    final Watchdog[] watchdogs = new Watchdog[count];
+    for (int i = 0; i < count; i++) {
+      final AtomicInteger counter = new AtomicInteger(0);
+      watchdogCounters[i] = counter;
+      watchdogs[i] = new Watchdog(0.2, () -> {
+        counter.addAndGet(1);
+      });
+      watchdogs[i].suppressTimeoutMessage(true);
+    }
+
+    // Enable in reverse so the queue has to reorder entries, then disable every other watchdog and
+    // keep resetting the rest for longer than their timeout
+    for (int i = count - 1; i >= 0; i--) {
+      watchdogs[i].enable();
+    }
+    for (int i = 0; i < count; i += 2) {
+      watchdogs[i].disable();
+    }
+    for (int j = 0; j < 6; j++) {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      for (int i = 1; i < count; i += 2) {
+        watchdogs[i].reset();
+      }
+    }
+
+    for (int i = 0; i < count; i++) {
+      assertEquals(0, watchdogCounters[i].get(), "Watchdog " + i + " triggered early");
+    }
+
+    try {
+      Thread.sleep(400);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    for (int i = 0; i < count; i++) {
+      watchdogs[i].disable();
+    }
+
+    for (int i = 0; i < count; i++) {
+      assertEquals(i % 2 == 0 ? 0 : 1, watchdogCounters[i].get(),
+          "Watchdog " + i + " triggered the wrong number of times");
+    }
+  }
+
+  /**
+   * Times reset() and addEpoch() with 1, 32 and 256 enabled watchdogs, and prints the time per
+   * call. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void resetBenchmark() {
+    final int calls = 200000;
+    for (int count : new int[] {1, 32, 256}) {
+      final Watchdog[] watchdogs = new Watchdog[count];
+      for (int i = 0; i < count; i++) {
+        // Long enough that none expire while timing
+        watchdogs[i] = new Watchdog(100.0, () -> {
+        });
+        watchdogs[i].enable();
+      }
+
+      // The first rounds warm up the JIT and aren't printed
+      for (int round = 0; round < 8; round++) {
+        // Reset the watchdogs in turn, so each reset moves the soonest deadline to the back
+        long start = System.nanoTime();
+        for (int call = 0; call < calls; call++) {
+          watchdogs[call % count].reset();
+        }
+        final long resetTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int call = 0; call < calls; call++) {
+          watchdogs[call % count].addEpoch((call & 1) == 0 ? "robotPeriodic()" : "teleopPeriodic()");
+        }
+        final long epochTime = System.nanoTime() - start;
+
+        if (round >= 3) {
+          System.out.println("Watchdog, " + count + " enabled: reset " + resetTime / calls
+              + " ns/call, addEpoch " + epochTime / calls + " ns/call");
+        }
+      }
+
+      for (Watchdog watchdog : watchdogs) {
+        watchdog.close();
+      }
+    }
+  }
 }
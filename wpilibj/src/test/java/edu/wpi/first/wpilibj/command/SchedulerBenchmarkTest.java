@@ -0,0 +1,89 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.command;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Times {@link Scheduler#run()} and measures how much it allocates. Only runs with
+ * -PrunBenchmarks.
+ */
+@Tag("benchmark")
+class SchedulerBenchmarkTest extends AbstractCommandTest {
+  private static final int kSubsystems = 16;
+  private static final int kLoops = 100000;
+  private static final int kRounds = 8;
+
+  private static final com.sun.management.ThreadMXBean kThreadBean =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  /**
+   * Returns the number of bytes allocated so far by the calling thread.
+   */
+  private static long allocatedBytes() {
+    return kThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  @Test
+  @SuppressWarnings("PMD.SystemPrintln")
+  void runBenchmark() {
+    MockSubsystem[] subsystems = new MockSubsystem[kSubsystems];
+    MockCommand[] commands = new MockCommand[kSubsystems];
+    MockCommand[] others = new MockCommand[kSubsystems];
+    for (int i = 0; i < kSubsystems; i++) {
+      subsystems[i] = new MockSubsystem();
+      commands[i] = new MockCommand(subsystems[i]);
+      others[i] = new MockCommand(subsystems[i]);
+    }
+    Scheduler scheduler = Scheduler.getInstance();
+    long steadyBytes = 0;
+
+    for (int round = 0; round < kRounds; round++) {
+      scheduler.removeAll();
+      for (MockCommand command : commands) {
+        command.start();
+      }
+      scheduler.run();
+
+      // Commands keep running; nothing is added or removed
+      long bytes = allocatedBytes();
+      long start = System.nanoTime();
+      for (int loop = 0; loop < kLoops; loop++) {
+        scheduler.run();
+      }
+      final long steadyTime = System.nanoTime() - start;
+      steadyBytes = allocatedBytes() - bytes;
+
+      // Each loop starts a command which interrupts the one using its subsystem
+      bytes = allocatedBytes();
+      start = System.nanoTime();
+      for (int loop = 0; loop < kLoops; loop++) {
+        int index = loop % kSubsystems;
+        MockCommand[] set = (loop / kSubsystems) % 2 == 0 ? others : commands;
+        set[index].start();
+        scheduler.run();
+      }
+      final long churnTime = System.nanoTime() - start;
+      final long churnBytes = allocatedBytes() - bytes;
+
+      System.out.println("Scheduler.run(), " + kSubsystems + " commands: steady "
+          + steadyTime / kLoops + " ns/run, " + kLoops * 1000000000L / steadyTime + " runs/s, "
+          + (double) steadyBytes / kLoops + " bytes/run; with one supersede per run "
+          + churnTime / kLoops + " ns/run, " + kLoops * 1000000000L / churnTime + " runs/s, "
+          + (double) churnBytes / kLoops + " bytes/run");
+    }
+
+    // Once warmed up, running an unchanged set of commands must not allocate
+    assertEquals(0, steadyBytes, "bytes allocated by " + kLoops + " steady state runs");
+  }
+}
@@ -0,0 +1,135 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.command;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.smartdashboard.SendableBuilderImpl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchedulerProfilingTest extends AbstractCommandTest {
+  @AfterEach
+  void disableProfiling() {
+    Scheduler.getInstance().disableProfiling();
+  }
+
+  @Test
+  void notProfiledWhenDisabledTest() {
+    final MockSubsystem subsystem = new MockSubsystem();
+    final MockCommand command = new MockCommand(subsystem);
+
+    command.start();
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+
+    assertCommandState(command, 1, 1, 1, 0, 0);
+    assertNull(Scheduler.getInstance().getExecutionStats(command));
+    assertNull(Scheduler.getInstance().getPeriodicStats(subsystem));
+  }
+
+  @Test
+  void profiledWhenEnabledTest() {
+    final MockSubsystem subsystem = new MockSubsystem();
+    final MockCommand command = new MockCommand(subsystem);
+
+    Scheduler.getInstance().enableProfiling(3);
+    command.start();
+    for (int i = 0; i < 5; i++) {
+      Scheduler.getInstance().run();
+    }
+
+    assertCommandState(command, 1, 4, 4, 0, 0);
+    assertAll(
+        () -> assertTrue(Scheduler.getInstance().isProfilingEnabled()),
+        () -> assertEquals(3, Scheduler.getInstance().getExecutionStats(command).getCount()),
+        () -> assertEquals(3, Scheduler.getInstance().getPeriodicStats(subsystem).getCount()),
+        () -> assertTrue(Scheduler.getInstance().getExecutionStats(command).getMax() > 0)
+    );
+
+    Scheduler.getInstance().enableProfiling();
+    assertNull(Scheduler.getInstance().getExecutionStats(command));
+  }
+
+  @Test
+  void finishedCommandKeepsStatsTest() {
+    final MockSubsystem subsystem = new MockSubsystem();
+    final MockCommand command = new MockCommand(subsystem);
+
+    Scheduler.getInstance().enableProfiling(3);
+    command.start();
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+    command.setHasFinished(true);
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+
+    assertCommandState(command, 1, 2, 2, 1, 0);
+    assertEquals(2, Scheduler.getInstance().getExecutionStats(command).getCount());
+
+    // Restarting the command keeps adding to its statistics
+    command.setHasFinished(false);
+    command.start();
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+    assertEquals(3, Scheduler.getInstance().getExecutionStats(command).getCount());
+  }
+
+  @Test
+  void closedSubsystemUnlistedTest() {
+    // Subsystems created by other tests are still registered, so make sure this one is among the
+    // slowest and published
+    final MockSubsystem subsystem = new MockSubsystem() {
+      @Override
+      public void periodic() {
+        final long end = System.nanoTime() + 1000000;
+        while (System.nanoTime() < end) {
+          Thread.yield();
+        }
+      }
+    };
+    final MockCommand command = new MockCommand(subsystem);
+    subsystem.setName("Closed");
+
+    try (NetworkTableInstance inst = NetworkTableInstance.create()) {
+      final SendableBuilderImpl builder = new SendableBuilderImpl();
+      final NetworkTable table = inst.getTable("Scheduler");
+      builder.setTable(table);
+      Scheduler.getInstance().initSendable(builder);
+
+      Scheduler.getInstance().enableProfiling(3);
+      command.start();
+      Scheduler.getInstance().run();
+      Scheduler.getInstance().run();
+      builder.updateTable();
+      assertTrue(Arrays.asList(table.getEntry("Profile/Names").getStringArray(null))
+          .contains("Closed"));
+
+      subsystem.close();
+      Scheduler.getInstance().run();
+      builder.updateTable();
+      assertFalse(Arrays.asList(table.getEntry("Profile/Names").getStringArray(null))
+          .contains("Closed"));
+
+      // Closing only affects profiling; the subsystem keeps its command and statistics
+      assertCommandState(command, 1, 2, 2, 0, 0);
+      assertSame(command, subsystem.getCurrentCommand());
+      assertEquals(3, Scheduler.getInstance().getPeriodicStats(subsystem).getCount());
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.command;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests requirement tracking in the {@link Scheduler} when more subsystems are registered than fit
+ * in a single requirement word.
+ */
+class SchedulerRequirementsTest extends AbstractCommandTest {
+  private static final int kSubsystemCount = 130;
+
+  private static MockSubsystem[] createSubsystems() {
+    MockSubsystem[] subsystems = new MockSubsystem[kSubsystemCount];
+    for (int i = 0; i < subsystems.length; i++) {
+      subsystems[i] = new MockSubsystem();
+    }
+    return subsystems;
+  }
+
+  @Test
+  void supersedeAcrossRequirementWordsTest() {
+    final MockSubsystem[] subsystems = createSubsystems();
+
+    final MockCommand command1 = new MockCommand(subsystems[0]);
+    command1.requires(subsystems[kSubsystemCount - 1]);
+    final MockCommand command2 = new MockCommand(subsystems[kSubsystemCount - 1]);
+    final MockCommand command3 = new MockCommand(subsystems[70]);
+
+    command1.start();
+    command3.start();
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+    assertCommandState(command1, 1, 1, 1, 0, 0);
+    assertCommandState(command3, 1, 1, 1, 0, 0);
+    assertEquals(command1, subsystems[0].getCurrentCommand());
+    assertEquals(command1, subsystems[kSubsystemCount - 1].getCurrentCommand());
+
+    command2.start();
+    Scheduler.getInstance().run();
+    assertAll(
+        () -> assertCommandState(command1, 1, 2, 2, 0, 1),
+        () -> assertCommandState(command3, 1, 2, 2, 0, 0),
+        () -> assertNull(subsystems[0].getCurrentCommand()),
+        () -> assertEquals(command2, subsystems[kSubsystemCount - 1].getCurrentCommand()),
+        () -> assertEquals(command3, subsystems[70].getCurrentCommand())
+    );
+
+    Scheduler.getInstance().run();
+    assertCommandState(command1, 1, 2, 2, 0, 1);
+    assertCommandState(command2, 1, 1, 1, 0, 0);
+    assertCommandState(command3, 1, 3, 3, 0, 0);
+  }
+
+  @Test
+  void uninterruptibleAcrossRequirementWordsTest() {
+    final MockSubsystem[] subsystems = createSubsystems();
+
+    final MockCommand command1 = new MockCommand(subsystems[100]);
+    command1.setInterruptible(false);
+    final MockCommand command2 = new MockCommand(subsystems[1]);
+    command2.requires(subsystems[100]);
+
+    command1.start();
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+    command2.start();
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+    assertAll(
+        () -> assertCommandState(command1, 1, 3, 3, 0, 0),
+        () -> assertCommandState(command2, 0, 0, 0, 0, 0),
+        () -> assertNull(subsystems[1].getCurrentCommand()),
+        () -> assertEquals(command1, subsystems[100].getCurrentCommand())
+    );
+  }
+
+  @Test
+  void finishedCommandReleasesRequirementsTest() {
+    final MockSubsystem[] subsystems = createSubsystems();
+
+    final MockCommand command1 = new MockCommand(subsystems[5]);
+    final MockCommand command2 = new MockCommand(subsystems[80]);
+    final MockCommand command3 = new MockCommand(subsystems[120]);
+
+    command1.start();
+    command2.start();
+    command3.start();
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+    command2.setHasFinished(true);
+    Scheduler.getInstance().run();
+    assertAll(
+        () -> assertCommandState(command1, 1, 2, 2, 0, 0),
+        () -> assertCommandState(command2, 1, 2, 2, 1, 0),
+        () -> assertCommandState(command3, 1, 2, 2, 0, 0),
+        () -> assertNull(subsystems[80].getCurrentCommand())
+    );
+
+    command2.setHasFinished(false);
+    command2.start();
+    Scheduler.getInstance().run();
+    Scheduler.getInstance().run();
+    assertCommandState(command1, 1, 4, 4, 0, 0);
+    assertCommandState(command2, 2, 3, 3, 1, 0);
+    assertCommandState(command3, 1, 4, 4, 0, 0);
+    assertEquals(command2, subsystems[80].getCurrentCommand());
+  }
+}
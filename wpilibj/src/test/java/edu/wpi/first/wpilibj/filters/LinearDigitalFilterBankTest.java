@@ -0,0 +1,104 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import edu.wpi.first.wpilibj.PIDSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LinearDigitalFilterBankTest {
+  private static final int kChannels = 10;
+
+  private static Stream<Arguments> filterArguments() {
+    return Stream.of(
+        Arguments.of("singlePoleIIR",
+            LinearDigitalFilterBank.singlePoleIIR(kChannels, 0.1, 0.005),
+            (Function<PIDSource, LinearDigitalFilter>)
+                source -> LinearDigitalFilter.singlePoleIIR(source, 0.1, 0.005)),
+        Arguments.of("highPass",
+            LinearDigitalFilterBank.highPass(kChannels, 0.1, 0.005),
+            (Function<PIDSource, LinearDigitalFilter>)
+                source -> LinearDigitalFilter.highPass(source, 0.1, 0.005)),
+        Arguments.of("movingAverage",
+            LinearDigitalFilterBank.movingAverage(kChannels, 13),
+            (Function<PIDSource, LinearDigitalFilter>)
+                source -> LinearDigitalFilter.movingAverage(source, 13)),
+        Arguments.of("general",
+            new LinearDigitalFilterBank(kChannels, new double[] {0.5, 0.3, 0.2},
+                new double[] {-0.4, 0.1}),
+            (Function<PIDSource, LinearDigitalFilter>)
+                source -> new LinearDigitalFilter(source, new double[] {0.5, 0.3, 0.2},
+                    new double[] {-0.4, 0.1}))
+    );
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("filterArguments")
+  void matchesSingleChannelFiltersTest(String name, LinearDigitalFilterBank bank,
+                                       Function<PIDSource, LinearDigitalFilter> factory) {
+    MockPIDSource[] sources = new MockPIDSource[kChannels];
+    LinearDigitalFilter[] filters = new LinearDigitalFilter[kChannels];
+    for (int c = 0; c < kChannels; c++) {
+      sources[c] = new MockPIDSource();
+      filters[c] = factory.apply(sources[c]);
+    }
+
+    Random random = new Random(kChannels);
+    double[] in = new double[kChannels];
+    double[] out = new double[kChannels];
+    for (int round = 0; round < 2; round++) {
+      for (int n = 0; n < 500; n++) {
+        for (int c = 0; c < kChannels; c++) {
+          in[c] = random.nextGaussian() + c;
+          sources[c].m_value = in[c];
+        }
+        bank.update(in, out);
+        for (int c = 0; c < kChannels; c++) {
+          assertEquals(filters[c].pidGet(), out[c], 1e-9, "channel " + c + ", sample " + n);
+        }
+      }
+
+      bank.reset();
+      for (LinearDigitalFilter filter : filters) {
+        filter.reset();
+      }
+    }
+  }
+
+  @Test
+  void inPlaceUpdateTest() {
+    LinearDigitalFilterBank bank = LinearDigitalFilterBank.highPass(2, 0.1, 0.005);
+    LinearDigitalFilterBank reference = LinearDigitalFilterBank.highPass(2, 0.1, 0.005);
+    double[] values = new double[2];
+    double[] out = new double[2];
+    for (int n = 0; n < 50; n++) {
+      values[0] = n;
+      values[1] = -n;
+      reference.update(values, out);
+      bank.update(values, values);
+      assertEquals(out[0], values[0], 1e-12);
+      assertEquals(out[1], values[1], 1e-12);
+    }
+  }
+
+  @Test
+  void shortArrayTest() {
+    LinearDigitalFilterBank bank = LinearDigitalFilterBank.movingAverage(3, 4);
+    assertThrows(IllegalArgumentException.class, () -> bank.update(new double[2], new double[3]));
+  }
+}
@@ -0,0 +1,156 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.wpi.first.wpilibj.CircularBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LinearDigitalFilterTest {
+  /**
+   * Evaluates y[n] = sum(b[i] * x[n - i]) - sum(a[i] * y[n - 1 - i]) directly.
+   */
+  private static double[] reference(double[] inputs, double[] ffGains, double[] fbGains) {
+    double[] outputs = new double[inputs.length];
+    for (int n = 0; n < inputs.length; n++) {
+      double value = 0.0;
+      for (int i = 0; i < ffGains.length && n - i >= 0; i++) {
+        value += ffGains[i] * inputs[n - i];
+      }
+      for (int i = 0; i < fbGains.length && n - 1 - i >= 0; i++) {
+        value -= fbGains[i] * outputs[n - 1 - i];
+      }
+      outputs[n] = value;
+    }
+    return outputs;
+  }
+
+  private static double[] randomInputs(int count) {
+    Random random = new Random(count);
+    double[] inputs = new double[count];
+    for (int i = 0; i < count; i++) {
+      inputs[i] = random.nextGaussian();
+    }
+    return inputs;
+  }
+
+  private static void assertMatchesReference(LinearDigitalFilter filter, MockPIDSource source,
+                                             double[] ffGains, double[] fbGains) {
+    double[] inputs = randomInputs(2000);
+    double[] expected = reference(inputs, ffGains, fbGains);
+    for (int n = 0; n < inputs.length; n++) {
+      source.m_value = inputs[n];
+      assertEquals(expected[n], filter.pidGet(), 1e-9, "sample " + n);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 8, 50, 64, 512})
+  void movingAverageTest(int taps) {
+    MockPIDSource source = new MockPIDSource();
+    LinearDigitalFilter filter = LinearDigitalFilter.movingAverage(source, taps);
+    double[] ffGains = IntStream.range(0, taps).mapToDouble(i -> 1.0 / taps).toArray();
+    assertMatchesReference(filter, source, ffGains, new double[0]);
+
+    filter.reset();
+    assertEquals(0.0, filter.get());
+    assertMatchesReference(filter, source, ffGains, new double[0]);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 8, 64, 512})
+  void firTest(int taps) {
+    MockPIDSource source = new MockPIDSource();
+    double[] ffGains = randomInputs(taps);
+    LinearDigitalFilter filter = new LinearDigitalFilter(source, ffGains, new double[0]);
+    assertMatchesReference(filter, source, ffGains, new double[0]);
+  }
+
+  @ParameterizedTest
+  @ValueSource(doubles = {0.01, 0.1, 1.0})
+  void iirTest(double timeConstant) {
+    MockPIDSource source = new MockPIDSource();
+    double gain = Math.exp(-0.005 / timeConstant);
+    LinearDigitalFilter filter = LinearDigitalFilter.highPass(source, timeConstant, 0.005);
+    assertMatchesReference(filter, source, new double[] {gain, -gain}, new double[] {-gain});
+  }
+
+  /**
+   * Times FIR and moving average filters of 1, 8, 64 and 512 taps against the previous
+   * implementation, which indexed a {@link CircularBuffer} with a modulo per tap, and prints the
+   * fastest time per sample. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void filterBenchmark() {
+    final int samples = 20000;
+    // Rounds which aren't timed, so every loop is JIT compiled before it is measured
+    final int warmupRounds = 20;
+    final int rounds = 10;
+    final double[] inputs = randomInputs(samples);
+    System.out.println("LinearDigitalFilter ns per sample (previous / current / moving average):");
+    for (int taps : new int[] {1, 8, 64, 512}) {
+      final double[] ffGains = randomInputs(taps);
+      final CircularBuffer buffer = new CircularBuffer(taps);
+      final MockPIDSource source = new MockPIDSource();
+      final LinearDigitalFilter fir = new LinearDigitalFilter(source, ffGains, new double[0]);
+      final LinearDigitalFilter average = LinearDigitalFilter.movingAverage(source, taps);
+
+      double check = 0.0;
+      long previousNanos = Long.MAX_VALUE;
+      long firNanos = Long.MAX_VALUE;
+      long averageNanos = Long.MAX_VALUE;
+      for (int round = 0; round < warmupRounds + rounds; round++) {
+        // Previous implementation
+        long start = System.nanoTime();
+        for (double input : inputs) {
+          buffer.addFirst(input);
+          double value = 0.0;
+          for (int i = 0; i < taps; i++) {
+            value += buffer.get(i) * ffGains[i];
+          }
+          check += value;
+        }
+        final long previousTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (double input : inputs) {
+          source.m_value = input;
+          check -= fir.pidGet();
+        }
+        final long firTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (double input : inputs) {
+          source.m_value = input;
+          average.pidGet();
+        }
+        final long averageTime = System.nanoTime() - start;
+
+        if (round >= warmupRounds) {
+          previousNanos = Math.min(previousNanos, previousTime);
+          firNanos = Math.min(firNanos, firTime);
+          averageNanos = Math.min(averageNanos, averageTime);
+        }
+      }
+
+      System.out.println("  " + taps + " taps: " + previousNanos / samples + " / "
+          + firNanos / samples + " / " + averageNanos / samples);
+      assertEquals(0.0, check, 1e-6 * samples * taps);
+    }
+  }
+}
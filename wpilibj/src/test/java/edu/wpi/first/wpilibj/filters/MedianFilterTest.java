@@ -0,0 +1,120 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MedianFilterTest {
+  /**
+   * Returns the median of the samples in the window ending at index n by sorting them.
+   */
+  private static double naiveMedian(double[] inputs, int n, int size, double[] scratch) {
+    int start = Math.max(0, n - size + 1);
+    int count = n - start + 1;
+    System.arraycopy(inputs, start, scratch, 0, count);
+    Arrays.sort(scratch, 0, count);
+    if (count % 2 == 1) {
+      return scratch[count / 2];
+    }
+    return (scratch[count / 2 - 1] + scratch[count / 2]) / 2.0;
+  }
+
+  private static double[] noisyInputs(int count) {
+    Random random = new Random(count);
+    double[] inputs = new double[count];
+    for (int i = 0; i < count; i++) {
+      // Quantized values produce ties, and occasional spikes mimic bad ultrasonic readings
+      inputs[i] = Math.round(random.nextGaussian() * 4) / 4.0;
+      if (random.nextInt(20) == 0) {
+        inputs[i] += 100.0;
+      }
+    }
+    return inputs;
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 3, 4, 5, 10, 25, 101})
+  void matchesSortedWindowTest(int size) {
+    MockPIDSource source = new MockPIDSource();
+    MedianFilter filter = new MedianFilter(source, size);
+    double[] inputs = noisyInputs(1000);
+    double[] scratch = new double[size];
+
+    for (int round = 0; round < 2; round++) {
+      for (int n = 0; n < inputs.length; n++) {
+        source.m_value = inputs[n];
+        assertEquals(naiveMedian(inputs, n, size, scratch), filter.pidGet(), 1e-12,
+            "sample " + n);
+      }
+      filter.reset();
+      assertEquals(0.0, filter.get());
+    }
+  }
+
+  @Test
+  void spikeRejectionTest() {
+    MockPIDSource source = new MockPIDSource();
+    MedianFilter filter = new MedianFilter(source, 5);
+    double[] inputs = {1.0, 1.0, 50.0, 1.0, 1.0, 1.0, -50.0, 1.0};
+    double output = 0.0;
+    for (double input : inputs) {
+      source.m_value = input;
+      output = filter.pidGet();
+    }
+    assertEquals(1.0, output);
+    assertEquals(1.0, filter.get());
+  }
+
+  /**
+   * Times the median filter against sorting the window each sample and prints the time per
+   * sample. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void medianBenchmark() {
+    final double[] inputs = noisyInputs(20000);
+    System.out.println("MedianFilter ns per sample (sort each sample / MedianFilter):");
+    for (int size : new int[] {5, 25, 101, 501}) {
+      final double[] scratch = new double[size];
+      final MockPIDSource source = new MockPIDSource();
+      final MedianFilter filter = new MedianFilter(source, size);
+
+      long naiveNanos = 0;
+      long filterNanos = 0;
+      double check = 0.0;
+      for (int run = 0; run < 3; run++) {
+        long start = System.nanoTime();
+        for (int n = 0; n < inputs.length; n++) {
+          check += naiveMedian(inputs, n, size, scratch);
+        }
+        naiveNanos = System.nanoTime() - start;
+
+        filter.reset();
+        start = System.nanoTime();
+        for (double input : inputs) {
+          source.m_value = input;
+          check -= filter.pidGet();
+        }
+        filterNanos = System.nanoTime() - start;
+      }
+
+      System.out.println("  window " + size + ": " + naiveNanos / inputs.length + " / "
+          + filterNanos / inputs.length);
+      assertEquals(0.0, check, 1e-6);
+    }
+  }
+}
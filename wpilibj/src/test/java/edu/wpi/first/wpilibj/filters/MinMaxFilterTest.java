@@ -0,0 +1,100 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MinMaxFilterTest {
+  private static double[] randomInputs(int count) {
+    Random random = new Random(count);
+    double[] inputs = new double[count];
+    for (int i = 0; i < count; i++) {
+      inputs[i] = random.nextInt(50);
+    }
+    return inputs;
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 7, 64})
+  void matchesWindowScanTest(int size) {
+    MockPIDSource source = new MockPIDSource();
+    MinMaxFilter minFilter = MinMaxFilter.minimum(source, size);
+    MinMaxFilter maxFilter = MinMaxFilter.maximum(source, size);
+    double[] inputs = randomInputs(1000);
+
+    for (int round = 0; round < 2; round++) {
+      for (int n = 0; n < inputs.length; n++) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = Math.max(0, n - size + 1); i <= n; i++) {
+          min = Math.min(min, inputs[i]);
+          max = Math.max(max, inputs[i]);
+        }
+
+        source.m_value = inputs[n];
+        assertEquals(min, minFilter.pidGet(), "sample " + n);
+        assertEquals(max, maxFilter.pidGet(), "sample " + n);
+        assertEquals(max, minFilter.getMax(), "sample " + n);
+        assertEquals(min, maxFilter.getMin(), "sample " + n);
+      }
+      minFilter.reset();
+      maxFilter.reset();
+      assertEquals(0.0, maxFilter.get());
+    }
+  }
+
+  /**
+   * Times the maximum filter against scanning the window each sample and prints the time per
+   * sample. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void maximumBenchmark() {
+    final double[] inputs = randomInputs(20000);
+    System.out.println("MinMaxFilter ns per sample (scan each sample / MinMaxFilter):");
+    for (int size : new int[] {5, 25, 101, 501}) {
+      final MockPIDSource source = new MockPIDSource();
+      final MinMaxFilter filter = MinMaxFilter.maximum(source, size);
+
+      long naiveNanos = 0;
+      long filterNanos = 0;
+      double check = 0.0;
+      for (int run = 0; run < 3; run++) {
+        long start = System.nanoTime();
+        for (int n = 0; n < inputs.length; n++) {
+          double max = Double.NEGATIVE_INFINITY;
+          for (int i = Math.max(0, n - size + 1); i <= n; i++) {
+            max = Math.max(max, inputs[i]);
+          }
+          check += max;
+        }
+        naiveNanos = System.nanoTime() - start;
+
+        filter.reset();
+        start = System.nanoTime();
+        for (double input : inputs) {
+          source.m_value = input;
+          check -= filter.pidGet();
+        }
+        filterNanos = System.nanoTime() - start;
+      }
+
+      System.out.println("  window " + size + ": " + naiveNanos / inputs.length + " / "
+          + filterNanos / inputs.length);
+      assertEquals(0.0, check, 1e-6);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.filters;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StandardDeviationFilterTest {
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 10, 100})
+  void matchesTwoPassTest(int size) {
+    MockPIDSource source = new MockPIDSource();
+    StandardDeviationFilter filter = new StandardDeviationFilter(source, size);
+    Random random = new Random(size);
+    double[] inputs = new double[2000];
+    for (int i = 0; i < inputs.length; i++) {
+      // A large offset makes naive sum-of-squares formulas lose precision
+      inputs[i] = 1000.0 + random.nextGaussian() * (1 + i / 500);
+    }
+
+    for (int n = 0; n < inputs.length; n++) {
+      int start = Math.max(0, n - size + 1);
+      int count = n - start + 1;
+      double mean = 0.0;
+      for (int i = start; i <= n; i++) {
+        mean += inputs[i];
+      }
+      mean /= count;
+      double variance = 0.0;
+      for (int i = start; i <= n; i++) {
+        variance += (inputs[i] - mean) * (inputs[i] - mean);
+      }
+      variance /= count;
+
+      source.m_value = inputs[n];
+      assertEquals(Math.sqrt(variance), filter.pidGet(), 1e-7, "sample " + n);
+      assertEquals(mean, filter.getMean(), 1e-9, "sample " + n);
+      assertEquals(variance, filter.getVariance(), 1e-7, "sample " + n);
+    }
+  }
+
+  @Test
+  void constantSignalTest() {
+    MockPIDSource source = new MockPIDSource();
+    StandardDeviationFilter filter = new StandardDeviationFilter(source, 8);
+    source.m_value = 0.1;
+    for (int i = 0; i < 100; i++) {
+      assertEquals(0.0, filter.pidGet(), 1e-12);
+    }
+    assertEquals(0.1, filter.getMean(), 1e-12);
+
+    filter.reset();
+    assertEquals(0.0, filter.get());
+    assertEquals(0.0, filter.getMean());
+  }
+}
@@ -7,14 +7,21 @@
 
 package edu.wpi.first.wpilibj.shuffleboard;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.SendableBase;
+import edu.wpi.first.wpilibj.smartdashboard.SendableBuilder;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -112,4 +119,116 @@ public class ShuffleboardInstanceTest {
     assertFalse(controllable, "The nested actuator widget should have been disabled");
   }
 
+  @Test
+  void testMetadataOnlyPushedWhenChanged() {
+    SimpleWidget widget = m_shuffleboardInstance.getTab("Tab")
+                                                .add("Value", 0.0)
+                                                .withSize(2, 1);
+    m_shuffleboardInstance.update();
+    NetworkTableEntry sizeEntry = m_ntInstance.getEntry("/Shuffleboard/.metadata/Tab/Value/Size");
+    assertArrayEquals(new double[]{2, 1}, sizeEntry.getDoubleArray(new double[0]));
+
+    // Unchanged metadata is not pushed again
+    sizeEntry.delete();
+    m_shuffleboardInstance.update();
+    assertFalse(sizeEntry.exists(), "Unchanged metadata should not be pushed");
+
+    widget.withSize(3, 2);
+    m_shuffleboardInstance.update();
+    assertArrayEquals(new double[]{3, 2}, sizeEntry.getDoubleArray(new double[0]));
+  }
+
+  @Test
+  void testComponentsAddedAfterUpdateAreBuilt() {
+    ShuffleboardLayout layout = m_shuffleboardInstance.getTab("Tab").getLayout("Layout", "List");
+    m_shuffleboardInstance.update();
+    layout.add("Late", "value").withPosition(1, 2);
+    m_shuffleboardInstance.update();
+    NetworkTableEntry positionEntry =
+        m_ntInstance.getEntry("/Shuffleboard/.metadata/Tab/Layout/Late/Position");
+    assertArrayEquals(new double[]{1, 2}, positionEntry.getDoubleArray(new double[0]));
+  }
+
+  @Test
+  void testLiveValuesUpdatedEveryLoop() {
+    CounterSendable sendable = new CounterSendable("Counter");
+    m_shuffleboardInstance.getTab("Tab").add(sendable);
+    NetworkTableEntry countEntry = m_ntInstance.getEntry("/Shuffleboard/Tab/Counter/Count");
+    m_shuffleboardInstance.update();
+    m_shuffleboardInstance.update();
+    assertEquals(2.0, countEntry.getDouble(0.0));
+  }
+
+  @Test
+  void testTypesRepublishedAfterDelete() {
+    m_shuffleboardInstance.getTab("Tab").getLayout("Layout", "List").add("Data", 0.0);
+    m_shuffleboardInstance.update();
+    NetworkTableEntry tabType = m_ntInstance.getEntry("/Shuffleboard/Tab/.type");
+    NetworkTableEntry layoutType = m_ntInstance.getEntry("/Shuffleboard/Tab/Layout/.type");
+
+    m_ntInstance.deleteAllEntries();
+    assertFalse(tabType.exists());
+    m_shuffleboardInstance.update();
+    assertAll(
+        () -> assertEquals("ShuffleboardTab", tabType.getString(null)),
+        () -> assertEquals("ShuffleboardLayout", layoutType.getString(null)));
+  }
+
+  /**
+   * Times updates with unchanged metadata and with every widget moving on every loop, and prints
+   * the time per update. Only runs with -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void updateBenchmark() {
+    final int loops = 2000;
+    List<ShuffleboardComponent<?>> components = new ArrayList<>();
+    for (int t = 0; t < 10; t++) {
+      ShuffleboardTab tab = m_shuffleboardInstance.getTab("Tab " + t);
+      for (int w = 0; w < 20; w++) {
+        tab.add("Simple " + w, 0.0).withSize(1, 1).withPosition(w % 10, w / 10);
+      }
+      for (int w = 0; w < 10; w++) {
+        tab.add(new CounterSendable("Complex " + w)).withSize(2, 2).withPosition(w, 2);
+      }
+      components.addAll(tab.getComponents());
+    }
+    m_shuffleboardInstance.update();
+
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < loops; i++) {
+        m_shuffleboardInstance.update();
+      }
+      final long steady = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < loops; i++) {
+        for (ShuffleboardComponent<?> component : components) {
+          component.withPosition(i % 10, 0);
+        }
+        m_shuffleboardInstance.update();
+      }
+      final long dirty = System.nanoTime() - start;
+
+      System.out.println("Shuffleboard update, 10 tabs x 30 widgets: unchanged metadata "
+          + steady / loops / 1000 + " us/loop, all metadata changed "
+          + dirty / loops / 1000 + " us/loop");
+    }
+  }
+
+  private static final class CounterSendable extends SendableBase {
+    private int m_count;
+
+    CounterSendable(String name) {
+      super(false);
+      setName(name);
+    }
+
+    @Override
+    public void initSendable(SendableBuilder builder) {
+      builder.addDoubleProperty("Count", () -> ++m_count, null);
+    }
+  }
 }
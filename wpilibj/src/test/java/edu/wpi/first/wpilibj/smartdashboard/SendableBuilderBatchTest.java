@@ -0,0 +1,189 @@
+/*----------------------------------------------------------------------------*/
+/* Copyright (c) 2018 FIRST. All Rights Reserved.                             */
+/* Open Source Software - may be modified and shared by FRC teams. The code   */
+/* must be accompanied by the FIRST BSD license file in the root directory of */
+/* the project.                                                               */
+/*----------------------------------------------------------------------------*/
+
+package edu.wpi.first.wpilibj.smartdashboard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.EntryBatch;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests change detection and batching in {@link SendableBuilderImpl#updateTable(EntryBatch)}.
+ */
+class SendableBuilderBatchTest {
+  private NetworkTableInstance m_inst;
+  private NetworkTable m_table;
+  private double m_doubleValue;
+  private boolean m_booleanValue;
+  private String m_stringValue = "";
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+    m_table = m_inst.getTable("test");
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  private SendableBuilderImpl createBuilder(NetworkTable table) {
+    SendableBuilderImpl builder = new SendableBuilderImpl();
+    builder.setTable(table);
+    builder.addDoubleProperty("double", () -> m_doubleValue, null);
+    builder.addBooleanProperty("boolean", () -> m_booleanValue, null);
+    builder.addStringProperty("string", () -> m_stringValue, null);
+    return builder;
+  }
+
+  @Test
+  void unchangedValuesSkippedTest() {
+    final SendableBuilderImpl builder = createBuilder(m_table);
+    final EntryBatch batch = new EntryBatch();
+
+    builder.updateTable(batch);
+    assertEquals(2, batch.size());
+    batch.flush();
+
+    builder.updateTable(batch);
+    assertEquals(0, batch.size());
+
+    m_doubleValue = 1.5;
+    builder.updateTable(batch);
+    assertEquals(1, batch.size());
+    assertEquals(0.0, m_table.getEntry("double").getDouble(-1));
+    batch.flush();
+    assertEquals(1.5, m_table.getEntry("double").getDouble(-1));
+
+    m_booleanValue = true;
+    m_stringValue = "changed";
+    builder.updateTable(batch);
+    assertEquals(1, batch.size());
+    assertEquals("changed", m_table.getEntry("string").getString(""));
+    batch.flush();
+    assertTrue(m_table.getEntry("boolean").getBoolean(false));
+  }
+
+  @Test
+  void unbatchedUpdateInvalidatesCacheTest() {
+    final SendableBuilderImpl builder = createBuilder(m_table);
+    final EntryBatch batch = new EntryBatch();
+
+    builder.updateTable(batch);
+    batch.flush();
+
+    // A remote change is only restored by an unbatched update, after which the next batched update
+    // publishes everything again
+    m_table.getEntry("double").setDouble(3.0);
+    builder.updateTable(batch);
+    assertEquals(0, batch.size());
+    assertEquals(3.0, m_table.getEntry("double").getDouble(-1));
+
+    builder.updateTable();
+    assertEquals(0.0, m_table.getEntry("double").getDouble(-1));
+    builder.updateTable(batch);
+    assertEquals(2, batch.size());
+  }
+
+  @Test
+  void nanUnchangedTest() {
+    final SendableBuilderImpl builder = createBuilder(m_table);
+    final EntryBatch batch = new EntryBatch();
+
+    m_doubleValue = Double.NaN;
+    builder.updateTable(batch);
+    batch.flush();
+    builder.updateTable(batch);
+    assertEquals(0, batch.size());
+  }
+
+  private static void changeValues(double[] values, int loop) {
+    for (int i = loop % 10; i < values.length; i += 10) {
+      values[i] = (values[i] + 0.37) % 1.0;
+    }
+  }
+
+  /**
+   * Publishes 200 sendables with five properties each, a tenth of which change each loop, and
+   * prints the NetworkTables calls and time per loop with and without batching. Only runs with
+   * -PrunBenchmarks.
+   */
+  @Test
+  @Tag("benchmark")
+  @SuppressWarnings("PMD.SystemPrintln")
+  void updateBenchmark() {
+    final int sendableCount = 200;
+    final int loops = 500;
+    final double[] values = new double[sendableCount * 4];
+    final SendableBuilderImpl[] builders = new SendableBuilderImpl[sendableCount];
+    for (int i = 0; i < sendableCount; i++) {
+      final int base = i * 4;
+      builders[i] = new SendableBuilderImpl();
+      builders[i].setTable(m_table.getSubTable("sendable" + i));
+      for (int j = 0; j < 4; j++) {
+        final int index = base + j;
+        builders[i].addDoubleProperty("value" + j, () -> values[index], null);
+      }
+      builders[i].addBooleanProperty("flag", () -> values[base] > 0.5, null);
+    }
+    final int propertyCount = sendableCount * 5;
+
+    // Warm up both paths before timing either
+    final EntryBatch batch = new EntryBatch();
+    for (int loop = 0; loop < 100; loop++) {
+      changeValues(values, loop);
+      for (SendableBuilderImpl builder : builders) {
+        builder.updateTable();
+        builder.updateTable(batch);
+      }
+      batch.flush();
+    }
+
+    long unbatchedNanos = 0;
+    for (int loop = 0; loop < loops; loop++) {
+      changeValues(values, loop);
+      long start = System.nanoTime();
+      for (SendableBuilderImpl builder : builders) {
+        builder.updateTable();
+      }
+      unbatchedNanos += System.nanoTime() - start;
+    }
+
+    long batchedNanos = 0;
+    long batchedValues = 0;
+    for (int loop = 0; loop < loops; loop++) {
+      changeValues(values, loop);
+      long start = System.nanoTime();
+      for (SendableBuilderImpl builder : builders) {
+        builder.updateTable(batch);
+      }
+      batchedValues += batch.size();
+      batch.flush();
+      batchedNanos += System.nanoTime() - start;
+    }
+
+    System.out.println("SendableBuilderImpl update, " + sendableCount + " sendables:");
+    System.out.println("  unbatched: " + propertyCount + " native calls, "
+        + unbatchedNanos / loops / 1000 + " us per loop");
+    System.out.println("  batched:   1 native call (" + batchedValues / loops + " changed values), "
+        + batchedNanos / loops / 1000 + " us per loop");
+
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(values[i],
+          m_table.getSubTable("sendable" + i / 4).getEntry("value" + i % 4).getDouble(-1));
+    }
+  }
+}